@@ -0,0 +1,58 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.cbor;
+
+import org.jooby.MediaType;
+import org.jooby.jackson.JacksonBinaryModule;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+/**
+ * <a href="http://cbor.io">CBOR</a> (Concise Binary Object Representation, RFC 7049) body parser
+ * and formatter. See {@link JacksonBinaryModule} for content negotiation.
+ *
+ * <pre>
+ * {
+ *   use(new Json());
+ *   use(new Cbor());
+ *
+ *   get("/events", req {@literal ->} events());
+ * }
+ * </pre>
+ *
+ * Clients asking for <code>application/cbor</code> get CBOR bytes, everybody else gets json.
+ *
+ * @author edgar
+ * @since 0.4.0
+ */
+public class Cbor extends JacksonBinaryModule<Cbor> {
+
+  /** CBOR media type. */
+  public static final MediaType CBOR = MediaType.valueOf("application/cbor");
+
+  public Cbor(final ObjectMapper mapper) {
+    super("cbor", mapper, CBOR);
+  }
+
+  public Cbor() {
+    this(new ObjectMapper(new CBORFactory()));
+  }
+
+}
@@ -0,0 +1,48 @@
+package org.jooby.cbor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.entity.ContentType;
+import org.apache.http.util.EntityUtils;
+import org.jooby.jackson.Json;
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.inject.TypeLiteral;
+
+public class CborFeature extends ServerFeature {
+
+  private static final ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+
+  {
+    use(new Json());
+
+    use(new Cbor());
+
+    post("/members", req -> req.body(new TypeLiteral<List<Map<String, Object>>>() {
+    }));
+  }
+
+  @Test
+  public void roundTrip() throws Exception {
+    byte[] body = cbor.writeValueAsBytes(
+        Lists.newArrayList(ImmutableMap.of("id", 2, "name", "vilma")));
+    HttpResponse rsp = Request.Post(uri("members").build())
+        .bodyByteArray(body, ContentType.create(Cbor.CBOR.name()))
+        .addHeader("Accept", Cbor.CBOR.name())
+        .execute().returnResponse();
+    assertEquals(Cbor.CBOR.name(), rsp.getFirstHeader("Content-Type").getValue());
+    assertEquals("[{id=2, name=vilma}]",
+        cbor.readValue(EntityUtils.toByteArray(rsp.getEntity()), List.class).toString());
+  }
+
+}
@@ -29,6 +29,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Provider;
 import javax.persistence.EntityManager;
@@ -65,6 +66,9 @@ import com.typesafe.config.ConfigFactory;
 
 public class Hbm extends Jdbc {
 
+  /** JPA query timeout hint, in millis. */
+  private static final String QUERY_TIMEOUT = "javax.persistence.query.timeout";
+
   private final List<Class<?>> classes = new LinkedList<>();
 
   private boolean scan = false;
@@ -123,6 +127,13 @@ public class Hbm extends Jdbc {
   private static Route.Filter readWriteTrx(final Key<EntityManager> key, final Logger log) {
     return (req, resp, chain) -> {
       EntityManager em = req.getInstance(key);
+      req.deadline().ifPresent(deadline -> {
+        long timeout = deadline.timeLeft(TimeUnit.MILLISECONDS);
+        log.debug("setting query timeout to: {}ms", timeout);
+        // hibernate copies the property as query hint, and hints must be integers
+        em.setProperty(QUERY_TIMEOUT,
+            Integer.valueOf((int) Math.max(1, Math.min(Integer.MAX_VALUE, timeout))));
+      });
       Session session = (Session) em.getDelegate();
       FlushMode flushMode = FlushMode.AUTO;
       log.debug("setting flush mode to: {}", flushMode);
@@ -31,6 +31,17 @@ public class HbmFeature extends ServerFeature {
       return query.getResultList();
     });
 
+    get("/members/timeout", req -> {
+      EntityManager em = req.getInstance(EntityManager.class);
+      Object timeout = em.getProperties().get("javax.persistence.query.timeout");
+      // query hint must be accepted by hibernate
+      Query query = em.createQuery("from Member");
+      query.getResultList();
+      Object hint = query.getHints().get("javax.persistence.query.timeout");
+      return timeout instanceof Integer && (Integer) timeout > 0 && (Integer) timeout <= 5000
+          && hint != null;
+    }).timeout(5000);
+
     post("/members", (req, rsp, chain) -> {
       Member member = req.params(Member.class);
       EntityManager em = req.getInstance(EntityManager.class);
@@ -44,6 +55,12 @@ public class HbmFeature extends ServerFeature {
       });
   }
 
+  @Test
+  public void queryTimeout() throws Exception {
+    assertEquals("true", Request.Get(uri("members", "timeout").build()).execute()
+        .returnContent().asString());
+  }
+
   @Test
   public void hbm() throws URISyntaxException, Exception {
     assertEquals("[]", Request.Get(uri("members").build()).execute().returnContent().asString());
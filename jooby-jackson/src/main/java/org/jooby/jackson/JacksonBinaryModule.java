@@ -0,0 +1,132 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.jackson;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.jooby.Body;
+import org.jooby.Env;
+import org.jooby.Jooby;
+import org.jooby.MediaType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Binder;
+import com.google.inject.Key;
+import com.google.inject.multibindings.Multibinder;
+import com.google.inject.name.Names;
+import com.typesafe.config.Config;
+
+/**
+ * Base class for binary formats backed by a Jackson {@link ObjectMapper}, like smile or cbor.
+ *
+ * <p>
+ * A binary format is picked when clients ask for it explicitly, a <code>*</code>/<code>*</code>
+ * client gets json (or any other text format) regardless of the order modules were registered.
+ * The {@link ObjectMapper} is bound as <code>@Named(name)</code> and it is configured like the
+ * json mapper, including the Jackson modules bound by the application.
+ * </p>
+ *
+ * @author edgar
+ * @since 0.4.0
+ * @param <T> Module type.
+ */
+public abstract class JacksonBinaryModule<T extends JacksonBinaryModule<T>>
+    implements Jooby.Module {
+
+  private final String name;
+
+  private final ObjectMapper mapper;
+
+  private List<MediaType> types;
+
+  /**
+   * Creates a new {@link JacksonBinaryModule}.
+   *
+   * @param name Format's name, like: <code>smile</code>.
+   * @param mapper An object mapper for the format.
+   * @param type Default media type.
+   */
+  protected JacksonBinaryModule(final String name, final ObjectMapper mapper,
+      final MediaType type) {
+    this.name = requireNonNull(name, "A name is required.");
+    this.mapper = requireNonNull(mapper, "An object mapper is required.");
+    this.types = ImmutableList.of(requireNonNull(type, "A media type is required."));
+  }
+
+  /**
+   * Set the supported media types.
+   *
+   * @param types Media types.
+   * @return This module.
+   */
+  public T types(final MediaType... types) {
+    return types(ImmutableList.copyOf(types));
+  }
+
+  /**
+   * Set the supported media types.
+   *
+   * @param types Media types.
+   * @return This module.
+   */
+  @SuppressWarnings("unchecked")
+  public T types(final List<MediaType> types) {
+    this.types = ImmutableList.copyOf(types);
+    return (T) this;
+  }
+
+  /**
+   * Configure the {@link ObjectMapper}.
+   *
+   * @param block Configuration block.
+   * @return This module.
+   */
+  @SuppressWarnings("unchecked")
+  public T doWith(final Consumer<ObjectMapper> block) {
+    requireNonNull(block, "A " + name + " block is required.").accept(mapper);
+    return (T) this;
+  }
+
+  @Override
+  public void configure(final Env mode, final Config config, final Binder binder) {
+    JacksonBodyHandler handler = new JacksonBodyHandler(name, mapper, types, true);
+
+    binder.bind(Key.get(ObjectMapper.class, Names.named(name))).toInstance(mapper);
+
+    // same setup and Jackson modules as json
+    Json.configure(mapper, handler, config, binder);
+
+    Multibinder.newSetBinder(binder, Body.Formatter.class)
+        .addBinding()
+        .toInstance(handler);
+
+    Multibinder.newSetBinder(binder, Body.Parser.class)
+        .addBinding()
+        .toInstance(handler);
+
+    // direct access?
+    binder.bind(Key.get(Body.Formatter.class, Names.named(name))).toInstance(handler);
+    binder.bind(Key.get(Body.Parser.class, Names.named(name))).toInstance(handler);
+  }
+
+}
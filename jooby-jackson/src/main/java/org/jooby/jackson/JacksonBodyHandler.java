@@ -0,0 +1,255 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.jackson;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.jooby.Body;
+import org.jooby.MediaType;
+import org.jooby.Route;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.TypeLiteral;
+
+/**
+ * A {@link Body.Parser} and {@link Body.Formatter} backed by an {@link ObjectMapper}. Text formats
+ * (json) are read and written as UTF-8 bytes when possible and fallback to text for other
+ * charsets. Binary formats (smile, cbor, etc.) are always read and written as bytes.
+ *
+ * <p>
+ * A {@link Stream} or {@link Iterator} is written element by element as an array.
+ * </p>
+ *
+ * @author edgar
+ * @since 0.4.0
+ */
+public class JacksonBodyHandler implements Body.BinaryFormatter, Body.Parser {
+
+  /** Number of elements to write before flushing a stream. */
+  private static final int FLUSH_SIZE = 100;
+
+  /** Max number of types per cache, types might come from user input (generics, subclasses). */
+  private static final int CACHE_SIZE = 1000;
+
+  /** The logging system. */
+  private final Logger log = LoggerFactory.getLogger(getClass());
+
+  private final String name;
+
+  private final ObjectMapper mapper;
+
+  private final List<MediaType> types;
+
+  /** True for binary formats, like smile or cbor. */
+  private final boolean binary;
+
+  private final LoadingCache<Type, Boolean> canParse;
+
+  private final LoadingCache<Class<?>, Boolean> canFormat;
+
+  private final LoadingCache<Type, ObjectReader> readers;
+
+  private final LoadingCache<Class<?>, ObjectWriter> writers;
+
+  /**
+   * Creates a new {@link JacksonBodyHandler}.
+   *
+   * @param name Name of the handler, like: <code>json</code>.
+   * @param mapper An object mapper.
+   * @param types Supported media types.
+   * @param binary True for binary formats (smile, cbor, etc.), they are never read or written as
+   *        text.
+   */
+  public JacksonBodyHandler(final String name, final ObjectMapper mapper,
+      final List<MediaType> types, final boolean binary) {
+    this.name = requireNonNull(name, "A name is required.");
+    this.mapper = requireNonNull(mapper, "An object mapper is required.");
+    this.types = ImmutableList.copyOf(requireNonNull(types, "Types are required."));
+    this.binary = binary;
+    this.canParse = cache(it -> mapper.canDeserialize(mapper.constructType(it)));
+    this.canFormat = cache(it -> streaming(it) || mapper.canSerialize(it));
+    this.readers = cache(it -> mapper.reader(mapper.constructType(it)));
+    this.writers = cache(mapper::writerWithType);
+  }
+
+  @Override
+  public List<MediaType> types() {
+    return types;
+  }
+
+  @Override
+  public boolean binary() {
+    return binary;
+  }
+
+  @Override
+  public boolean canParse(final TypeLiteral<?> type) {
+    return canParse.getUnchecked(type.getType());
+  }
+
+  @Override
+  public boolean canFormat(final Class<?> type) {
+    return canFormat.getUnchecked(type);
+  }
+
+  @Override
+  public <T> T parse(final TypeLiteral<T> type, final Body.Reader reader) throws Exception {
+    ObjectReader json = reader(type.getType());
+    if (binary || StandardCharsets.UTF_8.equals(reader.charset())) {
+      // jackson decodes UTF-8 bytes natively, no need of a java.io.Reader
+      return reader.bytes(in -> json.readValue(in));
+    }
+    return reader.text(in -> json.readValue(in));
+  }
+
+  @Override
+  public void format(final Object body, final Body.Writer writer) throws Exception {
+    if (streaming(body.getClass())) {
+      stream(mapper, body, writer, binary, false);
+      return;
+    }
+    ObjectWriter json = writer(body.getClass());
+    if (binary) {
+      writer.bytes(out -> json.writeValue(out, body));
+    } else if (StandardCharsets.UTF_8.equals(writer.charset())) {
+      // jackson encodes UTF-8 natively, no need of a java.io.Writer
+      writer.encoded(out -> json.writeValue(out, body));
+    } else {
+      writer.text(out -> json.writeValue(out, body));
+    }
+  }
+
+  /**
+   * Find parameter and return types of MVC routes and populate the caches, so the first request
+   * doesn't pay for them. Call it once the {@link ObjectMapper} is fully configured.
+   *
+   * @param routes Application routes.
+   */
+  public void warmUp(final Set<Route.Definition> routes) {
+    for (Route.Definition route : routes) {
+      route.method().ifPresent(method -> {
+        for (Type type : method.getGenericParameterTypes()) {
+          if (canParse(TypeLiteral.get(type))) {
+            reader(type);
+          }
+        }
+        Class<?> returnType = method.getReturnType();
+        if (returnType != void.class && canFormat(returnType)) {
+          writer(returnType);
+        }
+      });
+    }
+    log.debug("{} types: {}", name, canParse.size() + canFormat.size());
+  }
+
+  private ObjectReader reader(final Type type) {
+    return readers.getUnchecked(type);
+  }
+
+  private ObjectWriter writer(final Class<?> type) {
+    return writers.getUnchecked(type);
+  }
+
+  private static <K, V> LoadingCache<K, V> cache(final Function<K, V> fn) {
+    return CacheBuilder.newBuilder()
+        .maximumSize(CACHE_SIZE)
+        .build(CacheLoader.from(fn::apply));
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+
+  /**
+   * Write a {@link Stream} or {@link Iterator} element by element, as an array or as newline
+   * delimited values. The response is flushed every {@link #FLUSH_SIZE} elements and the source
+   * is closed at the end (when it is {@link AutoCloseable}).
+   */
+  static void stream(final ObjectMapper mapper, final Object body,
+      final Body.Writer writer, final boolean binary, final boolean lines) throws Exception {
+    Iterator<?> iterator = body instanceof Stream
+        ? ((Stream<?>) body).iterator()
+        : (Iterator<?>) body;
+    boolean bytes = binary || StandardCharsets.UTF_8.equals(writer.charset());
+    // don't flush after each element, we do it every FLUSH_SIZE elements
+    ObjectWriter json = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    Body.Writer.Bytes content = out -> {
+      JsonGenerator generator = bytes
+          ? mapper.getFactory().createGenerator(out)
+          : mapper.getFactory().createGenerator(new OutputStreamWriter(out, writer.charset()));
+      // don't close the generator on errors: close writes the missing end of array and the
+      // client gets a truncated but valid json array
+      if (lines) {
+        generator.setRootValueSeparator(null);
+      } else {
+        generator.writeStartArray();
+      }
+      long count = 0;
+      while (iterator.hasNext()) {
+        json.writeValue(generator, iterator.next());
+        if (lines) {
+          generator.writeRaw('\n');
+        }
+        if (++count % FLUSH_SIZE == 0) {
+          generator.flush();
+        }
+      }
+      if (!lines) {
+        generator.writeEndArray();
+      }
+      generator.close();
+    };
+    try {
+      if (binary) {
+        writer.bytes(content);
+      } else {
+        writer.encoded(content);
+      }
+    } finally {
+      if (body instanceof AutoCloseable) {
+        ((AutoCloseable) body).close();
+      }
+    }
+  }
+
+  static boolean streaming(final Class<?> type) {
+    return Stream.class.isAssignableFrom(type) || Iterator.class.isAssignableFrom(type);
+  }
+
+}
@@ -21,13 +21,24 @@ package org.jooby.jackson;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.util.Objects.requireNonNull;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
-import java.util.LinkedHashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.TimeZone;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.inject.Inject;
 
@@ -35,9 +46,12 @@ import org.jooby.Body;
 import org.jooby.Env;
 import org.jooby.Jooby;
 import org.jooby.MediaType;
+import org.jooby.Route;
 
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JSR310Module;
 import com.google.common.collect.ImmutableList;
@@ -50,23 +64,35 @@ import com.typesafe.config.Config;
 
 public class Json implements Jooby.Module {
 
+  /** Register the Jackson modules from Guice, once the injector is ready. */
   private static class PostConfigurer {
 
+    private final ObjectMapper mapper;
+
+    private final JacksonBodyHandler handler;
+
+    public PostConfigurer(final ObjectMapper mapper, final JacksonBodyHandler handler) {
+      this.mapper = mapper;
+      this.handler = handler;
+    }
+
     @Inject
-    public PostConfigurer(final ObjectMapper mapper, final Set<Module> jacksonModules) {
+    public void configure(final Set<Module> jacksonModules, final Set<Route.Definition> routes) {
       mapper.registerModules(jacksonModules);
+      // modules are ready, warm up the MVC types
+      handler.warmUp(routes);
     }
 
   }
 
-  private static class BodyHandler implements Body.Formatter, Body.Parser {
+  private static class NdjsonHandler implements Body.Formatter, Body.Parser {
 
     private ObjectMapper mapper;
-    private List<MediaType> types;
 
-    public BodyHandler(final ObjectMapper mapper, final List<MediaType> types) {
+    private List<MediaType> types = ImmutableList.of(NDJSON);
+
+    public NdjsonHandler(final ObjectMapper mapper) {
       this.mapper = mapper;
-      this.types = types;
     }
 
     @Override
@@ -76,42 +102,66 @@ public class Json implements Jooby.Module {
 
     @Override
     public boolean canParse(final TypeLiteral<?> type) {
-      return mapper.canDeserialize(mapper.constructType(type.getType()));
+      Class<?> rawType = type.getRawType();
+      return (rawType == Stream.class || rawType == Iterator.class)
+          && type.getType() instanceof ParameterizedType;
     }
 
     @Override
     public boolean canFormat(final Class<?> type) {
-      return mapper.canSerialize(type);
+      return JacksonBodyHandler.streaming(type);
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     public <T> T parse(final TypeLiteral<T> type, final Body.Reader reader) throws Exception {
-      return reader.text(in -> mapper.readValue(in, mapper.constructType(type.getType())));
+      Type element = ((ParameterizedType) type.getType()).getActualTypeArguments()[0];
+      ObjectReader json = mapper.reader(mapper.constructType(element));
+      Charset charset = reader.charset();
+      // lazy: records are read as the iterator advances, so the body must remain open
+      MappingIterator<Object> iterator = reader.stream(in ->
+          StandardCharsets.UTF_8.equals(charset)
+              ? json.readValues(in)
+              : json.readValues(new InputStreamReader(in, charset)));
+      if (type.getRawType() == Iterator.class) {
+        return (T) iterator;
+      }
+      return (T) StreamSupport.stream(
+          Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+          .onClose(() -> {
+            try {
+              iterator.close();
+            } catch (IOException ex) {
+              throw new UncheckedIOException(ex);
+            }
+          });
     }
 
     @Override
     public void format(final Object body, final Body.Writer writer) throws Exception {
-      writer.text(out -> mapper.writeValue(out, body));
+      JacksonBodyHandler.stream(mapper, body, writer, false, true);
     }
 
     @Override
     public String toString() {
-      return "json";
+      return "ndjson";
     }
 
   }
 
-  private final ObjectMapper mapper;
+  /** Newline delimited json, one json value per line. */
+  private static final MediaType NDJSON = MediaType.valueOf("application/x-ndjson");
 
-  private final Set<Module> modules = new LinkedHashSet<>();
+  /** Java 8 modules, shared by all the mappers so they are registered once per mapper. */
+  private static final List<Module> MODULES = ImmutableList.of(new Jdk8Module(),
+      new JSR310Module());
+
+  private final ObjectMapper mapper;
 
   private List<MediaType> types = ImmutableList.of(MediaType.json);
 
   public Json(final ObjectMapper mapper) {
     this.mapper = checkNotNull(mapper, "An object mapper is required.");
-    this.modules.add(new Jdk8Module());
-    // Java 8 dates
-    this.modules.add(new JSR310Module());
   }
 
   public Json() {
@@ -138,23 +188,13 @@ public class Json implements Jooby.Module {
 
   @Override
   public void configure(final Env mode, final Config config, final Binder binder) {
-    Locale locale = Locale.forLanguageTag(config.getString("application.lang").replace("_", "-"));
-    // Jackson clone the date format in order to make dateFormat thread-safe
-    mapper.setDateFormat(new SimpleDateFormat(config.getString("application.dateFormat"), locale));
-    mapper.setLocale(locale);
-    mapper.setTimeZone(TimeZone.getTimeZone(config.getString("application.tz")));
-
-    // Jackson Modules from Guice
-    Multibinder<Module> moduleBinder = Multibinder.newSetBinder(binder, Module.class);
-    modules.forEach(m -> moduleBinder.addBinding().toInstance(m));
-
     binder.bind(ObjectMapper.class).toInstance(mapper);
 
-    // Jackson Configurer (like a post construct)
-    binder.bind(PostConfigurer.class).asEagerSingleton();
-
     // json body parser & formatter
-    BodyHandler json = new BodyHandler(mapper, types);
+    JacksonBodyHandler json = new JacksonBodyHandler("json", mapper, types, false);
+    binder.bind(Key.get(JacksonBodyHandler.class, Names.named(json.toString()))).toInstance(json);
+
+    configure(mapper, json, config, binder);
 
     Multibinder.newSetBinder(binder, Body.Formatter.class)
         .addBinding()
@@ -167,6 +207,47 @@ public class Json implements Jooby.Module {
     // direct access?
     binder.bind(Key.get(Body.Formatter.class, Names.named(json.toString()))).toInstance(json);
     binder.bind(Key.get(Body.Parser.class, Names.named(json.toString()))).toInstance(json);
+
+    // newline delimited json
+    NdjsonHandler ndjson = new NdjsonHandler(mapper);
+
+    Multibinder.newSetBinder(binder, Body.Formatter.class)
+        .addBinding()
+        .toInstance(ndjson);
+
+    Multibinder.newSetBinder(binder, Body.Parser.class)
+        .addBinding()
+        .toInstance(ndjson);
+
+    binder.bind(Key.get(Body.Formatter.class, Names.named(ndjson.toString()))).toInstance(ndjson);
+    binder.bind(Key.get(Body.Parser.class, Names.named(ndjson.toString()))).toInstance(ndjson);
+  }
+
+  /**
+   * Mapper setup shared by json and binary formats: locale, date format and time zone from
+   * application config, plus the Jackson modules from Guice (Java 8 modules and the ones bound by
+   * the application).
+   *
+   * @param mapper An object mapper.
+   * @param handler Body handler of the mapper.
+   * @param config Application config.
+   * @param binder A Guice binder.
+   */
+  static void configure(final ObjectMapper mapper, final JacksonBodyHandler handler,
+      final Config config, final Binder binder) {
+    Locale locale = Locale.forLanguageTag(config.getString("application.lang").replace("_", "-"));
+    // Jackson clone the date format in order to make dateFormat thread-safe
+    mapper.setDateFormat(new SimpleDateFormat(config.getString("application.dateFormat"), locale));
+    mapper.setLocale(locale);
+    mapper.setTimeZone(TimeZone.getTimeZone(config.getString("application.tz")));
+
+    // Jackson Modules from Guice, same instances might be bound by json and binary formats
+    Multibinder<Module> moduleBinder = Multibinder.newSetBinder(binder, Module.class)
+        .permitDuplicates();
+    MODULES.forEach(m -> moduleBinder.addBinding().toInstance(m));
+
+    // Jackson Configurer (like a post construct)
+    binder.requestInjection(new PostConfigurer(mapper, handler));
   }
 
 }
@@ -0,0 +1,78 @@
+package org.jooby.jackson;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Throughput and size of json vs smile vs cbor. It isn't a test, run it from your IDE or with:
+ *
+ * <pre>
+ *   mvn test-compile exec:java -Dexec.mainClass=org.jooby.jackson.BinaryBenchmark
+ *     -Dexec.classpathScope=test
+ * </pre>
+ */
+public class BinaryBenchmark {
+
+  interface Op {
+    void run() throws Exception;
+  }
+
+  public static void main(final String[] args) throws Exception {
+    Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+    mappers.put("json ", new ObjectMapper());
+    mappers.put("smile", new ObjectMapper(new SmileFactory()));
+    mappers.put("cbor ", new ObjectMapper(new CBORFactory()));
+    for (int size : new int[]{1024, 100 * 1024 }) {
+      List<Map<String, Object>> payload = payload(mappers.get("json "), size);
+      for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+        String name = entry.getKey();
+        ObjectMapper mapper = entry.getValue();
+        byte[] bytes = mapper.writeValueAsBytes(payload);
+        System.out.printf("%s payload: %d bytes%n", name, bytes.length);
+        run("  format " + name, () -> mapper.writeValue(new ByteArrayOutputStream(), payload));
+        run("  parse  " + name, () -> mapper.readValue(new ByteArrayInputStream(bytes),
+            List.class));
+      }
+    }
+  }
+
+  private static List<Map<String, Object>> payload(final ObjectMapper mapper, final int size)
+      throws Exception {
+    List<Map<String, Object>> payload = new ArrayList<>();
+    while (mapper.writeValueAsBytes(payload).length < size) {
+      Map<String, Object> item = new LinkedHashMap<>();
+      item.put("id", payload.size());
+      item.put("name", "jooby " + payload.size());
+      item.put("price", payload.size() * 1.5);
+      item.put("active", payload.size() % 2 == 0);
+      payload.add(item);
+    }
+    return payload;
+  }
+
+  private static void run(final String name, final Op op) throws Exception {
+    // warm up
+    long end = System.nanoTime() + 2_000_000_000L;
+    while (System.nanoTime() < end) {
+      op.run();
+    }
+    long ops = 0;
+    long start = System.nanoTime();
+    end = start + 3_000_000_000L;
+    while (System.nanoTime() < end) {
+      op.run();
+      ops++;
+    }
+    double seconds = (System.nanoTime() - start) / 1_000_000_000d;
+    System.out.printf("%s %,12.0f ops/s%n", name, ops / seconds);
+  }
+
+}
@@ -0,0 +1,153 @@
+package org.jooby.jackson;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.entity.ContentType;
+import org.apache.http.util.EntityUtils;
+import org.jooby.MediaType;
+import org.jooby.mvc.GET;
+import org.jooby.mvc.Path;
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.inject.TypeLiteral;
+import com.google.inject.multibindings.Multibinder;
+
+public class JacksonBinaryModuleFeature extends ServerFeature {
+
+  private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+  public static class Smile extends JacksonBinaryModule<Smile> {
+    public Smile() {
+      super("smile", new ObjectMapper(new SmileFactory()), SMILE);
+    }
+  }
+
+  public static class Event {
+
+    public String name;
+
+    public LocalDate date;
+
+  }
+
+  public static class Tag {
+
+    public final String name;
+
+    public Tag(final String name) {
+      this.name = name;
+    }
+  }
+
+  @Path("/events")
+  public static class Events {
+
+    @GET
+    public Event get() {
+      Event event = new Event();
+      event.name = "release";
+      event.date = LocalDate.of(2015, 1, 1);
+      return event;
+    }
+  }
+
+  private static final ObjectMapper smile = new ObjectMapper(new SmileFactory());
+
+  {
+    // binary first: json must still be the default
+    use(new Smile());
+
+    use(new Json());
+
+    // custom serializer bound by the application
+    use((env, config, binder) -> {
+      SimpleModule tags = new SimpleModule("tags");
+      tags.addSerializer(Tag.class, new JsonSerializer<Tag>() {
+        @Override
+        public void serialize(final Tag value, final JsonGenerator gen,
+            final SerializerProvider serializers) throws IOException {
+          gen.writeString("#" + value.name);
+        }
+      });
+      Multibinder.newSetBinder(binder, com.fasterxml.jackson.databind.Module.class)
+          .addBinding().toInstance(tags);
+    });
+
+    get("/tag", req -> new Tag("jooby"));
+
+    get("/members", req ->
+        Lists.newArrayList(ImmutableMap.<String, Object> of("id", 1, "name", "pablo")));
+
+    post("/members", req -> req.body(new TypeLiteral<List<Map<String, Object>>>() {
+    }));
+
+    use(Events.class);
+  }
+
+  @Test
+  public void format() throws Exception {
+    HttpResponse rsp = Request.Get(uri("members").build())
+        .addHeader("Accept", SMILE.name())
+        .execute().returnResponse();
+    assertEquals(SMILE.name(), rsp.getFirstHeader("Content-Type").getValue());
+    assertEquals("[{id=1, name=pablo}]",
+        smile.readValue(EntityUtils.toByteArray(rsp.getEntity()), List.class).toString());
+  }
+
+  @Test
+  public void jsonIsTheDefault() throws Exception {
+    assertEquals("[{\"id\":1,\"name\":\"pablo\"}]", Request.Get(uri("members").build())
+        .execute().returnContent().asString());
+
+    assertEquals("[{\"id\":1,\"name\":\"pablo\"}]", Request.Get(uri("members").build())
+        .addHeader("Accept", "*/*")
+        .execute().returnContent().asString());
+  }
+
+  @Test
+  public void parse() throws Exception {
+    byte[] body = smile.writeValueAsBytes(
+        Lists.newArrayList(ImmutableMap.of("id", 2, "name", "vilma")));
+    assertEquals("[{\"id\":2,\"name\":\"vilma\"}]", Request.Post(uri("members").build())
+        .bodyByteArray(body, ContentType.create(SMILE.name()))
+        .addHeader("Accept", "application/json")
+        .execute().returnContent().asString());
+  }
+
+  @Test
+  public void applicationModules() throws Exception {
+    HttpResponse rsp = Request.Get(uri("tag").build())
+        .addHeader("Accept", SMILE.name())
+        .execute().returnResponse();
+    assertEquals("#jooby", smile.readValue(EntityUtils.toByteArray(rsp.getEntity()), String.class));
+
+    assertEquals("\"#jooby\"", Request.Get(uri("tag").build())
+        .execute().returnContent().asString());
+  }
+
+  @Test
+  public void mvc() throws Exception {
+    HttpResponse rsp = Request.Get(uri("events").build())
+        .addHeader("Accept", SMILE.name())
+        .execute().returnResponse();
+    assertEquals("{name=release, date=2015-01-01}",
+        smile.readValue(EntityUtils.toByteArray(rsp.getEntity()), Map.class).toString());
+  }
+
+}
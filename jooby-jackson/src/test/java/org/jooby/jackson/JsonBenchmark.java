@@ -0,0 +1,86 @@
+package org.jooby.jackson;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Throughput of the text (java.io.Reader/Writer) vs bytes (native UTF-8) json paths. It isn't a
+ * test, run it from your IDE or with:
+ *
+ * <pre>
+ *   mvn test-compile exec:java -Dexec.mainClass=org.jooby.jackson.JsonBenchmark
+ *     -Dexec.classpathScope=test
+ * </pre>
+ */
+public class JsonBenchmark {
+
+  interface Op {
+    void run() throws Exception;
+  }
+
+  private static final ObjectMapper mapper = new ObjectMapper();
+
+  private static final JavaType type = mapper.constructType(List.class);
+
+  public static void main(final String[] args) throws Exception {
+    for (int size : new int[]{1024, 100 * 1024 }) {
+      List<Map<String, Object>> payload = payload(size);
+      byte[] json = mapper.writeValueAsBytes(payload);
+      System.out.printf("payload: %d bytes%n", json.length);
+
+      run("  format text ", () -> {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length);
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        mapper.writeValue(writer, payload);
+      });
+      run("  format bytes", () -> {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length);
+        mapper.writeValue(out, payload);
+      });
+      run("  parse text  ", () -> mapper.readValue(
+          new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8), type));
+      run("  parse bytes ", () -> mapper.readValue(new ByteArrayInputStream(json), type));
+    }
+  }
+
+  private static List<Map<String, Object>> payload(final int size) throws Exception {
+    List<Map<String, Object>> payload = new ArrayList<>();
+    while (mapper.writeValueAsBytes(payload).length < size) {
+      Map<String, Object> item = new LinkedHashMap<>();
+      item.put("id", payload.size());
+      item.put("name", "señor jooby " + payload.size());
+      item.put("active", payload.size() % 2 == 0);
+      payload.add(item);
+    }
+    return payload;
+  }
+
+  private static void run(final String name, final Op op) throws Exception {
+    // warm up
+    long end = System.nanoTime() + 2_000_000_000L;
+    while (System.nanoTime() < end) {
+      op.run();
+    }
+    long ops = 0;
+    long start = System.nanoTime();
+    end = start + 3_000_000_000L;
+    while (System.nanoTime() < end) {
+      op.run();
+      ops++;
+    }
+    double seconds = (System.nanoTime() - start) / 1_000_000_000d;
+    System.out.printf("%s %,12.0f ops/s%n", name, ops / seconds);
+  }
+
+}
@@ -0,0 +1,46 @@
+package org.jooby.jackson;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.entity.ContentType;
+import org.apache.http.util.EntityUtils;
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+public class JsonCharsetFeature extends ServerFeature {
+
+  {
+    use(new Json());
+
+    post("/charset", req -> req.body(Map.class));
+  }
+
+  @Test
+  public void utf8() throws Exception {
+    HttpResponse rsp = Request.Post(uri("charset").build())
+        .bodyString("{\"name\":\"añoñá €\"}", ContentType.APPLICATION_JSON).execute()
+        .returnResponse();
+    assertEquals("application/json; charset=UTF-8",
+        rsp.getFirstHeader("Content-Type").getValue());
+    assertEquals("{\"name\":\"añoñá €\"}",
+        EntityUtils.toString(rsp.getEntity(), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void iso88591() throws Exception {
+    HttpResponse rsp = Request.Post(uri("charset").build())
+        .bodyString("{\"name\":\"añoñá\"}",
+            ContentType.create("application/json", StandardCharsets.ISO_8859_1)).execute()
+        .returnResponse();
+    assertEquals("application/json; charset=ISO-8859-1",
+        rsp.getFirstHeader("Content-Type").getValue());
+    assertEquals("{\"name\":\"añoñá\"}",
+        EntityUtils.toString(rsp.getEntity(), StandardCharsets.ISO_8859_1));
+  }
+
+}
@@ -0,0 +1,60 @@
+package org.jooby.jackson;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDate;
+
+import org.apache.http.client.fluent.Request;
+import org.apache.http.entity.ContentType;
+import org.jooby.mvc.GET;
+import org.jooby.mvc.POST;
+import org.jooby.mvc.Path;
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+public class JsonMvcFeature extends ServerFeature {
+
+  public static class Event {
+
+    public String name;
+
+    public LocalDate date;
+
+  }
+
+  @Path("/events")
+  public static class Events {
+
+    @GET
+    public Event get() {
+      Event event = new Event();
+      event.name = "release";
+      event.date = LocalDate.of(2015, 1, 1);
+      return event;
+    }
+
+    @POST
+    public Event post(final Event event) {
+      return event;
+    }
+  }
+
+  {
+    use(new Json());
+
+    use(Events.class);
+  }
+
+  @Test
+  public void warmUpAfterModules() throws Exception {
+    assertEquals("{\"name\":\"release\",\"date\":\"2015-01-01\"}",
+        Request.Get(uri("events").build()).execute().returnContent().asString());
+
+    assertEquals("{\"name\":\"next\",\"date\":\"2015-02-01\"}",
+        Request.Post(uri("events").build())
+            .bodyString("{\"name\":\"next\",\"date\":\"2015-02-01\"}",
+                ContentType.APPLICATION_JSON)
+            .execute().returnContent().asString());
+  }
+
+}
@@ -0,0 +1,205 @@
+package org.jooby.jackson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.apache.http.client.fluent.Request;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.jooby.Body;
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.CharStreams;
+
+public class JsonStreamFeature extends ServerFeature {
+
+  private static final int SIZE = 200_000;
+
+  private static CountDownLatch release = new CountDownLatch(1);
+
+  private static CountDownLatch closed = new CountDownLatch(1);
+
+  /** Elements produced by the server so far. */
+  private static AtomicInteger produced = new AtomicInteger();
+
+  /** Iterator + AutoCloseable, like a JDBC cursor. */
+  private static class Cursor implements Iterator<Map<String, Object>>, AutoCloseable {
+
+    private int i = 0;
+
+    @Override
+    public boolean hasNext() {
+      return i < SIZE;
+    }
+
+    @Override
+    public Map<String, Object> next() {
+      if (i == 1000) {
+        // hold until the client confirms it got the first elements
+        try {
+          release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      produced.incrementAndGet();
+      return ImmutableMap.of("id", i++, "name", "row");
+    }
+
+    @Override
+    public void close() {
+      closed.countDown();
+    }
+  }
+
+  {
+    use(new Json());
+
+    get("/stream", req -> IntStream.range(0, 3).boxed().onClose(() -> closed.countDown()));
+
+    get("/iterator", req -> ImmutableMap.of("id", 1).entrySet().stream()
+        .map(e -> e.getKey() + e.getValue()).iterator());
+
+    get("/cursor", req -> new Cursor());
+
+    get("/broken", req -> IntStream.range(0, SIZE).boxed().map(i -> {
+      if (i == 150) {
+        throw new IllegalStateException("intentional err");
+      }
+      return ImmutableMap.of("id", i, "name", "row");
+    }).iterator());
+
+    get("/broken/early", req -> IntStream.range(0, 3).boxed().map(i -> {
+      if (i == 1) {
+        throw new IllegalStateException("intentional err");
+      }
+      return i;
+    }).iterator());
+  }
+
+  @Test
+  public void stream() throws Exception {
+    closed = new CountDownLatch(1);
+    assertEquals("[0,1,2]", Request.Get(uri("stream").build()).execute()
+        .returnContent().asString());
+    assertTrue(closed.await(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void iterator() throws Exception {
+    assertEquals("[\"id1\"]", Request.Get(uri("iterator").build()).execute()
+        .returnContent().asString());
+  }
+
+  @Test
+  public void brokenIteratorProducesBrokenJson() throws Exception {
+    StringBuilder body = new StringBuilder();
+    try (CloseableHttpClient client = HttpClients.createDefault();
+        CloseableHttpResponse rsp = client.execute(new HttpGet(uri("broken").build()));
+        InputStream in = rsp.getEntity().getContent()) {
+      Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+      char[] buffer = new char[8192];
+      int len;
+      while ((len = reader.read(buffer)) != -1) {
+        body.append(buffer, 0, len);
+      }
+    } catch (IOException ex) {
+      // connection might be aborted
+    }
+    assertTrue(body.toString().startsWith("[{\"id\":0,"));
+    try {
+      new ObjectMapper().readValue(body.toString(), List.class);
+      fail("truncated json array was parsed: " + body.length());
+    } catch (JsonProcessingException expected) {
+      // expected
+    }
+  }
+
+  @Test
+  public void brokenIteratorDoesNotEndArray() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Body.Writer writer = new Body.Writer() {
+      @Override
+      public Charset charset() {
+        return StandardCharsets.UTF_8;
+      }
+
+      @Override
+      public void text(final Text text) throws Exception {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void bytes(final Bytes bytes) throws Exception {
+        bytes.write(out);
+      }
+    };
+    Iterator<Integer> iterator = IntStream.range(0, 3).boxed().map(i -> {
+      if (i == 2) {
+        throw new IllegalStateException("intentional err");
+      }
+      return i;
+    }).iterator();
+    try {
+      JacksonBodyHandler.stream(new ObjectMapper(), iterator, writer, false, false);
+      fail("expected: IllegalStateException");
+    } catch (IllegalStateException expected) {
+      // expected
+    }
+    assertEquals("", new String(out.toByteArray(), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void brokenIteratorBeforeCommit() throws Exception {
+    assertEquals(500, Request.Get(uri("broken", "early").build()).execute()
+        .returnResponse().getStatusLine().getStatusCode());
+  }
+
+  @Test
+  public void cursorIsStreamedElementByElement() throws Exception {
+    release = new CountDownLatch(1);
+    closed = new CountDownLatch(1);
+    produced.set(0);
+    try (CloseableHttpClient client = HttpClients.createDefault();
+        CloseableHttpResponse rsp = client.execute(new HttpGet(uri("cursor").build()));
+        InputStream in = rsp.getEntity().getContent()) {
+      Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+      // first element arrives while the cursor is on hold: nothing is materialized
+      char[] start = new char[16];
+      int len = reader.read(start);
+      assertTrue(new String(start, 0, len).startsWith("[{\"id\":0,"));
+      assertTrue(produced.get() <= 1000);
+      release.countDown();
+
+      String rest = new String(start, 0, len) + CharStreams.toString(reader);
+      List<?> rows = new ObjectMapper().readValue(rest, List.class);
+      assertEquals(SIZE, rows.size());
+    } finally {
+      release.countDown();
+    }
+    assertTrue(closed.await(1, TimeUnit.SECONDS));
+  }
+
+}
@@ -0,0 +1,128 @@
+package org.jooby.jackson;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.http.client.fluent.Request;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.InputStreamEntity;
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.TypeLiteral;
+
+public class NdjsonFeature extends ServerFeature {
+
+  private static final ContentType NDJSON = ContentType.create("application/x-ndjson",
+      StandardCharsets.UTF_8);
+
+  private static CountDownLatch firstRecord = new CountDownLatch(1);
+
+  public static class Event {
+    public int id;
+  }
+
+  /** Generates records and holds after the first 1000 until the server got the first one. */
+  private static class Records extends InputStream {
+
+    private int size;
+
+    private int id = 0;
+
+    private byte[] line = new byte[0];
+
+    private int pos = 0;
+
+    private boolean lazy;
+
+    public Records(final int size) {
+      this.size = size;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (pos == line.length) {
+        if (id == size) {
+          return -1;
+        }
+        if (id == 1000) {
+          try {
+            lazy = firstRecord.await(5, TimeUnit.SECONDS);
+          } catch (InterruptedException ex) {
+            throw new IOException(ex);
+          }
+        }
+        line = ("{\"id\":" + id++ + "}\n").getBytes(StandardCharsets.UTF_8);
+        pos = 0;
+      }
+      return line[pos++];
+    }
+  }
+
+  {
+    use(new Json());
+
+    post("/ndjson/stream", req -> {
+      Stream<Event> events = req.body(new TypeLiteral<Stream<Event>>() {
+      });
+      return events.mapToLong(e -> {
+        firstRecord.countDown();
+        return e.id;
+      }).sum();
+    });
+
+    post("/ndjson/iterator", req -> {
+      Iterator<Map<String, Object>> events = req.body(
+          new TypeLiteral<Iterator<Map<String, Object>>>() {
+          });
+      int count = 0;
+      while (events.hasNext()) {
+        events.next();
+        count++;
+      }
+      return count;
+    });
+
+    get("/ndjson", req -> Stream.of(ImmutableMap.of("id", 1), ImmutableMap.of("id", 2)));
+  }
+
+  @Test
+  public void parseLazily() throws Exception {
+    firstRecord = new CountDownLatch(1);
+    Records records = new Records(200_000);
+    assertEquals(String.valueOf(199_999L * 200_000L / 2),
+        Request.Post(uri("ndjson", "stream").build())
+            .body(new InputStreamEntity(records, -1, NDJSON))
+            .execute().returnContent().asString());
+    assertTrue("body was fully read before parsing", records.lazy);
+  }
+
+  @Test
+  public void iterator() throws Exception {
+    assertEquals("3", Request.Post(uri("ndjson", "iterator").build())
+        .bodyString("{\"id\":1}\n{\"id\":2}\n\n{\"id\":3}\n", NDJSON)
+        .execute().returnContent().asString());
+  }
+
+  @Test
+  public void format() throws Exception {
+    assertEquals("{\"id\":1}\n{\"id\":2}\n", Request.Get(uri("ndjson").build())
+        .addHeader("Accept", "application/x-ndjson")
+        .execute().returnContent().asString());
+
+    // json array is the default
+    assertEquals("[{\"id\":1},{\"id\":2}]", Request.Get(uri("ndjson").build())
+        .execute().returnContent().asString());
+  }
+
+}
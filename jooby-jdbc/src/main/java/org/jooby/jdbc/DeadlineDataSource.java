@@ -0,0 +1,139 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.jdbc;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import org.jooby.Deadline;
+
+/**
+ * Apply the {@link Deadline} of the current request (if any) as query timeout of statements.
+ *
+ * @author edgar
+ * @since 0.4.0
+ */
+class DeadlineDataSource implements DataSource {
+
+  private DataSource dataSource;
+
+  public DeadlineDataSource(final DataSource dataSource) {
+    this.dataSource = requireNonNull(dataSource, "A data source is required.");
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return connection(dataSource.getConnection());
+  }
+
+  @Override
+  public Connection getConnection(final String username, final String password)
+      throws SQLException {
+    return connection(dataSource.getConnection(username, password));
+  }
+
+  @Override
+  public PrintWriter getLogWriter() throws SQLException {
+    return dataSource.getLogWriter();
+  }
+
+  @Override
+  public void setLogWriter(final PrintWriter out) throws SQLException {
+    dataSource.setLogWriter(out);
+  }
+
+  @Override
+  public void setLoginTimeout(final int seconds) throws SQLException {
+    dataSource.setLoginTimeout(seconds);
+  }
+
+  @Override
+  public int getLoginTimeout() throws SQLException {
+    return dataSource.getLoginTimeout();
+  }
+
+  @Override
+  public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    return dataSource.getParentLogger();
+  }
+
+  @Override
+  public <T> T unwrap(final Class<T> iface) throws SQLException {
+    if (iface.isInstance(dataSource)) {
+      return iface.cast(dataSource);
+    }
+    return dataSource.unwrap(iface);
+  }
+
+  @Override
+  public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+    return iface.isInstance(dataSource) || dataSource.isWrapperFor(iface);
+  }
+
+  @Override
+  public String toString() {
+    return dataSource.toString();
+  }
+
+  private static Connection connection(final Connection connection) throws SQLException {
+    if (!Deadline.current().isPresent()) {
+      // not a request or no timeout
+      return connection;
+    }
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+        new Class<?>[] {Connection.class }, (proxy, method, args) -> {
+          try {
+            Object result = method.invoke(connection, args);
+            if (result instanceof Statement) {
+              queryTimeout((Statement) result);
+            }
+            return result;
+          } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+          }
+        });
+  }
+
+  private static void queryTimeout(final Statement statement) throws SQLException {
+    Optional<Deadline> deadline = Deadline.current();
+    if (deadline.isPresent()) {
+      long millis = deadline.get().timeLeft(TimeUnit.MILLISECONDS);
+      if (millis <= 0) {
+        statement.close();
+        throw new SQLTimeoutException("deadline exceeded");
+      }
+      // round up to the next second
+      statement.setQueryTimeout((int) Math.min(Integer.MAX_VALUE, (millis + 999) / 1000));
+    }
+  }
+
+}
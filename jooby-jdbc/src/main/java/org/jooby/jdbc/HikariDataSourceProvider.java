@@ -30,6 +30,8 @@ class HikariDataSourceProvider implements Provider<DataSource> {
 
   private HikariDataSource dataSource;
 
+  private DataSource deadlineDataSource;
+
   private HikariConfig config;
 
   public HikariDataSourceProvider(final HikariConfig config) {
@@ -43,17 +45,19 @@ class HikariDataSourceProvider implements Provider<DataSource> {
   public void start() {
     checkState(dataSource == null, "start can't be called it twice");
     dataSource = new HikariDataSource(config);
+    deadlineDataSource = new DeadlineDataSource(dataSource);
   }
 
   @Override
   public DataSource get() {
-    return dataSource;
+    return deadlineDataSource;
   }
 
   public void shutdown() throws Exception {
     if (dataSource != null) {
       dataSource.shutdown();
       dataSource = null;
+      deadlineDataSource = null;
     }
   }
 
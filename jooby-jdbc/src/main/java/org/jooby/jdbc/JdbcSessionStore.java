@@ -0,0 +1,602 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.jdbc;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.inject.Provider;
+import javax.sql.DataSource;
+
+import org.jooby.Session;
+import org.jooby.session.Attributes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * <h1>jdbc session store</h1>
+ * <p>
+ * Persist sessions in the database of a {@link Jdbc} module, so they survive restarts and are
+ * shared between nodes:
+ * </p>
+ *
+ * <pre>
+ * {
+ *   Jdbc jdbc = new Jdbc();
+ *   use(jdbc);
+ *
+ *   use(new JdbcSessionStore(jdbc));
+ * }
+ * </pre>
+ *
+ * <h2>write-behind</h2>
+ * <p>
+ * A save doesn't hit the database. Sessions are serialized and queued, newest state wins, and a
+ * background writer flushes the queue every second (or as soon as it has
+ * {@link #batchSize(int)} sessions) using JDBC batches. Reads check the queue first and then the
+ * database.
+ * </p>
+ * <p>
+ * The queue is bounded (see {@link #queueSize(int)}): when it is full (because the database is
+ * slow or down), sessions are written from the calling thread.
+ * </p>
+ *
+ * <h2>near-cache</h2>
+ * <p>
+ * A local near-cache saves a database read per request. It is off by default because a node
+ * might read an old copy of a session modified by another node and save it back over the newer
+ * state. Turn it on (see {@link #nearCache(int, long, TimeUnit)}) with a single node or sticky
+ * sessions only.
+ * </p>
+ * <p>
+ * Queued sessions are flushed when the application stops. Sessions saved in the last second
+ * before a crash might be lost. Sessions saved after the store was closed are written from the
+ * calling thread.
+ * </p>
+ *
+ * <h2>table</h2>
+ * <p>
+ * Sessions are saved in a <code>sessions</code> table, created at startup if missing:
+ * </p>
+ *
+ * <pre>
+ * create table sessions (
+ *   id varchar(255) not null primary key,
+ *   created_at bigint not null,
+ *   accessed_at bigint not null,
+ *   expiry_at bigint not null,
+ *   attributes BINARY_TYPE not null
+ * )
+ * </pre>
+ *
+ * <p>
+ * Where <code>BINARY_TYPE</code> depends on the database: <code>bytea</code> for PostgreSQL,
+ * <code>longblob</code> for MySQL, <code>varbinary(max)</code> for SQL Server and
+ * <code>blob</code> for anything else. See {@link #binaryType(String)} to set a different type.
+ * </p>
+ *
+ * <p>
+ * Expired sessions are deleted every minute. Session attributes must be
+ * {@link java.io.Serializable}.
+ * </p>
+ *
+ * @author edgar
+ * @since 0.4.0
+ */
+public class JdbcSessionStore implements Session.Store, Closeable {
+
+  /** A queued save or delete. */
+  private static class Entry {
+
+    private final String id;
+
+    private final long createdAt;
+
+    private final long accessedAt;
+
+    private final long expiryAt;
+
+    /** Serialized attributes or null for deletes. */
+    private final byte[] attributes;
+
+    public Entry(final String id, final long createdAt, final long accessedAt,
+        final long expiryAt, final byte[] attributes) {
+      this.id = id;
+      this.createdAt = createdAt;
+      this.accessedAt = accessedAt;
+      this.expiryAt = expiryAt;
+      this.attributes = attributes;
+    }
+
+    public boolean expired(final long now) {
+      return expiryAt > 0 && expiryAt <= now;
+    }
+  }
+
+  /** The logging system. */
+  private final Logger log = LoggerFactory.getLogger(getClass());
+
+  private final Provider<DataSource> dataSource;
+
+  /** Pending saves and deletes, newest state wins. */
+  private final Map<String, Entry> queue = new ConcurrentHashMap<>();
+
+  private final AtomicBoolean flushing = new AtomicBoolean();
+
+  private volatile boolean ready;
+
+  private String table = "sessions";
+
+  private String binaryType;
+
+  private int queueSize = 10000;
+
+  private int batchSize = 100;
+
+  private long flushInterval = 1000L;
+
+  /** Off by default, see class doc. */
+  private Cache<String, Entry> nearCache = CacheBuilder.newBuilder()
+      .maximumSize(0)
+      .build();
+
+  private ScheduledThreadPoolExecutor writer;
+
+  /** Guarded by this store, once closed the background writer isn't restarted. */
+  private boolean closed;
+
+  /**
+   * Creates a new {@link JdbcSessionStore}.
+   *
+   * @param dataSource Provider of the data source to use.
+   */
+  public JdbcSessionStore(final Provider<DataSource> dataSource) {
+    this.dataSource = requireNonNull(dataSource, "A data source is required.");
+  }
+
+  /**
+   * Creates a new {@link JdbcSessionStore} backed by the data source of the given module.
+   *
+   * @param jdbc A jdbc module.
+   */
+  public JdbcSessionStore(final Jdbc jdbc) {
+    this(() -> requireNonNull(jdbc, "A jdbc module is required.").dataSource().get());
+  }
+
+  /**
+   * Set the table where sessions are saved. Default is: <code>sessions</code>.
+   *
+   * @param table A table name.
+   * @return This store.
+   */
+  public JdbcSessionStore table(final String table) {
+    checkArgument(table != null && table.length() > 0, "A table name is required.");
+    this.table = table;
+    return this;
+  }
+
+  /**
+   * Set the column type of session attributes, used when the table is created. Default type
+   * depends on the database, see class doc.
+   *
+   * @param binaryType A binary column type, like: <code>blob</code>.
+   * @return This store.
+   */
+  public JdbcSessionStore binaryType(final String binaryType) {
+    checkArgument(binaryType != null && binaryType.length() > 0, "A column type is required.");
+    this.binaryType = binaryType;
+    return this;
+  }
+
+  /**
+   * Set the max number of queued sessions. When the queue is full, sessions are written from the
+   * calling thread. Default is: <code>10000</code>.
+   *
+   * @param queueSize Max number of queued sessions.
+   * @return This store.
+   */
+  public JdbcSessionStore queueSize(final int queueSize) {
+    checkArgument(queueSize > 0, "Queue size must be greater than zero: %s", queueSize);
+    this.queueSize = queueSize;
+    return this;
+  }
+
+  /**
+   * Set the max number of sessions written per batch. A flush is triggered as soon as the queue
+   * reach this number. Default is: <code>100</code>.
+   *
+   * @param batchSize Batch size.
+   * @return This store.
+   */
+  public JdbcSessionStore batchSize(final int batchSize) {
+    checkArgument(batchSize > 0, "Batch size must be greater than zero: %s", batchSize);
+    this.batchSize = batchSize;
+    return this;
+  }
+
+  /**
+   * Set how frequently queued sessions are written. Default is: <code>1s</code>.
+   *
+   * @param interval Flush interval.
+   * @param unit Interval unit.
+   * @return This store.
+   */
+  public JdbcSessionStore flushInterval(final long interval, final TimeUnit unit) {
+    checkArgument(interval > 0, "Flush interval must be greater than zero: %s", interval);
+    this.flushInterval = unit.toMillis(interval);
+    return this;
+  }
+
+  /**
+   * Set the size and time to live of the local near-cache. The near-cache is off by default,
+   * don't turn it on unless requests of a session always go to the same node (see class doc).
+   * Set size to <code>0</code> to turn it off.
+   *
+   * @param size Max number of sessions to keep locally.
+   * @param ttl Time to live.
+   * @param unit Time to live unit.
+   * @return This store.
+   */
+  public JdbcSessionStore nearCache(final int size, final long ttl, final TimeUnit unit) {
+    checkArgument(size >= 0, "Near-cache size must be positive: %s", size);
+    this.nearCache = CacheBuilder.newBuilder()
+        .maximumSize(size)
+        .expireAfterWrite(ttl, unit)
+        .build();
+    return this;
+  }
+
+  @Override
+  public Session get(final Session.Builder builder) throws Exception {
+    String id = builder.sessionId();
+    Entry entry = queue.get(id);
+    if (entry == null) {
+      entry = nearCache.getIfPresent(id);
+    }
+    if (entry == null) {
+      entry = select(id);
+      if (entry != null) {
+        nearCache.put(id, entry);
+      }
+    }
+    if (entry == null || entry.attributes == null) {
+      return null;
+    }
+    if (entry.expired(System.currentTimeMillis())) {
+      delete(id);
+      return null;
+    }
+    return builder
+        .set(Attributes.attributes(entry.attributes))
+        .createdAt(entry.createdAt)
+        .accessedAt(entry.accessedAt)
+        .build();
+  }
+
+  @Override
+  public void save(final Session session, final SaveReason reason) throws Exception {
+    requireNonNull(session, "A session is required.");
+    Entry entry = new Entry(session.id(), session.createdAt(), session.accessedAt(),
+        session.expiryAt(), Attributes.bytes(session.attributes()));
+    enqueue(entry);
+    nearCache.put(entry.id, entry);
+  }
+
+  @Override
+  public void delete(final String id) throws Exception {
+    nearCache.invalidate(id);
+    enqueue(new Entry(id, 0, 0, 0, null));
+  }
+
+  /**
+   * Write queued sessions now.
+   *
+   * @throws SQLException If write fails. Sessions remain queued.
+   */
+  public void flush() throws SQLException {
+    if (!flushing.compareAndSet(false, true)) {
+      // another flush is running
+      return;
+    }
+    try {
+      while (queue.size() > 0) {
+        List<Entry> batch = new ArrayList<>(Math.min(queue.size(), batchSize));
+        for (Entry entry : queue.values()) {
+          batch.add(entry);
+          if (batch.size() == batchSize) {
+            break;
+          }
+        }
+        write(batch);
+        // don't remove sessions that were saved again while writing
+        batch.forEach(entry -> queue.remove(entry.id, entry));
+      }
+    } finally {
+      flushing.set(false);
+    }
+  }
+
+  /**
+   * Stop the background writer and flush queued sessions.
+   *
+   * @throws IOException If flush fails.
+   */
+  @Override
+  public void close() throws IOException {
+    ScheduledThreadPoolExecutor writer;
+    synchronized (this) {
+      writer = this.writer;
+      this.writer = null;
+      closed = true;
+    }
+    if (writer != null) {
+      writer.shutdown();
+      try {
+        writer.awaitTermination(flushInterval * 10, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    try {
+      flush();
+    } catch (SQLException ex) {
+      throw new IOException("flush of " + queue.size() + " session(s) resulted in exception",
+          ex);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "jdbc:" + table;
+  }
+
+  private void enqueue(final Entry entry) throws SQLException {
+    if (queue.size() >= queueSize && !queue.containsKey(entry.id)) {
+      // full, write now
+      write(Collections.singletonList(entry));
+      return;
+    }
+    ScheduledThreadPoolExecutor writer = writer();
+    if (writer == null) {
+      // closed, nobody is going to flush the queue: write now
+      queue.remove(entry.id);
+      write(Collections.singletonList(entry));
+      return;
+    }
+    queue.put(entry.id, entry);
+    if (queue.size() >= batchSize && !flushing.get()) {
+      writer.execute(this::flushQuietly);
+    }
+  }
+
+  /**
+   * @return The background writer or <code>null</code> once the store was closed.
+   */
+  private synchronized ScheduledThreadPoolExecutor writer() {
+    if (writer == null && !closed) {
+      writer = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder()
+          .setNameFormat("session-writer")
+          .setDaemon(true)
+          .build());
+      writer.scheduleWithFixedDelay(this::flushQuietly, flushInterval, flushInterval,
+          TimeUnit.MILLISECONDS);
+      writer.scheduleWithFixedDelay(this::deleteExpired, 1, 1, TimeUnit.MINUTES);
+    }
+    return writer;
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (Exception ex) {
+      log.error("write of " + queue.size() + " session(s) resulted in exception", ex);
+    }
+  }
+
+  private void deleteExpired() {
+    try (Connection connection = connection();
+        PreparedStatement stt = connection.prepareStatement(
+            "delete from " + table + " where expiry_at > 0 and expiry_at <= ?")) {
+      stt.setLong(1, System.currentTimeMillis());
+      int count = stt.executeUpdate();
+      log.debug("{} expired session(s) deleted", count);
+    } catch (Exception ex) {
+      log.error("delete of expired sessions resulted in exception", ex);
+    }
+  }
+
+  private Entry select(final String id) throws SQLException {
+    try (Connection connection = connection();
+        PreparedStatement stt = connection.prepareStatement(
+            "select created_at, accessed_at, expiry_at, attributes from " + table
+                + " where id = ?")) {
+      stt.setString(1, id);
+      try (ResultSet rs = stt.executeQuery()) {
+        if (rs.next()) {
+          return new Entry(id, rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getBytes(4));
+        }
+        return null;
+      }
+    }
+  }
+
+  private void write(final List<Entry> batch) throws SQLException {
+    try (Connection connection = connection()) {
+      boolean autoCommit = connection.getAutoCommit();
+      connection.setAutoCommit(false);
+      try {
+        List<Entry> saves = new ArrayList<>(batch.size());
+        try (PreparedStatement delete = connection.prepareStatement(
+            "delete from " + table + " where id = ?")) {
+          for (Entry entry : batch) {
+            if (entry.attributes == null) {
+              delete.setString(1, entry.id);
+              delete.addBatch();
+            } else {
+              saves.add(entry);
+            }
+          }
+          if (saves.size() < batch.size()) {
+            delete.executeBatch();
+          }
+        }
+        if (saves.size() > 0) {
+          upsert(connection, saves);
+        }
+        connection.commit();
+      } catch (SQLException ex) {
+        connection.rollback();
+        throw ex;
+      } finally {
+        connection.setAutoCommit(autoCommit);
+      }
+    }
+  }
+
+  /**
+   * Portable upsert: update all the sessions in one batch, then insert the ones that weren't
+   * there. Drivers that don't report update counts of a batch
+   * ({@link Statement#SUCCESS_NO_INFO}) get one update per session.
+   */
+  private void upsert(final Connection connection, final List<Entry> saves)
+      throws SQLException {
+    List<Entry> inserts = new ArrayList<>();
+    try (PreparedStatement update = connection.prepareStatement("update " + table
+        + " set created_at = ?, accessed_at = ?, expiry_at = ?, attributes = ? where id = ?")) {
+      for (Entry entry : saves) {
+        update(update, entry);
+        update.addBatch();
+      }
+      int[] counts = update.executeBatch();
+      List<Entry> unknown = new ArrayList<>();
+      for (int i = 0; i < saves.size(); i++) {
+        int count = i < counts.length ? counts[i] : Statement.SUCCESS_NO_INFO;
+        if (count == 0) {
+          inserts.add(saves.get(i));
+        } else if (count < 0) {
+          unknown.add(saves.get(i));
+        }
+      }
+      // update again (same values), now one by one to get the count
+      for (Entry entry : unknown) {
+        update(update, entry);
+        if (update.executeUpdate() == 0) {
+          inserts.add(entry);
+        }
+      }
+    }
+    if (inserts.size() > 0) {
+      try (PreparedStatement insert = connection.prepareStatement("insert into " + table
+          + " (id, created_at, accessed_at, expiry_at, attributes) values (?, ?, ?, ?, ?)")) {
+        for (Entry entry : inserts) {
+          insert.setString(1, entry.id);
+          insert.setLong(2, entry.createdAt);
+          insert.setLong(3, entry.accessedAt);
+          insert.setLong(4, entry.expiryAt);
+          insert.setBytes(5, entry.attributes);
+          insert.addBatch();
+        }
+        insert.executeBatch();
+      }
+    }
+  }
+
+  private static void update(final PreparedStatement update, final Entry entry)
+      throws SQLException {
+    update.setLong(1, entry.createdAt);
+    update.setLong(2, entry.accessedAt);
+    update.setLong(3, entry.expiryAt);
+    update.setBytes(4, entry.attributes);
+    update.setString(5, entry.id);
+  }
+
+  private Connection connection() throws SQLException {
+    Connection connection = dataSource.get().getConnection();
+    if (!ready) {
+      try {
+        createTable(connection);
+      } catch (SQLException ex) {
+        connection.close();
+        throw ex;
+      }
+    }
+    return connection;
+  }
+
+  private synchronized void createTable(final Connection connection) throws SQLException {
+    if (ready) {
+      return;
+    }
+    try (Statement stt = connection.createStatement()) {
+      try {
+        stt.executeQuery("select id from " + table + " where 1 = 0").close();
+      } catch (SQLException ex) {
+        log.info("creating table: {}", table);
+        String binaryType = this.binaryType == null
+            ? defaultBinaryType(connection.getMetaData().getDatabaseProductName())
+            : this.binaryType;
+        stt.executeUpdate("create table " + table + " ("
+            + "id varchar(255) not null primary key, "
+            + "created_at bigint not null, "
+            + "accessed_at bigint not null, "
+            + "expiry_at bigint not null, "
+            + "attributes " + binaryType + " not null)");
+      }
+    }
+    ready = true;
+  }
+
+  /**
+   * Binary column type per database, blob is limited to 64kb on MySQL and missing on PostgreSQL.
+   */
+  static String defaultBinaryType(final String database) {
+    String name = database.toLowerCase();
+    if (name.contains("postgres")) {
+      return "bytea";
+    }
+    if (name.contains("mysql") || name.contains("mariadb")) {
+      return "longblob";
+    }
+    if (name.contains("sql server")) {
+      return "varbinary(max)";
+    }
+    return "blob";
+  }
+
+}
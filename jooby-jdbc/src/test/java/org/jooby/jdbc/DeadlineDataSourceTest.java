@@ -0,0 +1,94 @@
+package org.jooby.jdbc;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.jooby.Deadline;
+import org.jooby.internal.Watchdog;
+import org.junit.Test;
+
+public class DeadlineDataSourceTest {
+
+  @Test
+  public void noDeadline() throws Exception {
+    DataSource ds = createMock(DataSource.class);
+    Connection connection = createMock(Connection.class);
+    expect(ds.getConnection()).andReturn(connection);
+
+    Object[] mocks = {ds, connection };
+    replay(mocks);
+
+    assertSame(connection, new DeadlineDataSource(ds).getConnection());
+
+    verify(mocks);
+  }
+
+  @Test
+  public void queryTimeout() throws Exception {
+    DataSource ds = createMock(DataSource.class);
+    Connection connection = createMock(Connection.class);
+    expect(ds.getConnection()).andReturn(connection);
+    Statement stt = createMock(Statement.class);
+    expect(connection.createStatement()).andReturn(stt);
+    stt.setQueryTimeout(2);
+    PreparedStatement pstt = createMock(PreparedStatement.class);
+    expect(connection.prepareStatement("select 1")).andReturn(pstt);
+    pstt.setQueryTimeout(2);
+    expect(connection.getAutoCommit()).andReturn(true);
+
+    Object[] mocks = {ds, connection, stt, pstt };
+    replay(mocks);
+
+    Watchdog watchdog = new Watchdog();
+    try {
+      watchdog.deadline(Deadline.deadline(1500, TimeUnit.MILLISECONDS));
+      Connection proxy = new DeadlineDataSource(ds).getConnection();
+      assertSame(stt, proxy.createStatement());
+      assertSame(pstt, proxy.prepareStatement("select 1"));
+      assertEquals(true, proxy.getAutoCommit());
+    } finally {
+      watchdog.stop();
+    }
+
+    verify(mocks);
+  }
+
+  @Test(expected = SQLTimeoutException.class)
+  public void deadlineExceeded() throws Exception {
+    DataSource ds = createMock(DataSource.class);
+    Connection connection = createMock(Connection.class);
+    expect(ds.getConnection()).andReturn(connection);
+    Statement stt = createMock(Statement.class);
+    expect(connection.createStatement()).andReturn(stt);
+    stt.close();
+
+    Object[] mocks = {ds, connection, stt };
+    replay(mocks);
+
+    Watchdog watchdog = new Watchdog();
+    try {
+      watchdog.deadline(Deadline.deadline(1, TimeUnit.MILLISECONDS));
+      Connection proxy = new DeadlineDataSource(ds).getConnection();
+      while (!Deadline.current().get().expired()) {
+        Thread.yield();
+      }
+      proxy.createStatement();
+    } finally {
+      watchdog.stop();
+      verify(mocks);
+    }
+  }
+
+}
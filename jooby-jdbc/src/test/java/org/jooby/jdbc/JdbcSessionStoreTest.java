@@ -0,0 +1,353 @@
+package org.jooby.jdbc;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.jooby.Session;
+import org.jooby.Session.Store.SaveReason;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+
+public class JdbcSessionStoreTest {
+
+  private interface Call {
+    Object call(Method method, Object[] args) throws Exception;
+  }
+
+  private JdbcConnectionPool dataSource;
+
+  @Before
+  public void mem() {
+    Config mem = ConfigFactory.parseResources(Jdbc.class, "jdbc.conf")
+        .getConfig("databases.mem");
+    // unnamed mem db is private to a connection, keep one connection alive
+    dataSource = JdbcConnectionPool.create(mem.getString("url"), mem.getString("user"),
+        mem.getString("password"));
+    dataSource.setMaxConnections(1);
+  }
+
+  @After
+  public void dispose() {
+    dataSource.dispose();
+  }
+
+  @Test
+  public void saveAndGetBeforeFlush() throws Exception {
+    Map<String, Object> attributes = ImmutableMap.of("a", "1");
+    JdbcSessionStore store = newStore();
+    save(store, "sid", attributes, 10L, 20L, -1L);
+    assertEquals(0, count());
+    get(store, "sid", attributes, 10L, 20L);
+    store.close();
+    assertEquals(1, count());
+  }
+
+  @Test
+  public void flushAndGet() throws Exception {
+    Map<String, Object> attributes = ImmutableMap.of("a", "1", "b", 2);
+    JdbcSessionStore store = newStore();
+    save(store, "s1", attributes, 10L, 20L, -1L);
+    save(store, "s2", attributes, 10L, 20L, -1L);
+    store.flush();
+    assertEquals(2, count());
+
+    // new store, nothing queued or cached
+    JdbcSessionStore other = newStore();
+    get(other, "s1", attributes, 10L, 20L);
+    get(other, "s2", attributes, 10L, 20L);
+    store.close();
+    other.close();
+  }
+
+  @Test
+  public void update() throws Exception {
+    JdbcSessionStore store = newStore();
+    save(store, "sid", ImmutableMap.of("a", "1"), 10L, 20L, -1L);
+    store.flush();
+    save(store, "sid", ImmutableMap.of("a", "2"), 10L, 30L, -1L);
+    save(store, "new", ImmutableMap.of("a", "3"), 10L, 30L, -1L);
+    store.flush();
+    assertEquals(2, count());
+
+    JdbcSessionStore other = newStore();
+    get(other, "sid", ImmutableMap.of("a", "2"), 10L, 30L);
+    get(other, "new", ImmutableMap.of("a", "3"), 10L, 30L);
+    store.close();
+    other.close();
+  }
+
+  @Test
+  public void newestStateWins() throws Exception {
+    JdbcSessionStore store = newStore();
+    save(store, "sid", ImmutableMap.of("a", "1"), 10L, 20L, -1L);
+    save(store, "sid", ImmutableMap.of("a", "2"), 10L, 30L, -1L);
+    store.close();
+    assertEquals(1, count());
+
+    JdbcSessionStore other = newStore();
+    get(other, "sid", ImmutableMap.of("a", "2"), 10L, 30L);
+    other.close();
+  }
+
+  @Test
+  public void delete() throws Exception {
+    JdbcSessionStore store = newStore();
+    save(store, "sid", ImmutableMap.of("a", "1"), 10L, 20L, -1L);
+    store.flush();
+    store.delete("sid");
+    assertNull(get(store, "sid"));
+    store.flush();
+    assertEquals(0, count());
+    store.close();
+  }
+
+  @Test
+  public void expired() throws Exception {
+    JdbcSessionStore store = newStore();
+    save(store, "sid", ImmutableMap.of("a", "1"), 10L, 20L, 30L);
+    assertNull(get(store, "sid"));
+    store.close();
+    assertEquals(0, count());
+  }
+
+  @Test
+  public void batches() throws Exception {
+    JdbcSessionStore store = newStore().batchSize(2);
+    for (int i = 0; i < 5; i++) {
+      save(store, "s" + i, ImmutableMap.of("a", i), 10L, 20L, -1L);
+    }
+    store.close();
+    assertEquals(5, count());
+  }
+
+  @Test
+  public void table() throws Exception {
+    JdbcSessionStore store = newStore().table("my_sessions");
+    assertEquals("jdbc:my_sessions", store.toString());
+    save(store, "sid", ImmutableMap.of("a", "1"), 10L, 20L, -1L);
+    store.close();
+    try (Connection connection = dataSource.getConnection();
+        Statement stt = connection.createStatement();
+        ResultSet rs = stt.executeQuery("select count(*) from my_sessions")) {
+      assertTrue(rs.next());
+      assertEquals(1, rs.getInt(1));
+    }
+  }
+
+  @Test
+  public void fullQueueWritesNow() throws Exception {
+    JdbcSessionStore store = newStore().queueSize(2).batchSize(10);
+    save(store, "s1", ImmutableMap.of("a", "1"), 10L, 20L, -1L);
+    save(store, "s2", ImmutableMap.of("a", "2"), 10L, 20L, -1L);
+    assertEquals(0, count());
+    // queued session, newest state wins
+    save(store, "s2", ImmutableMap.of("a", "3"), 10L, 20L, -1L);
+    assertEquals(0, count());
+    // full
+    save(store, "s3", ImmutableMap.of("a", "4"), 10L, 20L, -1L);
+    assertEquals(1, count());
+    get(store, "s3", ImmutableMap.of("a", "4"), 10L, 20L);
+    store.close();
+    assertEquals(3, count());
+  }
+
+  @Test
+  public void nearCacheIsOffByDefault() throws Exception {
+    JdbcSessionStore store = new JdbcSessionStore(() -> dataSource)
+        .flushInterval(1, TimeUnit.HOURS);
+    save(store, "sid", ImmutableMap.of("a", "1"), 10L, 20L, -1L);
+    store.flush();
+
+    // another node updates the session
+    JdbcSessionStore other = newStore();
+    save(other, "sid", ImmutableMap.of("a", "2"), 10L, 30L, -1L);
+    other.flush();
+
+    get(store, "sid", ImmutableMap.of("a", "2"), 10L, 30L);
+    store.close();
+    other.close();
+  }
+
+  @Test
+  public void defaultBinaryType() throws Exception {
+    assertEquals("bytea", JdbcSessionStore.defaultBinaryType("PostgreSQL"));
+    assertEquals("longblob", JdbcSessionStore.defaultBinaryType("MySQL"));
+    assertEquals("longblob", JdbcSessionStore.defaultBinaryType("MariaDB"));
+    assertEquals("varbinary(max)", JdbcSessionStore.defaultBinaryType("Microsoft SQL Server"));
+    assertEquals("blob", JdbcSessionStore.defaultBinaryType("H2"));
+  }
+
+  @Test
+  public void customBinaryType() throws Exception {
+    JdbcSessionStore store = newStore().binaryType("varbinary(65535)");
+    save(store, "sid", ImmutableMap.of("a", "1"), 10L, 20L, -1L);
+    store.close();
+    try (Connection connection = dataSource.getConnection();
+        ResultSet rs = connection.getMetaData().getColumns(null, null, "SESSIONS",
+            "ATTRIBUTES")) {
+      assertTrue(rs.next());
+      assertEquals("VARBINARY", rs.getString("TYPE_NAME"));
+    }
+  }
+
+  @Test
+  public void batchWithoutUpdateCounts() throws Exception {
+    JdbcSessionStore store = newStore();
+    save(store, "sid", ImmutableMap.of("a", "1"), 10L, 20L, -1L);
+    store.close();
+
+    // driver reports SUCCESS_NO_INFO for batches
+    JdbcSessionStore noinfo = new JdbcSessionStore(() -> noUpdateCounts(dataSource))
+        .flushInterval(1, TimeUnit.HOURS);
+    save(noinfo, "sid", ImmutableMap.of("a", "2"), 10L, 30L, -1L);
+    save(noinfo, "new", ImmutableMap.of("a", "3"), 10L, 30L, -1L);
+    noinfo.close();
+    assertEquals(2, count());
+
+    JdbcSessionStore other = newStore();
+    get(other, "sid", ImmutableMap.of("a", "2"), 10L, 30L);
+    get(other, "new", ImmutableMap.of("a", "3"), 10L, 30L);
+    other.close();
+  }
+
+  @Test
+  public void saveAfterClose() throws Exception {
+    JdbcSessionStore store = newStore();
+    store.close();
+    save(store, "sid", ImmutableMap.of("a", "1"), 10L, 20L, -1L);
+    assertEquals(1, count());
+    store.delete("sid");
+    assertEquals(0, count());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void badQueueSize() {
+    newStore().queueSize(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void badBatchSize() {
+    newStore().batchSize(0);
+  }
+
+  private JdbcSessionStore newStore() {
+    // flush manually
+    return new JdbcSessionStore(() -> dataSource)
+        .flushInterval(1, TimeUnit.HOURS)
+        .nearCache(0, 1, TimeUnit.MINUTES);
+  }
+
+  private static DataSource noUpdateCounts(final DataSource dataSource) {
+    return proxy(DataSource.class, dataSource, (method, args) -> {
+      Object value = method.invoke(dataSource, args);
+      if (method.getName().equals("getConnection")) {
+        Connection connection = (Connection) value;
+        return proxy(Connection.class, connection, (cmethod, cargs) -> {
+          Object result = cmethod.invoke(connection, cargs);
+          if (cmethod.getName().equals("prepareStatement")) {
+            PreparedStatement stt = (PreparedStatement) result;
+            return proxy(PreparedStatement.class, stt, (smethod, sargs) -> {
+              Object counts = smethod.invoke(stt, sargs);
+              if (smethod.getName().equals("executeBatch")) {
+                int[] noinfo = new int[((int[]) counts).length];
+                Arrays.fill(noinfo, Statement.SUCCESS_NO_INFO);
+                return noinfo;
+              }
+              return counts;
+            });
+          }
+          return result;
+        });
+      }
+      return value;
+    });
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T proxy(final Class<T> type, final T target, final Call call) {
+    return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type },
+        (proxy, method, args) -> {
+          try {
+            return call.call(method, args);
+          } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+          }
+        });
+  }
+
+  private int count() throws Exception {
+    try (Connection connection = dataSource.getConnection();
+        Statement stt = connection.createStatement()) {
+      try (ResultSet rs = stt.executeQuery("select count(*) from sessions")) {
+        rs.next();
+        return rs.getInt(1);
+      } catch (Exception ex) {
+        // no table yet
+        return 0;
+      }
+    }
+  }
+
+  private void save(final JdbcSessionStore store, final String id,
+      final Map<String, Object> attributes, final long createdAt, final long accessedAt,
+      final long expiryAt) throws Exception {
+    Session session = createMock(Session.class);
+    expect(session.id()).andReturn(id);
+    expect(session.attributes()).andReturn(attributes);
+    expect(session.createdAt()).andReturn(createdAt);
+    expect(session.accessedAt()).andReturn(accessedAt);
+    expect(session.expiryAt()).andReturn(expiryAt);
+    replay(session);
+    store.save(session, SaveReason.NEW);
+    verify(session);
+  }
+
+  private void get(final JdbcSessionStore store, final String id,
+      final Map<String, Object> attributes, final long createdAt, final long accessedAt)
+      throws Exception {
+    Session session = createMock(Session.class);
+    Session.Builder builder = createMock(Session.Builder.class);
+    expect(builder.sessionId()).andReturn(id);
+    expect(builder.set(attributes)).andReturn(builder);
+    expect(builder.createdAt(createdAt)).andReturn(builder);
+    expect(builder.accessedAt(accessedAt)).andReturn(builder);
+    expect(builder.build()).andReturn(session);
+    replay(session, builder);
+    assertEquals(session, store.get(builder));
+    verify(session, builder);
+  }
+
+  private Session get(final JdbcSessionStore store, final String id) throws Exception {
+    Session.Builder builder = createMock(Session.Builder.class);
+    expect(builder.sessionId()).andReturn(id);
+    replay(builder);
+    Session session = store.get(builder);
+    verify(builder);
+    return session;
+  }
+
+}
@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.protobuf;
+
+import java.util.List;
+
+import org.jooby.Body;
+import org.jooby.Env;
+import org.jooby.Jooby;
+import org.jooby.MediaType;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Binder;
+import com.google.inject.Key;
+import com.google.inject.multibindings.Multibinder;
+import com.google.inject.name.Names;
+import com.typesafe.config.Config;
+
+/**
+ * Body parser and formatter for
+ * <a href="https://developers.google.com/protocol-buffers/">Protocol Buffers</a>.
+ *
+ * <pre>
+ * {
+ *   use(new Protobuf());
+ *
+ *   get("/greeting", req {@literal ->} Greeting.newBuilder()...build());
+ *
+ *   post("/greeting", req {@literal ->} req.body(Greeting.class));
+ * }
+ * </pre>
+ *
+ * Messages are parsed from the request input stream and written to the response output stream,
+ * both via the coded streams of protobuf. Clients must send/accept
+ * <code>application/x-protobuf</code>.
+ *
+ * @author edgar
+ * @since 0.4.0
+ */
+public class Protobuf implements Jooby.Module {
+
+  /** Protobuf media type. */
+  public static final MediaType PROTOBUF = MediaType.valueOf("application/x-protobuf");
+
+  private List<MediaType> types = ImmutableList.of(PROTOBUF);
+
+  public Protobuf types(final MediaType... types) {
+    return types(ImmutableList.copyOf(types));
+  }
+
+  public Protobuf types(final List<MediaType> types) {
+    this.types = ImmutableList.copyOf(types);
+    return this;
+  }
+
+  @Override
+  public void configure(final Env mode, final Config config, final Binder binder) {
+    ProtobufBodyHandler protobuf = new ProtobufBodyHandler(types);
+
+    Multibinder.newSetBinder(binder, Body.Formatter.class)
+        .addBinding()
+        .toInstance(protobuf);
+
+    Multibinder.newSetBinder(binder, Body.Parser.class)
+        .addBinding()
+        .toInstance(protobuf);
+
+    // direct access?
+    binder.bind(Key.get(Body.Formatter.class, Names.named(protobuf.toString())))
+        .toInstance(protobuf);
+    binder.bind(Key.get(Body.Parser.class, Names.named(protobuf.toString()))).toInstance(protobuf);
+  }
+
+}
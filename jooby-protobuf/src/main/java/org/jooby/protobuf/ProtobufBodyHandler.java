@@ -0,0 +1,116 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.protobuf;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jooby.Body;
+import org.jooby.Err;
+import org.jooby.MediaType;
+import org.jooby.Status;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.TypeLiteral;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+
+/**
+ * Read and write protobuf {@link Message messages} straight from/to the request/response
+ * streams. No intermediate byte arrays are created.
+ *
+ * @author edgar
+ * @since 0.4.0
+ */
+class ProtobufBodyHandler implements Body.Formatter, Body.Parser {
+
+  /** Max size of the output buffer. Default to protobuf default. */
+  private static final int BUFFER_SIZE = 4096;
+
+  private final List<MediaType> types;
+
+  /** Message parser per type. */
+  private final Map<Type, Parser<?>> parsers = new ConcurrentHashMap<>();
+
+  public ProtobufBodyHandler(final List<MediaType> types) {
+    this.types = ImmutableList.copyOf(requireNonNull(types, "Types are required."));
+  }
+
+  @Override
+  public List<MediaType> types() {
+    return types;
+  }
+
+  @Override
+  public boolean canParse(final TypeLiteral<?> type) {
+    return Message.class.isAssignableFrom(type.getRawType());
+  }
+
+  @Override
+  public boolean canFormat(final Class<?> type) {
+    return MessageLite.class.isAssignableFrom(type);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T> T parse(final TypeLiteral<T> type, final Body.Reader reader) throws Exception {
+    Parser<?> parser = parsers.computeIfAbsent(type.getType(), it -> parser(type.getRawType()));
+    try {
+      return reader.bytes(in -> (T) parser.parseFrom(CodedInputStream.newInstance(in)));
+    } catch (InvalidProtocolBufferException ex) {
+      throw new Err(Status.BAD_REQUEST, ex);
+    }
+  }
+
+  @Override
+  public void format(final Object body, final Body.Writer writer) throws Exception {
+    MessageLite message = (MessageLite) body;
+    // size is memoized by the message, so writeTo doesn't compute it again
+    int size = message.getSerializedSize();
+    writer.bytes(out -> {
+      CodedOutputStream stream = CodedOutputStream
+          .newInstance(out, Math.max(1, Math.min(size, BUFFER_SIZE)));
+      message.writeTo(stream);
+      stream.flush();
+    });
+  }
+
+  @Override
+  public String toString() {
+    return "protobuf";
+  }
+
+  private static Parser<?> parser(final Class<?> type) {
+    try {
+      Message message = (Message) type.getMethod("getDefaultInstance").invoke(null);
+      return message.getParserForType();
+    } catch (Exception ex) {
+      throw new IllegalArgumentException("Not a generated message: " + type.getName(), ex);
+    }
+  }
+
+}
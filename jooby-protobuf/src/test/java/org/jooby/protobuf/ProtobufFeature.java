@@ -0,0 +1,71 @@
+package org.jooby.protobuf;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.entity.ContentType;
+import org.apache.http.util.EntityUtils;
+import org.jooby.protobuf.Greetings.Greeting;
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+public class ProtobufFeature extends ServerFeature {
+
+  {
+    use(new Protobuf());
+
+    get("/greeting", req -> Greeting.newBuilder()
+        .setId(1)
+        .setMessage("hello")
+        .addTags("a")
+        .addTags("b")
+        .build());
+
+    post("/greeting", req -> {
+      Greeting greeting = req.body(Greeting.class);
+      return greeting.toBuilder().setMessage(greeting.getMessage() + "!").build();
+    });
+  }
+
+  @Test
+  public void format() throws Exception {
+    HttpResponse rsp = Request.Get(uri("greeting").build())
+        .addHeader("Accept", "application/x-protobuf")
+        .execute().returnResponse();
+    assertEquals("application/x-protobuf", rsp.getFirstHeader("Content-Type").getValue());
+    Greeting greeting = Greeting.parseFrom(EntityUtils.toByteArray(rsp.getEntity()));
+    assertEquals(1, greeting.getId());
+    assertEquals("hello", greeting.getMessage());
+    assertEquals("[a, b]", greeting.getTagsList().toString());
+  }
+
+  @Test
+  public void parse() throws Exception {
+    byte[] body = Greeting.newBuilder()
+        .setId(2)
+        .setMessage("bye")
+        .build()
+        .toByteArray();
+    HttpResponse rsp = Request.Post(uri("greeting").build())
+        .bodyByteArray(body, ContentType.create("application/x-protobuf"))
+        .addHeader("Accept", "application/x-protobuf")
+        .execute().returnResponse();
+    Greeting greeting = Greeting.parseFrom(EntityUtils.toByteArray(rsp.getEntity()));
+    assertEquals(2, greeting.getId());
+    assertEquals("bye!", greeting.getMessage());
+  }
+
+  @Test
+  public void missingRequiredField() throws Exception {
+    byte[] body = Greeting.newBuilder()
+        .setId(3)
+        .buildPartial()
+        .toByteArray();
+    assertEquals(400, Request.Post(uri("greeting").build())
+        .bodyByteArray(body, ContentType.create("application/x-protobuf"))
+        .addHeader("Accept", "application/x-protobuf")
+        .execute().returnResponse().getStatusLine().getStatusCode());
+  }
+
+}
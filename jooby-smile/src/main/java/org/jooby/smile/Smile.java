@@ -0,0 +1,60 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.smile;
+
+import org.jooby.MediaType;
+import org.jooby.jackson.JacksonBinaryModule;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Binary json body parser and formatter via
+ * <a href="https://github.com/FasterXML/jackson-dataformat-smile">Smile</a>. Useful for
+ * service-to-service traffic, where parsing json text is expensive.
+ *
+ * <pre>
+ * {
+ *   use(new Json());
+ *   use(new Smile());
+ *
+ *   get("/events", req {@literal ->} events());
+ * }
+ * </pre>
+ *
+ * Clients asking for <code>application/x-jackson-smile</code> get Smile bytes, everybody else
+ * gets json. See {@link JacksonBinaryModule}.
+ *
+ * @author edgar
+ * @since 0.4.0
+ */
+public class Smile extends JacksonBinaryModule<Smile> {
+
+  /** Smile media type. */
+  public static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+  public Smile(final ObjectMapper mapper) {
+    super("smile", mapper, SMILE);
+  }
+
+  public Smile() {
+    this(new ObjectMapper(new SmileFactory()));
+  }
+
+}
@@ -0,0 +1,45 @@
+package org.jooby.smile;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.util.EntityUtils;
+import org.jooby.jackson.Json;
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+
+public class SmileFeature extends ServerFeature {
+
+  private static final ObjectMapper smile = new ObjectMapper(new SmileFactory());
+
+  {
+    use(new Smile());
+
+    use(new Json());
+
+    get("/members", req ->
+        Lists.newArrayList(ImmutableMap.<String, Object> of("id", 1, "name", "pablo")));
+  }
+
+  @Test
+  public void smileRegisteredFirst() throws Exception {
+    HttpResponse rsp = Request.Get(uri("members").build())
+        .addHeader("Accept", Smile.SMILE.name())
+        .execute().returnResponse();
+    assertEquals(Smile.SMILE.name(), rsp.getFirstHeader("Content-Type").getValue());
+    assertEquals("[{id=1, name=pablo}]",
+        smile.readValue(EntityUtils.toByteArray(rsp.getEntity()), List.class).toString());
+
+    assertEquals("[{\"id\":1,\"name\":\"pablo\"}]", Request.Get(uri("members").build())
+        .execute().returnContent().asString());
+  }
+
+}
@@ -20,9 +20,11 @@ package org.jooby;
 
 import static java.util.Objects.requireNonNull;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -34,6 +36,7 @@ import javax.annotation.Nonnull;
 import org.jooby.internal.SetHeaderImpl;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
 import com.google.inject.TypeLiteral;
 
 /**
@@ -170,6 +173,24 @@ public class Body {
 
   }
 
+  /**
+   * A {@link Formatter} that might produce a binary format (smile, cbor, etc.). A binary
+   * formatter is picked for a wildcard <code>Accept</code> header (like <code>*</code>/
+   * <code>*</code>) only when there isn't a non binary formatter for the message, regardless of
+   * the order formatters were registered.
+   *
+   * @author edgar
+   * @since 0.4.0
+   */
+  public interface BinaryFormatter extends Formatter {
+
+    /**
+     * @return True, if this formatter writes a binary format and must be asked for explicitly.
+     */
+    boolean binary();
+
+  }
+
   /**
    * Utility class to properly reading a HTTP request body or parameters. It provides methods for
    * reading text and bytes efficiently.
@@ -221,6 +242,15 @@ public class Body {
 
     }
 
+    /**
+     * @return The request charset. Default is: <code>UTF-8</code>, implementations should
+     *         override it with the charset of the request.
+     */
+    @Nonnull
+    default Charset charset() {
+      return StandardCharsets.UTF_8;
+    }
+
     /**
      * Convert a HTTP request body to something else. The body must be read it using the request
      * {@link Charset}.
@@ -244,6 +274,29 @@ public class Body {
     @Nonnull
     <T> T bytes(@Nonnull Bytes bytes) throws Exception;
 
+    /**
+     * Convert a HTTP request body to something else, but unlike {@link #bytes(Bytes)} the
+     * {@link InputStream} is NOT closed after this call. Useful for lazy results (like an
+     * {@link java.util.Iterator}) that keep reading the HTTP body after this call. The HTTP body
+     * is closed once the request completes.
+     *
+     * <p>
+     * Default implementation reads the whole body via {@link #bytes(Bytes)} and gives a copy of
+     * it to the reading strategy, implementations should override it and stream the body.
+     * </p>
+     *
+     * @param bytes A bytes reading strategy.
+     * @param <T> Target type.
+     * @return A HTTP body converted to something else.
+     * @throws Exception When the operation fails.
+     */
+    @SuppressWarnings("unchecked")
+    @Nonnull
+    default <T> T stream(@Nonnull final Bytes bytes) throws Exception {
+      byte[] body = bytes(ByteStreams::toByteArray);
+      return (T) bytes.read(new ByteArrayInputStream(body));
+    }
+
   }
 
   /**
@@ -316,6 +369,22 @@ public class Body {
      */
     void bytes(@Nonnull Bytes bytes) throws Exception;
 
+    /**
+     * Write text already encoded with {@link #charset()} into the HTTP response body and close the
+     * resources. Like {@link #text(Text)} it applies the application/request charset, but bytes
+     * are written as they are, useful for libraries with a native encoder.
+     *
+     * <p>
+     * Default implementation delegates to {@link #bytes(Bytes)}.
+     * </p>
+     *
+     * @param bytes A bytes strategy, bytes must be encoded with {@link #charset()}.
+     * @throws Exception When the operation fails.
+     */
+    default void encoded(@Nonnull final Bytes bytes) throws Exception {
+      bytes(bytes);
+    }
+
   }
 
   /** Response headers. */
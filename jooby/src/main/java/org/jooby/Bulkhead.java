@@ -0,0 +1,129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import javax.annotation.Nonnull;
+
+import org.jooby.internal.Bulkheads;
+
+import com.google.inject.ImplementedBy;
+
+/**
+ * A named thread pool with a bounded queue. Bulkheads isolate a group of routes, so a slow
+ * route can't starve the server threads. Bulkheads are defined in your
+ * <code>application.conf</code>:
+ *
+ * <pre>
+ *   application.bulkheads {
+ *     reports {
+ *       # number of threads
+ *       threads = 4
+ *       # max number of pending requests, 0 means no queue
+ *       queue = 16
+ *       # optional path prefixes that run on this bulkhead
+ *       paths = [/reports]
+ *     }
+ *   }
+ * </pre>
+ *
+ * <p>
+ * A route is assigned to a bulkhead via {@link Route.Definition#bulkhead(String)} or by path
+ * prefix. Requests are handed off to the bulkhead and once it is saturated (all the threads are
+ * busy and the queue is full) new requests are rejected with a <code>503</code> response.
+ * </p>
+ *
+ * <p>
+ * Bulkhead's metrics are available from the {@link Bulkhead.Registry}:
+ * </p>
+ *
+ * <pre>
+ *   get("/bulkheads", req {@literal ->} {
+ *     Bulkhead reports = req.getInstance(Bulkhead.Registry.class).get("reports").get();
+ *     return reports.queued();
+ *   });
+ * </pre>
+ *
+ * @author edgar
+ * @since 0.4.0
+ */
+public interface Bulkhead {
+
+  /**
+   * Give access to the bulkheads of the application.
+   *
+   * @author edgar
+   * @since 0.4.0
+   */
+  @ImplementedBy(Bulkheads.class)
+  interface Registry {
+
+    /**
+     * @param name A bulkhead's name.
+     * @return A bulkhead or empty.
+     */
+    @Nonnull
+    Optional<Bulkhead> get(@Nonnull String name);
+
+    /**
+     * @return All the bulkheads.
+     */
+    @Nonnull
+    Collection<Bulkhead> bulkheads();
+  }
+
+  /**
+   * @return Bulkhead's name.
+   */
+  @Nonnull
+  String name();
+
+  /**
+   * @return Number of threads.
+   */
+  int threads();
+
+  /**
+   * @return Max number of pending requests.
+   */
+  int capacity();
+
+  /**
+   * @return Number of requests waiting in the queue.
+   */
+  int queued();
+
+  /**
+   * @return Number of requests being executed.
+   */
+  int active();
+
+  /**
+   * @return Number of rejected requests.
+   */
+  long rejected();
+
+  /**
+   * @return Number of executed requests.
+   */
+  long completed();
+
+}
@@ -20,16 +20,22 @@ package org.jooby;
 
 import static java.util.Objects.requireNonNull;
 
+import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Optional;
-import java.util.regex.Pattern;
+import java.util.concurrent.ExecutionException;
 
 import javax.annotation.Nonnull;
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.io.BaseEncoding;
 
 /**
@@ -392,15 +398,22 @@ public interface Cookie {
    */
   class Signature {
 
-    /** Remove trailing '='. */
-    private static final Pattern EQ = Pattern.compile("=+$");
-
     /** Algorithm name. */
     public static final String HMAC_SHA256 = "HmacSHA256";
 
     /** Signature separator. */
     private static final String SEP = "|";
 
+    /** Signers by secret, building one is expensive. */
+    private static final LoadingCache<String, Signer> signers = CacheBuilder.newBuilder()
+        .maximumSize(16)
+        .build(new CacheLoader<String, Signer>() {
+          @Override
+          public Signer load(final String secret) throws Exception {
+            return new Signer(secret);
+          }
+        });
+
     /**
      * Sign a value using a secret key. A value and secret key are required. Sign is done with
      * {@link #HMAC_SHA256}.
@@ -421,10 +434,7 @@ public interface Cookie {
       requireNonNull(value, "A value is required.");
       requireNonNull(secret, "A secret is required.");
 
-      Mac mac = Mac.getInstance(HMAC_SHA256);
-      mac.init(new SecretKeySpec(secret.getBytes(), HMAC_SHA256));
-      byte[] bytes = mac.doFinal(value.getBytes());
-      return value + SEP + EQ.matcher(BaseEncoding.base64().encode(bytes)).replaceAll("");
+      return signer(secret).sign(value);
     }
 
     /**
@@ -459,7 +469,134 @@ public interface Cookie {
      */
     public static boolean valid(final String value, final String secret)
         throws InvalidKeyException, NoSuchAlgorithmException {
-      return value.equals(unsign(value, secret));
+      requireNonNull(value, "A value is required.");
+      requireNonNull(secret, "A secret is required.");
+
+      return signer(secret).valid(value);
+    }
+
+    private static Signer signer(final String secret)
+        throws InvalidKeyException, NoSuchAlgorithmException {
+      try {
+        return signers.get(secret);
+      } catch (ExecutionException ex) {
+        Throwables.propagateIfInstanceOf(ex.getCause(), InvalidKeyException.class);
+        Throwables.propagateIfInstanceOf(ex.getCause(), NoSuchAlgorithmException.class);
+        throw Throwables.propagate(ex.getCause());
+      }
+    }
+
+  }
+
+  /**
+   * Sign and verify values with a fixed secret key, see {@link Signature}. Keys and {@link Mac}
+   * instances are created once and reused (one {@link Mac} per thread), so prefer a signer over
+   * {@link Signature} static methods in hot paths. A signer is thread-safe.
+   *
+   * <pre>
+   *   Cookie.Signer signer = new Cookie.Signer("mysecretkey");
+   *   String signed = signer.sign("hello");
+   *   ...
+   *   assertTrue(signer.valid(signed));
+   * </pre>
+   *
+   * Signatures are compared in constant time.
+   *
+   * @author edgar
+   * @since 0.4.0
+   */
+  class Signer {
+
+    private static final BaseEncoding BASE64 = BaseEncoding.base64().omitPadding();
+
+    private final SecretKeySpec key;
+
+    private final Mac prototype;
+
+    private final ThreadLocal<Mac> mac = ThreadLocal.withInitial(this::newMac);
+
+    /**
+     * Creates a new {@link Signer}.
+     *
+     * @param secret A secret key.
+     * @throws NoSuchAlgorithmException If {@link Signature#HMAC_SHA256} is missing.
+     * @throws InvalidKeyException If secret key is wrong (bad encoding, too short, etc.)
+     */
+    public Signer(@Nonnull final String secret)
+        throws NoSuchAlgorithmException, InvalidKeyException {
+      requireNonNull(secret, "A secret is required.");
+      this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8),
+          Signature.HMAC_SHA256);
+      this.prototype = Mac.getInstance(Signature.HMAC_SHA256);
+      this.prototype.init(key);
+    }
+
+    /**
+     * Sign a value, see {@link Signature#sign(String, String)}.
+     *
+     * @param value A value to sign.
+     * @return A signed value.
+     */
+    public @Nonnull String sign(@Nonnull final String value) {
+      requireNonNull(value, "A value is required.");
+      return value + Signature.SEP + BASE64.encode(mac(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * True, if the given signed value is valid, see {@link Signature#valid(String, String)}.
+     *
+     * @param value A signed value.
+     * @return True, if the given signed value is valid.
+     */
+    public boolean valid(@Nonnull final String value) {
+      requireNonNull(value, "A value is required.");
+      int sep = value.indexOf(Signature.SEP);
+      if (sep <= 0) {
+        return false;
+      }
+      byte[] expected = BASE64.encode(mac(value.substring(0, sep)
+          .getBytes(StandardCharsets.UTF_8))).getBytes(StandardCharsets.US_ASCII);
+      byte[] actual = value.substring(sep + 1).getBytes(StandardCharsets.US_ASCII);
+      return MessageDigest.isEqual(expected, actual);
+    }
+
+    /**
+     * Compute the HMAC of the given bytes.
+     *
+     * @param value Bytes to sign.
+     * @return A HMAC.
+     */
+    public @Nonnull byte[] mac(@Nonnull final byte[] value) {
+      requireNonNull(value, "A value is required.");
+      return mac.get().doFinal(value);
+    }
+
+    /**
+     * True, if the signature is the HMAC of the given bytes. Signatures are compared in constant
+     * time.
+     *
+     * @param value Signed bytes.
+     * @param signature A signature, see {@link #mac(byte[])}.
+     * @return True, if the signature is valid.
+     */
+    public boolean verify(@Nonnull final byte[] value, @Nonnull final byte[] signature) {
+      requireNonNull(signature, "A signature is required.");
+      return MessageDigest.isEqual(mac(value), signature);
+    }
+
+    private Mac newMac() {
+      try {
+        return (Mac) prototype.clone();
+      } catch (CloneNotSupportedException ex) {
+        try {
+          Mac mac = Mac.getInstance(prototype.getAlgorithm(), prototype.getProvider());
+          mac.init(key);
+          return mac;
+        } catch (NoSuchAlgorithmException | InvalidKeyException cause) {
+          // key and algorithm were checked on creation
+          throw new IllegalStateException("Can't create " + Signature.HMAC_SHA256, cause);
+        }
+      }
     }
 
   }
@@ -0,0 +1,116 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+import org.jooby.internal.Watchdog;
+
+/**
+ * A point in time after which a request is considered timed out. Deadlines are set via
+ * {@link Route.Definition#timeout(long)} or the <code>application.timeout</code> property.
+ *
+ * <pre>
+ *   get("/report", req {@literal ->} {
+ *     Deadline deadline = req.deadline().get();
+ *     long millis = deadline.timeLeft(TimeUnit.MILLISECONDS);
+ *     ...
+ *   }).timeout(2000);
+ * </pre>
+ *
+ * <p>
+ * Threads are never interrupted. Once a deadline expires, the next route in the chain isn't
+ * executed and a <code>503</code> response is generated. Long running work must stop by itself:
+ * check {@link #expired()} or {@link #timeLeft(TimeUnit)}, or rely on components that honor
+ * deadlines, like the jdbc data source (which sets query timeouts from the time left).
+ * </p>
+ *
+ * @author edgar
+ * @since 0.4.0
+ */
+public class Deadline implements Comparable<Deadline> {
+
+  /** Expiration time, in nanos (see {@link System#nanoTime()}). */
+  private final long expiresAt;
+
+  private Deadline(final long expiresAt) {
+    this.expiresAt = expiresAt;
+  }
+
+  /**
+   * Creates a new deadline that expires after the given timeout.
+   *
+   * @param timeout A timeout.
+   * @param unit Time unit.
+   * @return A new deadline.
+   */
+  public static @Nonnull Deadline deadline(final long timeout, final @Nonnull TimeUnit unit) {
+    requireNonNull(unit, "A time unit is required.");
+    return new Deadline(System.nanoTime() + unit.toNanos(timeout));
+  }
+
+  /**
+   * Deadline of the request being executed by the current thread. Useful for components that
+   * don't have access to the {@link Request}, like a JDBC data source.
+   *
+   * @return Deadline of the current request or empty.
+   */
+  public static @Nonnull Optional<Deadline> current() {
+    return Watchdog.current();
+  }
+
+  /**
+   * @param unit Time unit.
+   * @return Time left before the deadline expires or <code>0</code> when expired.
+   */
+  public long timeLeft(final @Nonnull TimeUnit unit) {
+    return unit.convert(Math.max(0, expiresAt - System.nanoTime()), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * @return True, if the deadline has expired.
+   */
+  public boolean expired() {
+    return expiresAt - System.nanoTime() <= 0;
+  }
+
+  /**
+   * @param deadline A deadline.
+   * @return The deadline that expires first.
+   */
+  public @Nonnull Deadline min(final @Nonnull Deadline deadline) {
+    return compareTo(deadline) <= 0 ? this : deadline;
+  }
+
+  @Override
+  public int compareTo(final Deadline deadline) {
+    return Long.signum(expiresAt - deadline.expiresAt);
+  }
+
+  @Override
+  public String toString() {
+    return timeLeft(TimeUnit.MILLISECONDS) + "ms";
+  }
+
+}
@@ -1941,9 +1941,20 @@ public class Jooby {
   }
 
   /**
-   * Stop the application, close all the modules and stop the web server.
+   * Stop the application, stop the web server and close all the modules.
    */
   public void stop() {
+    // stop server first, sessions and in-flight requests might depend on modules
+    if (injector != null) {
+      try {
+        Server server = injector.getInstance(Server.class);
+        server.stop();
+      } catch (Exception ex) {
+        LoggerFactory.getLogger(getClass()).error("Web server didn't stop normally", ex);
+      }
+      injector = null;
+    }
+
     // stop modules
     for (Jooby.Module module : modules) {
       try {
@@ -1954,16 +1965,6 @@ public class Jooby {
       }
     }
     modules.clear();
-
-    if (injector != null) {
-      try {
-        Server server = injector.getInstance(Server.class);
-        server.stop();
-      } catch (Exception ex) {
-        LoggerFactory.getLogger(getClass()).error("Web server didn't stop normally", ex);
-      }
-      injector = null;
-    }
   }
 
   /**
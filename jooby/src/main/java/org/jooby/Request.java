@@ -71,6 +71,16 @@ public interface Request extends Locals {
       return req.verb();
     }
 
+    @Override
+    public Optional<String> queryString() {
+      return req.queryString();
+    }
+
+    @Override
+    public Optional<Deadline> deadline() {
+      return req.deadline();
+    }
+
     @Override
     public MediaType type() {
       return req.type();
@@ -321,6 +331,28 @@ public interface Request extends Locals {
     return route().verb();
   }
 
+  /**
+   * Given:
+   *
+   * <pre>
+   *  http://domain.com/some/path.html?a=b {@literal ->} a=b
+   *  http://domain.com/a.html             {@literal ->} empty
+   * </pre>
+   *
+   * @return The raw query string (not decoded), without the leading <code>?</code>.
+   */
+  @Nonnull
+  Optional<String> queryString();
+
+  /**
+   * Deadline of the current request, set via {@link Route.Definition#timeout(long)} or the
+   * <code>application.timeout</code> property.
+   *
+   * @return Deadline of the current request or empty when there isn't a timeout.
+   */
+  @Nonnull
+  Optional<Deadline> deadline();
+
   /**
    * @return The <code>Content-Type</code> header. Default is: {@literal*}/{@literal*}.
    */
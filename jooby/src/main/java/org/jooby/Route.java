@@ -21,6 +21,7 @@ package org.jooby;
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
+import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -312,6 +313,21 @@ public interface Route {
      */
     private String pattern;
 
+    /**
+     * Max time in millis the route can take, <code>0</code> means no timeout.
+     */
+    private long timeout;
+
+    /**
+     * Name of the bulkhead (thread pool) where the route runs or <code>null</code>.
+     */
+    private String bulkhead;
+
+    /**
+     * The MVC method behind the route or <code>null</code>.
+     */
+    private Method method;
+
     /**
      * Creates a new route definition.
      *
@@ -593,6 +609,95 @@ public interface Route {
       return this;
     }
 
+    /**
+     * Set the max time the route can take. The timeout starts once the request has been routed,
+     * so the deadline is visible to all the routes in the chain (filters included) via
+     * {@link Request#deadline()}. Once the timeout expires, the rest of the chain is skipped and a
+     * <code>503</code> response is generated. The route isn't interrupted, see {@link Deadline}.
+     *
+     * <pre>
+     *   get("/report", req {@literal ->} report()).timeout(2000);
+     * </pre>
+     *
+     * @param timeout Timeout in millis or <code>0</code> for no timeout.
+     * @return This route definition.
+     */
+    public @Nonnull Definition timeout(final long timeout) {
+      checkArgument(timeout >= 0, "Timeout must be greater or equal to zero.");
+      this.timeout = timeout;
+      return this;
+    }
+
+    /**
+     * @return Max time in millis the route can take, <code>0</code> means no timeout.
+     */
+    public long timeout() {
+      return timeout;
+    }
+
+    /**
+     * Run the route on the given bulkhead. A bulkhead is a named thread pool with a bounded
+     * queue, defined in your <code>application.conf</code>:
+     *
+     * <pre>
+     *   application.bulkheads {
+     *     reports {
+     *       threads = 4
+     *       queue = 16
+     *     }
+     *   }
+     * </pre>
+     *
+     * Then:
+     *
+     * <pre>
+     *   get("/report", req {@literal ->} report()).bulkhead("reports");
+     * </pre>
+     *
+     * A slow route won't starve the server threads anymore. Once the bulkhead is saturated, new
+     * requests are rejected with a <code>503</code> response, while other routes keep working.
+     *
+     * @param bulkhead A bulkhead's name.
+     * @return This route definition.
+     */
+    public @Nonnull Definition bulkhead(final @Nonnull String bulkhead) {
+      this.bulkhead = requireNonNull(bulkhead, "A bulkhead's name is required.");
+      return this;
+    }
+
+    /**
+     * @return Name of the bulkhead where the route runs.
+     */
+    public @Nonnull Optional<String> bulkhead() {
+      return Optional.ofNullable(bulkhead);
+    }
+
+    /**
+     * Set the MVC method behind this route. Modules use it to find out parameter and return types
+     * at startup time.
+     *
+     * @param method A MVC method.
+     * @return This route definition.
+     */
+    public @Nonnull Definition method(final @Nonnull Method method) {
+      this.method = requireNonNull(method, "A method is required.");
+      return this;
+    }
+
+    /**
+     * @return The MVC method behind this route or empty for script routes.
+     */
+    public @Nonnull Optional<Method> method() {
+      return Optional.ofNullable(method);
+    }
+
+    /**
+     * @return The route filter (or handler).
+     */
+    public @Nonnull Filter filter() {
+      return filter;
+    }
+
     /**
      * @return All the types this route can consumes.
      */
@@ -614,6 +719,12 @@ public interface Route {
       buffer.append("  name: ").append(name()).append("\n");
       buffer.append("  consume: ").append(consumes()).append("\n");
       buffer.append("  produces: ").append(produces()).append("\n");
+      if (timeout > 0) {
+        buffer.append("  timeout: ").append(timeout).append("ms\n");
+      }
+      if (bulkhead != null) {
+        buffer.append("  bulkhead: ").append(bulkhead).append("\n");
+      }
       return buffer.toString();
     }
 
@@ -628,7 +739,7 @@ public interface Route {
     private Route asRoute(final Verb verb, final RouteMatcher matcher,
         final List<MediaType> produces) {
       return new RouteImpl(filter, verb, matcher.path(), pattern, name, matcher.vars(), consumes,
-          produces);
+          produces).timeout(timeout);
     }
 
   }
@@ -20,15 +20,20 @@ package org.jooby;
 
 import static java.util.Objects.requireNonNull;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import org.jooby.internal.jetty.SessionSaveQueue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.inject.ImplementedBy;
+
 /**
  * Sessions are created on demand from {@link Request#session()}.
  *
@@ -41,6 +46,10 @@ import org.slf4j.LoggerFactory;
  * session will be invalidated after 1800 seconds (30 minutes) of inactivity. Alternative, you can
  * set session timeout from {@link Definition#timeout(int)}.
  * </p>
+ * <p>
+ * Expired sessions are invalidated by a background thread, even if they are never accessed again,
+ * and deleted from the {@link Store} in batches, see {@link Store#delete(Collection)}.
+ * </p>
  * <h2>Session persistence</h2>
  * <p>
  * Session data can be persisted, in order to do that you must provide an implementation of
@@ -56,6 +65,29 @@ import org.slf4j.LoggerFactory;
  * In short, a session is persisted when: 1) are dirty; or 2) save interval is expired it.
  * </p>
  * <p>
+ * Sessions are persisted from the request thread, so a slow {@link Store} adds to response time.
+ * The <code>application.session.saveQueue</code> property (or {@link Definition#saveQueue(int)})
+ * moves saves to a background thread with a bounded queue. See {@link SaveQueue}.
+ * </p>
+ * <h2>Stateless sessions</h2>
+ * <p>
+ * The <code>application.session.stateless.enabled</code> property (or
+ * {@link Definition#stateless(boolean)}) keeps session attributes in the session cookie. Attributes
+ * are serialized, compressed (<code>stateless.compress</code>), encrypted
+ * (<code>stateless.encrypt</code>) and signed with <code>application.secret</code>. Sessions don't
+ * live in the server, so they survive restarts and don't need a {@link Store}. Session attributes
+ * must be small: a cookie bigger than <code>stateless.maxSize</code> bytes is rejected. For key
+ * rotation, move the old secret to <code>stateless.secrets</code>: cookies signed with any of them
+ * are accepted and re-issued with the current secret.
+ * </p>
+ * <p>
+ * Strings, numbers and booleans are written as tagged values. Any other attribute is written with
+ * Java serialization and read back with {@link java.io.ObjectInputStream} once the signature is
+ * verified. A leaked <code>application.secret</code> lets anybody sign a cookie with arbitrary
+ * serialized objects, which is remote code execution. Keep the secret out of source control and
+ * prefer primitive attributes in stateless sessions.
+ * </p>
+ * <p>
  * Finally, the <code>application.session.preseverOnStop</code> indicates whenever existing session
  * need to be store at exit time (persisted) or not (invalidated). By default session are preserved
  * on stop.
@@ -91,8 +123,8 @@ import org.slf4j.LoggerFactory;
  * A session cookie is marked as secure and httpOnly.
  * </p>
  * <p>
- * Please note that session data is NOT persisted in the cookie, just the session ID. If need to
- * persist a session, see {@link Session.Store}
+ * Please note that session data is NOT persisted in the cookie, just the session ID (unless
+ * stateless sessions are enabled). If need to persist a session, see {@link Session.Store}
  * </p>
  *
  * @author edgar
@@ -123,6 +155,15 @@ public interface Session extends Locals {
     /** Save interval. */
     private Integer saveInterval;
 
+    /** Passivate sessions between requests. */
+    private Boolean passivate;
+
+    /** Size of the async save queue. */
+    private Integer saveQueue;
+
+    /** Keep session data in a signed cookie. */
+    private Boolean stateless;
+
     /**
      * Creates a new session definition.
      *
@@ -190,6 +231,69 @@ public interface Session extends Locals {
       return this;
     }
 
+    /**
+     * @return True, when sessions are removed from memory between requests.
+     */
+    public @Nonnull Optional<Boolean> passivate() {
+      return Optional.ofNullable(passivate);
+    }
+
+    /**
+     * Set/override passivate flag. If true, a session is saved and removed from memory once a
+     * request exit and it is loaded from the {@link Store} on the next request. Makes sense for
+     * stores that live outside of the heap, like {@link org.jooby.session.OffHeapSessionStore}.
+     * It requires a store: the application fails at startup when passivate is on and the store is
+     * {@link Store#NOOP}.
+     *
+     * @param passivate True, for removing sessions from memory between requests.
+     * @return This definition.
+     */
+    public @Nonnull Definition passivate(final boolean passivate) {
+      this.passivate = passivate;
+      return this;
+    }
+
+    /**
+     * @return Size of the async save queue or <code>0</code> for saving sessions from the request
+     *         thread.
+     */
+    public @Nonnull Optional<Integer> saveQueue() {
+      return Optional.ofNullable(saveQueue);
+    }
+
+    /**
+     * Set/override the size of the async save queue. If greater than zero, sessions are saved by
+     * a background thread and a request doesn't wait for the {@link Store}.
+     *
+     * @param saveQueue Max number of sessions waiting to be saved or <code>0</code> for saving
+     *        sessions from the request thread.
+     * @return This definition.
+     */
+    public @Nonnull Definition saveQueue(final int saveQueue) {
+      this.saveQueue = saveQueue;
+      return this;
+    }
+
+    /**
+     * @return True, when session data is kept in a signed cookie (client-side sessions).
+     */
+    public @Nonnull Optional<Boolean> stateless() {
+      return Optional.ofNullable(stateless);
+    }
+
+    /**
+     * Set/override stateless flag. If true, session attributes are serialized, signed (and
+     * optionally compressed and encrypted) into the session cookie. The server keeps nothing in
+     * memory and the {@link Store} isn't used.
+     *
+     * @param stateless True, for keeping session data in a signed cookie.
+     * @return This definition.
+     */
+    public @Nonnull Definition stateless(final boolean stateless) {
+      this.stateless = stateless;
+      return this;
+    }
+
     /**
      * @return A session store, defaults to {@link Store#NOOP}.
      */
@@ -281,6 +385,24 @@ public interface Session extends Locals {
      */
     void save(@Nonnull Session session, @Nonnull SaveReason reason) throws Exception;
 
+    /**
+     * Save/persist the attributes that changed since the last save of a session. A session is
+     * saved with {@link #save(Session, SaveReason)} the first time, then dirty sessions are saved
+     * with this method.
+     *
+     * Default implementation saves the whole session, stores that can update single attributes
+     * should override it and write the changed attributes only.
+     *
+     * @param session A session to be persisted.
+     * @param changed Name of attributes added or modified since last save.
+     * @param removed Name of attributes removed since last save.
+     * @throws Exception If something goes wrong.
+     */
+    default void saveDelta(@Nonnull final Session session, @Nonnull final Set<String> changed,
+        @Nonnull final Set<String> removed) throws Exception {
+      save(session, SaveReason.DIRTY);
+    }
+
     /**
      * Delete a session by ID.
      *
@@ -289,6 +411,21 @@ public interface Session extends Locals {
      */
     void delete(@Nonnull String id) throws Exception;
 
+    /**
+     * Delete sessions by ID. Expired sessions are deleted in batches with this method.
+     *
+     * Default implementation deletes one session at a time, stores that support bulk deletes
+     * should override it.
+     *
+     * @param ids Session IDs.
+     * @throws Exception If something goes wrong.
+     */
+    default void delete(@Nonnull final Collection<String> ids) throws Exception {
+      for (String id : ids) {
+        delete(id);
+      }
+    }
+
     /**
      * Generate a session ID, if <code>null</code> is returned the default ID generator will be
      * use it.
@@ -301,6 +438,61 @@ public interface Session extends Locals {
     }
   }
 
+  /**
+   * Sessions waiting to be saved and save metrics. Sessions are queued when
+   * <code>application.session.saveQueue</code> is greater than zero, otherwise they are saved from
+   * the request thread and only metrics are collected.
+   *
+   * <pre>
+   *   get("/sessions", req {@literal ->} {
+   *     Session.SaveQueue queue = req.getInstance(Session.SaveQueue.class);
+   *     return queue.pending();
+   *   });
+   * </pre>
+   *
+   * <p>
+   * A session is queued once, no matter how many times it is saved before it is written. The
+   * {@link Store} always gets the newest state of it. If the queue is full, the session is saved
+   * from the request thread. Queued sessions are written when the application stops.
+   * </p>
+   *
+   * @author edgar
+   * @since 0.4.0
+   */
+  @ImplementedBy(SessionSaveQueue.class)
+  interface SaveQueue {
+
+    /**
+     * @return Max number of sessions waiting to be saved, <code>0</code> when saves aren't async.
+     */
+    int capacity();
+
+    /**
+     * @return Number of sessions waiting to be saved.
+     */
+    int pending();
+
+    /**
+     * @return Number of saved sessions.
+     */
+    long saved();
+
+    /**
+     * @return Number of saves that resulted in exception.
+     */
+    long failed();
+
+    /**
+     * @return Mean time taken by {@link Store#save(Session, Store.SaveReason)} in nanoseconds.
+     */
+    long meanSaveTime();
+
+    /**
+     * @return Max time taken by {@link Store#save(Session, Store.SaveReason)} in nanoseconds.
+     */
+    long maxSaveTime();
+  }
+
   interface Builder {
 
     String sessionId();
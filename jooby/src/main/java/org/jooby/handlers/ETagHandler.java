@@ -0,0 +1,215 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.handlers;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.jooby.Request;
+import org.jooby.Response;
+import org.jooby.Route;
+import org.jooby.Status;
+import org.jooby.Verb;
+import org.jooby.internal.ResponseImpl;
+
+import com.google.common.base.Splitter;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * <h1>etag</h1>
+ * <p>
+ * Generates a weak <code>ETag</code> for dynamic responses and answers conditional
+ * <code>GET</code> requests (<code>If-None-Match</code>) with a <code>304</code> status before
+ * the body is sent.
+ * </p>
+ *
+ * <pre>
+ * {
+ *   use("GET", "/api/**", new ETagHandler());
+ * }
+ * </pre>
+ *
+ * <p>
+ * The response body is buffered and hashed with <code>CRC32C</code>. Bodies bigger than the max
+ * buffer size are streamed to the client without an <code>ETag</code>. If a route set an
+ * <code>ETag</code> header, it is used as it is and the body isn't hashed.
+ * </p>
+ *
+ * @author edgar
+ * @since 0.4.0
+ */
+public class ETagHandler implements Route.Filter {
+
+  /** Default max buffer size: 256kb. */
+  private static final int MAX_SIZE = 256 * 1024;
+
+  private static final HashFunction CRC32C = Hashing.crc32c();
+
+  private static final Splitter COMMA = Splitter.on(',').trimResults().omitEmptyStrings();
+
+  private final int maxSize;
+
+  /**
+   * Creates a new {@link ETagHandler}.
+   *
+   * @param maxSize Max number of bytes to buffer, bigger responses won't have an ETag.
+   */
+  public ETagHandler(final int maxSize) {
+    checkArgument(maxSize > 0, "Max size must be greater than zero.");
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * Creates a new {@link ETagHandler} with a max buffer size of 256kb.
+   */
+  public ETagHandler() {
+    this(MAX_SIZE);
+  }
+
+  @Override
+  public void handle(final Request req, final Response rsp, final Route.Chain chain)
+      throws Exception {
+    if (req.verb() == Verb.GET) {
+      String ifNoneMatch = req.header("If-None-Match").toOptional(String.class).orElse("");
+      ResponseImpl root = (ResponseImpl) Response.Forwarding.unwrap(rsp);
+      root.intercept(out -> new ETagOutputStream(root, out, ifNoneMatch, maxSize));
+    }
+    chain.next(req, rsp);
+  }
+
+  /**
+   * Weak comparison of an <code>If-None-Match</code> header against an <code>ETag</code>.
+   *
+   * @param ifNoneMatch Value of the <code>If-None-Match</code> header.
+   * @param etag An etag.
+   * @return True if the etag matches.
+   */
+  static boolean matches(final String ifNoneMatch, final String etag) {
+    String opaque = opaque(etag);
+    for (String candidate : COMMA.split(ifNoneMatch)) {
+      if ("*".equals(candidate) || opaque.equals(opaque(candidate))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String opaque(final String etag) {
+    return etag.startsWith("W/") ? etag.substring(2) : etag;
+  }
+
+  private static class Buffer extends ByteArrayOutputStream {
+
+    public String etag() {
+      return "W/\"" + Integer.toHexString(count) + "-" + CRC32C.hashBytes(buf, 0, count) + "\"";
+    }
+  }
+
+  private static class ETagOutputStream extends OutputStream {
+
+    private Response rsp;
+
+    private OutputStream out;
+
+    private String ifNoneMatch;
+
+    private int maxSize;
+
+    private Buffer buffer = new Buffer();
+
+    private boolean streaming;
+
+    private boolean closed;
+
+    public ETagOutputStream(final Response rsp, final OutputStream out, final String ifNoneMatch,
+        final int maxSize) {
+      this.rsp = rsp;
+      this.out = out;
+      this.ifNoneMatch = ifNoneMatch;
+      this.maxSize = maxSize;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+      if (buffer(1)) {
+        buffer.write(b);
+      } else {
+        out.write(b);
+      }
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+      if (buffer(len)) {
+        buffer.write(b, off, len);
+      } else {
+        out.write(b, off, len);
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      // don't commit the response until we know the etag
+      if (streaming) {
+        out.flush();
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      if (streaming) {
+        out.close();
+        return;
+      }
+      if (rsp.status().orElse(Status.OK) == Status.OK) {
+        String etag = rsp.header("ETag").toOptional(String.class).orElseGet(buffer::etag);
+        rsp.header("ETag", etag);
+        if (matches(ifNoneMatch, etag)) {
+          rsp.status(Status.NOT_MODIFIED);
+          buffer.reset();
+        }
+      }
+      buffer.writeTo(out);
+      out.close();
+    }
+
+    private boolean buffer(final int len) throws IOException {
+      if (streaming) {
+        return false;
+      }
+      if (buffer.size() + len > maxSize) {
+        // too big, switch to streaming (no etag)
+        streaming = true;
+        buffer.writeTo(out);
+        buffer = null;
+        return false;
+      }
+      return true;
+    }
+  }
+
+}
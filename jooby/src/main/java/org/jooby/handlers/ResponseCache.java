@@ -0,0 +1,403 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.handlers;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jooby.Request;
+import org.jooby.Response;
+import org.jooby.Route;
+import org.jooby.Status;
+import org.jooby.Verb;
+import org.jooby.internal.ResponseSnapshot;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * <h1>response cache</h1>
+ * <p>
+ * Server side cache of HTTP responses. The status, headers and body bytes of a response are
+ * captured the first time a route runs and sent again (without running the route) for subsequent
+ * requests.
+ * </p>
+ *
+ * <pre>
+ * {
+ *   use("GET", "/api/**", new ResponseCache(5, TimeUnit.SECONDS));
+ *
+ *   get("/api/report", req {@literal ->} expensiveReport());
+ * }
+ * </pre>
+ *
+ * <h2>cache key</h2>
+ * <p>
+ * Responses are stored by: verb, path, query string, the negotiated media type and the request
+ * values of the headers listed in the <code>Vary</code> response header. So, each variant of a
+ * response (json vs xml, english vs spanish, etc...) has its own entry. Only <code>GET</code>
+ * responses with a <code>200</code> status are cached.
+ * </p>
+ *
+ * <h2>cache-control</h2>
+ * <ul>
+ * <li>A request with <code>Cache-Control: no-store</code> skips the cache.</li>
+ * <li>A request with <code>Cache-Control: no-cache</code> (or <code>max-age=0</code>) ignores the
+ * cached response and stores a fresh one.</li>
+ * <li>A response with <code>Cache-Control: no-store, no-cache or private</code> or with a
+ * <code>Set-Cookie</code> header isn't cached.</li>
+ * <li>A response with <code>Cache-Control: s-maxage or max-age</code> overrides the default
+ * time to live.</li>
+ * <li>A response with <code>Vary: *</code> isn't cached. For any other <code>Vary</code> header,
+ * a cached response is sent only when the request has the same values for the listed headers.
+ * </li>
+ * <li>A response to a request with an <code>Authorization</code> header is cached only when the
+ * response has <code>Cache-Control: public, s-maxage or must-revalidate</code>.</li>
+ * <li>A request with a <code>Cookie</code> header might get a response for a particular user
+ * (rendered from the session, for example), so it bypasses the cache. Only responses with
+ * <code>Cache-Control: public</code> are cached and sent to requests with a <code>Cookie</code>
+ * header.</li>
+ * </ul>
+ *
+ * <h2>etag</h2>
+ * <p>
+ * If the cached response has an <code>ETag</code> (see {@link ETagHandler}), a matching
+ * <code>If-None-Match</code> request header is answered with a <code>304</code> status.
+ * </p>
+ *
+ * <h2>concurrent misses</h2>
+ * <p>
+ * When several requests miss the same key at the same time, only one of them runs the route. The
+ * others wait for it and send its response (see {@link SingleFlight}). Waiting requests that
+ * don't get a response before the timeout (5s by default) get a <code>503</code> response.
+ * Requests with a <code>Cookie</code> header are never collapsed.
+ * </p>
+ *
+ * <h2>eviction</h2>
+ * <p>
+ * The cache is bounded by size (in bytes). When it is full, the least recently used entries are
+ * evicted. Statistics are available via {@link #hitCount()}, {@link #missCount()} and
+ * {@link #hitRate()}.
+ * </p>
+ *
+ * @author edgar
+ * @since 0.4.0
+ */
+public class ResponseCache implements Route.Filter {
+
+  private static class Entry {
+
+    private final ResponseSnapshot rsp;
+
+    private final long expiresAt;
+
+    private final Map<String, String> vary;
+
+    /** True for <code>Cache-Control: public</code>, it can be sent to requests with cookies. */
+    private final boolean shared;
+
+    public Entry(final ResponseSnapshot rsp, final long expiresAt,
+        final Map<String, String> vary, final boolean shared) {
+      this.rsp = rsp;
+      this.expiresAt = expiresAt;
+      this.vary = vary;
+      this.shared = shared;
+    }
+
+    public boolean matches(final Request req, final long now) {
+      return now < expiresAt && SingleFlight.vary(req, vary)
+          && (shared || !req.header("Cookie").isPresent());
+    }
+  }
+
+  /** Max number of keys with Vary headers we keep track of. */
+  private static final int VARIES = 10_000;
+
+  /** Default max size: 16mb. */
+  private static final long MAX_SIZE = 16 * 1024 * 1024;
+
+  /** Default max time (in millis) a request waits for a concurrent miss of the same key: 5s. */
+  private static final long TIMEOUT = 5000L;
+
+  private static final Splitter COMMA = Splitter.on(',').trimResults().omitEmptyStrings();
+
+  private final Cache<String, Entry> cache;
+
+  /** Header names listed in the Vary header of the last response of a key. */
+  private final Cache<String, List<String>> varies;
+
+  private final SingleFlight flights;
+
+  private final long ttl;
+
+  private final int maxEntrySize;
+
+  private final LongAdder hits = new LongAdder();
+
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * Creates a new {@link ResponseCache}.
+   *
+   * @param maxSize Max size in bytes of the cache.
+   * @param ttl Default time to live of a cached response.
+   * @param timeout Max time a request waits for a concurrent miss of the same key.
+   * @param unit Time unit of the time to live and timeout.
+   */
+  public ResponseCache(final long maxSize, final long ttl, final long timeout,
+      final TimeUnit unit) {
+    checkArgument(maxSize > 0, "Max size must be greater than zero.");
+    checkArgument(ttl > 0, "TTL must be greater than zero.");
+    requireNonNull(unit, "A time unit is required.");
+    this.ttl = unit.toMillis(ttl);
+    this.flights = new SingleFlight(timeout, unit);
+    this.maxEntrySize = (int) Math.min(Integer.MAX_VALUE, maxSize);
+    this.cache = CacheBuilder.newBuilder()
+        .maximumWeight(maxSize)
+        .weigher((final String key, final Entry entry) -> key.length() + entry.rsp.length())
+        .build();
+    this.varies = CacheBuilder.newBuilder()
+        .maximumSize(VARIES)
+        .build();
+  }
+
+  /**
+   * Creates a new {@link ResponseCache}. Requests wait up to 5s for a concurrent miss of the same
+   * key.
+   *
+   * @param maxSize Max size in bytes of the cache.
+   * @param ttl Default time to live of a cached response.
+   * @param unit Time unit.
+   */
+  public ResponseCache(final long maxSize, final long ttl, final TimeUnit unit) {
+    this(maxSize, requireNonNull(unit, "A time unit is required.").toMillis(ttl), TIMEOUT,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Creates a new {@link ResponseCache} with a max size of 16mb.
+   *
+   * @param ttl Default time to live of a cached response.
+   * @param unit Time unit.
+   */
+  public ResponseCache(final long ttl, final TimeUnit unit) {
+    this(MAX_SIZE, ttl, unit);
+  }
+
+  @Override
+  public void handle(final Request req, final Response rsp, final Route.Chain chain)
+      throws Exception {
+    Map<String, String> cacheControl = cacheControl(headerValue(req, "Cache-Control"));
+    if (req.verb() != Verb.GET || cacheControl.containsKey("no-store")) {
+      chain.next(req, rsp);
+      return;
+    }
+
+    String base = SingleFlight.key(req);
+    String key = key(base, req, varies.getIfPresent(base));
+    long now = System.currentTimeMillis();
+    boolean revalidate = cacheControl.containsKey("no-cache")
+        || "0".equals(cacheControl.get("max-age"));
+    if (!revalidate) {
+      Entry entry = cache.getIfPresent(key);
+      if (entry != null && entry.matches(req, now)) {
+        hits.increment();
+        send(entry, req, rsp);
+        return;
+      }
+    }
+
+    if (req.header("Cookie").isPresent()) {
+      // might be a response for a particular user, don't make others wait for it
+      miss(base, req, rsp, chain);
+      return;
+    }
+
+    flights.call(key, () -> miss(base, req, rsp, chain), entry -> {
+      // someone else computed the same response
+      if (entry != null && entry.matches(req, System.currentTimeMillis())) {
+        hits.increment();
+        send(entry, req, rsp);
+      } else {
+        misses.increment();
+        chain.next(req, rsp);
+      }
+      return entry;
+    });
+  }
+
+  /**
+   * Run the route and cache the response, if possible.
+   */
+  private Entry miss(final String base, final Request req, final Response rsp,
+      final Route.Chain chain) throws Exception {
+    misses.increment();
+    ResponseSnapshot.Capture capture = ResponseSnapshot.capture(rsp, maxEntrySize);
+    chain.next(req, rsp);
+    Entry entry = capture.snapshot()
+        .map(snapshot -> entry(req, snapshot))
+        .orElse(null);
+    if (entry != null) {
+      List<String> names = ImmutableList.copyOf(entry.vary.keySet());
+      if (names.isEmpty()) {
+        varies.invalidate(base);
+      } else {
+        varies.put(base, names);
+      }
+      cache.put(key(base, req, names), entry);
+    }
+    return entry;
+  }
+
+  /**
+   * @return Number of requests that were served from the cache.
+   */
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * @return Number of requests that weren't served from the cache.
+   */
+  public long missCount() {
+    return misses.sum();
+  }
+
+  /**
+   * @return Ratio of requests that were served from the cache or <code>1.0</code> when there
+   *         wasn't any request.
+   */
+  public double hitRate() {
+    long hits = hitCount();
+    long total = hits + missCount();
+    return total == 0 ? 1.0 : (double) hits / total;
+  }
+
+  /**
+   * @return Approximate number of cached responses.
+   */
+  public long size() {
+    return cache.size();
+  }
+
+  /**
+   * Discards all the cached responses.
+   */
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  private static void send(final Entry entry, final Request req, final Response rsp)
+      throws Exception {
+    Optional<String> etag = entry.rsp.header("ETag");
+    if (etag.isPresent() && ETagHandler.matches(headerValue(req, "If-None-Match"), etag.get())) {
+      rsp.header("ETag", etag.get());
+      rsp.status(Status.NOT_MODIFIED);
+    } else {
+      entry.rsp.send(rsp);
+    }
+  }
+
+  /**
+   * Cache key: the request key plus the request values of the headers listed in Vary.
+   */
+  private static String key(final String base, final Request req, final List<String> vary) {
+    if (vary == null || vary.isEmpty()) {
+      return base;
+    }
+    StringBuilder key = new StringBuilder(base);
+    for (String name : vary) {
+      key.append(';').append(name.toLowerCase()).append('=').append(headerValue(req, name));
+    }
+    return key.toString();
+  }
+
+  private Entry entry(final Request req, final ResponseSnapshot rsp) {
+    if (rsp.status() != Status.OK || rsp.header("Set-Cookie").isPresent()) {
+      return null;
+    }
+    Map<String, String> cacheControl = cacheControl(rsp.header("Cache-Control").orElse(""));
+    if (cacheControl.containsKey("no-store") || cacheControl.containsKey("no-cache")
+        || cacheControl.containsKey("private")) {
+      return null;
+    }
+    boolean shared = cacheControl.containsKey("public");
+    if (req.header("Authorization").isPresent() && !(shared
+        || cacheControl.containsKey("s-maxage") || cacheControl.containsKey("must-revalidate"))) {
+      // shared cache must not reuse an authorized response, unless explicitly allowed
+      return null;
+    }
+    if (req.header("Cookie").isPresent() && !shared) {
+      // might be rendered from the session (or any other user data)
+      return null;
+    }
+    long ttl = maxAge(cacheControl).orElse(this.ttl);
+    if (ttl <= 0) {
+      return null;
+    }
+    return SingleFlight.vary(req, rsp)
+        .map(vary -> new Entry(rsp, System.currentTimeMillis() + ttl, vary, shared))
+        .orElse(null);
+  }
+
+  private static Optional<Long> maxAge(final Map<String, String> cacheControl) {
+    String maxAge = cacheControl.getOrDefault("s-maxage", cacheControl.get("max-age"));
+    if (maxAge == null) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(TimeUnit.SECONDS.toMillis(Long.parseLong(maxAge)));
+    } catch (NumberFormatException ex) {
+      // invalid max-age, treat it as stale
+      return Optional.of(0L);
+    }
+  }
+
+  private static Map<String, String> cacheControl(final String value) {
+    if (value.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    Map<String, String> directives = new LinkedHashMap<>();
+    for (String directive : COMMA.split(value)) {
+      int eq = directive.indexOf('=');
+      if (eq > 0) {
+        directives.put(directive.substring(0, eq).trim().toLowerCase(),
+            directive.substring(eq + 1).trim().replace("\"", ""));
+      } else {
+        directives.put(directive.toLowerCase(), "");
+      }
+    }
+    return directives;
+  }
+
+  private static String headerValue(final Request req, final String name) {
+    return SingleFlight.header(req, name);
+  }
+
+}
@@ -0,0 +1,330 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.handlers;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import org.jooby.Err;
+import org.jooby.MediaType;
+import org.jooby.Request;
+import org.jooby.Response;
+import org.jooby.Route;
+import org.jooby.Status;
+import org.jooby.internal.ResponseSnapshot;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+
+/**
+ * <h1>single flight</h1>
+ * <p>
+ * Collapse identical concurrent requests into a single execution. The first request (the leader)
+ * runs the route, while the others (followers) wait for it and get a copy of its response.
+ * </p>
+ *
+ * <pre>
+ * {
+ *   use("GET", "/api/**", new SingleFlight(2, TimeUnit.SECONDS));
+ * }
+ * </pre>
+ *
+ * <p>
+ * Requests are identical when they have the same key. The default key is made of: verb, path,
+ * query string and the negotiated media type. A custom key function might be provided:
+ * </p>
+ *
+ * <pre>
+ * {
+ *   use("GET", "/api/**", new SingleFlight(req {@literal ->} req.path(), 2, TimeUnit.SECONDS));
+ * }
+ * </pre>
+ *
+ * <p>
+ * Followers that wait longer than the timeout get a <code>503</code> response. If the leader
+ * fails, followers fail with the same exception. Responses with a <code>Set-Cookie</code>
+ * header (or bigger than 1mb) are never shared, followers run the route by themselves. Same for
+ * responses with a <code>Vary</code> header, they are shared only with followers that have the
+ * same values for the listed headers.
+ * </p>
+ *
+ * <h2>credentials</h2>
+ * <p>
+ * Requests with a <code>Cookie</code> or <code>Authorization</code> header might produce a
+ * response for a particular user, so they are never collapsed with the default key. They are
+ * collapsed when a key function is provided, it is up to the function to put user data (if
+ * any) in the key.
+ * </p>
+ *
+ * <h2>shared objects</h2>
+ * <p>
+ * It is possible to share any computation (not just responses) via {@link #call(String, Callable)}:
+ * </p>
+ *
+ * <pre>
+ * {
+ *   SingleFlight flights = new SingleFlight(2, TimeUnit.SECONDS);
+ *
+ *   get("/users/:id", req {@literal ->} {
+ *     String id = req.param("id").stringValue();
+ *     return flights.call(id, () {@literal ->} findUser(id));
+ *   });
+ * }
+ * </pre>
+ *
+ * @author edgar
+ * @since 0.4.0
+ */
+public class SingleFlight implements Route.Filter {
+
+  /**
+   * Callback for followers of a flight.
+   *
+   * @param <T> Flight result.
+   */
+  interface Follower<T> {
+    T follow(T value) throws Exception;
+  }
+
+  /**
+   * A response shared by the leader, plus the values of the headers listed in <code>Vary</code>.
+   */
+  private static class Shared {
+
+    private final ResponseSnapshot rsp;
+
+    private final Map<String, String> vary;
+
+    public Shared(final ResponseSnapshot rsp, final Map<String, String> vary) {
+      this.rsp = rsp;
+      this.vary = vary;
+    }
+  }
+
+  /** Max size of a shared response: 1mb. */
+  private static final int MAX_SIZE = 1024 * 1024;
+
+  private static final Splitter COMMA = Splitter.on(',').trimResults().omitEmptyStrings();
+
+  private final ConcurrentMap<String, CompletableFuture<Object>> flights =
+      new ConcurrentHashMap<>();
+
+  private final Function<Request, String> key;
+
+  private final long timeout;
+
+  private final boolean credentials;
+
+  private SingleFlight(final Function<Request, String> key, final boolean credentials,
+      final long timeout, final TimeUnit unit) {
+    this.key = requireNonNull(key, "A key function is required.");
+    this.credentials = credentials;
+    checkArgument(timeout > 0, "Timeout must be greater than zero.");
+    this.timeout = requireNonNull(unit, "A time unit is required.").toMillis(timeout);
+  }
+
+  /**
+   * Creates a new {@link SingleFlight}. Requests with credentials (<code>Cookie</code> or
+   * <code>Authorization</code> header) are collapsed too.
+   *
+   * @param key A function that produces the key of a request.
+   * @param timeout Max time a follower waits for the leader.
+   * @param unit Time unit.
+   */
+  public SingleFlight(final Function<Request, String> key, final long timeout,
+      final TimeUnit unit) {
+    this(key, true, timeout, unit);
+  }
+
+  /**
+   * Creates a new {@link SingleFlight} with the default key function.
+   *
+   * @param timeout Max time a follower waits for the leader.
+   * @param unit Time unit.
+   */
+  public SingleFlight(final long timeout, final TimeUnit unit) {
+    this(SingleFlight::key, false, timeout, unit);
+  }
+
+  @Override
+  public void handle(final Request req, final Response rsp, final Route.Chain chain)
+      throws Exception {
+    if (!credentials && (req.header("Cookie").isPresent()
+        || req.header("Authorization").isPresent())) {
+      chain.next(req, rsp);
+      return;
+    }
+    call(key.apply(req), () -> {
+      ResponseSnapshot.Capture capture = ResponseSnapshot.capture(rsp, MAX_SIZE);
+      chain.next(req, rsp);
+      return capture.snapshot()
+          .filter(snapshot -> !snapshot.header("Set-Cookie").isPresent())
+          .flatMap(snapshot -> vary(req, snapshot).map(vary -> new Shared(snapshot, vary)))
+          .orElse(null);
+    }, shared -> {
+      if (shared == null || !vary(req, shared.vary)) {
+        chain.next(req, rsp);
+      } else {
+        shared.rsp.send(rsp);
+      }
+      return shared;
+    });
+  }
+
+  /**
+   * Execute the callable once per key. Concurrent callers with the same key wait for the first
+   * one and get its result (or exception).
+   *
+   * @param key A key.
+   * @param fn A computation.
+   * @param <T> Result type.
+   * @return The result of the computation.
+   * @throws Exception If the computation fails or if the timeout expires (503).
+   */
+  public <T> T call(final String key, final Callable<T> fn) throws Exception {
+    return call(key, fn, value -> value);
+  }
+
+  /**
+   * @return Number of keys in flight.
+   */
+  public int size() {
+    return flights.size();
+  }
+
+  @SuppressWarnings("unchecked")
+  <T> T call(final String key, final Callable<T> leader, final Follower<T> follower)
+      throws Exception {
+    requireNonNull(key, "A key is required.");
+    CompletableFuture<Object> future = new CompletableFuture<>();
+    CompletableFuture<Object> flight = flights.putIfAbsent(key, future);
+    if (flight != null) {
+      return follower.follow((T) await(key, flight));
+    }
+    try {
+      T value = leader.call();
+      future.complete(value);
+      return value;
+    } catch (Throwable ex) {
+      future.completeExceptionally(ex);
+      throw ex;
+    } finally {
+      flights.remove(key, future);
+    }
+  }
+
+  private Object await(final String key, final CompletableFuture<Object> flight)
+      throws Exception {
+    try {
+      return flight.get(timeout, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException ex) {
+      throw new Err(Status.SERVICE_UNAVAILABLE, "timeout while waiting for: " + key, ex);
+    } catch (ExecutionException ex) {
+      Throwable cause = ex.getCause();
+      if (cause instanceof Exception) {
+        throw (Exception) cause;
+      }
+      throw (Error) cause;
+    }
+  }
+
+  /**
+   * Default key of a request: verb, path, query string and negotiated type.
+   *
+   * @param req A HTTP request.
+   * @return A key.
+   */
+  static String key(final Request req) {
+    StringBuilder key = new StringBuilder(req.verb().name()).append(req.path());
+    req.queryString().ifPresent(query -> key.append('?').append(query));
+    return key.append(';').append(type(req)).toString();
+  }
+
+  /**
+   * Negotiated type: the best match between the <code>Accept</code> header and the types a route
+   * produces. If there isn't a match or it is a wildcard, the response type is picked later (by a
+   * body formatter) from the <code>Accept</code> header, so we use the header.
+   *
+   * @param req A HTTP request.
+   * @return Negotiated type.
+   */
+  private static String type(final Request req) {
+    List<MediaType> produces = req.route().produces();
+    Optional<MediaType> type = produces.isEmpty() ? Optional.empty() : req.accepts(produces);
+    if (type.isPresent() && type.get().name().indexOf('*') < 0) {
+      return type.get().name();
+    }
+    return Joiner.on(',').join(req.accept());
+  }
+
+  /**
+   * Collect the request values of the headers listed in the <code>Vary</code> response header.
+   *
+   * @param req A HTTP request.
+   * @param rsp A response.
+   * @return Header values or empty for <code>Vary: *</code>.
+   */
+  static Optional<Map<String, String>> vary(final Request req, final ResponseSnapshot rsp) {
+    Optional<String> header = rsp.header("Vary");
+    if (!header.isPresent()) {
+      return Optional.of(Collections.emptyMap());
+    }
+    Map<String, String> vary = new LinkedHashMap<>();
+    for (String name : COMMA.split(header.get())) {
+      if ("*".equals(name)) {
+        return Optional.empty();
+      }
+      vary.put(name, header(req, name));
+    }
+    return Optional.of(vary);
+  }
+
+  /**
+   * @param req A HTTP request.
+   * @param vary Header values collected by {@link #vary(Request, ResponseSnapshot)}.
+   * @return True, if the request has the same header values.
+   */
+  static boolean vary(final Request req, final Map<String, String> vary) {
+    for (Map.Entry<String, String> header : vary.entrySet()) {
+      if (!header.getValue().equals(header(req, header.getKey()))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  static String header(final Request req, final String name) {
+    return req.header(name).toOptional(String.class).orElse("");
+  }
+
+}
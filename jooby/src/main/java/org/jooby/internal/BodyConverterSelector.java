@@ -53,6 +53,9 @@ import com.google.inject.TypeLiteral;
  *   assertEquals(html, selector.get(MediaType.all));
  * </pre>
  *
+ * Binary formatters (see {@link Body.BinaryFormatter}) are picked by a wildcard only when there
+ * is no other formatter for the message.
+ *
  * @author edgar
  * @since 0.1.0
  */
@@ -129,6 +132,8 @@ public class BodyConverterSelector {
 
     Predicate<Body.Formatter> nameMatcher = message instanceof View ? viewable : noop;
 
+    // binary formatter matched by a wildcard, used if no other formatter matches
+    Body.Formatter binary = null;
     for (Body.Formatter formatter : formatters) {
       if (formatter.canFormat(clazz) && nameMatcher.test(formatter)) {
         for (MediaType type : types) {
@@ -137,13 +142,32 @@ public class BodyConverterSelector {
               .filter(it -> type.matches(it))
               .findFirst();
           if (found.isPresent()) {
+            if (wildcard(type) && binary(formatter)) {
+              if (binary == null) {
+                binary = formatter;
+              }
+              break;
+            }
             return Optional.of(formatter);
           }
         }
       }
     }
 
-    return Optional.empty();
+    return Optional.ofNullable(binary);
+  }
+
+  private static boolean wildcard(final MediaType type) {
+    return type.name().indexOf('*') >= 0;
+  }
+
+  /**
+   * A binary formatter (smile, cbor, etc.) must be asked for explicitly, so a <code>*</code>/
+   * <code>*</code> client gets a text format regardless of the order formatters were registered.
+   */
+  private static boolean binary(final Body.Formatter formatter) {
+    return formatter instanceof Body.BinaryFormatter
+        && ((Body.BinaryFormatter) formatter).binary();
   }
 
 }
@@ -39,6 +39,11 @@ public class BodyReaderImpl implements Body.Reader {
     this.stream = requireNonNull(stream, "An stream  supplier is required.");
   }
 
+  @Override
+  public Charset charset() {
+    return charset;
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public <T> T text(final Text text) throws Exception {
@@ -54,4 +59,10 @@ public class BodyReaderImpl implements Body.Reader {
       return (T) bin.read(in);
     }
   }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T> T stream(final Bytes bin) throws Exception {
+    return (T) bin.read(this.stream.get());
+  }
 }
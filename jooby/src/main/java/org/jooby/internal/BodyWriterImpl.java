@@ -34,16 +34,26 @@ class BodyWriterImpl implements Body.Writer {
 
   private ExSupplier<OutputStream> stream;
 
+  private ExSupplier<OutputStream> encoded;
+
   private ExSupplier<Writer> writer;
 
   public BodyWriterImpl(final Charset charset,
       final ExSupplier<OutputStream> stream,
+      final ExSupplier<OutputStream> encoded,
       final ExSupplier<Writer> writer) {
     this.charset = requireNonNull(charset, "A charset is required.");
     this.stream = requireNonNull(stream, "A stream is required.");
+    this.encoded = requireNonNull(encoded, "An encoded stream is required.");
     this.writer = requireNonNull(writer, "A writer is required.");
   }
 
+  public BodyWriterImpl(final Charset charset,
+      final ExSupplier<OutputStream> stream,
+      final ExSupplier<Writer> writer) {
+    this(charset, stream, stream, writer);
+  }
+
   @Override
   public Charset charset() {
     return charset;
@@ -60,7 +70,17 @@ class BodyWriterImpl implements Body.Writer {
 
   @Override
   public void bytes(final Bytes bin) throws Exception {
-    OutputStream out = this.stream.get();
+    write(this.stream, bin);
+  }
+
+  @Override
+  public void encoded(final Bytes bin) throws Exception {
+    write(this.encoded, bin);
+  }
+
+  private static void write(final ExSupplier<OutputStream> stream, final Bytes bin)
+      throws Exception {
+    OutputStream out = stream.get();
     // don't close on errors
     bin.write(uncloseable(out));
     out.flush();
@@ -121,6 +141,12 @@ class BodyWriterImpl implements Body.Writer {
       public void write(final byte[] b, final int off, final int len) throws IOException {
         out.write(b, off, len);
       }
+
+      @Override
+      public void flush() throws IOException {
+        // required by streaming formatters
+        out.flush();
+      }
     };
   }
 }
@@ -0,0 +1,125 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jooby.Bulkhead;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+public class BulkheadImpl implements Bulkhead {
+
+  private final String name;
+
+  private final int threads;
+
+  private final int capacity;
+
+  private final ThreadPoolExecutor executor;
+
+  private final LongAdder rejected = new LongAdder();
+
+  public BulkheadImpl(final String name, final int threads, final int capacity) {
+    this.name = requireNonNull(name, "A name is required.");
+    checkArgument(threads > 0, "Threads must be greater than zero, bulkhead: %s", name);
+    checkArgument(capacity >= 0, "Queue must be greater or equal to zero, bulkhead: %s", name);
+    this.threads = threads;
+    this.capacity = capacity;
+    BlockingQueue<Runnable> queue = capacity == 0
+        ? new SynchronousQueue<>()
+        : new ArrayBlockingQueue<>(capacity);
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, queue,
+        new ThreadFactoryBuilder()
+            .setNameFormat("bulkhead-" + name + "-%d")
+            .setDaemon(true)
+            .build(),
+        new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  /**
+   * Execute the task or reject it if the bulkhead is saturated.
+   *
+   * @param task Task to execute.
+   * @return True, if the task was accepted.
+   */
+  public boolean execute(final Runnable task) {
+    try {
+      executor.execute(task);
+      return true;
+    } catch (RejectedExecutionException ex) {
+      rejected.increment();
+      return false;
+    }
+  }
+
+  public void shutdown() {
+    executor.shutdown();
+  }
+
+  @Override
+  public String name() {
+    return name;
+  }
+
+  @Override
+  public int threads() {
+    return threads;
+  }
+
+  @Override
+  public int capacity() {
+    return capacity;
+  }
+
+  @Override
+  public int queued() {
+    return executor.getQueue().size();
+  }
+
+  @Override
+  public int active() {
+    return executor.getActiveCount();
+  }
+
+  @Override
+  public long rejected() {
+    return rejected.sum();
+  }
+
+  @Override
+  public long completed() {
+    return executor.getCompletedTaskCount();
+  }
+
+  @Override
+  public String toString() {
+    return name + " {threads: " + threads + ", queue: " + capacity + "}";
+  }
+
+}
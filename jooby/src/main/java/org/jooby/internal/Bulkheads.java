@@ -0,0 +1,131 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.jooby.Bulkhead;
+import org.jooby.MediaType;
+import org.jooby.Route;
+import org.jooby.Verb;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.typesafe.config.Config;
+
+@Singleton
+public class Bulkheads implements Bulkhead.Registry {
+
+  private final Map<String, BulkheadImpl> bulkheads = new LinkedHashMap<>();
+
+  /** Path prefixes, longest first. */
+  private final List<Map.Entry<String, BulkheadImpl>> paths = new ArrayList<>();
+
+  /** Routes with a bulkhead. */
+  private final List<Route.Definition> routes = new ArrayList<>();
+
+  @Inject
+  public Bulkheads(final Config config, final Set<Route.Definition> routes) {
+    requireNonNull(config, "A config is required.");
+    requireNonNull(routes, "The routes are required.");
+
+    Config $ = config.getConfig("application.bulkheads");
+    for (String name : $.root().keySet()) {
+      Config bulkhead = $.getConfig(name);
+      int queue = bulkhead.hasPath("queue") ? bulkhead.getInt("queue") : 0;
+      BulkheadImpl executor = new BulkheadImpl(name, bulkhead.getInt("threads"), queue);
+      bulkheads.put(name, executor);
+      if (bulkhead.hasPath("paths")) {
+        for (String path : bulkhead.getStringList("paths")) {
+          paths.add(Maps.immutableEntry(normalize(path), executor));
+        }
+      }
+    }
+    paths.sort(Comparator.comparing(
+        (final Map.Entry<String, BulkheadImpl> it) -> it.getKey().length()).reversed());
+
+    for (Route.Definition route : routes) {
+      route.bulkhead().ifPresent(name -> {
+        checkArgument(bulkheads.containsKey(name), "No such bulkhead: %s, at %s %s", name,
+            route.verb(), route.pattern());
+        this.routes.add(route);
+      });
+    }
+  }
+
+  /**
+   * Find the bulkhead where the request must run. A {@link Route.Definition#bulkhead(String)}
+   * has precedence over path prefixes.
+   *
+   * @param verb HTTP verb.
+   * @param path Request path.
+   * @return A bulkhead or empty, when the request must run on the server threads.
+   */
+  public Optional<BulkheadImpl> select(final Verb verb, final String path) {
+    if (bulkheads.isEmpty()) {
+      return Optional.empty();
+    }
+    String normalized = normalize(path);
+    for (Route.Definition route : routes) {
+      if (route.matches(verb, normalized, MediaType.all, MediaType.ALL).isPresent()) {
+        return Optional.of(bulkheads.get(route.bulkhead().get()));
+      }
+    }
+    for (Map.Entry<String, BulkheadImpl> prefix : paths) {
+      String value = prefix.getKey();
+      if (value.equals("/") || normalized.equals(value) || normalized.startsWith(value + "/")) {
+        return Optional.of(prefix.getValue());
+      }
+    }
+    return Optional.empty();
+  }
+
+  @Override
+  public Optional<Bulkhead> get(final String name) {
+    requireNonNull(name, "A bulkhead's name is required.");
+    return Optional.ofNullable(bulkheads.get(name));
+  }
+
+  @Override
+  public Collection<Bulkhead> bulkheads() {
+    return ImmutableList.copyOf(bulkheads.values());
+  }
+
+  public void stop() {
+    bulkheads.values().forEach(BulkheadImpl::shutdown);
+  }
+
+  private static String normalize(final String path) {
+    return path.endsWith("/") && path.length() > 1 ? path.substring(0, path.length() - 1) : path;
+  }
+
+}
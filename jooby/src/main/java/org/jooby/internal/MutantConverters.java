@@ -0,0 +1,213 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.jooby.Body;
+import org.jooby.MediaType;
+import org.jooby.fn.ExSupplier;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.primitives.Primitives;
+import com.google.inject.Injector;
+import com.google.inject.TypeLiteral;
+import com.google.inject.spi.TypeConverterBinding;
+
+/**
+ * Resolve a {@link TypeLiteral} to a {@link Converter} for {@link MutantImpl}. Guice type
+ * converters are collected once (at startup) and converters are cached per type, so param and
+ * header conversion doesn't walk the injector or allocate converters per call.
+ *
+ * @author edgar
+ * @since 0.4.0
+ */
+@Singleton
+public class MutantConverters {
+
+  /**
+   * Convert raw values to a target type.
+   *
+   * @author edgar
+   * @since 0.4.0
+   */
+  interface Converter {
+    /**
+     * Convert raw values to a target type.
+     *
+     * @param name Param name.
+     * @param values Raw values.
+     * @param type Media type of the values (for body parsers).
+     * @param charset Charset of the values (for body parsers).
+     * @return A converted value.
+     */
+    Object convert(String name, List<String> values, MediaType type, Charset charset);
+  }
+
+  private static final Map<Class<?>, Converter> PRIMITIVES = ImmutableMap
+      .<Class<?>, Converter> builder()
+      .put(Boolean.class, (name, values, type, charset) -> MutantImpl.toBoolean(name, values))
+      .put(Byte.class, (name, values, type, charset) -> MutantImpl.toByte(name, values))
+      .put(Short.class, (name, values, type, charset) -> MutantImpl.toShort(name, values))
+      .put(Integer.class, (name, values, type, charset) -> MutantImpl.toInt(name, values))
+      .put(Long.class, (name, values, type, charset) -> MutantImpl.toLong(name, values))
+      .put(Float.class, (name, values, type, charset) -> MutantImpl.toFloat(name, values))
+      .put(Double.class, (name, values, type, charset) -> MutantImpl.toDouble(name, values))
+      .put(String.class, (name, values, type, charset) -> MutantImpl.stringValue(name, values))
+      .build();
+
+  private final List<TypeConverterBinding> typeConverters;
+
+  private final BodyConverterSelector selector;
+
+  private final Map<TypeLiteral<?>, Converter> converters = new ConcurrentHashMap<>();
+
+  @Inject
+  public MutantConverters(final Injector injector, final BodyConverterSelector selector) {
+    this.typeConverters = typeConverters(requireNonNull(injector, "The injector is required."));
+    this.selector = requireNonNull(selector, "A body converter selector is required.");
+  }
+
+  public Converter converter(final Class<?> type) {
+    Converter converter = PRIMITIVES.get(Primitives.wrap(type));
+    if (converter == null) {
+      return converter(TypeLiteral.get(type));
+    }
+    return converter;
+  }
+
+  public Converter converter(final TypeLiteral<?> type) {
+    Converter converter = PRIMITIVES.get(Primitives.wrap(type.getRawType()));
+    if (converter == null) {
+      // don't use computeIfAbsent: collection converters resolve their element converter
+      converter = converters.get(type);
+      if (converter == null) {
+        converter = newConverter(type);
+        Converter existing = converters.putIfAbsent(type, converter);
+        if (existing != null) {
+          converter = existing;
+        }
+      }
+    }
+    return converter;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes" })
+  private Converter newConverter(final TypeLiteral<?> literal) {
+    Class<?> rawType = literal.getRawType();
+    if (Optional.class.isAssignableFrom(rawType)) {
+      Converter converter = converter(classFrom(literal));
+      return (name, values, type, charset) -> {
+        if (values == null || values.size() == 0) {
+          return Optional.empty();
+        }
+        return Optional.of(converter.convert(name, values, type, charset));
+      };
+    } else if (Enum.class.isAssignableFrom(rawType)) {
+      return (name, values, type, charset) -> {
+        MutantImpl.failOnEmpty(name, values);
+        return Enum.valueOf((Class<Enum>) rawType, values.get(0));
+      };
+    } else if (List.class.isAssignableFrom(rawType)) {
+      return collection(classFrom(literal), ImmutableList::copyOf);
+    } else if (Set.class.isAssignableFrom(rawType)) {
+      if (SortedSet.class.isAssignableFrom(rawType)) {
+        return collection(classFrom(literal),
+            array -> ImmutableSortedSet.copyOf((Comparable[]) array));
+      } else {
+        return collection(classFrom(literal), ImmutableSet::copyOf);
+      }
+    } else {
+      // Guice type converter
+      Optional<TypeConverterBinding> typeConverter = typeConverters
+          .stream()
+          .filter(c -> c.getTypeMatcher().matches(literal))
+          .findFirst();
+      return (name, values, type, charset) -> {
+        if (!type.equals(MediaType.all)) {
+          Optional<Body.Parser> parser = selector.parser(literal, ImmutableList.of(type));
+          if (parser.isPresent() && parser.get().canParse(literal)) {
+            ExSupplier<InputStream> stream = () -> new ByteArrayInputStream(values.get(0)
+                .getBytes(charset));
+            try {
+              return parser.get().parse(literal, new BodyReaderImpl(charset, stream));
+            } catch (Exception ex) {
+              throw new IllegalArgumentException("Can't convert to type: " + rawType.getName(),
+                  ex);
+            }
+          }
+        }
+        return typeConverter
+            .map(c -> c.getTypeConverter().convert(values.get(0), literal))
+            .orElseThrow(
+                () -> new IllegalArgumentException("Unknown parameter type: " + rawType.getName())
+            );
+      };
+    }
+  }
+
+  private Converter collection(final Class<?> type, final Function<Object[], Object> fn) {
+    Converter converter = converter(type);
+    return (name, values, mtype, charset) -> fn
+        .apply(MutantImpl.asArray(converter, name, values, type, mtype, charset));
+  }
+
+  private static List<TypeConverterBinding> typeConverters(final Injector injector) {
+    ImmutableList.Builder<TypeConverterBinding> converters = ImmutableList.builder();
+    Injector it = injector;
+    while (it != null) {
+      converters.addAll(it.getTypeConverterBindings());
+      it = it.getParent();
+    }
+    return converters.build();
+  }
+
+  private static Class<?> classFrom(final TypeLiteral<?> type) {
+    return classFrom(type.getType());
+  }
+
+  private static Class<?> classFrom(final Type type) {
+    if (type instanceof Class) {
+      return (Class<?>) type;
+    }
+    ParameterizedType parameterizedType = (ParameterizedType) type;
+    Type actualType = parameterizedType.getActualTypeArguments()[0];
+    return classFrom(actualType);
+  }
+
+}
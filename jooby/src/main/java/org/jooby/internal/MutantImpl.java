@@ -20,88 +20,51 @@ package org.jooby.internal;
 
 import static java.util.Objects.requireNonNull;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
 import java.lang.reflect.Array;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.HashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.SortedSet;
-import java.util.function.BiFunction;
 
-import org.jooby.Body;
 import org.jooby.Err;
 import org.jooby.MediaType;
 import org.jooby.Mutant;
 import org.jooby.Status;
-import org.jooby.fn.ExSupplier;
+import org.jooby.internal.MutantConverters.Converter;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.primitives.Primitives;
-import com.google.inject.Injector;
 import com.google.inject.TypeLiteral;
-import com.google.inject.spi.TypeConverterBinding;
 
 public class MutantImpl implements Mutant {
 
   private static final Object[] EMPTY_ARRAY = new Object[0];
 
-  private static Map<Object, BiFunction<String, List<String>, Object>> primiteConverters = new HashMap<>();
-
-  static {
-    primiteConverters.put(Boolean.class, MutantImpl::toBoolean);
-    primiteConverters.put(Byte.class, MutantImpl::toByte);
-    primiteConverters.put(Short.class, MutantImpl::toShort);
-    primiteConverters.put(Integer.class, MutantImpl::toInt);
-    primiteConverters.put(Long.class, MutantImpl::toLong);
-    primiteConverters.put(Float.class, MutantImpl::toFloat);
-    primiteConverters.put(Double.class, MutantImpl::toDouble);
-    primiteConverters.put(String.class, MutantImpl::stringValue);
-  }
-
   protected final String name;
 
   protected final List<String> values;
 
-  private Set<TypeConverterBinding> typeConverters;
-
   private MediaType type = MediaType.all;
 
-  private Injector injector;
+  private MutantConverters converters;
 
   private Charset charset;
 
-  public MutantImpl(final Injector injector, final String name, final List<String> values,
-      final MediaType type, final Charset charset) {
-    this.injector = requireNonNull(injector, "The injector is required.");
+  public MutantImpl(final MutantConverters converters, final String name,
+      final List<String> values, final MediaType type, final Charset charset) {
+    this.converters = requireNonNull(converters, "The converters are required.");
     this.name = requireNonNull(name, "Parameter's name is missing.");
     this.values = values;
     this.type = requireNonNull(type, "The type is required.");
     this.charset = requireNonNull(charset, "The charset is required.");
-    this.typeConverters = typeConverters(injector);
-  }
-
-  private Set<TypeConverterBinding> typeConverters(final Injector injector) {
-    Set<TypeConverterBinding> converters = new LinkedHashSet<>();
-    Injector it = injector;
-    while (it != null) {
-      converters.addAll(it.getTypeConverterBindings());
-      it = it.getParent();
-    }
-    return converters;
   }
 
   @Override
@@ -109,13 +72,13 @@ public class MutantImpl implements Mutant {
     return toBoolean(name, values);
   }
 
-  private static boolean toBoolean(final String name, final List<String> values) {
+  static boolean toBoolean(final String name, final List<String> values) {
     failOnEmpty(name, values);
     String value = values.get(0);
     if ("true".equals(value)) {
-      return Boolean.TRUE;
+      return true;
     } else if ("false".equals(value)) {
-      return Boolean.FALSE;
+      return false;
     }
     throw new IllegalArgumentException("Not a boolean: " + value);
   }
@@ -125,9 +88,9 @@ public class MutantImpl implements Mutant {
     return toByte(name, values);
   }
 
-  private static byte toByte(final String name, final List<String> values) {
+  static byte toByte(final String name, final List<String> values) {
     failOnEmpty(name, values);
-    return Byte.valueOf(values.get(0));
+    return Byte.parseByte(values.get(0));
   }
 
   @Override
@@ -135,9 +98,9 @@ public class MutantImpl implements Mutant {
     return toShort(name, values);
   }
 
-  private static short toShort(final String name, final List<String> values) {
+  static short toShort(final String name, final List<String> values) {
     failOnEmpty(name, values);
-    return Short.valueOf(values.get(0));
+    return Short.parseShort(values.get(0));
   }
 
   @Override
@@ -145,9 +108,9 @@ public class MutantImpl implements Mutant {
     return toInt(name, values);
   }
 
-  private static int toInt(final String name, final List<String> values) {
+  static int toInt(final String name, final List<String> values) {
     failOnEmpty(name, values);
-    return Integer.valueOf(values.get(0));
+    return Integer.parseInt(values.get(0));
   }
 
   @Override
@@ -155,22 +118,43 @@ public class MutantImpl implements Mutant {
     return toLong(name, values);
   }
 
-  private static long toLong(final String name, final List<String> values) {
+  static long toLong(final String name, final List<String> values) {
     failOnEmpty(name, values);
-    try {
-      return Long.valueOf(values.get(0));
-    } catch (NumberFormatException ex) {
+    String value = values.get(0);
+    if (!isLong(value)) {
       // Is a date?
       try {
         DateTimeFormatter formatter = DateTimeFormatter.RFC_1123_DATE_TIME;
-        LocalDateTime date = LocalDateTime.parse(values.get(0), formatter);
+        LocalDateTime date = LocalDateTime.parse(value, formatter);
         Instant instant = date.toInstant(ZoneOffset.UTC);
         return instant.toEpochMilli();
       } catch (DateTimeParseException ignored) {
-        throw ex;
+        // not a date, report the number format error
       }
-
     }
+    return Long.parseLong(value);
+  }
+
+  /**
+   * Quick check for a long value: an optional sign followed by digits. Dates (and anything else)
+   * fails this check, so we don't depend on a {@link NumberFormatException} to detect them.
+   *
+   * @param value A value.
+   * @return True if the value looks like a long.
+   */
+  private static boolean isLong(final CharSequence value) {
+    int len = value.length();
+    int i = len > 1 && (value.charAt(0) == '-' || value.charAt(0) == '+') ? 1 : 0;
+    if (i == len) {
+      return false;
+    }
+    while (i < len) {
+      char ch = value.charAt(i++);
+      if (ch < '0' || ch > '9') {
+        return false;
+      }
+    }
+    return true;
   }
 
   @Override
@@ -178,9 +162,9 @@ public class MutantImpl implements Mutant {
     return toFloat(name, values);
   }
 
-  private static float toFloat(final String name, final List<String> values) {
+  static float toFloat(final String name, final List<String> values) {
     failOnEmpty(name, values);
-    return Float.valueOf(values.get(0));
+    return Float.parseFloat(values.get(0));
   }
 
   @Override
@@ -188,9 +172,9 @@ public class MutantImpl implements Mutant {
     return toDouble(name, values);
   }
 
-  private static double toDouble(final String name, final List<String> values) {
+  static double toDouble(final String name, final List<String> values) {
     failOnEmpty(name, values);
-    return Double.valueOf(values.get(0));
+    return Double.parseDouble(values.get(0));
   }
 
   @Override
@@ -216,25 +200,23 @@ public class MutantImpl implements Mutant {
     return ImmutableSortedSet.copyOf(array);
   }
 
-  private Object[] asArrayOf(final Class<?> type, final Set<TypeConverterBinding> typeConverters) {
+  @SuppressWarnings("unchecked")
+  private <T> T[] asArray(final Class<T> type) {
+    return (T[]) asArray(converters.converter(type), name, values, type, this.type, charset);
+  }
+
+  static Object[] asArray(final Converter converter, final String name,
+      final List<String> values, final Class<?> type, final MediaType mtype,
+      final Charset charset) {
     if (values == null || values.size() == 0) {
       return EMPTY_ARRAY;
     }
     Class<?> componentType = Primitives.wrap(type);
-    BiFunction<String, List<String>, Object> converter = converter(type);
-    Object array = Array.newInstance(componentType, values.size());
+    Object[] array = (Object[]) Array.newInstance(componentType, values.size());
     for (int i = 0; i < values.size(); i++) {
-      Object value = converter.apply(name, ImmutableList.of(values.get(i)));
-      Array.set(array, i, value);
-
+      array[i] = converter.convert(name, ImmutableList.of(values.get(i)), mtype, charset);
     }
-    return (Object[]) array;
-  }
-
-  @SuppressWarnings("unchecked")
-  private <T> T[] asArray(final Class<T> type) {
-    Object[] array = asArrayOf(type, typeConverters);
-    return (T[]) array;
+    return array;
   }
 
   @SuppressWarnings("unchecked")
@@ -243,8 +225,8 @@ public class MutantImpl implements Mutant {
     if (values == null || values.size() == 0) {
       return Optional.empty();
     }
-    BiFunction<String, List<String>, Object> converter = converter(type);
-    return (Optional<T>) Optional.of(converter.apply(name, values));
+    return (Optional<T>) Optional.of(converters.converter(type)
+        .convert(name, values, this.type, charset));
   }
 
   @Override
@@ -255,84 +237,14 @@ public class MutantImpl implements Mutant {
   @SuppressWarnings("unchecked")
   @Override
   public <T> T to(final TypeLiteral<T> type) {
-    BiFunction<String, List<String>, Object> converter = converter(type);
-    return (T) converter.apply(name, values);
+    return (T) converters.converter(type).convert(name, values, this.type, charset);
   }
 
-  private static String stringValue(final String name, final List<String> values) {
+  static String stringValue(final String name, final List<String> values) {
     failOnEmpty(name, values);
     return values.get(0);
   }
 
-  private BiFunction<String, List<String>, Object> converter(final Class<?> type) {
-    return converter(TypeLiteral.get(type));
-  }
-
-  private BiFunction<String, List<String>, Object> converter(final TypeLiteral<?> literal) {
-    Class<?> rawType = literal.getRawType();
-    Class<?> wrapType = Primitives.wrap(rawType);
-    BiFunction<String, List<String>, Object> converter = primiteConverters.get(wrapType);
-    if (converter == null) {
-      return complexConverters(literal);
-    }
-    return converter;
-  }
-
-  @SuppressWarnings({"unchecked", "rawtypes" })
-  private BiFunction<String, List<String>, Object> complexConverters(
-      final TypeLiteral<?> literal) {
-    Class<?> rawType = literal.getRawType();
-    if (Optional.class.isAssignableFrom(rawType)) {
-      return (name, values) -> new MutantImpl(injector, name, values, type, charset)
-          .toOptional(classFrom(literal));
-    } else if (Enum.class.isAssignableFrom(rawType)) {
-      return (name, values) -> new MutantImpl(injector, name, values, type, charset)
-          .enumValue((Class<Enum>) rawType);
-    } else if (List.class.isAssignableFrom(rawType)) {
-      return (name, values) -> new MutantImpl(injector, name, values, type, charset)
-          .toList(classFrom(literal));
-    } else if (Set.class.isAssignableFrom(rawType)) {
-      if (SortedSet.class.isAssignableFrom(rawType)) {
-        return (name, values) -> new MutantImpl(injector, name, values, type, charset)
-            .toSortedSet((Class) classFrom(literal));
-      } else {
-        return (name, values) -> new MutantImpl(injector, name, values, type, charset)
-            .toSet(classFrom(literal));
-      }
-    } else {
-      if (!type.equals(MediaType.all)) {
-        BodyConverterSelector selector = injector.getInstance(BodyConverterSelector.class);
-        Optional<Body.Parser> parser = selector.parser(literal, ImmutableList.of(type));
-        if (parser.isPresent() && parser.get().canParse(literal)) {
-
-          return (name, values) -> {
-            ExSupplier<InputStream> stream = () -> new ByteArrayInputStream(values.get(0).getBytes(
-                charset));
-            try {
-              return parser.get().parse(literal, new BodyReaderImpl(charset, stream));
-            } catch (Exception ex) {
-              throw new IllegalArgumentException("Can't convert to type: " + rawType.getName(), ex);
-            }
-          };
-
-        }
-      }
-      // Guice type converter
-      return typeConverters
-          .stream()
-          .filter(c -> c.getTypeMatcher().matches(literal))
-          .findFirst()
-          .map(c -> {
-            BiFunction<String, List<String>, Object> fn = (name, values) -> c.getTypeConverter()
-                .convert(values.get(0), literal);
-            return fn;
-          })
-          .orElseThrow(
-              () -> new IllegalArgumentException("Unknown parameter type: " + rawType.getName())
-          );
-    }
-  }
-
   @Override
   public String toString() {
     if (values == null || values.size() == 0) {
@@ -349,20 +261,7 @@ public class MutantImpl implements Mutant {
     return values != null && values.size() > 0;
   }
 
-  private static Class<?> classFrom(final TypeLiteral<?> type) {
-    return classFrom(type.getType());
-  }
-
-  private static Class<?> classFrom(final Type type) {
-    if (type instanceof Class) {
-      return (Class<?>) type;
-    }
-    ParameterizedType parameterizedType = (ParameterizedType) type;
-    Type actualType = parameterizedType.getActualTypeArguments()[0];
-    return classFrom(actualType);
-  }
-
-  private static void failOnEmpty(final String name, final List<?> values) {
+  static void failOnEmpty(final String name, final List<?> values) {
     if (values == null || values.size() == 0) {
       throw new Err(Status.BAD_REQUEST, "Missing value: " + name);
     }
@@ -30,7 +30,6 @@ import org.jooby.Mutant;
 import org.jooby.Upload;
 
 import com.google.common.collect.ImmutableList;
-import com.google.inject.Injector;
 
 class PartUpload implements Upload {
 
@@ -40,13 +39,13 @@ class PartUpload implements Upload {
 
   private MediaType type;
 
-  private Injector injector;
+  private MutantConverters converters;
 
   private Charset charset;
 
-  public PartUpload(final Injector injector, final Part part, final Charset charset,
+  public PartUpload(final MutantConverters converters, final Part part, final Charset charset,
       final String workDir) {
-    this.injector = injector;
+    this.converters = converters;
     this.part = part;
     this.charset = charset;
     this.workDir = workDir;
@@ -66,7 +65,8 @@ class PartUpload implements Upload {
   @Override
   public Mutant header(final String name) {
     Collection<String> headers = part.getHeaders(name);
-    return new MutantImpl(injector, name, ImmutableList.copyOf(headers), MediaType.all, charset);
+    return new MutantImpl(converters, name, ImmutableList.copyOf(headers), MediaType.all,
+        charset);
   }
 
   @Override
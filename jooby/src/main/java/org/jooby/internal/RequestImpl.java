@@ -39,10 +39,12 @@ import javax.servlet.http.Part;
 
 import org.jooby.Body.Parser;
 import org.jooby.Cookie;
+import org.jooby.Deadline;
 import org.jooby.Err;
 import org.jooby.MediaType;
 import org.jooby.Mutant;
 import org.jooby.Request;
+import org.jooby.Response;
 import org.jooby.Route;
 import org.jooby.Session;
 import org.jooby.Status;
@@ -62,6 +64,8 @@ public class RequestImpl implements Request {
 
   private Injector injector;
 
+  private MutantConverters converters;
+
   private BodyConverterSelector selector;
 
   private Charset charset;
@@ -79,17 +83,29 @@ public class RequestImpl implements Request {
 
   private Map<String, Object> locals;
 
+  private Watchdog watchdog;
+
+  /** Session from the session cookie, when stateless sessions are on. */
+  private StatelessSession stateless;
+
+  private boolean statelessLoaded;
+
+  private boolean statelessCommitted;
+
   public RequestImpl(
       final HttpServletRequest request,
       final Injector injector,
+      final MutantConverters converters,
       final Route route,
       final Map<String, Object> locals,
       final BodyConverterSelector selector,
       final MediaType contentType,
       final List<MediaType> accept,
       final Charset charset,
-      final Locale locale) {
+      final Locale locale,
+      final Watchdog watchdog) {
     this.injector = requireNonNull(injector, "An injector is required.");
+    this.converters = requireNonNull(converters, "The converters are required.");
     this.req = requireNonNull(request, "The request is required.");
     this.route = requireNonNull(route, "A route is required.");
     this.locals = requireNonNull(locals, "The locals is required.");
@@ -98,6 +114,7 @@ public class RequestImpl implements Request {
     this.accept = requireNonNull(accept, "An accept is required.");
     this.charset = requireNonNull(charset, "A charset is required.");
     this.locale = requireNonNull(locale, "A locale is required.");
+    this.watchdog = requireNonNull(watchdog, "A watchdog is required.");
   }
 
   @Override
@@ -105,6 +122,16 @@ public class RequestImpl implements Request {
     return route().path();
   }
 
+  @Override
+  public Optional<String> queryString() {
+    return Optional.ofNullable(req.getQueryString());
+  }
+
+  @Override
+  public Optional<Deadline> deadline() {
+    return watchdog.deadline();
+  }
+
   @Override
   public MediaType type() {
     return type;
@@ -143,7 +170,7 @@ public class RequestImpl implements Request {
   }
 
   private Mutant newVariant(final String name, final List<String> values, final MediaType type) {
-    return new MutantImpl(injector, name, values, type, charset);
+    return new MutantImpl(converters, name, values, type, charset);
   }
 
   @Override
@@ -162,7 +189,7 @@ public class RequestImpl implements Request {
   @Override
   @SuppressWarnings("unchecked")
   public <T> T params(final Class<T> beanType) throws Exception {
-    return (T) BeanParamInjector.createAndInject(this, beanType);
+    return (T) injector.getInstance(BeanParamInjector.class).createAndInject(this, beanType);
   }
 
   @Override
@@ -187,16 +214,64 @@ public class RequestImpl implements Request {
 
   @Override
   public Session session() {
+    StatelessSessions sessions = injector.getInstance(StatelessSessions.class);
+    if (sessions.enabled()) {
+      return stateless(sessions, true).get();
+    }
     JoobySession session = (JoobySession) req.getSession(true);
     return session;
   }
 
   @Override
   public Optional<Session> ifSession() {
+    StatelessSessions sessions = injector.getInstance(StatelessSessions.class);
+    if (sessions.enabled()) {
+      return stateless(sessions, false);
+    }
     JoobySession session = (JoobySession) req.getSession(false);
     return Optional.ofNullable(session);
   }
 
+  private Optional<Session> stateless(final StatelessSessions sessions, final boolean create) {
+    if (!statelessLoaded) {
+      statelessLoaded = true;
+      stateless = cookie(sessions.name())
+          .flatMap(Cookie::value)
+          .flatMap(sessions::get)
+          .orElse(null);
+      if (stateless != null) {
+        commitOnSend(sessions);
+      }
+    }
+    if (create && (stateless == null || stateless.isDestroyed())) {
+      boolean intercept = stateless == null;
+      stateless = sessions.create();
+      if (intercept) {
+        commitOnSend(sessions);
+      }
+    }
+    if (stateless == null || stateless.isDestroyed()) {
+      return Optional.empty();
+    }
+    return Optional.of(stateless);
+  }
+
+  /**
+   * Write the session cookie right before the response body.
+   */
+  private void commitOnSend(final StatelessSessions sessions) {
+    ResponseImpl rsp = (ResponseImpl) Response.Forwarding
+        .unwrap(injector.getInstance(Response.class));
+    rsp.intercept(out -> {
+      // error handler sends a new body: don't commit twice
+      if (!statelessCommitted) {
+        statelessCommitted = true;
+        sessions.commit(stateless, rsp);
+      }
+      return out;
+    });
+  }
+
   private Set<String> paramNames() {
     Set<String> names = new LinkedHashSet<>();
     // path var
@@ -231,13 +306,15 @@ public class RequestImpl implements Request {
   @SuppressWarnings("unchecked")
   @Override
   public <T> T body(final TypeLiteral<T> type) throws Exception {
-    if (length() > 0) {
+    // chunked requests don't have a length
+    if (length() > 0 || req.getHeader("Transfer-Encoding") != null) {
       Optional<Parser> parser = selector.parser(type, ImmutableList.of(this.type));
       if (parser.isPresent()) {
         return parser.get().parse(type, new BodyReaderImpl(charset, () -> req.getInputStream()));
       }
       if (MediaType.form.matches(type()) || MediaType.multipart.matches(type())) {
-        return (T) BeanParamInjector.createAndInject(this, type.getRawType());
+        return (T) injector.getInstance(BeanParamInjector.class)
+            .createAndInject(this, type.getRawType());
       }
       throw new Err(Status.UNSUPPORTED_MEDIA_TYPE);
     }
@@ -356,7 +433,7 @@ public class RequestImpl implements Request {
         .filter(p -> p.getSubmittedFileName() != null && p.getName().equals(name))
         .transform(
             p -> {
-              Upload upload = new PartUpload(injector, p, charset, workDir);
+              Upload upload = new PartUpload(converters, p, charset, workDir);
               return upload;
             })
         .toList();
@@ -32,6 +32,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletResponse;
@@ -47,13 +48,12 @@ import org.jooby.fn.ExSupplier;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
-import com.google.inject.Injector;
 
 public class ResponseImpl implements Response {
 
   private HttpServletResponse response;
 
-  private Injector injector;
+  private MutantConverters converters;
 
   private BodyConverterSelector selector;
 
@@ -69,11 +69,13 @@ public class ResponseImpl implements Response {
 
   private Optional<String> referer;
 
-  public ResponseImpl(final HttpServletResponse response, final Injector injector,
+  private Function<OutputStream, OutputStream> interceptor = Function.identity();
+
+  public ResponseImpl(final HttpServletResponse response, final MutantConverters converters,
       final Route route, final BodyConverterSelector selector,
       final Charset charset, final Optional<String> referer) {
     this.response = requireNonNull(response, "A response is required.");
-    this.injector = requireNonNull(injector, "An injector is required.");
+    this.converters = requireNonNull(converters, "The converters are required.");
     this.route = requireNonNull(route, "A route is required.");
     this.selector = requireNonNull(selector, "A message converter selector is required.");
     this.charset = requireNonNull(charset, "A charset is required.");
@@ -150,7 +152,7 @@ public class ResponseImpl implements Response {
   public Mutant header(final String name) {
     requireNonNull(name, "A header's name is required.");
 
-    return new MutantImpl(injector, name, ImmutableList.copyOf(response.getHeaders(name)),
+    return new MutantImpl(converters, name, ImmutableList.copyOf(response.getHeaders(name)),
         MediaType.all, charset);
   }
 
@@ -289,16 +291,19 @@ public class ResponseImpl implements Response {
     // byte version of http body
     ExSupplier<OutputStream> stream = () -> {
       setHeaders.run();
-      return response.getOutputStream();
+      return interceptor.apply(response.getOutputStream());
     };
 
-    // text version of http body
-    ExSupplier<Writer> writer = () -> {
+    // encoded text version of http body
+    ExSupplier<OutputStream> encoded = () -> {
       charset(charset);
       setHeaders.run();
-      return new OutputStreamWriter(response.getOutputStream(), charset);
+      return interceptor.apply(response.getOutputStream());
     };
 
+    // text version of http body
+    ExSupplier<Writer> writer = () -> new OutputStreamWriter(encoded.get(), charset);
+
     Optional<Object> content = body.content();
     if (content.isPresent()) {
       Object message = content.get();
@@ -306,7 +311,7 @@ public class ResponseImpl implements Response {
         // override status when message is a status
         status((Status) message);
       }
-      formatter.format(message, new BodyWriterImpl(charset, stream, writer));
+      formatter.format(message, new BodyWriterImpl(charset, stream, encoded, writer));
     } else {
       // close output
       stream.get().close();
@@ -387,6 +392,28 @@ public class ResponseImpl implements Response {
     this.route = route;
   }
 
+  /**
+   * Intercept the HTTP body. Interceptors are applied in the order they were added: the first one
+   * get the servlet output stream, the next one get the output of the previous one, etc.
+   *
+   * @param interceptor A body interceptor.
+   */
+  public void intercept(final Function<OutputStream, OutputStream> interceptor) {
+    requireNonNull(interceptor, "An interceptor is required.");
+    this.interceptor = this.interceptor.andThen(interceptor);
+  }
+
+  /**
+   * @return Headers set so far, multiple values are joined by a comma.
+   */
+  Map<String, String> headers() {
+    Map<String, String> headers = new LinkedHashMap<>();
+    for (String name : response.getHeaderNames()) {
+      headers.put(name, Joiner.on(", ").join(response.getHeaders(name)));
+    }
+    return headers;
+  }
+
   @Override
   public String toString() {
     return route.toString();
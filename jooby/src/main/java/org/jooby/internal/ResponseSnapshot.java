@@ -0,0 +1,235 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.jooby.Body;
+import org.jooby.MediaType;
+import org.jooby.Response;
+import org.jooby.Status;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * An immutable copy of a HTTP response: status, type, headers and body bytes. Snapshots are
+ * created via {@link #capture(Response, int)} and sent (again) via {@link #send(Response)}.
+ *
+ * @author edgar
+ * @since 0.4.0
+ */
+public class ResponseSnapshot {
+
+  /**
+   * Capture the output of a HTTP response while it is being sent to the client.
+   *
+   * @author edgar
+   * @since 0.4.0
+   */
+  public static class Capture {
+
+    private ResponseImpl rsp;
+
+    private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+    private boolean overflow;
+
+    private Capture(final ResponseImpl rsp, final int maxSize) {
+      this.rsp = rsp;
+      rsp.intercept(out -> new OutputStream() {
+        @Override
+        public void write(final int b) throws IOException {
+          out.write(b);
+          if (copy(1)) {
+            buffer.write(b);
+          }
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+          out.write(b, off, len);
+          if (copy(len)) {
+            buffer.write(b, off, len);
+          }
+        }
+
+        @Override
+        public void flush() throws IOException {
+          out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+          out.close();
+        }
+
+        private boolean copy(final int len) {
+          if (overflow || buffer.size() + len > maxSize) {
+            // too big, discard what we have so far
+            overflow = true;
+            buffer.reset();
+            return false;
+          }
+          return true;
+        }
+      });
+    }
+
+    /**
+     * @return A snapshot of the captured response or empty when the response wasn't sent or it
+     *         was bigger than the max size.
+     */
+    public Optional<ResponseSnapshot> snapshot() {
+      if (overflow || !rsp.committed()) {
+        return Optional.empty();
+      }
+      Status status = rsp.status().orElse(Status.OK);
+      MediaType type = rsp.type().orElse(MediaType.octetstream);
+      Optional<Charset> charset = Optional.empty();
+      // type might be set by a body formatter, the header is the source of truth
+      Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+      for (Map.Entry<String, String> header : rsp.headers().entrySet()) {
+        String name = header.getKey().toLowerCase();
+        if (name.equals("content-type")) {
+          String value = header.getValue();
+          int semicolon = value.indexOf(';');
+          type = MediaType.valueOf((semicolon > 0 ? value.substring(0, semicolon) : value).trim());
+          // text was written with the response charset
+          if (value.toLowerCase().contains("charset=")) {
+            charset = Optional.of(rsp.charset());
+          }
+        } else if (!SKIP.contains(name)) {
+          headers.put(header.getKey(), header.getValue());
+        }
+      }
+      return Optional.of(new ResponseSnapshot(status, type, charset, headers,
+          buffer.toByteArray()));
+    }
+  }
+
+  /**
+   * Headers we never copy, they are computed per response. Content-Type is kept as
+   * {@link #type()} plus charset.
+   */
+  private static final Set<String> SKIP = ImmutableSet.of("content-length", "transfer-encoding",
+      "date", "connection");
+
+  private final Status status;
+
+  private final MediaType type;
+
+  private final Optional<Charset> charset;
+
+  private final Map<String, String> headers;
+
+  private final byte[] bytes;
+
+  private ResponseSnapshot(final Status status, final MediaType type,
+      final Optional<Charset> charset, final Map<String, String> headers, final byte[] bytes) {
+    this.status = status;
+    this.type = type;
+    this.charset = charset;
+    this.headers = Collections.unmodifiableMap(headers);
+    this.bytes = bytes;
+  }
+
+  /**
+   * Start capturing a response. Bytes are copied as they are sent to the client, call
+   * {@link Capture#snapshot()} once the response has been sent.
+   *
+   * @param rsp A HTTP response.
+   * @param maxSize Max number of bytes to keep, bigger responses won't be captured.
+   * @return A new capture.
+   */
+  public static Capture capture(final Response rsp, final int maxSize) {
+    requireNonNull(rsp, "A response is required.");
+    return new Capture((ResponseImpl) Response.Forwarding.unwrap(rsp), maxSize);
+  }
+
+  /**
+   * @return Response status.
+   */
+  public Status status() {
+    return status;
+  }
+
+  /**
+   * @return Response type.
+   */
+  public MediaType type() {
+    return type;
+  }
+
+  /**
+   * @param name A header's name (case insensitive).
+   * @return A header's value.
+   */
+  public Optional<String> header(final String name) {
+    return Optional.ofNullable(headers.get(name));
+  }
+
+  /**
+   * @return Response headers.
+   */
+  public Map<String, String> headers() {
+    return headers;
+  }
+
+  /**
+   * @return Number of bytes in the body.
+   */
+  public int length() {
+    return bytes.length;
+  }
+
+  /**
+   * Send this snapshot as the response of the current request.
+   *
+   * @param rsp A HTTP response.
+   * @throws Exception If send fails.
+   */
+  public void send(final Response rsp) throws Exception {
+    requireNonNull(rsp, "A response is required.");
+    Body body = Body.body(new ByteArrayInputStream(bytes))
+        .status(status)
+        .type(type);
+    headers.forEach((name, value) -> body.header(name, value));
+    ResponseImpl root = (ResponseImpl) Response.Forwarding.unwrap(rsp);
+    charset.ifPresent(root::charset);
+    root.length(bytes.length);
+    root.send(body, BuiltinBodyConverter.formatStream);
+  }
+
+  @Override
+  public String toString() {
+    return status + " " + type + " " + headers + " (" + bytes.length + " bytes)";
+  }
+
+}
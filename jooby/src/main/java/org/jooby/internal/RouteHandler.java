@@ -34,6 +34,7 @@ import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
@@ -43,6 +44,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.jooby.Body;
+import org.jooby.Deadline;
 import org.jooby.Err;
 import org.jooby.MediaType;
 import org.jooby.Request;
@@ -55,6 +57,7 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.ImmutableList;
 import com.google.inject.Injector;
+import com.typesafe.config.Config;
 
 @Singleton
 public class RouteHandler {
@@ -85,6 +88,8 @@ public class RouteHandler {
 
   private BodyConverterSelector selector;
 
+  private MutantConverters converters;
+
   private Set<Route.Definition> routeDefs;
 
   private Charset charset;
@@ -97,21 +102,28 @@ public class RouteHandler {
 
   private Err.Handler err;
 
+  private long timeout;
+
   @Inject
   public RouteHandler(final Injector injector,
       final BodyConverterSelector selector,
+      final MutantConverters converters,
       final Set<Request.Module> modules,
       final Set<Route.Definition> routes,
       final Charset defaultCharset,
       final Locale defaultLocale,
-      final Err.Handler err) {
+      final Err.Handler err,
+      final Config config) {
     this.rootInjector = requireNonNull(injector, "An injector is required.");
     this.selector = requireNonNull(selector, "A message converter selector is required.");
+    this.converters = requireNonNull(converters, "The converters are required.");
     this.modules = requireNonNull(modules, "Request modules are required.");
     this.routeDefs = requireNonNull(routes, "The routes are required.");
     this.charset = requireNonNull(defaultCharset, "A defaultCharset is required.");
     this.locale = requireNonNull(defaultLocale, "A defaultLocale is required.");
     this.err = requireNonNull(err, "An err handler is required.");
+    this.timeout = requireNonNull(config, "A config is required.")
+        .getDuration("application.timeout", TimeUnit.MILLISECONDS);
   }
 
   public void handle(final HttpServletRequest request, final HttpServletResponse response)
@@ -150,12 +162,14 @@ public class RouteHandler {
     Locale locale = Optional.ofNullable(request.getHeader("Accept-Language"))
         .map(l -> request.getLocale()).orElse(this.locale);
 
+    Watchdog watchdog = new Watchdog();
+
     Holder<Request> req = new Holder<>((injector, route) ->
-        new RequestImpl(request, injector, route, locals, selector, type, accept,
-            charset, locale));
+        new RequestImpl(request, injector, converters, route, locals, selector, type, accept,
+            charset, locale, watchdog));
 
     Holder<Response> rsp = new Holder<>((injector, route) ->
-        new ResponseImpl(response, injector, route, selector, charset,
+        new ResponseImpl(response, converters, route, selector, charset,
             Optional.ofNullable(request.getHeader("Referer"))));
 
     Injector injector = rootInjector;
@@ -163,6 +177,9 @@ public class RouteHandler {
     Route notFound = RouteImpl.notFound(verb, path, accept);
 
     try {
+      if (timeout > 0) {
+        watchdog.deadline(Deadline.deadline(timeout, TimeUnit.MILLISECONDS));
+      }
 
       // bootstrap request modules
       injector = rootInjector.createChildInjector(binder -> {
@@ -175,10 +192,23 @@ public class RouteHandler {
 
       List<Route> routes = routes(verb, requestURI, type, accept);
 
-      chain(routes)
+      // route deadlines, visible to any route in the chain
+      for (Route route : routes) {
+        long timeout = ((RouteImpl) route).timeout();
+        if (timeout > 0) {
+          watchdog.deadline(Deadline.deadline(timeout, TimeUnit.MILLISECONDS));
+        }
+      }
+
+      chain(routes, watchdog)
           .next(req.get(injector, notFound), rsp.get(injector, notFound));
 
-    } catch (Exception ex) {
+    } catch (Exception x) {
+      Exception ex = x;
+      watchdog.stop();
+      if (watchdog.expired()) {
+        ex = new Err(Status.SERVICE_UNAVAILABLE, "deadline exceeded: " + path, ex);
+      }
       log.debug("execution of: " + path + " resulted in exception", ex);
 
       // reset response
@@ -200,6 +230,7 @@ public class RouteHandler {
         defaultErrorPage(reqerr, rsperr, err.err(reqerr, rsperr, ex));
       }
     } finally {
+      watchdog.stop();
       long end = System.currentTimeMillis();
       log.debug("  status -> {} in {}ms", response.getStatus(), end - start);
     }
@@ -213,7 +244,7 @@ public class RouteHandler {
     return uri.endsWith("/") && uri.length() > 1 ? uri.substring(0, uri.length() - 1) : uri;
   }
 
-  private static Route.Chain chain(final List<Route> routes) {
+  private static Route.Chain chain(final List<Route> routes, final Watchdog watchdog) {
     return new Route.Chain() {
 
       private int it = 0;
@@ -225,6 +256,10 @@ public class RouteHandler {
           return;
         }
 
+        if (watchdog.expired()) {
+          throw new Err(Status.SERVICE_UNAVAILABLE, "deadline exceeded: " + route.path());
+        }
+
         // set route
         set(req, route);
         set(rsp, route);
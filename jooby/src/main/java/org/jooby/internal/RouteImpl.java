@@ -48,6 +48,8 @@ public class RouteImpl implements Route, Route.Filter {
 
   private Filter filter;
 
+  private long timeout;
+
   public static RouteImpl notFound(final Verb verb, final String path,
       final List<MediaType> produces) {
     return fromStatus((req, rsp, chain) -> {
@@ -82,6 +84,22 @@ public class RouteImpl implements Route, Route.Filter {
     filter.handle(request, response, chain);
   }
 
+  /**
+   * @param timeout Max time in millis the route can take.
+   * @return This route.
+   */
+  public RouteImpl timeout(final long timeout) {
+    this.timeout = timeout;
+    return this;
+  }
+
+  /**
+   * @return Max time in millis the route can take, <code>0</code> means no timeout.
+   */
+  public long timeout() {
+    return timeout;
+  }
+
   @Override
   public String path() {
     return path;
@@ -0,0 +1,162 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.jooby.Session;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * A session that lives in a signed cookie, see {@link StatelessSessions}.
+ *
+ * @author edgar
+ * @since 0.4.0
+ */
+public class StatelessSession implements Session {
+
+  private final String id;
+
+  private final long createdAt;
+
+  /** Access time written in the cookie. */
+  private final long issuedAt;
+
+  private long accessedAt;
+
+  private final int timeout;
+
+  private final Map<String, Object> attributes;
+
+  private boolean dirty;
+
+  private boolean destroyed;
+
+  StatelessSession(final String id, final long createdAt, final long accessedAt,
+      final int timeout, final Map<String, Object> attributes) {
+    this.id = requireNonNull(id, "Session id is required.");
+    this.createdAt = createdAt;
+    this.issuedAt = accessedAt;
+    this.accessedAt = accessedAt;
+    this.timeout = timeout;
+    this.attributes = new HashMap<>(attributes);
+  }
+
+  @Override
+  public String id() {
+    return id;
+  }
+
+  @Override
+  public long createdAt() {
+    return createdAt;
+  }
+
+  @Override
+  public long accessedAt() {
+    return accessedAt;
+  }
+
+  @Override
+  public long expiryAt() {
+    if (timeout <= 0) {
+      return -1;
+    }
+    return accessedAt + TimeUnit.SECONDS.toMillis(timeout);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public synchronized <T> Optional<T> get(final String name) {
+    requireNonNull(name, "Attribute name is required.");
+    return Optional.ofNullable((T) attributes.get(name));
+  }
+
+  @Override
+  public synchronized Map<String, Object> attributes() {
+    return ImmutableMap.copyOf(attributes);
+  }
+
+  @Override
+  public synchronized Session set(final String name, final Object value) {
+    requireNonNull(name, "Attribute name is required.");
+    requireNonNull(value, "Attribute value is required.");
+    attributes.put(name, value);
+    dirty = true;
+    return this;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public synchronized <T> Optional<T> unset(final String name) {
+    requireNonNull(name, "Attribute name is required.");
+    T value = (T) attributes.remove(name);
+    if (value != null) {
+      dirty = true;
+    }
+    return Optional.ofNullable(value);
+  }
+
+  @Override
+  public synchronized Session unset() {
+    if (attributes.size() > 0) {
+      attributes.clear();
+      dirty = true;
+    }
+    return this;
+  }
+
+  @Override
+  public synchronized void destroy() {
+    attributes.clear();
+    destroyed = true;
+  }
+
+  synchronized void access(final long time) {
+    accessedAt = time;
+  }
+
+  synchronized void setDirty() {
+    dirty = true;
+  }
+
+  synchronized boolean isDirty() {
+    return dirty;
+  }
+
+  synchronized boolean isDestroyed() {
+    return destroyed;
+  }
+
+  long issuedAt() {
+    return issuedAt;
+  }
+
+  @Override
+  public String toString() {
+    return id;
+  }
+
+}
@@ -0,0 +1,480 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.jooby.Cookie;
+import org.jooby.Response;
+import org.jooby.Session;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+import com.google.common.io.BaseEncoding;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+
+/**
+ * Keep sessions in a signed cookie (client-side sessions). Nothing is kept in the server.
+ *
+ * A cookie value looks like:
+ *
+ * <pre>
+ *   base64url([flags] [iv]? [payload]) '|' [signature]
+ * </pre>
+ *
+ * The payload has the session ID, creation and access time plus the attributes. Common types
+ * (String, Integer, Long, Boolean and Double) are written with a type tag, anything else must be
+ * {@link Serializable}. The payload is compressed (if it gets smaller) and encrypted with AES-CTR,
+ * the signature is an HMAC of the whole value (encrypt-then-MAC).
+ *
+ * @author edgar
+ * @since 0.4.0
+ */
+@Singleton
+public class StatelessSessions {
+
+  /** Payload was compressed. */
+  private static final int COMPRESSED = 1;
+
+  /** Payload was encrypted. */
+  private static final int ENCRYPTED = 2;
+
+  /** Payload smaller than this aren't compressed. */
+  private static final int COMPRESS_THRESHOLD = 64;
+
+  private static final String CIPHER = "AES/CTR/NoPadding";
+
+  private static final int IV_SIZE = 16;
+
+  private static final byte STRING = 1;
+
+  private static final byte INT = 2;
+
+  private static final byte LONG = 3;
+
+  private static final byte BOOLEAN = 4;
+
+  private static final byte DOUBLE = 5;
+
+  private static final byte OBJECT = 6;
+
+  private static final BaseEncoding BASE64 = BaseEncoding.base64Url().omitPadding();
+
+  private static final SecureRandom random = new SecureRandom();
+
+  private final boolean enabled;
+
+  /** Current secret first, then old secrets. */
+  private final List<Cookie.Signer> signers;
+
+  /** Encryption keys, one per secret. */
+  private final List<SecretKeySpec> keys;
+
+  private final String name;
+
+  private final String path;
+
+  private final String domain;
+
+  private final String comment;
+
+  private final boolean httpOnly;
+
+  private final boolean secure;
+
+  private final int maxAge;
+
+  private final int timeout;
+
+  private final int saveInterval;
+
+  private final boolean compress;
+
+  private final boolean encrypt;
+
+  private final int maxSize;
+
+  @Inject
+  public StatelessSessions(final Session.Definition definition, final Config config) {
+    requireNonNull(definition, "A session definition is required.");
+    requireNonNull(config, "A config is required.");
+
+    Config $session = config.getConfig("application.session");
+    Config $ = $session.getConfig("stateless");
+    Cookie.Definition cookie = definition.cookie();
+
+    this.enabled = definition.stateless().orElse($.getBoolean("enabled"));
+    this.name = cookie.name().orElse($session.getString("cookie.name"));
+    this.path = cookie.path().orElse($session.getString("cookie.path"));
+    this.domain = cookie.domain().orElse($session.hasPath("cookie.domain")
+        ? $session.getString("cookie.domain") : null);
+    this.comment = cookie.comment().orElse($session.hasPath("cookie.comment")
+        ? $session.getString("cookie.comment") : null);
+    this.httpOnly = cookie.httpOnly().orElse($session.getBoolean("cookie.httpOnly"));
+    this.secure = cookie.secure().orElse($session.getBoolean("cookie.secure"));
+    this.maxAge = cookie.maxAge()
+        .orElse((int) duration($session, "cookie.maxAge", TimeUnit.SECONDS));
+    this.timeout = definition.timeout()
+        .orElse((int) duration($session, "timeout", TimeUnit.SECONDS));
+    this.saveInterval = definition.saveInterval()
+        .orElse((int) duration($session, "saveInterval", TimeUnit.SECONDS));
+    this.compress = $.getBoolean("compress");
+    this.encrypt = $.getBoolean("encrypt");
+    this.maxSize = $.getInt("maxSize");
+
+    List<String> secrets = ImmutableList.of();
+    if (enabled) {
+      checkState(config.hasPath("application.secret"),
+          "Stateless sessions require an application.secret");
+      secrets = ImmutableList.<String> builder()
+          .add(config.getString("application.secret"))
+          .addAll($.hasPath("secrets") ? $.getStringList("secrets") : ImmutableList.of())
+          .build();
+    }
+    this.signers = secrets.stream()
+        .map(StatelessSessions::signer)
+        .collect(Collectors.toList());
+    this.keys = secrets.stream()
+        .map(StatelessSessions::key)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * @return True, if stateless sessions are on.
+   */
+  public boolean enabled() {
+    return enabled;
+  }
+
+  /**
+   * @return Name of the session cookie.
+   */
+  public String name() {
+    return name;
+  }
+
+  /**
+   * @return A new session.
+   */
+  public StatelessSession create() {
+    byte[] id = new byte[16];
+    random.nextBytes(id);
+    long now = System.currentTimeMillis();
+    StatelessSession session = new StatelessSession(BASE64.encode(id), now, now, timeout,
+        new HashMap<>());
+    session.setDirty();
+    return session;
+  }
+
+  /**
+   * Decode a session from a cookie value and mark it as accessed.
+   *
+   * @param value A cookie value.
+   * @return A session or empty when the value is invalid or the session expired.
+   */
+  public Optional<StatelessSession> get(final String value) {
+    requireNonNull(value, "A cookie value is required.");
+    try {
+      int sep = value.indexOf('|');
+      if (sep <= 0) {
+        return Optional.empty();
+      }
+      for (int i = 0; i < signers.size(); i++) {
+        if (signers.get(i).valid(value)) {
+          StatelessSession session = decode(value.substring(0, sep), keys.get(i));
+          long now = System.currentTimeMillis();
+          if (timeout > 0 && session.accessedAt() + TimeUnit.SECONDS.toMillis(timeout) < now) {
+            return Optional.empty();
+          }
+          session.access(now);
+          if (i > 0) {
+            // signed with an old secret: re-issue
+            session.setDirty();
+          }
+          return Optional.of(session);
+        }
+      }
+      Session.log.warn("cookie signature invalid: {} ({})", name, fingerprint(value));
+    } catch (Exception ex) {
+      Session.log.warn("cookie session invalid: " + name + " (" + fingerprint(value) + ")", ex);
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Never log a cookie value: it is a valid session for whoever reads the logs.
+   *
+   * @param value A cookie value.
+   * @return A short hash of the value, enough for matching log lines.
+   */
+  private static String fingerprint(final String value) {
+    return Hashing.sha256().hashString(value, StandardCharsets.UTF_8).toString().substring(0, 8);
+  }
+
+  /**
+   * Write the session cookie if the session is dirty or the save interval expired. A destroyed
+   * session clear the cookie.
+   *
+   * @param session A session.
+   * @param rsp A response.
+   * @throws IllegalStateException If the cookie is bigger than <code>maxSize</code>.
+   */
+  public void commit(final StatelessSession session, final Response rsp) {
+    requireNonNull(session, "A session is required.");
+    requireNonNull(rsp, "A response is required.");
+
+    if (session.isDestroyed()) {
+      rsp.cookie(cookie("").maxAge(0).toCookie());
+      return;
+    }
+    long interval = TimeUnit.SECONDS.toMillis(saveInterval);
+    boolean expired = saveInterval >= 0 && session.accessedAt() - session.issuedAt() >= interval;
+    if (session.isDirty() || expired) {
+      String value = encode(session);
+      int size = name.length() + value.length() + 1;
+      if (size > maxSize) {
+        throw new IllegalStateException("Session cookie too large: " + size + " bytes, max is: "
+            + maxSize);
+      }
+      rsp.cookie(cookie(value).toCookie());
+    }
+  }
+
+  String encode(final StatelessSession session) {
+    try {
+      byte[] payload = payload(session);
+      int flags = 0;
+      if (compress && payload.length > COMPRESS_THRESHOLD) {
+        byte[] deflated = deflate(payload);
+        if (deflated.length < payload.length) {
+          payload = deflated;
+          flags |= COMPRESSED;
+        }
+      }
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream(payload.length + IV_SIZE + 1);
+      if (encrypt) {
+        byte[] iv = new byte[IV_SIZE];
+        random.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance(CIPHER);
+        cipher.init(Cipher.ENCRYPT_MODE, keys.get(0), new IvParameterSpec(iv));
+        bytes.write(flags | ENCRYPTED);
+        bytes.write(iv);
+        bytes.write(cipher.doFinal(payload));
+      } else {
+        bytes.write(flags);
+        bytes.write(payload);
+      }
+      return signers.get(0).sign(BASE64.encode(bytes.toByteArray()));
+    } catch (IOException | GeneralSecurityException ex) {
+      throw new IllegalStateException("Can't encode session: " + session.id(), ex);
+    }
+  }
+
+  private StatelessSession decode(final String value, final SecretKeySpec key)
+      throws IOException, GeneralSecurityException, ClassNotFoundException {
+    byte[] bytes = BASE64.decode(value);
+    int flags = bytes[0];
+    byte[] payload;
+    if ((flags & ENCRYPTED) != 0) {
+      Cipher cipher = Cipher.getInstance(CIPHER);
+      cipher.init(Cipher.DECRYPT_MODE, key, new IvParameterSpec(bytes, 1, IV_SIZE));
+      payload = cipher.doFinal(bytes, IV_SIZE + 1, bytes.length - IV_SIZE - 1);
+    } else {
+      payload = Arrays.copyOfRange(bytes, 1, bytes.length);
+    }
+    InputStream stream = new ByteArrayInputStream(payload);
+    Inflater inflater = null;
+    if ((flags & COMPRESSED) != 0) {
+      inflater = new Inflater(true);
+      stream = new InflaterInputStream(stream, inflater);
+    }
+    try (DataInputStream in = new DataInputStream(stream)) {
+      String id = in.readUTF();
+      long createdAt = in.readLong();
+      long accessedAt = in.readLong();
+      int size = in.readUnsignedShort();
+      Map<String, Object> attributes = new HashMap<>(size * 2);
+      for (int i = 0; i < size; i++) {
+        String name = in.readUTF();
+        attributes.put(name, read(in));
+      }
+      return new StatelessSession(id, createdAt, accessedAt, timeout, attributes);
+    } finally {
+      if (inflater != null) {
+        inflater.end();
+      }
+    }
+  }
+
+  private byte[] payload(final StatelessSession session) throws IOException {
+    Map<String, Object> attributes = session.attributes();
+    checkState(attributes.size() <= 0xFFFF, "Too many session attributes: %s",
+        attributes.size());
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeUTF(session.id());
+    out.writeLong(session.createdAt());
+    out.writeLong(session.accessedAt());
+    out.writeShort(attributes.size());
+    for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+      out.writeUTF(attribute.getKey());
+      write(out, attribute.getKey(), attribute.getValue());
+    }
+    out.flush();
+    return bytes.toByteArray();
+  }
+
+  private static void write(final DataOutputStream out, final String name, final Object value)
+      throws IOException {
+    if (value instanceof String) {
+      out.writeByte(STRING);
+      out.writeUTF((String) value);
+    } else if (value instanceof Integer) {
+      out.writeByte(INT);
+      out.writeInt((Integer) value);
+    } else if (value instanceof Long) {
+      out.writeByte(LONG);
+      out.writeLong((Long) value);
+    } else if (value instanceof Boolean) {
+      out.writeByte(BOOLEAN);
+      out.writeBoolean((Boolean) value);
+    } else if (value instanceof Double) {
+      out.writeByte(DOUBLE);
+      out.writeDouble((Double) value);
+    } else if (value instanceof Serializable) {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (ObjectOutputStream stream = new ObjectOutputStream(bytes)) {
+        stream.writeObject(value);
+      }
+      out.writeByte(OBJECT);
+      out.writeInt(bytes.size());
+      bytes.writeTo(out);
+    } else {
+      throw new IllegalArgumentException("Session attribute isn't serializable: " + name);
+    }
+  }
+
+  private static Object read(final DataInputStream in) throws IOException,
+      ClassNotFoundException {
+    byte type = in.readByte();
+    switch (type) {
+      case STRING:
+        return in.readUTF();
+      case INT:
+        return in.readInt();
+      case LONG:
+        return in.readLong();
+      case BOOLEAN:
+        return in.readBoolean();
+      case DOUBLE:
+        return in.readDouble();
+      case OBJECT:
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        try (ObjectInputStream stream = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+          return stream.readObject();
+        }
+      default:
+        throw new IOException("Unknown attribute type: " + type);
+    }
+  }
+
+  private static byte[] deflate(final byte[] bytes) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length);
+    Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    try (OutputStream stream = new DeflaterOutputStream(out, deflater)) {
+      stream.write(bytes);
+    } finally {
+      deflater.end();
+    }
+    return out.toByteArray();
+  }
+
+  private Cookie.Definition cookie(final String value) {
+    Cookie.Definition cookie = new Cookie.Definition(name, value)
+        .path(path)
+        .httpOnly(httpOnly)
+        .secure(secure)
+        .maxAge(maxAge);
+    if (domain != null) {
+      cookie.domain(domain);
+    }
+    if (comment != null) {
+      cookie.comment(comment);
+    }
+    return cookie;
+  }
+
+  private static Cookie.Signer signer(final String secret) {
+    try {
+      return new Cookie.Signer(secret);
+    } catch (GeneralSecurityException ex) {
+      throw new IllegalStateException("Can't sign sessions", ex);
+    }
+  }
+
+  private static SecretKeySpec key(final String secret) {
+    byte[] hash = Hashing.sha256()
+        .hashString("session:" + secret, StandardCharsets.UTF_8)
+        .asBytes();
+    return new SecretKeySpec(hash, 0, 16, "AES");
+  }
+
+  private static long duration(final Config config, final String name, final TimeUnit unit) {
+    try {
+      return config.getLong(name);
+    } catch (ConfigException.WrongType ex) {
+      return config.getDuration(name, unit);
+    }
+  }
+
+}
@@ -0,0 +1,96 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Optional;
+
+import org.jooby.Deadline;
+
+/**
+ * Keep track of the {@link Deadline} of a request. The thread running the request is never
+ * interrupted (it is a server thread): the route chain stops once the deadline expires and
+ * components like the jdbc data source turn the time left into query timeouts.
+ *
+ * @author edgar
+ * @since 0.4.0
+ */
+public class Watchdog {
+
+  private static final ThreadLocal<Watchdog> CURRENT = new ThreadLocal<>();
+
+  private Deadline deadline;
+
+  private boolean done;
+
+  /**
+   * Creates a new watchdog for the current thread.
+   */
+  public Watchdog() {
+    CURRENT.set(this);
+  }
+
+  /**
+   * @return Deadline of the request executed by the current thread.
+   */
+  public static Optional<Deadline> current() {
+    Watchdog watchdog = CURRENT.get();
+    return watchdog == null ? Optional.empty() : watchdog.deadline();
+  }
+
+  /**
+   * @return Current deadline.
+   */
+  public synchronized Optional<Deadline> deadline() {
+    return Optional.ofNullable(deadline);
+  }
+
+  /**
+   * Set a deadline, ignored if there is a deadline that expires before.
+   *
+   * @param deadline A deadline.
+   */
+  public synchronized void deadline(final Deadline deadline) {
+    requireNonNull(deadline, "A deadline is required.");
+    if (done || (this.deadline != null && this.deadline.compareTo(deadline) <= 0)) {
+      return;
+    }
+    this.deadline = deadline;
+  }
+
+  /**
+   * @return True, if the deadline has expired.
+   */
+  public synchronized boolean expired() {
+    return deadline != null && deadline.expired();
+  }
+
+  /**
+   * Stop watching. Must be called from the thread that created the watchdog.
+   */
+  public synchronized void stop() {
+    if (done) {
+      return;
+    }
+    done = true;
+    CURRENT.remove();
+  }
+
+}
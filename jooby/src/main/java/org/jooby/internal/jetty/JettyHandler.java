@@ -21,30 +21,47 @@ package org.jooby.internal.jetty;
 import static java.util.Objects.requireNonNull;
 
 import java.io.IOException;
+import java.util.Optional;
 
+import javax.servlet.AsyncContext;
 import javax.servlet.MultipartConfigElement;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
 
 import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.SessionManager;
 import org.eclipse.jetty.server.session.SessionHandler;
 import org.eclipse.jetty.websocket.server.WebSocketServerFactory;
 import org.jooby.MediaType;
+import org.jooby.Status;
+import org.jooby.Verb;
+import org.jooby.internal.BulkheadImpl;
+import org.jooby.internal.Bulkheads;
 import org.jooby.internal.RouteHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.typesafe.config.Config;
 
 public class JettyHandler extends SessionHandler {
 
+  /** The logging system. */
+  private final Logger log = LoggerFactory.getLogger(getClass());
+
   private RouteHandler handler;
 
+  private Bulkheads bulkheads;
+
   private final MultipartConfigElement multiPartConfig;
 
   private WebSocketServerFactory webSocketFactory;
 
-  public JettyHandler(final RouteHandler handler, final Config config) {
+  public JettyHandler(final RouteHandler handler, final Config config,
+      final Bulkheads bulkheads) {
     this.handler = requireNonNull(handler, "A route handler is required.");
+    this.bulkheads = requireNonNull(bulkheads, "Bulkheads are required.");
     multiPartConfig = new MultipartConfigElement(config.getString("application.tmpdir"));
   }
 
@@ -54,6 +71,12 @@ public class JettyHandler extends SessionHandler {
     webSocketFactory = getBean(WebSocketServerFactory.class);
   }
 
+  @Override
+  protected void doStop() throws Exception {
+    bulkheads.stop();
+    super.doStop();
+  }
+
   @Override
   public void doHandle(final String requestURI, final Request baseRequest,
       final HttpServletRequest req, final HttpServletResponse rsp) throws IOException,
@@ -79,6 +102,11 @@ public class JettyHandler extends SessionHandler {
         && req.getContentLengthLong() > 0) {
       baseRequest.setAttribute(Request.__MULTIPART_CONFIG_ELEMENT, multiPartConfig);
     }
+    Optional<BulkheadImpl> bulkhead = bulkhead(req);
+    if (bulkhead.isPresent()) {
+      dispatch(bulkhead.get(), baseRequest, req, rsp);
+      return;
+    }
     try {
       handler.handle(req, rsp);
       // mark as handled
@@ -91,4 +119,69 @@ public class JettyHandler extends SessionHandler {
       throw new ServletException("Unexpected error", ex);
     }
   }
+
+  private Optional<BulkheadImpl> bulkhead(final HttpServletRequest req) {
+    Verb verb;
+    try {
+      verb = Verb.valueOf(req.getMethod().toUpperCase());
+    } catch (IllegalArgumentException ex) {
+      // unknown verb, let the route handler to report it
+      return Optional.empty();
+    }
+    return bulkheads.select(verb, req.getRequestURI());
+  }
+
+  /**
+   * Hand off the request to a bulkhead and release the server thread. A saturated bulkhead
+   * rejects the request with a 503 response.
+   */
+  private void dispatch(final BulkheadImpl bulkhead, final Request baseRequest,
+      final HttpServletRequest req, final HttpServletResponse rsp) throws IOException {
+    AsyncContext async = req.startAsync();
+    // route timeouts apply, not the container one
+    async.setTimeout(0);
+    baseRequest.setHandled(true);
+
+    boolean accepted = bulkhead.execute(() -> {
+      try {
+        handler.handle(req, rsp);
+      } catch (Exception ex) {
+        log.error("execution of: " + req.getMethod() + req.getRequestURI()
+            + " resulted in exception", ex);
+        if (!rsp.isCommitted()) {
+          rsp.reset();
+          rsp.setStatus(Status.SERVER_ERROR.value());
+        }
+      } finally {
+        complete(baseRequest);
+        async.complete();
+      }
+    });
+
+    if (!accepted) {
+      log.debug("bulkhead {} is full, rejecting: {}{}", bulkhead.name(), req.getMethod(),
+          req.getRequestURI());
+      rsp.sendError(Status.SERVICE_UNAVAILABLE.value(), "bulkhead is full: " + bulkhead.name());
+      async.complete();
+    }
+  }
+
+  /**
+   * The session handler completes (and saves) the session once the server thread returns, which
+   * is too early for async requests. So we complete the session again after the bulkhead is done.
+   */
+  private void complete(final Request baseRequest) {
+    HttpSession session = baseRequest.getSession(false);
+    if (session != null) {
+      SessionManager sessionManager = getSessionManager();
+      try {
+        if (!session.isNew()) {
+          sessionManager.access(session, baseRequest.isSecure());
+        }
+        sessionManager.complete(session);
+      } catch (IllegalStateException ex) {
+        log.debug("session was invalidated: {}", session.getId());
+      }
+    }
+  }
 }
@@ -18,9 +18,14 @@
  */
 package org.jooby.internal.jetty;
 
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.Closeable;
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -48,7 +53,9 @@ import org.jooby.Session;
 import org.jooby.Session.Store;
 import org.jooby.WebSocket;
 import org.jooby.WebSocket.Definition;
+import org.jooby.internal.Bulkheads;
 import org.jooby.internal.RouteHandler;
+import org.jooby.internal.StatelessSessions;
 import org.jooby.internal.WebSocketImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -125,59 +132,71 @@ public class JettyServerBuilder {
     String contextPath = config.getString("application.path");
 
     ContextHandler context = new ContextHandler(contextPath);
-    JettyHandler handler = new JettyHandler(routeHandler, config);
     Injector injector = routeHandler.injector();
+    JettyHandler handler = new JettyHandler(routeHandler, config,
+        injector.getInstance(Bulkheads.class));
     Session.Definition sessionDef = injector.getInstance(Session.Definition.class);
 
     /**
      * Session configuration
      */
-    Session.Store store = sessionDef.store();
-    Session.Store forwardingStore = fwdStore(store);
-    String secret = config.hasPath("application.secret")
-        ? config.getString("application.secret") : null;
-    JoobySessionManager sessionManager = new JoobySessionManager(forwardingStore, secret);
-    Config $session = config.getConfig("application.session");
-
-    // session cookie config
-    SessionCookieConfig sessionCookieConfig = sessionManager.getSessionCookieConfig();
-    org.jooby.Cookie.Definition cookieDef = sessionDef.cookie();
-    sessionCookieConfig.setComment(cookieDef.comment()
-        .orElse($session.hasPath("cookie.comment") ? $session.getString("cookie.path") : null)
-        );
-    sessionCookieConfig.setDomain(cookieDef.domain()
-        .orElse($session.hasPath("cookie.domain") ? $session.getString("cookie.domain") : null)
-        );
-    sessionCookieConfig.setHttpOnly(cookieDef.httpOnly()
-        .orElse($session.getBoolean("cookie.httpOnly"))
-        );
-    sessionCookieConfig.setMaxAge(cookieDef.maxAge()
-        .orElse((int) duration($session, "cookie.maxAge", TimeUnit.SECONDS))
-        );
-    sessionCookieConfig.setName(cookieDef.name()
-        .orElse($session.getString("cookie.name"))
-        );
-    sessionCookieConfig.setPath(cookieDef.path()
-        .orElse($session.getString("cookie.path"))
-        );
-    sessionCookieConfig.setSecure(cookieDef.secure()
-        .orElse($session.getBoolean("cookie.secure"))
-        );
-
-    // session timeout
-    sessionManager.setMaxInactiveInterval(sessionDef.timeout().orElse(
-        (int) duration($session, "timeout", TimeUnit.SECONDS))
-        );
-
-    sessionManager.setSaveInterval(sessionDef.saveInterval().orElse(
-        (int) duration($session, "saveInterval", TimeUnit.SECONDS))
-        );
-
-    sessionManager.setPreserveOnStop(sessionDef.preserveOnStop().orElse(
-        $session.getBoolean("preserveOnStop"))
-        );
-
-    handler.setSessionManager(sessionManager);
+    // stateless sessions live in a cookie, see RequestImpl#session
+    if (!injector.getInstance(StatelessSessions.class).enabled()) {
+      Session.Store store = sessionDef.store();
+      Session.Store forwardingStore = fwdStore(store);
+      String secret = config.hasPath("application.secret")
+          ? config.getString("application.secret") : null;
+      JoobySessionManager sessionManager = new JoobySessionManager(forwardingStore, secret);
+      Config $session = config.getConfig("application.session");
+
+      // session cookie config
+      SessionCookieConfig sessionCookieConfig = sessionManager.getSessionCookieConfig();
+      org.jooby.Cookie.Definition cookieDef = sessionDef.cookie();
+      sessionCookieConfig.setComment(cookieDef.comment()
+          .orElse($session.hasPath("cookie.comment") ? $session.getString("cookie.path") : null)
+          );
+      sessionCookieConfig.setDomain(cookieDef.domain()
+          .orElse($session.hasPath("cookie.domain") ? $session.getString("cookie.domain") : null)
+          );
+      sessionCookieConfig.setHttpOnly(cookieDef.httpOnly()
+          .orElse($session.getBoolean("cookie.httpOnly"))
+          );
+      sessionCookieConfig.setMaxAge(cookieDef.maxAge()
+          .orElse((int) duration($session, "cookie.maxAge", TimeUnit.SECONDS))
+          );
+      sessionCookieConfig.setName(cookieDef.name()
+          .orElse($session.getString("cookie.name"))
+          );
+      sessionCookieConfig.setPath(cookieDef.path()
+          .orElse($session.getString("cookie.path"))
+          );
+      sessionCookieConfig.setSecure(cookieDef.secure()
+          .orElse($session.getBoolean("cookie.secure"))
+          );
+
+      // session timeout
+      sessionManager.setMaxInactiveInterval(sessionDef.timeout().orElse(
+          (int) duration($session, "timeout", TimeUnit.SECONDS))
+          );
+
+      sessionManager.setSaveInterval(sessionDef.saveInterval().orElse(
+          (int) duration($session, "saveInterval", TimeUnit.SECONDS))
+          );
+
+      sessionManager.setPreserveOnStop(sessionDef.preserveOnStop().orElse(
+          $session.getBoolean("preserveOnStop"))
+          );
+
+      boolean passivate = sessionDef.passivate().orElse($session.getBoolean("passivate"));
+      // passivated sessions are loaded from the store, they are lost without one
+      checkState(!passivate || store != Session.Store.NOOP,
+          "Session passivation requires a session store, found: NOOP");
+      sessionManager.setPassivate(passivate);
+
+      sessionManager.setSaveQueue(injector.getInstance(SessionSaveQueue.class));
+
+      handler.setSessionManager(sessionManager);
+    }
 
     /**
      * Web sockets
@@ -247,29 +266,62 @@ public class JettyServerBuilder {
   }
 
   private static Store fwdStore(final Session.Store store) {
-    return new Session.Store() {
+    return new ForwardingStore(store);
+  }
 
-      @Override
-      public Session get(final Session.Builder builder) throws Exception {
-        return store.get(builder);
-      }
+  private static class ForwardingStore implements Session.Store, Closeable {
 
-      @Override
-      public void save(final Session session, final SaveReason reason) throws Exception {
-        store.save(session, reason);
-        ((JoobySession) session).setLastSave(System.currentTimeMillis());
-      }
+    private final Session.Store store;
 
-      @Override
-      public void delete(final String id) throws Exception {
-        store.delete(id);
-      }
+    public ForwardingStore(final Session.Store store) {
+      this.store = store;
+    }
 
-      @Override
-      public String generateID(final long seed) {
-        return store.generateID(seed);
+    @Override
+    public Session get(final Session.Builder builder) throws Exception {
+      return store.get(builder);
+    }
+
+    @Override
+    public void save(final Session session, final SaveReason reason) throws Exception {
+      store.save(session, reason);
+      ((JoobySession) session).setLastSave(System.currentTimeMillis());
+    }
+
+    @Override
+    public void saveDelta(final Session session, final Set<String> changed,
+        final Set<String> removed) throws Exception {
+      store.saveDelta(session, changed, removed);
+      ((JoobySession) session).setLastSave(System.currentTimeMillis());
+    }
+
+    @Override
+    public void delete(final String id) throws Exception {
+      store.delete(id);
+    }
+
+    @Override
+    public void delete(final Collection<String> ids) throws Exception {
+      store.delete(ids);
+    }
+
+    @Override
+    public String generateID(final long seed) {
+      return store.generateID(seed);
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (store instanceof AutoCloseable) {
+        try {
+          ((AutoCloseable) store).close();
+        } catch (IOException | RuntimeException ex) {
+          throw ex;
+        } catch (Exception ex) {
+          throw new IOException("Can't close session store: " + store, ex);
+        }
       }
-    };
+    }
   }
 
   private static long duration(final Config config, final String name, final TimeUnit unit) {
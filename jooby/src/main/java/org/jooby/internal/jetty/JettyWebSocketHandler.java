@@ -27,6 +27,7 @@ import org.jooby.Err;
 import org.jooby.Mutant;
 import org.jooby.Status;
 import org.jooby.WebSocket;
+import org.jooby.internal.MutantConverters;
 import org.jooby.internal.MutantImpl;
 import org.jooby.internal.WebSocketImpl;
 import org.jooby.internal.WsBinaryMessage;
@@ -70,8 +71,8 @@ public class JettyWebSocketHandler implements WebSocketListener {
   public void onWebSocketText(final String value) {
     try {
       // for Web Socket, charset is always UTF-8
-      Mutant variant = new MutantImpl(injector, "message", ImmutableList.of(value),
-          socket.consumes(), Charsets.UTF_8);
+      Mutant variant = new MutantImpl(injector.getInstance(MutantConverters.class), "message",
+          ImmutableList.of(value), socket.consumes(), Charsets.UTF_8);
       socket.fireMessage(variant);
     } catch (Exception ex) {
       onWebSocketError(ex);
@@ -20,11 +20,13 @@ package org.jooby.internal.jetty;
 
 import static java.util.Objects.requireNonNull;
 
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -37,13 +39,44 @@ import com.google.common.collect.ImmutableMap;
 
 public class JoobySession extends MemSession implements Session {
 
-  private boolean dirty;
+  /** Attributes changed since last save. */
+  static class Delta {
 
-  private long lastSave;
+    final Set<String> changed;
+
+    final Set<String> removed;
+
+    Delta(final Set<String> changed, final Set<String> removed) {
+      this.changed = changed;
+      this.removed = removed;
+    }
+  }
+
+  /** Changed since last save, reset (CAS) by the request that saves it. */
+  private final AtomicBoolean dirty = new AtomicBoolean();
+
+  /** True, once the store has a full copy of this session. */
+  private boolean persisted;
+
+  /** Requests that got this session from the manager, but didn't access it yet. */
+  private int pinned;
+
+  /** True, once removed from the manager, guarded by the session lock. */
+  private boolean passivated;
+
+  private Set<String> changed = new HashSet<>();
+
+  private Set<String> removed = new HashSet<>();
+
+  /** Serialize saves of this session, without blocking attribute access. */
+  private final ReentrantLock saving = new ReentrantLock();
+
+  /** Written by the save queue thread. */
+  private volatile long lastSave;
 
   private int saveInterval;
 
-  private String secret;
+  private Cookie.Signer signer;
 
   public JoobySession(final JoobySessionManager manager, final HttpServletRequest request) {
     super(manager, request);
@@ -105,7 +138,7 @@ public class JoobySession extends MemSession implements Session {
     @SuppressWarnings("unchecked")
     T value = (T) changeAttribute(name, null);
     if (value != null) {
-      dirty = true;
+      changed(name, true);
       return Optional.of(value);
     } else {
       return Optional.empty();
@@ -114,7 +147,17 @@ public class JoobySession extends MemSession implements Session {
 
   @Override
   public Session unset() {
-    clearAttributes();
+    synchronized (this) {
+      for (String name : getNames()) {
+        changed.remove(name);
+        removed.add(name);
+      }
+      clearAttributes();
+      // same as changed(name, true)
+      if (!saving.isHeldByCurrentThread()) {
+        dirty.set(true);
+      }
+    }
     return this;
   }
 
@@ -125,22 +168,62 @@ public class JoobySession extends MemSession implements Session {
 
   @Override
   public boolean access(final long time) {
-    return super.access(time);
+    synchronized (this) {
+      if (pinned > 0) {
+        pinned--;
+      }
+      return super.access(time);
+    }
+  }
+
+  /**
+   * Reserve this session for a request, so it isn't passivated between the lookup and the
+   * {@link #access(long)} call.
+   *
+   * @return False if the session was passivated and must be looked up again.
+   */
+  synchronized boolean pin() {
+    if (passivated) {
+      return false;
+    }
+    pinned++;
+    return true;
+  }
+
+  /**
+   * Bring back a passivated session (found in the save queue) and reserve it for a request.
+   */
+  synchronized void activate() {
+    passivated = false;
+    pinned++;
+  }
+
+  /**
+   * Mark this session as passivated if no request is using it or about to use it. Caller must
+   * hold the session lock and remove the session from memory while holding it.
+   *
+   * @return True if the session was passivated.
+   */
+  boolean passivate() {
+    if (getRequests() == 0 && pinned == 0) {
+      passivated = true;
+      return true;
+    }
+    return false;
+  }
+
+  boolean expired(final long time) {
+    return checkExpiry(time);
   }
 
   @Override
   public boolean isValid() {
     boolean valid = super.isValid();
     if (valid) {
-      if (secret != null) {
-        try {
-          String sessionId = getClusterId();
-          if (!Cookie.Signature.valid(sessionId, secret)) {
-            Session.log.warn("cookie signature invalid: {}", sessionId);
-            return false;
-          }
-        } catch (NoSuchAlgorithmException | InvalidKeyException ex) {
-          Session.log.warn("cookie signature invalid: " + getClusterId(), ex);
+      if (signer != null) {
+        String sessionId = getClusterId();
+        if (!signer.valid(sessionId)) {
+          Session.log.warn("cookie signature invalid: {}", sessionId);
           return false;
         }
       }
@@ -152,8 +235,8 @@ public class JoobySession extends MemSession implements Session {
     this.saveInterval = saveInterval;
   }
 
-  public void setSecret(final String secret) {
-    this.secret = secret;
+  public void setSigner(final Cookie.Signer signer) {
+    this.signer = signer;
   }
 
   @Override
@@ -168,30 +251,38 @@ public class JoobySession extends MemSession implements Session {
       return;
     }
 
-    dirty = true;
+    changed(name, value == null);
   }
 
   @Override
   protected void complete() {
-    synchronized (this) {
-      super.complete();
-      try {
-        if (isValid()) {
-          if (dirty || isNew()) {
-            getSessionManager().getSessionStore().save(this, SaveReason.DIRTY);
-          } else {
-            long access = getAccessed() - lastSave;
-            long interval = saveInterval * 1000L;
-            if (access >= interval) {
-              getSessionManager().getSessionStore().save(this, SaveReason.TIME);
-            }
+    super.complete();
+    // don't hold the session lock while saving, concurrent requests keep using the session
+    saving.lock();
+    try {
+      if (isValid()) {
+        JoobySessionManager manager = getSessionManager();
+        // just a hint, the manager checks it again under the session lock
+        boolean passivate = manager.isPassivate() && getRequests() == 0;
+        // changes made while saving set the flag again and they are saved by next request
+        if (dirty.getAndSet(false) || isNew()) {
+          manager.save(this, SaveReason.DIRTY);
+        } else {
+          long access = getAccessed() - lastSave;
+          long interval = saveInterval * 1000L;
+          // passivated sessions must be saved, otherwise access time is lost
+          if (access >= interval || passivate) {
+            manager.save(this, SaveReason.TIME);
           }
         }
-      } catch (Exception ex) {
-        log.error("Can't save session: " + getId(), ex);
-      } finally {
-        dirty = false;
+        if (passivate) {
+          manager.passivate(this);
+        }
       }
+    } catch (Exception ex) {
+      log.error("Can't save session: " + getId(), ex);
+    } finally {
+      saving.unlock();
     }
   }
 
@@ -199,6 +290,42 @@ public class JoobySession extends MemSession implements Session {
     this.lastSave = lastSave;
   }
 
+  /**
+   * Take the attributes changed since the last call.
+   *
+   * @return Changed attributes or <code>null</code> when the store doesn't have this session yet
+   *         and a full save is required.
+   */
+  synchronized Delta delta() {
+    Delta delta = persisted ? new Delta(changed, removed) : null;
+    changed = new HashSet<>();
+    removed = new HashSet<>();
+    return delta;
+  }
+
+  /**
+   * Set/reset the persisted flag. A failed save reset it, so next save is a full save.
+   *
+   * @param persisted True if the store has a full copy of this session.
+   */
+  synchronized void setPersisted(final boolean persisted) {
+    this.persisted = persisted;
+  }
+
+  private synchronized void changed(final String name, final boolean remove) {
+    if (remove) {
+      changed.remove(name);
+      removed.add(name);
+    } else {
+      removed.remove(name);
+      changed.add(name);
+    }
+    // changes made by the store while saving don't make the session dirty
+    if (!saving.isHeldByCurrentThread()) {
+      dirty.set(true);
+    }
+  }
+
   @Override
   public String toString() {
     StringBuilder buffer = new StringBuilder("  id: ").append(id()).append("\n");
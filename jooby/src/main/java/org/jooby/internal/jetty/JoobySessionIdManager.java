@@ -20,39 +20,72 @@ package org.jooby.internal.jetty;
 
 import static java.util.Objects.requireNonNull;
 
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
 import java.util.Optional;
 
+import javax.servlet.http.HttpServletRequest;
+
 import org.eclipse.jetty.server.session.HashSessionIdManager;
 import org.jooby.Cookie;
 import org.jooby.Session.Store;
 
 public class JoobySessionIdManager extends HashSessionIdManager {
 
+  /** Same attribute used by Jetty: keep one new ID per request. */
+  private static final String NEW_SESSION_ID = "org.eclipse.jetty.server.newSessionId";
+
   private Store generator;
 
-  private String secret;
+  private Cookie.Signer signer;
+
+  private final SessionIdGenerator ids;
 
-  public JoobySessionIdManager(final Store generator, final String secret) {
+  public JoobySessionIdManager(final Store generator, final Cookie.Signer signer,
+      final SessionIdGenerator ids) {
     this.generator = requireNonNull(generator, "A ID generator is required.");
-    this.secret = secret;
+    this.signer = signer;
+    this.ids = requireNonNull(ids, "A session ID generator is required.");
+  }
+
+  public JoobySessionIdManager(final Store generator, final Cookie.Signer signer) {
+    this(generator, signer, new SessionIdGenerator());
+  }
+
+  /**
+   * Same as Jetty, except it doesn't lock the ID manager while generating an ID.
+   */
+  @Override
+  public String newSessionId(final HttpServletRequest request, final long created) {
+    if (request == null) {
+      return newSessionId(created);
+    }
+    // reuse requested ID, if still in use
+    String requestedId = request.getRequestedSessionId();
+    if (requestedId != null) {
+      String clusterId = getClusterId(requestedId);
+      if (idInUse(clusterId)) {
+        return clusterId;
+      }
+    }
+    // reuse ID created previously by same request
+    String newId = (String) request.getAttribute(NEW_SESSION_ID);
+    if (newId != null && idInUse(newId)) {
+      return newId;
+    }
+    String id = newSessionId(request.hashCode());
+    request.setAttribute(NEW_SESSION_ID, id);
+    return id;
   }
 
   @Override
   public String newSessionId(final long seedTerm) {
     // generate ID.
     String id = Optional.ofNullable(generator.generateID(seedTerm))
-        .orElse(super.newSessionId(seedTerm));
+        .orElseGet(ids::next);
 
-    if (secret == null) {
+    if (signer == null) {
       return id;
     }
-    try {
-      return Cookie.Signature.sign(id, secret);
-    } catch (InvalidKeyException | NoSuchAlgorithmException ex) {
-      throw new IllegalStateException("Can't sign session ID", ex);
-    }
+    return signer.sign(id);
   }
 
 }
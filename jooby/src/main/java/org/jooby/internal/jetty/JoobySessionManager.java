@@ -20,43 +20,82 @@ package org.jooby.internal.jetty;
 
 import static java.util.Objects.requireNonNull;
 
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 
 import javax.servlet.http.HttpServletRequest;
 
 import org.eclipse.jetty.server.session.AbstractSession;
 import org.eclipse.jetty.server.session.AbstractSessionManager;
+import org.jooby.Cookie;
 import org.jooby.Session;
 import org.jooby.Session.Builder;
 import org.jooby.Session.Store;
 import org.jooby.Session.Store.SaveReason;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Striped;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 public class JoobySessionManager extends AbstractSessionManager {
 
+  /** Number of locks, sessions are spread across them by ID. */
+  private static final int STRIPES = 64;
+
+  /** Expiry resolution. */
+  private static final long TICK = TimeUnit.SECONDS.toMillis(1);
+
   private final Map<String, JoobySession> sessions = new ConcurrentHashMap<>();
 
+  /**
+   * Serialize load and remove of the same session, so a removed session isn't loaded back from the
+   * store. Different sessions rarely share a lock.
+   */
+  private final Striped<Lock> locks = Striped.lock(STRIPES);
+
+  /**
+   * Session IDs by expiry time. A session is added once: when it is due, it is expired or added
+   * again with its new expiry time (it was accessed in the meantime).
+   */
+  private final TimerWheel<String> expiry = new TimerWheel<>(TICK, System.currentTimeMillis());
+
+  /** Collect IDs of expired sessions, so they are deleted from the store in one call. */
+  private final ThreadLocal<List<String>> expired = new ThreadLocal<>();
+
+  private ScheduledExecutorService expirer;
+
   private Store store;
 
   private boolean preserveOnStop;
 
+  private boolean passivate;
+
   private int saveInterval;
 
-  private String secret;
+  private Cookie.Signer signer;
+
+  private SessionSaveQueue saveQueue = new SessionSaveQueue(0);
 
   public JoobySessionManager(final Session.Store store, final String secret) {
     this.store = requireNonNull(store, "A session store is required.");
-    this.secret = secret;
-    setSessionIdManager(new JoobySessionIdManager(store, secret));
+    this.signer = secret == null ? null : signer(secret);
+    setSessionIdManager(new JoobySessionIdManager(store, signer));
   }
 
   @Override
   protected void addSession(final AbstractSession session) {
     if (isRunning()) {
       sessions.put(session.getClusterId(), (JoobySession) session);
+      schedule((JoobySession) session);
       // TODO: session.willPassivate();
       // TODO: store.save((JoobySession) session);
       // TODO: session.didActivate();
@@ -66,8 +105,52 @@ public class JoobySessionManager extends AbstractSessionManager {
   @Override
   public AbstractSession getSession(final String idInCluster) {
     JoobySession session = sessions.get(idInCluster);
+    // passivated after the lookup? look again, it is in the save queue or store now
+    if (session != null && !session.pin()) {
+      session = null;
+    }
 
     if (session == null) {
+      // passivated but not saved yet
+      JoobySession pending = saveQueue.get(idInCluster);
+      if (pending != null) {
+        synchronized (pending) {
+          JoobySession race = sessions.putIfAbsent(idInCluster, pending);
+          if (race == null) {
+            pending.activate();
+            session = pending;
+          }
+        }
+        if (session == null) {
+          return getSession(idInCluster);
+        }
+      }
+    }
+
+    if (session == null) {
+      session = load(idInCluster);
+      if (session != null && !session.pin()) {
+        return getSession(idInCluster);
+      }
+      // expiry? don't access it here, jetty does it once per request
+      if (session != null && session.expired(System.currentTimeMillis())) {
+        // outside of the lock: invalidate takes the session lock and then the stripe lock
+        session.invalidate();
+        session = null;
+      }
+    }
+    return session;
+  }
+
+  private JoobySession load(final String idInCluster) {
+    Lock lock = locks.get(idInCluster);
+    lock.lock();
+    try {
+      // loaded by another thread while waiting for the lock?
+      JoobySession session = sessions.get(idInCluster);
+      if (session != null) {
+        return session;
+      }
       try {
         session = (JoobySession) store.get(builder(this, idInCluster));
       } catch (Exception ex) {
@@ -80,14 +163,14 @@ public class JoobySessionManager extends AbstractSessionManager {
           session.clearAttributes();
           // TODO: session.didActivate();
           session = race;
-        }
-        // expiry?
-        if (!session.access(System.currentTimeMillis())) {
-          session = null;
+        } else {
+          schedule(session);
         }
       }
+      return session;
+    } finally {
+      lock.unlock();
     }
-    return session;
   }
 
   private static Builder builder(final JoobySessionManager sessionManager,
@@ -130,10 +213,15 @@ public class JoobySessionManager extends AbstractSessionManager {
       @Override
       public Session build() {
         JoobySession session = new JoobySession(sessionManager, createdAt, accessedAt, clusterId);
+        // jetty counts the new session as in use, but it will be accessed by the current request
+        session.setRequests(0);
         session.setMaxInactiveInterval(sessionManager.getMaxInactiveInterval());
         session.setSaveInterval(sessionManager.saveInterval);
-        session.setSecret(sessionManager.secret);
+        session.setSigner(sessionManager.signer);
         session.addAttributes(attributes);
+        // the store has a full copy, track changes from here
+        session.delta();
+        session.setPersisted(true);
         return session;
       }
 
@@ -142,6 +230,9 @@ public class JoobySessionManager extends AbstractSessionManager {
 
   @Override
   protected void shutdownSessions() throws Exception {
+    // write queued sessions first, from here sessions are saved from current thread
+    saveQueue.stop();
+
     for (JoobySession session : ImmutableList.copyOf(this.sessions.values())) {
       if (preserveOnStop) {
         store.save(session, SaveReason.PRESERVE_ON_STOP);
@@ -158,20 +249,30 @@ public class JoobySessionManager extends AbstractSessionManager {
     JoobySession session = new JoobySession(this, request);
     session.setMaxInactiveInterval(getMaxInactiveInterval());
     session.setSaveInterval(saveInterval);
-    session.setSecret(secret);
+    session.setSigner(signer);
     return session;
   }
 
   @Override
   protected boolean removeSession(final String clusterId) {
-    synchronized (this) {
+    Lock lock = locks.get(clusterId);
+    lock.lock();
+    try {
       JoobySession session = sessions.remove(clusterId);
-      try {
-        store.delete(clusterId);
-      } catch (Exception ex) {
-        Session.log.error("Can't delete session: " + clusterId, ex);
+      saveQueue.remove(clusterId);
+      List<String> batch = expired.get();
+      if (batch != null) {
+        batch.add(clusterId);
+      } else {
+        try {
+          store.delete(clusterId);
+        } catch (Exception ex) {
+          Session.log.error("Can't delete session: " + clusterId, ex);
+        }
       }
       return session != null;
+    } finally {
+      lock.unlock();
     }
   }
 
@@ -201,10 +302,31 @@ public class JoobySessionManager extends AbstractSessionManager {
 //    super.renewSessionId(oldClusterId, oldNodeId, newClusterId, newNodeId);
 //  }
 
+  @Override
+  public void doStart() throws Exception {
+    saveQueue.start(store);
+    super.doStart();
+    // passivated sessions aren't in memory, their expiry is up to the store
+    if (!passivate) {
+      expirer = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+          .setNameFormat("session-expiry")
+          .setDaemon(true)
+          .build());
+      expirer.scheduleWithFixedDelay(this::expire, TICK, TICK, TimeUnit.MILLISECONDS);
+    }
+  }
+
   @Override
   public void doStop() throws Exception {
-    // TODO Auto-generated method stub
+    if (expirer != null) {
+      expirer.shutdownNow();
+      expirer = null;
+    }
     super.doStop();
+    // release files, connections, etc... held by the store
+    if (store instanceof AutoCloseable) {
+      ((AutoCloseable) store).close();
+    }
   }
 
   @Override
@@ -216,6 +338,21 @@ public class JoobySessionManager extends AbstractSessionManager {
     return store;
   }
 
+  public void setSaveQueue(final SessionSaveQueue saveQueue) {
+    this.saveQueue = requireNonNull(saveQueue, "A save queue is required.");
+  }
+
+  /**
+   * Save a session now or later (when saves are async).
+   *
+   * @param session A session.
+   * @param reason Save reason.
+   * @throws Exception If save fails.
+   */
+  void save(final JoobySession session, final SaveReason reason) throws Exception {
+    saveQueue.save(session, reason);
+  }
+
   public boolean isPreserveOnStop() {
     return preserveOnStop;
   }
@@ -224,8 +361,92 @@ public class JoobySessionManager extends AbstractSessionManager {
     this.preserveOnStop = preserveOnStop;
   }
 
+  public boolean isPassivate() {
+    return passivate;
+  }
+
+  public void setPassivate(final boolean passivate) {
+    this.passivate = passivate;
+  }
+
+  /**
+   * Remove a (saved) session from memory, it will be loaded from the store on next access.
+   *
+   * @param session A session.
+   */
+  void passivate(final JoobySession session) {
+    // check and remove under the session lock: getSession pins a session under the same lock,
+    // so a request never gets an instance that is no longer in memory
+    synchronized (session) {
+      if (session.passivate()) {
+        sessions.remove(session.getClusterId(), session);
+      }
+    }
+  }
+
   public void setSaveInterval(final int saveInterval) {
     this.saveInterval = saveInterval;
   }
 
+  /**
+   * Invalidate sessions that expired since last call and delete them from the store in one batch.
+   * Sessions in use or accessed since they were scheduled are scheduled again.
+   */
+  void expire() {
+    try {
+      long now = System.currentTimeMillis();
+      List<JoobySession> expired = new ArrayList<>();
+      for (String id : expiry.advance(now)) {
+        JoobySession session = sessions.get(id);
+        // removed or passivated sessions are gone
+        if (session != null) {
+          // expiryAt is based on last access, Jetty's expiry check on the previous one
+          long expiryAt = session.expiryAt();
+          if (session.getRequests() == 0 && expiryAt > 0 && expiryAt <= now) {
+            expired.add(session);
+          } else {
+            schedule(session);
+          }
+        }
+      }
+      if (expired.isEmpty()) {
+        return;
+      }
+      List<String> ids = new ArrayList<>(expired.size());
+      this.expired.set(ids);
+      try {
+        for (JoobySession session : expired) {
+          try {
+            session.invalidate();
+          } catch (IllegalStateException ex) {
+            // invalidated by someone else
+          }
+        }
+      } finally {
+        this.expired.remove();
+      }
+      if (ids.size() > 0) {
+        store.delete(ids);
+      }
+    } catch (Exception ex) {
+      Session.log.error("Can't expire sessions", ex);
+    }
+  }
+
+  private void schedule(final JoobySession session) {
+    long expiryAt = session.expiryAt();
+    // there is no expiry thread for passivated sessions
+    if (expiryAt > 0 && !passivate) {
+      expiry.add(session.getClusterId(), expiryAt);
+    }
+  }
+
+  private static Cookie.Signer signer(final String secret) {
+    try {
+      return new Cookie.Signer(secret);
+    } catch (InvalidKeyException | NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("Can't sign session ID", ex);
+    }
+  }
+
 }
@@ -0,0 +1,126 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal.jetty;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+import com.google.common.io.BaseEncoding;
+
+/**
+ * Session ID generator. IDs are 128 random bits (by default) encoded as URL-safe base64 without
+ * padding.
+ *
+ * A single {@link SecureRandom} is a point of contention when many threads create sessions at
+ * the same time (think of a login peak): {@link SecureRandom#nextBytes(byte[])} is synchronized
+ * and the default implementation on Unix reads from a shared native source under a global lock.
+ * Here, every thread owns a <code>SHA1PRNG</code> instance. Thread instances are seeded from a
+ * shared {@link SecureRandom} and reseeded every <code>reseed</code> IDs, so the shared source is
+ * touched once per thread and then once every <code>reseed</code> IDs.
+ *
+ * @author edgar
+ * @since 0.4.0
+ */
+class SessionIdGenerator {
+
+  /** Bytes per ID: 128 bits. */
+  static final int SIZE = 16;
+
+  /** Number of IDs before reseeding a thread generator. */
+  static final int RESEED = 100_000;
+
+  private static final String ALGORITHM = "SHA1PRNG";
+
+  private static final int SEED_SIZE = 32;
+
+  private static final BaseEncoding BASE64 = BaseEncoding.base64Url().omitPadding();
+
+  private class Source {
+
+    private final SecureRandom random;
+
+    private final byte[] bytes = new byte[size];
+
+    private int count = reseed;
+
+    public Source() {
+      try {
+        this.random = SecureRandom.getInstance(ALGORITHM);
+        // seeding before first use replaces the self-seeding (which is synchronized)
+        this.random.setSeed(seed());
+      } catch (NoSuchAlgorithmException ex) {
+        throw new IllegalStateException("Can't create a " + ALGORITHM + " generator", ex);
+      }
+    }
+
+    public String next() {
+      if (--count == 0) {
+        // supplement (not replace) current seed
+        random.setSeed(seed());
+        count = reseed;
+      }
+      random.nextBytes(bytes);
+      return BASE64.encode(bytes);
+    }
+  }
+
+  private final SecureRandom seeder = new SecureRandom();
+
+  private final int size;
+
+  private final int reseed;
+
+  private final ThreadLocal<Source> sources = ThreadLocal.withInitial(Source::new);
+
+  /**
+   * Creates a new {@link SessionIdGenerator}.
+   *
+   * @param size Number of random bytes per ID. Must be 16 (128 bits) or more.
+   * @param reseed Number of IDs before reseeding a thread generator.
+   */
+  public SessionIdGenerator(final int size, final int reseed) {
+    checkArgument(size >= SIZE, "Size must be %s or more, got: %s", SIZE, size);
+    checkArgument(reseed > 0, "Reseed must be greater than zero, got: %s", reseed);
+    this.size = size;
+    this.reseed = reseed;
+  }
+
+  /**
+   * Creates a new {@link SessionIdGenerator} of 128 bits IDs.
+   */
+  public SessionIdGenerator() {
+    this(SIZE, RESEED);
+  }
+
+  /**
+   * @return A new session ID.
+   */
+  public String next() {
+    return sources.get().next();
+  }
+
+  private byte[] seed() {
+    byte[] seed = new byte[SEED_SIZE];
+    seeder.nextBytes(seed);
+    return seed;
+  }
+
+}
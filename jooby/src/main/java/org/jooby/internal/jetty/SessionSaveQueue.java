@@ -0,0 +1,313 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal.jetty;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.jooby.Session;
+import org.jooby.Session.Store;
+import org.jooby.Session.Store.SaveReason;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.typesafe.config.Config;
+
+/**
+ * Save sessions from a background thread. Sessions are queued by id, so a session waiting to be
+ * saved is written once with its newest state. If the queue is full or it has a capacity of
+ * <code>0</code>, sessions are saved from the caller thread.
+ *
+ * @author edgar
+ * @since 0.4.0
+ */
+@Singleton
+public class SessionSaveQueue implements Session.SaveQueue {
+
+  private static class Pending {
+
+    private final JoobySession session;
+
+    private SaveReason reason;
+
+    public Pending(final JoobySession session, final SaveReason reason) {
+      this.session = session;
+      this.reason = reason;
+    }
+  }
+
+  private final int capacity;
+
+  private final Map<String, Pending> queue = new LinkedHashMap<>();
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final Condition notEmpty = lock.newCondition();
+
+  private final Condition idle = lock.newCondition();
+
+  /** Session being saved by the writer. */
+  private Pending saving;
+
+  /** Writer thread, read without the lock to skip it on sync saves. */
+  private volatile Thread writer;
+
+  private Store store;
+
+  private final AtomicLong saved = new AtomicLong();
+
+  private final AtomicLong failed = new AtomicLong();
+
+  private final AtomicLong saveTime = new AtomicLong();
+
+  private final AtomicLong maxSaveTime = new AtomicLong();
+
+  @Inject
+  public SessionSaveQueue(final Session.Definition session, final Config config) {
+    this(session.saveQueue().orElse(config.getInt("application.session.saveQueue")));
+  }
+
+  public SessionSaveQueue(final int capacity) {
+    checkArgument(capacity >= 0, "Save queue must be positive: %s", capacity);
+    this.capacity = capacity;
+  }
+
+  /**
+   * Start saving sessions in the given store. The writer thread is created if saves are async.
+   *
+   * @param store A session store.
+   */
+  public void start(final Store store) {
+    lock.lock();
+    try {
+      this.store = requireNonNull(store, "A session store is required.");
+      if (capacity > 0 && writer == null) {
+        writer = new ThreadFactoryBuilder()
+            .setNameFormat("session-saver")
+            .setDaemon(true)
+            .build()
+            .newThread(this::write);
+        writer.start();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Write pending sessions and stop the writer thread. Sessions saved after stop are saved from
+   * the caller thread.
+   *
+   * @throws InterruptedException If the current thread is interrupted.
+   */
+  public void stop() throws InterruptedException {
+    Thread writer;
+    lock.lock();
+    try {
+      while (queue.size() > 0 || saving != null) {
+        idle.await();
+      }
+      writer = this.writer;
+      this.writer = null;
+    } finally {
+      lock.unlock();
+    }
+    if (writer != null) {
+      writer.interrupt();
+      writer.join();
+    }
+  }
+
+  /**
+   * Save or queue a session.
+   *
+   * @param session A session.
+   * @param reason Save reason.
+   * @throws Exception If a sync save fails.
+   */
+  public void save(final JoobySession session, final SaveReason reason) throws Exception {
+    if (writer == null) {
+      save(new Pending(session, reason));
+      return;
+    }
+    lock.lock();
+    try {
+      if (writer != null) {
+        Pending pending = queue.get(session.getClusterId());
+        if (pending != null) {
+          // dirty wins over time
+          if (reason == SaveReason.DIRTY) {
+            pending.reason = reason;
+          }
+          return;
+        }
+        if (queue.size() < capacity) {
+          queue.put(session.getClusterId(), new Pending(session, reason));
+          notEmpty.signal();
+          return;
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+    // full or sync
+    save(new Pending(session, reason));
+  }
+
+  /**
+   * Remove a session from the queue, useful before deleting a session.
+   *
+   * @param id Session ID.
+   */
+  public void remove(final String id) {
+    lock.lock();
+    try {
+      queue.remove(id);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Find a session waiting to be saved, a passivated session must be read from here because the
+   * store might have an older version of it.
+   *
+   * @param id Session ID.
+   * @return A session or <code>null</code>.
+   */
+  public JoobySession get(final String id) {
+    lock.lock();
+    try {
+      Pending pending = queue.get(id);
+      if (pending == null && saving != null && saving.session.getClusterId().equals(id)) {
+        pending = saving;
+      }
+      return pending == null ? null : pending.session;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int capacity() {
+    return capacity;
+  }
+
+  @Override
+  public int pending() {
+    lock.lock();
+    try {
+      return queue.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public long saved() {
+    return saved.get();
+  }
+
+  @Override
+  public long failed() {
+    return failed.get();
+  }
+
+  @Override
+  public long meanSaveTime() {
+    long saves = saved.get() + failed.get();
+    return saves == 0 ? 0 : saveTime.get() / saves;
+  }
+
+  @Override
+  public long maxSaveTime() {
+    return maxSaveTime.get();
+  }
+
+  @Override
+  public String toString() {
+    return "pending: " + pending() + ", saved: " + saved() + ", failed: " + failed()
+        + ", mean: " + TimeUnit.NANOSECONDS.toMicros(meanSaveTime()) + "us";
+  }
+
+  private void write() {
+    while (true) {
+      Pending pending;
+      lock.lock();
+      try {
+        saving = null;
+        idle.signalAll();
+        while (queue.isEmpty()) {
+          notEmpty.await();
+        }
+        Iterator<Pending> it = queue.values().iterator();
+        pending = it.next();
+        it.remove();
+        saving = pending;
+      } catch (InterruptedException ex) {
+        return;
+      } finally {
+        lock.unlock();
+      }
+      try {
+        save(pending);
+      } catch (Exception ex) {
+        Session.log.error("Can't save session: " + pending.session.getId(), ex);
+      }
+    }
+  }
+
+  private void save(final Pending pending) throws Exception {
+    JoobySession session = pending.session;
+    // a full save includes changes too, so take them anyway
+    JoobySession.Delta delta = session.delta();
+    long start = System.nanoTime();
+    boolean success = false;
+    try {
+      if (pending.reason == SaveReason.DIRTY && delta != null) {
+        store.saveDelta(session, delta.changed, delta.removed);
+      } else {
+        store.save(session, pending.reason);
+      }
+      success = true;
+      // invalidated while saving? delete it again
+      if (!session.isValid()) {
+        store.delete(session.getClusterId());
+      }
+    } finally {
+      // on failures, changes are lost: next save must be a full save
+      session.setPersisted(success);
+      long time = System.nanoTime() - start;
+      saveTime.addAndGet(time);
+      maxSaveTime.accumulateAndGet(time, Math::max);
+      (success ? saved : failed).incrementAndGet();
+    }
+  }
+
+}
@@ -0,0 +1,184 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.internal.jetty;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hashed hierarchical timer wheel. Items are added with a deadline and returned by
+ * {@link #advance(long)} once the deadline passed. Add and expire cost O(1) (amortized), no matter
+ * how many items are in the wheel.
+ *
+ * The wheel has 4 levels of 64 slots each: level 0 slots are one tick long, level 1 slots are 64
+ * ticks, level 2 slots 4096 ticks and so on. Items far in the future sit in an upper level and go
+ * down (cascade) as time advance.
+ *
+ * {@link #add(Object, long)} is thread-safe and lock-free: items are buffered and moved to the
+ * wheel on next {@link #advance(long)}, which must be called from a single thread.
+ *
+ * @author edgar
+ * @since 0.4.0
+ * @param <T> Item type.
+ */
+class TimerWheel<T> {
+
+  private static class Timeout<T> {
+
+    private final T item;
+
+    private final long tick;
+
+    public Timeout(final T item, final long tick) {
+      this.item = item;
+      this.tick = tick;
+    }
+  }
+
+  private static final int BITS = 6;
+
+  private static final int SLOTS = 1 << BITS;
+
+  private static final int MASK = SLOTS - 1;
+
+  private static final int LEVELS = 4;
+
+  private final long tickMillis;
+
+  private final List<List<Timeout<T>>> slots = new ArrayList<>(LEVELS * SLOTS);
+
+  private final Queue<Timeout<T>> incoming = new ConcurrentLinkedQueue<>();
+
+  /** Last processed tick. */
+  private long current;
+
+  private int size;
+
+  /**
+   * Creates a new {@link TimerWheel}.
+   *
+   * @param tickMillis Tick duration in millis.
+   * @param now Current time in millis.
+   */
+  public TimerWheel(final long tickMillis, final long now) {
+    checkArgument(tickMillis > 0, "Tick must be positive: %s", tickMillis);
+    this.tickMillis = tickMillis;
+    this.current = now / tickMillis;
+    for (int i = 0; i < LEVELS * SLOTS; i++) {
+      slots.add(null);
+    }
+  }
+
+  /**
+   * Add an item to the wheel.
+   *
+   * @param item An item.
+   * @param deadline Time (in millis) when the item expires.
+   */
+  public void add(final T item, final long deadline) {
+    // round up: an item is never returned before its deadline
+    incoming.add(new Timeout<>(item, (deadline + tickMillis - 1) / tickMillis));
+  }
+
+  /**
+   * Advance the wheel up to the given time.
+   *
+   * @param now Current time in millis.
+   * @return Items whose deadline passed.
+   */
+  public List<T> advance(final long now) {
+    List<T> due = new ArrayList<>();
+    Timeout<T> timeout;
+    while ((timeout = incoming.poll()) != null) {
+      place(timeout, due);
+    }
+    long target = now / tickMillis;
+    while (current < target) {
+      current += 1;
+      // move items from upper levels down, before firing level 0
+      for (int level = 1; level < LEVELS; level++) {
+        int shift = BITS * level;
+        if ((current & ((1L << shift) - 1)) != 0) {
+          break;
+        }
+        for (Timeout<T> it : take(level, (int) ((current >> shift) & MASK))) {
+          place(it, due);
+        }
+      }
+      for (Timeout<T> it : take(0, (int) (current & MASK))) {
+        place(it, due);
+      }
+    }
+    return due;
+  }
+
+  /**
+   * @return Number of items in the wheel, not including items added after last advance.
+   */
+  public int size() {
+    return size;
+  }
+
+  private void place(final Timeout<T> timeout, final List<T> due) {
+    long delta = timeout.tick - current;
+    if (delta <= 0) {
+      due.add(timeout.item);
+      return;
+    }
+    for (int level = 0; level < LEVELS; level++) {
+      int shift = BITS * level;
+      if (delta < 1L << (shift + BITS)) {
+        slot(level, (int) ((timeout.tick >> shift) & MASK)).add(timeout);
+        size += 1;
+        return;
+      }
+    }
+    // too far, park it at the end of the wheel: it will be placed again when cascaded
+    int shift = BITS * (LEVELS - 1);
+    long last = current + (1L << (BITS * LEVELS)) - 1;
+    slot(LEVELS - 1, (int) ((last >> shift) & MASK)).add(timeout);
+    size += 1;
+  }
+
+  private List<Timeout<T>> slot(final int level, final int index) {
+    int i = level * SLOTS + index;
+    List<Timeout<T>> slot = slots.get(i);
+    if (slot == null) {
+      slot = new ArrayList<>();
+      slots.set(i, slot);
+    }
+    return slot;
+  }
+
+  private List<Timeout<T>> take(final int level, final int index) {
+    int i = level * SLOTS + index;
+    List<Timeout<T>> slot = slots.set(i, null);
+    if (slot == null) {
+      return Collections.emptyList();
+    }
+    size -= slot.size();
+    return slot;
+  }
+
+}
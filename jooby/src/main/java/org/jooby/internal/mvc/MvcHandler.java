@@ -20,7 +20,12 @@ package org.jooby.internal.mvc;
 
 import static java.util.Objects.requireNonNull;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
@@ -37,36 +42,89 @@ import org.jooby.internal.reqparam.RequestParam;
 import org.jooby.internal.reqparam.RequestParamProvider;
 import org.jooby.mvc.Viewable;
 
-class MvcHandler implements Route.Handler {
+import com.google.inject.Key;
 
-  private Method handler;
+class MvcHandler implements Route.Filter {
 
-  private RequestParamProvider provider;
+  /** Type of MVC invokers: <code>(target, args) -&gt; result</code>. */
+  private static final MethodType INVOKER = MethodType
+      .methodType(Object.class, Object.class, Object[].class);
 
-  private List<MediaType> produces;
+  private final Method handler;
 
-  public MvcHandler(final Method handler, final RequestParamProvider provider,
-      final List<MediaType> produces) {
+  /** Key of the MVC class or <code>null</code> for static methods. */
+  private final Key<?> target;
+
+  /** Handler method as a method handle, created once at startup. */
+  private final MethodHandle invoker;
+
+  /** Method parameters or <code>null</code> when they are resolved per request (dev). */
+  private final RequestParam[] params;
+
+  private final RequestParamProvider provider;
+
+  private final boolean isVoid;
+
+  private final String viewName;
+
+  private final List<MediaType> produces;
+
+  private MvcHandler(final Method handler, final RequestParamProvider provider,
+      final RequestParam[] params, final List<MediaType> produces) {
     this.handler = requireNonNull(handler, "Handler method is required.");
-    this.provider = requireNonNull(provider, "Param prodiver is required.");
+    this.provider = provider;
+    this.params = params;
     this.produces = requireNonNull(produces, "Produce types are required.");
+    this.target = Modifier.isStatic(handler.getModifiers())
+        ? null
+        : Key.get(handler.getDeclaringClass());
+    this.invoker = invoker(handler);
+    Class<?> returnType = handler.getReturnType();
+    this.isVoid = returnType == void.class || returnType == Void.class;
+    // default view name
+    this.viewName = Optional.ofNullable(handler.getAnnotation(Viewable.class))
+        .map(template -> template.value().isEmpty() ? handler.getName() : template.value())
+        .orElse(handler.getName());
   }
 
-  @Override
-  public void handle(final Request req, final Response rsp) throws Exception {
+  /**
+   * Creates a {@link MvcHandler} that resolves parameters on every request, so parameter names
+   * changes are picked up (dev).
+   *
+   * @param handler A MVC method.
+   * @param provider Parameter provider.
+   * @param produces Produce types.
+   */
+  public MvcHandler(final Method handler, final RequestParamProvider provider,
+      final List<MediaType> produces) {
+    this(handler, requireNonNull(provider, "Param prodiver is required."), null, produces);
+  }
+
+  /**
+   * Creates a {@link MvcHandler} with parameters resolved at startup.
+   *
+   * @param handler A MVC method.
+   * @param params Method parameters.
+   * @param produces Produce types.
+   */
+  public MvcHandler(final Method handler, final List<RequestParam> params,
+      final List<MediaType> produces) {
+    this(handler, null, requireNonNull(params, "Params are required.")
+        .toArray(new RequestParam[params.size()]), produces);
+  }
 
-    Object target = req.getInstance(handler.getDeclaringClass());
+  @Override
+  public void handle(final Request req, final Response rsp, final Route.Chain chain)
+      throws Exception {
+    handle(req, rsp);
+    chain.next(req, rsp);
+  }
 
-    List<RequestParam> parameters = provider.parameters(handler);
-    Object[] args = new Object[parameters.size()];
-    for (int i = 0; i < parameters.size(); i++) {
-      args[i] = parameters.get(i).value(req, rsp);
-    }
+  public void handle(final Request req, final Response rsp) throws Exception {
 
-    final Object result = handler.invoke(target, args);
+    final Object result = invoke(req, rsp);
 
-    Class<?> returnType = handler.getReturnType();
-    if (returnType == void.class || returnType == Void.class) {
+    if (isVoid) {
       // ignore glob pattern
       if (!req.route().pattern().contains("*")) {
         rsp.status(Status.NO_CONTENT);
@@ -82,11 +140,7 @@ class MvcHandler implements Route.Handler {
       if (result instanceof View) {
         return result;
       }
-      // default view name
-      String defaultViewName = Optional.ofNullable(handler.getAnnotation(Viewable.class))
-          .map(template -> template.value().isEmpty() ? handler.getName() : template.value())
-          .orElse(handler.getName());
-      return View.of(defaultViewName, result);
+      return View.of(viewName, result);
     };
 
     ExSupplier<Object> notViewable = () -> result;
@@ -110,4 +164,53 @@ class MvcHandler implements Route.Handler {
     // send!
     formatter.send();
   }
+
+  /**
+   * Find the MVC instance and parameter values, then invoke the method.
+   *
+   * @param req A HTTP request.
+   * @param rsp A HTTP response.
+   * @return Method result.
+   * @throws Exception If the method fails.
+   */
+  Object invoke(final Request req, final Response rsp) throws Exception {
+    Object target = this.target == null ? null : req.getInstance(this.target);
+
+    RequestParam[] params = this.params;
+    if (params == null) {
+      List<RequestParam> parameters = provider.parameters(handler);
+      params = parameters.toArray(new RequestParam[parameters.size()]);
+    }
+    Object[] args = new Object[params.length];
+    for (int i = 0; i < params.length; i++) {
+      args[i] = params[i].value(req, rsp);
+    }
+
+    try {
+      return (Object) invoker.invokeExact(target, args);
+    } catch (Throwable ex) {
+      // same as Method.invoke
+      throw new InvocationTargetException(ex);
+    }
+  }
+
+  /**
+   * Creates a method handle of type <code>(Object, Object[])Object</code> for the given method.
+   *
+   * @param method A MVC method.
+   * @return A method handle.
+   */
+  static MethodHandle invoker(final Method method) {
+    try {
+      MethodHandle handle = MethodHandles.lookup().unreflect(method);
+      if (Modifier.isStatic(method.getModifiers())) {
+        handle = MethodHandles.dropArguments(handle, 0, Object.class);
+      }
+      return handle.asSpreader(Object[].class, method.getParameterCount())
+          .asType(INVOKER);
+    } catch (IllegalAccessException ex) {
+      throw new IllegalArgumentException("Not accessible: " + method, ex);
+    }
+  }
+
 }
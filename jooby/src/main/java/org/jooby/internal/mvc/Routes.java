@@ -106,18 +106,18 @@ public class Routes {
               /**
                * Param provider: dev vs none dev
                */
-              RequestParamProvider paramProvider = provider;
-              if (!env.name().equals("dev")) {
-                List<RequestParam> params = provider.parameters(method);
-                paramProvider = (h) -> params;
-              }
+              boolean dev = env.name().equals("dev");
+              List<RequestParam> params = dev ? null : provider.parameters(method);
 
               for (Class<?> verb : verbs) {
-                Definition definition = new Route.Definition(
-                    verb.getSimpleName(), path, new MvcHandler(method, paramProvider, produces))
+                Route.Filter handler = dev
+                    ? new MvcHandler(method, provider, produces)
+                    : new MvcHandler(method, params, produces);
+                Definition definition = new Route.Definition(verb.getSimpleName(), path, handler)
                     .produces(produces)
                     .consumes(consumes(method))
-                    .name(name);
+                    .name(name)
+                    .method(method);
 
                 definitions.add(definition);
               }
@@ -18,81 +18,200 @@
  */
 package org.jooby.internal.reqparam;
 
+import static java.util.Objects.requireNonNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
 
+import org.jooby.Env;
 import org.jooby.Err;
 import org.jooby.Request;
 import org.jooby.Response;
 import org.jooby.Status;
 import org.jooby.internal.RouteMetadata;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.primitives.Primitives;
-import com.google.common.reflect.Reflection;
 import com.google.inject.TypeLiteral;
 
+/**
+ * Creates beans from request params. Constructor, fields and interface methods of a bean type are
+ * resolved once into a {@link BeanBinder} and cached per type. Nothing is cached in
+ * <code>dev</code>, so bean classes can be reloaded.
+ */
+@Singleton
 public class BeanParamInjector {
 
-  public static Object createAndInject(final Request req, final Class<?> beanType)
+  /**
+   * Creates a bean from request params.
+   */
+  private interface BeanBinder {
+    Object bind(Request req) throws Throwable;
+  }
+
+  /** Type of bean constructors: <code>(args) -&gt; bean</code>. */
+  private static final MethodType NEW_BEAN = MethodType.methodType(Object.class, Object[].class);
+
+  /** Type of field setters: <code>(bean, value) -&gt; void</code>. */
+  private static final MethodType SET_FIELD = MethodType.methodType(void.class, Object.class,
+      Object.class);
+
+  /** Type of proxy constructors: <code>(handler) -&gt; proxy</code>. */
+  private static final MethodType NEW_PROXY = MethodType.methodType(Object.class,
+      InvocationHandler.class);
+
+  private final RequestParamProvider provider;
+
+  private final Map<Class<?>, BeanBinder> binders = new ConcurrentHashMap<>();
+
+  private final boolean dev;
+
+  @Inject
+  public BeanParamInjector(final RouteMetadata classInfo, final Env env) {
+    requireNonNull(classInfo, "Route metadata is required.");
+    requireNonNull(env, "Env is required.");
+    this.provider = new RequestParamProviderImpl(new RequestParamNameProvider(classInfo));
+    this.dev = env.name().equals("dev");
+  }
+
+  public Object createAndInject(final Request req, final Class<?> beanType)
       throws Exception {
     if (beanType.isPrimitive() || Primitives.isWrapperType(beanType)
         || CharSequence.class.isAssignableFrom(beanType)) {
       throw new Err(Status.BAD_REQUEST);
     }
-    if (beanType.isInterface()) {
-      return newBeanInterface(req, beanType);
+    BeanBinder binder = dev ? binder(beanType) : binders.computeIfAbsent(beanType, this::binder);
+    try {
+      return binder.bind(req);
+    } catch (Exception | Error ex) {
+      throw ex;
+    } catch (Throwable ex) {
+      throw new IllegalStateException("Can't create: " + beanType.getName(), ex);
     }
-    return newBean(req, beanType);
   }
 
-  private static Object newBean(final Request req, final Class<?> beanType) throws Exception {
-    Response rsp = req.getInstance(Response.class);
-    RouteMetadata classInfo = req.getInstance(RouteMetadata.class);
+  private BeanBinder binder(final Class<?> beanType) {
+    return beanType.isInterface() ? newBeanInterface(beanType) : newBean(beanType);
+  }
+
+  private BeanBinder newBean(final Class<?> beanType) {
     Constructor<?>[] constructors = beanType.getDeclaredConstructors();
     if (constructors.length > 1) {
       throw new IllegalArgumentException("Bean param has multiple constructors: " + beanType);
     }
-    final Object bean;
     Constructor<?> constructor = constructors[0];
-    RequestParamProvider provider =
-        new RequestParamProviderImpl(new RequestParamNameProvider(classInfo));
-    List<RequestParam> parameters = provider.parameters(constructor);
-    Object[] args = new Object[parameters.size()];
-    for (int i = 0; i < args.length; i++) {
-      args[i] = parameters.get(i).value(req, rsp);
-    }
-    // inject args
-    bean = constructor.newInstance(args);
+    RequestParam[] parameters = provider.parameters(constructor).toArray(new RequestParam[0]);
 
-    // inject fields
-    Field[] fields = beanType.getDeclaredFields();
-    for (Field field : fields) {
+    // settable fields
+    List<RequestParam> params = new ArrayList<>();
+    List<MethodHandle> setters = new ArrayList<>();
+    for (Field field : beanType.getDeclaredFields()) {
       int mods = field.getModifiers();
       if (!Modifier.isFinal(mods) && !Modifier.isStatic(mods)) {
-        // get
-        RequestParam param = new RequestParam(field);
-        @SuppressWarnings("unchecked")
-        Object value = req.param(param.name).to(param.type);
-
-        // set
         field.setAccessible(true);
-        field.set(bean, value);
+        params.add(new RequestParam(field));
+        setters.add(unreflect(lookup -> lookup.unreflectSetter(field)).asType(SET_FIELD));
       }
     }
-    return bean;
+    RequestParam[] fields = params.toArray(new RequestParam[params.size()]);
+    MethodHandle[] fieldSetters = setters.toArray(new MethodHandle[setters.size()]);
+    boolean[] primitives = new boolean[fields.length];
+    for (int i = 0; i < fields.length; i++) {
+      primitives[i] = fields[i].type.getRawType().isPrimitive();
+    }
+
+    constructor.setAccessible(true);
+    MethodHandle newBean = unreflect(lookup -> lookup.unreflectConstructor(constructor))
+        .asSpreader(Object[].class, parameters.length)
+        .asType(NEW_BEAN);
+
+    return req -> {
+      Response rsp = req.getInstance(Response.class);
+      Object[] args = new Object[parameters.length];
+      for (int i = 0; i < args.length; i++) {
+        args[i] = parameters[i].value(req, rsp);
+      }
+      // inject args
+      Object bean = newBean.invokeExact(args);
+
+      // inject fields
+      for (int i = 0; i < fields.length; i++) {
+        @SuppressWarnings("unchecked")
+        Object value = req.param(fields[i].name).to(fields[i].type);
+        if (value == null && primitives[i]) {
+          // same as Field.set, the setter unboxes null and throws a NPE
+          throw new IllegalArgumentException("Can not set " + fields[i].type + " field "
+              + beanType.getName() + "." + fields[i].name + " to null value");
+        }
+        fieldSetters[i].invokeExact(bean, value);
+      }
+      return bean;
+    };
   }
 
-  private static Object newBeanInterface(final Request req, final Class<?> beanType) {
-    return Reflection.newProxy(beanType, (proxy, method, args) -> {
-      StringBuilder name = new StringBuilder(method.getName()
-          .replace("get", "")
-          .replace("is", "")
-          );
-      name.setCharAt(0, Character.toLowerCase(name.charAt(0)));
-      return req.param(name.toString()).to(TypeLiteral.get(method.getGenericReturnType()));
+  private static BeanBinder newBeanInterface(final Class<?> beanType) {
+    // param name and type per method
+    ImmutableMap.Builder<Method, String> names = ImmutableMap.builder();
+    ImmutableMap.Builder<Method, TypeLiteral<?>> types = ImmutableMap.builder();
+    for (Method method : beanType.getMethods()) {
+      names.put(method, paramName(method));
+      types.put(method, TypeLiteral.get(method.getGenericReturnType()));
+    }
+    Map<Method, String> nameMap = names.build();
+    Map<Method, TypeLiteral<?>> typeMap = types.build();
+
+    MethodHandle newProxy = unreflect(lookup -> {
+      Constructor<?> constructor = Proxy.getProxyClass(beanType.getClassLoader(), beanType)
+          .getConstructor(InvocationHandler.class);
+      // proxies of non-public interfaces aren't public
+      constructor.setAccessible(true);
+      return lookup.unreflectConstructor(constructor);
+    }).asType(NEW_PROXY);
+
+    return req -> newProxy.invokeExact((InvocationHandler) (proxy, method, args) -> {
+      String name = nameMap.get(method);
+      if (name == null) {
+        // Object methods
+        return req.param(paramName(method))
+            .to(TypeLiteral.get(method.getGenericReturnType()));
+      }
+      return req.param(name).to(typeMap.get(method));
     });
   }
 
+  private static String paramName(final Method method) {
+    StringBuilder name = new StringBuilder(method.getName()
+        .replace("get", "")
+        .replace("is", "")
+        );
+    name.setCharAt(0, Character.toLowerCase(name.charAt(0)));
+    return name.toString();
+  }
+
+  private interface Unreflect {
+    MethodHandle apply(MethodHandles.Lookup lookup) throws ReflectiveOperationException;
+  }
+
+  private static MethodHandle unreflect(final Unreflect fn) {
+    try {
+      return fn.apply(MethodHandles.lookup());
+    } catch (ReflectiveOperationException ex) {
+      throw new IllegalArgumentException(ex);
+    }
+  }
+
 }
@@ -0,0 +1,72 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Java serialization of session attributes, shared by the built-in stores. Useful for custom
+ * {@link org.jooby.Session.Store stores} that persist attributes as bytes.
+ *
+ * @author edgar
+ * @since 0.4.0
+ */
+public final class Attributes {
+
+  private Attributes() {
+  }
+
+  /**
+   * Serialize session attributes. Attributes must be {@link java.io.Serializable}.
+   *
+   * @param attributes Session attributes.
+   * @return Serialized attributes.
+   * @throws IOException If an attribute isn't serializable.
+   */
+  public static byte[] bytes(final Map<String, Object> attributes) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(new HashMap<>(attributes));
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Deserialize session attributes created by {@link #bytes(Map)}.
+   *
+   * @param bytes Serialized attributes.
+   * @return Session attributes.
+   * @throws IOException If bytes are corrupted.
+   * @throws ClassNotFoundException If an attribute class is missing.
+   */
+  @SuppressWarnings("unchecked")
+  public static Map<String, Object> attributes(final byte[] bytes)
+      throws IOException, ClassNotFoundException {
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+      return (Map<String, Object>) in.readObject();
+    }
+  }
+
+}
@@ -0,0 +1,620 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.session;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import org.jooby.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * <h1>file session store</h1>
+ * <p>
+ * Persist sessions on local disk, so a restarted node keeps its sessions (and users logged in)
+ * without an external database:
+ * </p>
+ *
+ * <pre>
+ * {
+ *   use(new FileSessionStore(Paths.get("sessions")));
+ * }
+ * </pre>
+ *
+ * <p>
+ * Sessions are appended to a log of memory-mapped segment files (64mb each, by default). An
+ * in-memory index points to the last record of each session, saving a session is an append and
+ * getting a session is a read from the mapped segment. Deleted sessions are appended as
+ * tombstones.
+ * </p>
+ * <p>
+ * Dirty sessions append the changed attributes only (see {@link #saveDelta(Session, Set, Set)}),
+ * reads merge them with the last full record of the session.
+ * </p>
+ * <p>
+ * A background task compacts the log every minute (by default), when at least half of it is
+ * garbage: live and not expired sessions are copied to new segments and old segments are deleted.
+ * </p>
+ * <p>
+ * At startup, segments are replayed to rebuild the index. Each record has a checksum, so a record
+ * partially written by a crash is detected and ignored. Session attributes must be
+ * {@link java.io.Serializable}.
+ * </p>
+ *
+ * @author edgar
+ * @since 0.4.0
+ */
+public class FileSessionStore implements Session.Store, Closeable {
+
+  /** Default segment size. */
+  public static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+  /** Record types. */
+  private static final byte SAVE = 1;
+
+  private static final byte DELETE = 2;
+
+  private static final byte DELTA = 3;
+
+  /** Max number of deltas on top of a full record, before writing a full record again. */
+  private static final int MAX_DELTAS = 16;
+
+  /** length + crc. */
+  private static final int RECORD_HEADER = 8;
+
+  /** type + createdAt + accessedAt + expiryAt + id length. */
+  private static final int BODY_HEADER = 1 + 8 + 8 + 8 + 2;
+
+  /** A memory-mapped log file. */
+  private static class Segment {
+
+    private final long id;
+
+    private final Path path;
+
+    /** Stay valid once the file is closed. */
+    private final MappedByteBuffer buffer;
+
+    /** Bytes written. */
+    private int size;
+
+    public Segment(final long id, final Path path, final int capacity) throws IOException {
+      this.id = id;
+      this.path = path;
+      try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+        if (file.length() < capacity) {
+          file.setLength(capacity);
+        }
+        this.buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, file.length());
+      }
+    }
+
+    public int remaining() {
+      return buffer.capacity() - size;
+    }
+
+    public void force() {
+      buffer.force();
+    }
+  }
+
+  /** Location and metadata of a session record. */
+  private static class Entry {
+
+    private final Segment segment;
+
+    private final int offset;
+
+    private final int length;
+
+    private final long createdAt;
+
+    private final long accessedAt;
+
+    private final long expiryAt;
+
+    /** Previous record of a delta record or null for full records. */
+    private final Entry previous;
+
+    /** Number of delta records on top of the full record. */
+    private final int deltas;
+
+    /** Length of this record plus the previous ones. */
+    private final long chain;
+
+    public Entry(final Segment segment, final int offset, final int length, final long createdAt,
+        final long accessedAt, final long expiryAt, final Entry previous) {
+      this.segment = segment;
+      this.offset = offset;
+      this.length = length;
+      this.createdAt = createdAt;
+      this.accessedAt = accessedAt;
+      this.expiryAt = expiryAt;
+      this.previous = previous;
+      this.deltas = previous == null ? 0 : previous.deltas + 1;
+      this.chain = previous == null ? length : previous.chain + length;
+    }
+
+    public boolean expired(final long now) {
+      return expiryAt > 0 && expiryAt <= now;
+    }
+  }
+
+  /** The logging system. */
+  private final Logger log = LoggerFactory.getLogger(getClass());
+
+  private final Path dir;
+
+  private final int segmentSize;
+
+  private final List<Segment> segments = new ArrayList<>();
+
+  private final Map<String, Entry> index = new HashMap<>();
+
+  /** Bytes used by live records. */
+  private long live;
+
+  /** Bytes written in all the segments. */
+  private long written;
+
+  private final CRC32 crc = new CRC32();
+
+  private final ScheduledExecutorService compactor;
+
+  private boolean closed;
+
+  /**
+   * Creates a new {@link FileSessionStore} and recover existing sessions (if any).
+   *
+   * @param dir Directory where segments are saved. Created if missing.
+   * @param segmentSize Segment size in bytes, also the max size of a session.
+   * @param compactInterval How frequently compaction runs, or <code>0</code> to turn it off.
+   * @param unit Compaction interval unit.
+   */
+  public FileSessionStore(final Path dir, final int segmentSize, final long compactInterval,
+      final TimeUnit unit) {
+    this.dir = requireNonNull(dir, "A directory is required.");
+    checkArgument(segmentSize > RECORD_HEADER + BODY_HEADER, "Segment size is too small: %s",
+        segmentSize);
+    requireNonNull(unit, "A time unit is required.");
+    this.segmentSize = segmentSize;
+    try {
+      recover();
+    } catch (IOException ex) {
+      throw new IllegalStateException("Can't open session store: " + dir, ex);
+    }
+    if (compactInterval > 0) {
+      ScheduledThreadPoolExecutor compactor = new ScheduledThreadPoolExecutor(1,
+          new ThreadFactoryBuilder()
+              .setNameFormat("session-compactor")
+              .setDaemon(true)
+              .build());
+      compactor.scheduleWithFixedDelay(this::maybeCompact, compactInterval, compactInterval,
+          unit);
+      this.compactor = compactor;
+    } else {
+      this.compactor = null;
+    }
+  }
+
+  /**
+   * Creates a new {@link FileSessionStore} with segments of {@link #SEGMENT_SIZE} and compaction
+   * every minute.
+   *
+   * @param dir Directory where segments are saved. Created if missing.
+   */
+  public FileSessionStore(final Path dir) {
+    this(dir, SEGMENT_SIZE, 1, TimeUnit.MINUTES);
+  }
+
+  @Override
+  public Session get(final Session.Builder builder) throws Exception {
+    String id = builder.sessionId();
+    Entry entry;
+    List<byte[]> records;
+    synchronized (this) {
+      checkOpen();
+      entry = index.get(id);
+      if (entry == null) {
+        return null;
+      }
+      if (entry.expired(System.currentTimeMillis())) {
+        remove(id);
+        return null;
+      }
+      records = records(entry);
+    }
+    return builder
+        .set(attributes(records))
+        .createdAt(entry.createdAt)
+        .accessedAt(entry.accessedAt)
+        .build();
+  }
+
+  @Override
+  public void save(final Session session, final SaveReason reason) throws Exception {
+    requireNonNull(session, "A session is required.");
+    String id = session.id();
+    byte[] data = Attributes.bytes(session.attributes());
+    synchronized (this) {
+      checkOpen();
+      append(SAVE, id, session.createdAt(), session.accessedAt(), session.expiryAt(), data);
+    }
+  }
+
+  /**
+   * Append the changed attributes only, if the session has a full record already. A full record
+   * is written again after {@link #MAX_DELTAS} deltas, so reads don't get too slow.
+   */
+  @Override
+  public void saveDelta(final Session session, final Set<String> changed,
+      final Set<String> removed) throws Exception {
+    requireNonNull(session, "A session is required.");
+    String id = session.id();
+    Map<String, Object> attributes = session.attributes();
+    // removed attributes are saved as null
+    Map<String, Object> delta = new HashMap<>();
+    changed.forEach(name -> delta.put(name, attributes.get(name)));
+    removed.forEach(name -> delta.put(name, null));
+    byte[] data = Attributes.bytes(delta);
+    synchronized (this) {
+      checkOpen();
+      Entry entry = index.get(id);
+      if (entry != null && entry.deltas < MAX_DELTAS) {
+        append(DELTA, id, session.createdAt(), session.accessedAt(), session.expiryAt(), data);
+        return;
+      }
+    }
+    save(session, SaveReason.DIRTY);
+  }
+
+  @Override
+  public void delete(final String id) throws Exception {
+    synchronized (this) {
+      checkOpen();
+      if (index.containsKey(id)) {
+        append(DELETE, id, 0, 0, 0, new byte[0]);
+      }
+    }
+  }
+
+  @Override
+  public void delete(final Collection<String> ids) throws Exception {
+    synchronized (this) {
+      for (String id : ids) {
+        delete(id);
+      }
+    }
+  }
+
+  /**
+   * @return Number of sessions in the store (including expired sessions not yet compacted).
+   */
+  public synchronized int size() {
+    checkOpen();
+    return index.size();
+  }
+
+  /**
+   * Copy live and not expired sessions to new segments and delete old segments.
+   *
+   * @throws IOException If compaction fails.
+   */
+  public synchronized void compact() throws IOException {
+    checkOpen();
+    List<Segment> old = new ArrayList<>(segments);
+    segments.clear();
+    written = 0;
+    live = 0;
+    long now = System.currentTimeMillis();
+    Segment segment = null;
+    Iterator<Map.Entry<String, Entry>> it = index.entrySet().iterator();
+    while (it.hasNext()) {
+      Map.Entry<String, Entry> e = it.next();
+      Entry entry = e.getValue();
+      if (entry.expired(now)) {
+        it.remove();
+        continue;
+      }
+      if (entry.deltas > 0) {
+        // merge deltas into a new full record
+        byte[] key = e.getKey().getBytes(StandardCharsets.UTF_8);
+        byte[] data;
+        try {
+          data = Attributes.bytes(attributes(records(entry)));
+        } catch (ClassNotFoundException ex) {
+          throw new IOException("Can't read session: " + e.getKey(), ex);
+        }
+        int length = RECORD_HEADER + BODY_HEADER + key.length + data.length;
+        if (segment == null || segment.remaining() < length) {
+          segment = newSegment(old);
+        }
+        entry = write(segment, SAVE, key, entry.createdAt, entry.accessedAt, entry.expiryAt,
+            data, null);
+      } else {
+        if (segment == null || segment.remaining() < entry.length) {
+          segment = newSegment(old);
+        }
+        // copy record as it is
+        int offset = segment.size;
+        for (int i = 0; i < entry.length; i++) {
+          segment.buffer.put(offset + i, entry.segment.buffer.get(entry.offset + i));
+        }
+        segment.size += entry.length;
+        written += entry.length;
+        entry = new Entry(segment, offset, entry.length, entry.createdAt, entry.accessedAt,
+            entry.expiryAt, null);
+      }
+      live += entry.length;
+      e.setValue(entry);
+    }
+    if (segment != null) {
+      segment.buffer.force();
+    }
+    for (Segment previous : old) {
+      previous.force();
+      Files.deleteIfExists(previous.path);
+    }
+    log.debug("compaction of {} done: {} sessions, {} segments", dir, index.size(),
+        segments.size());
+  }
+
+  /**
+   * Flush segments and stop compaction. Store can't be used after close: calls fail with
+   * {@link IllegalStateException}.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (compactor != null) {
+      compactor.shutdownNow();
+    }
+    for (Segment segment : segments) {
+      segment.force();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return dir.toString();
+  }
+
+  private void maybeCompact() {
+    try {
+      synchronized (this) {
+        if (closed) {
+          return;
+        }
+        // compact when at least half of the log is garbage
+        if (segments.size() > 1 && live * 2 <= written) {
+          compact();
+        } else if (segments.size() > 0) {
+          segments.get(segments.size() - 1).force();
+        }
+      }
+    } catch (Exception ex) {
+      log.error("compaction of " + dir + " resulted in exception", ex);
+    }
+  }
+
+  private void checkOpen() {
+    checkState(!closed, "Session store is closed: %s", dir);
+  }
+
+  private void append(final byte type, final String id, final long createdAt,
+      final long accessedAt, final long expiryAt, final byte[] data) throws IOException {
+    byte[] key = id.getBytes(StandardCharsets.UTF_8);
+    int length = RECORD_HEADER + BODY_HEADER + key.length + data.length;
+    checkArgument(length <= segmentSize, "Session too large: %s (%s bytes)", id, data.length);
+
+    Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+    if (segment == null || segment.remaining() < length) {
+      segment = newSegment(segments);
+    }
+    Entry previous = type == DELTA ? index.get(id) : null;
+    index(type, id, write(segment, type, key, createdAt, accessedAt, expiryAt, data, previous));
+  }
+
+  private Entry write(final Segment segment, final byte type, final byte[] key,
+      final long createdAt, final long accessedAt, final long expiryAt, final byte[] data,
+      final Entry previous) {
+    int length = RECORD_HEADER + BODY_HEADER + key.length + data.length;
+    int offset = segment.size;
+    MappedByteBuffer buffer = segment.buffer;
+    buffer.position(offset + RECORD_HEADER);
+    buffer.put(type);
+    buffer.putLong(createdAt);
+    buffer.putLong(accessedAt);
+    buffer.putLong(expiryAt);
+    buffer.putShort((short) key.length);
+    buffer.put(key);
+    buffer.put(data);
+    // length and crc at the end, a crash leaves a record with a bad checksum
+    buffer.putInt(offset + 4, crc(buffer, offset + RECORD_HEADER, length - RECORD_HEADER));
+    buffer.putInt(offset, length);
+    segment.size += length;
+    written += length;
+    return new Entry(segment, offset, length, createdAt, accessedAt, expiryAt, previous);
+  }
+
+  private void index(final byte type, final String id, final Entry entry) {
+    if (type == DELTA) {
+      // previous records are still live
+      index.put(id, entry);
+      live += entry.length;
+      return;
+    }
+    Entry existing = type == SAVE ? index.put(id, entry) : index.remove(id);
+    if (existing != null) {
+      live -= existing.chain;
+    }
+    if (type == SAVE) {
+      live += entry.length;
+    }
+  }
+
+  private void remove(final String id) {
+    Entry entry = index.remove(id);
+    if (entry != null) {
+      live -= entry.chain;
+    }
+  }
+
+  /**
+   * @param entry Last record of a session.
+   * @return Data of the full record followed by deltas (if any).
+   */
+  private List<byte[]> records(final Entry entry) {
+    LinkedList<byte[]> records = new LinkedList<>();
+    for (Entry it = entry; it != null; it = it.previous) {
+      records.addFirst(data(it));
+    }
+    return records;
+  }
+
+  private static Map<String, Object> attributes(final List<byte[]> records)
+      throws IOException, ClassNotFoundException {
+    Iterator<byte[]> it = records.iterator();
+    Map<String, Object> attributes = Attributes.attributes(it.next());
+    while (it.hasNext()) {
+      Attributes.attributes(it.next()).forEach((name, value) -> {
+        if (value == null) {
+          attributes.remove(name);
+        } else {
+          attributes.put(name, value);
+        }
+      });
+    }
+    return attributes;
+  }
+
+  private byte[] data(final Entry entry) {
+    MappedByteBuffer buffer = entry.segment.buffer;
+    int idLen = buffer.getShort(entry.offset + RECORD_HEADER + BODY_HEADER - 2);
+    int start = entry.offset + RECORD_HEADER + BODY_HEADER + idLen;
+    byte[] bytes = new byte[entry.offset + entry.length - start];
+    buffer.position(start);
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  private int crc(final MappedByteBuffer buffer, final int offset, final int length) {
+    crc.reset();
+    for (int i = offset; i < offset + length; i++) {
+      crc.update(buffer.get(i));
+    }
+    return (int) crc.getValue();
+  }
+
+  private Segment newSegment(final List<Segment> existing) throws IOException {
+    long id = 0;
+    for (Segment segment : existing) {
+      id = Math.max(id, segment.id);
+    }
+    for (Segment segment : segments) {
+      id = Math.max(id, segment.id);
+    }
+    id += 1;
+    Segment segment = new Segment(id, dir.resolve(String.format("segment-%019d.log", id)),
+        segmentSize);
+    segments.add(segment);
+    return segment;
+  }
+
+  private void recover() throws IOException {
+    Files.createDirectories(dir);
+    List<Path> paths = new ArrayList<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "segment-*.log")) {
+      files.forEach(paths::add);
+    }
+    // segment names are zero-padded, so name order is log order
+    paths.sort((p1, p2) -> p1.getFileName().toString().compareTo(p2.getFileName().toString()));
+    long now = System.currentTimeMillis();
+    for (Path path : paths) {
+      String name = path.getFileName().toString();
+      long id = Long.parseLong(name.substring("segment-".length(), name.length() - 4));
+      Segment segment = new Segment(id, path, segmentSize);
+      segments.add(segment);
+      MappedByteBuffer buffer = segment.buffer;
+      int offset = 0;
+      while (buffer.capacity() - offset > RECORD_HEADER) {
+        int length = buffer.getInt(offset);
+        if (length <= RECORD_HEADER || length > buffer.capacity() - offset
+            || buffer.getInt(offset + 4) != crc(buffer, offset + RECORD_HEADER,
+                length - RECORD_HEADER)) {
+          // end of segment or partially written record
+          break;
+        }
+        byte type = buffer.get(offset + RECORD_HEADER);
+        long createdAt = buffer.getLong(offset + RECORD_HEADER + 1);
+        long accessedAt = buffer.getLong(offset + RECORD_HEADER + 9);
+        long expiryAt = buffer.getLong(offset + RECORD_HEADER + 17);
+        byte[] key = new byte[buffer.getShort(offset + RECORD_HEADER + 25)];
+        buffer.position(offset + RECORD_HEADER + BODY_HEADER);
+        buffer.get(key);
+        String sid = new String(key, StandardCharsets.UTF_8);
+        Entry previous = type == DELTA ? index.get(sid) : null;
+        // a delta without a full record is garbage
+        if (type != DELTA || previous != null) {
+          Entry entry = new Entry(segment, offset, length, createdAt, accessedAt, expiryAt,
+              previous);
+          index(entry.expired(now) ? DELETE : type, sid, entry);
+        }
+        offset += length;
+      }
+      // clear whatever is after the last valid record
+      for (int i = offset; i < Math.min(offset + RECORD_HEADER, buffer.capacity()); i++) {
+        buffer.put(i, (byte) 0);
+      }
+      segment.size = offset;
+      written += offset;
+    }
+    log.debug("{} recovered: {} sessions, {} segments", dir, index.size(), segments.size());
+  }
+
+}
@@ -0,0 +1,352 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.jooby.session;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.jooby.Session;
+
+/**
+ * <h1>off-heap session store</h1>
+ * <p>
+ * Keep session attributes serialized outside of the Java heap, in a fixed size direct memory
+ * slab. Useful when an application has a lot of long-lived sessions and they make the old
+ * generation (and GC pauses) grow.
+ * </p>
+ *
+ * <pre>
+ * {
+ *   use(new OffHeapSessionStore(256 * 1024 * 1024))
+ *     .passivate(true);
+ * }
+ * </pre>
+ *
+ * <p>
+ * The slab is split in blocks of the same size (512 bytes by default) and a session takes as many
+ * blocks as need it. When the slab is full, expired sessions are evicted first and then least
+ * recently used sessions. Session attributes must be {@link java.io.Serializable}.
+ * </p>
+ * <p>
+ * Large slabs are split in segments (up to 16 by default), each one with its own lock, blocks and
+ * LRU order, so concurrent requests don't wait on a single lock. Eviction is per segment and a
+ * session must fit in one segment: <code>capacity / concurrency</code> bytes.
+ * </p>
+ * <p>
+ * Sessions are still kept in the heap between requests, unless
+ * {@link Session.Definition#passivate(boolean)} is on.
+ * </p>
+ *
+ * @author edgar
+ * @since 0.4.0
+ */
+public class OffHeapSessionStore implements Session.Store {
+
+  /** Default block size. */
+  public static final int BLOCK_SIZE = 512;
+
+  /** Default number of segments. */
+  public static final int CONCURRENCY = 16;
+
+  /** Don't create segments smaller than this, or sessions won't fit. */
+  private static final int MIN_SEGMENT_BLOCKS = 1024;
+
+  /** Location and metadata of a session inside the slab. */
+  private static class Entry {
+
+    private final int[] blocks;
+
+    private final int length;
+
+    private final long createdAt;
+
+    private final long accessedAt;
+
+    private final long expiryAt;
+
+    public Entry(final int[] blocks, final int length, final Session session) {
+      this.blocks = blocks;
+      this.length = length;
+      this.createdAt = session.createdAt();
+      this.accessedAt = session.accessedAt();
+      this.expiryAt = session.expiryAt();
+    }
+
+    public boolean expired(final long now) {
+      return expiryAt > 0 && expiryAt <= now;
+    }
+  }
+
+  /** A region of the slab with its own lock, free blocks and access ordered index. */
+  private static class Segment {
+
+    private final ByteBuffer slab;
+
+    private final int blockSize;
+
+    /** Stack of free blocks. */
+    private final int[] free;
+
+    private int freeCount;
+
+    /** Session index, in access order: least recently used sessions come first. */
+    private final LinkedHashMap<String, Entry> index = new LinkedHashMap<>(16, .75f, true);
+
+    private long evictions;
+
+    public Segment(final ByteBuffer slab, final int blockSize) {
+      this.slab = slab;
+      this.blockSize = blockSize;
+      this.free = new int[slab.capacity() / blockSize];
+      for (int i = 0; i < free.length; i++) {
+        free[i] = free.length - i - 1;
+      }
+      this.freeCount = free.length;
+    }
+
+    public synchronized Entry get(final String id, final long now) {
+      Entry entry = index.get(id);
+      if (entry != null && entry.expired(now)) {
+        release(index.remove(id));
+        return null;
+      }
+      return entry;
+    }
+
+    public synchronized byte[] read(final Entry entry) {
+      byte[] bytes = new byte[entry.length];
+      int offset = 0;
+      for (int block : entry.blocks) {
+        int len = Math.min(blockSize, bytes.length - offset);
+        slab.position(block * blockSize);
+        slab.get(bytes, offset, len);
+        offset += len;
+      }
+      return bytes;
+    }
+
+    public synchronized void save(final String id, final byte[] bytes, final int count,
+        final Session session) {
+      Entry existing = index.remove(id);
+      if (existing != null) {
+        release(existing);
+      }
+      evict(System.currentTimeMillis(), count);
+      int[] blocks = new int[count];
+      for (int i = 0; i < count; i++) {
+        blocks[i] = free[--freeCount];
+      }
+      write(blocks, bytes);
+      index.put(id, new Entry(blocks, bytes.length, session));
+    }
+
+    public synchronized void delete(final String id) {
+      Entry entry = index.remove(id);
+      if (entry != null) {
+        release(entry);
+      }
+    }
+
+    public synchronized int size() {
+      return index.size();
+    }
+
+    public synchronized long free() {
+      return (long) freeCount * blockSize;
+    }
+
+    public synchronized long evictions() {
+      return evictions;
+    }
+
+    /**
+     * Remove expired sessions from the head of the index and then least recently used sessions
+     * until there are enough free blocks.
+     *
+     * @param now Current time.
+     * @param count Number of required blocks.
+     */
+    private void evict(final long now, final int count) {
+      Iterator<Entry> it = index.values().iterator();
+      while (it.hasNext()) {
+        Entry entry = it.next();
+        if (freeCount < count || entry.expired(now)) {
+          it.remove();
+          release(entry);
+          evictions += 1;
+        } else {
+          break;
+        }
+      }
+    }
+
+    private void release(final Entry entry) {
+      for (int block : entry.blocks) {
+        free[freeCount++] = block;
+      }
+    }
+
+    private void write(final int[] blocks, final byte[] bytes) {
+      int offset = 0;
+      for (int block : blocks) {
+        int len = Math.min(blockSize, bytes.length - offset);
+        slab.position(block * blockSize);
+        slab.put(bytes, offset, len);
+        offset += len;
+      }
+    }
+  }
+
+  private final Segment[] segments;
+
+  private final int blockSize;
+
+  /** Number of blocks per segment. */
+  private final int segmentBlocks;
+
+  /**
+   * Creates a new {@link OffHeapSessionStore}.
+   *
+   * @param capacity Size of the slab in bytes.
+   * @param blockSize Size of blocks in bytes.
+   * @param concurrency Max number of segments. Small slabs get less segments, so each segment has
+   *        room for at least 1024 blocks.
+   */
+  public OffHeapSessionStore(final int capacity, final int blockSize, final int concurrency) {
+    checkArgument(blockSize > 0, "Block size must be greater than zero.");
+    checkArgument(capacity >= blockSize, "Capacity must be greater or equal to block size.");
+    checkArgument(concurrency > 0, "Concurrency must be greater than zero.");
+    int blocks = capacity / blockSize;
+    int count = Math.max(1, Math.min(concurrency, blocks / MIN_SEGMENT_BLOCKS));
+    this.blockSize = blockSize;
+    this.segmentBlocks = blocks / count;
+    ByteBuffer slab = ByteBuffer.allocateDirect(count * segmentBlocks * blockSize);
+    this.segments = new Segment[count];
+    int segmentSize = segmentBlocks * blockSize;
+    for (int i = 0; i < count; i++) {
+      slab.limit((i + 1) * segmentSize);
+      slab.position(i * segmentSize);
+      segments[i] = new Segment(slab.slice(), blockSize);
+    }
+  }
+
+  /**
+   * Creates a new {@link OffHeapSessionStore} with up to {@link #CONCURRENCY} segments.
+   *
+   * @param capacity Size of the slab in bytes.
+   * @param blockSize Size of blocks in bytes.
+   */
+  public OffHeapSessionStore(final int capacity, final int blockSize) {
+    this(capacity, blockSize, CONCURRENCY);
+  }
+
+  /**
+   * Creates a new {@link OffHeapSessionStore} with a block size of {@link #BLOCK_SIZE}.
+   *
+   * @param capacity Size of the slab in bytes.
+   */
+  public OffHeapSessionStore(final int capacity) {
+    this(capacity, BLOCK_SIZE);
+  }
+
+  @Override
+  public Session get(final Session.Builder builder) throws Exception {
+    String id = builder.sessionId();
+    Segment segment = segment(id);
+    Entry entry;
+    byte[] bytes;
+    // same lock as segment methods: blocks can't be released between lookup and read
+    synchronized (segment) {
+      entry = segment.get(id, System.currentTimeMillis());
+      if (entry == null) {
+        return null;
+      }
+      bytes = segment.read(entry);
+    }
+    return builder
+        .set(Attributes.attributes(bytes))
+        .createdAt(entry.createdAt)
+        .accessedAt(entry.accessedAt)
+        .build();
+  }
+
+  @Override
+  public void save(final Session session, final SaveReason reason) throws Exception {
+    requireNonNull(session, "A session is required.");
+    String id = session.id();
+    byte[] bytes = Attributes.bytes(session.attributes());
+    int count = (bytes.length + blockSize - 1) / blockSize;
+    checkArgument(count <= segmentBlocks, "Session too large: %s (%s bytes)", id, bytes.length);
+    segment(id).save(id, bytes, count, session);
+  }
+
+  @Override
+  public void delete(final String id) throws Exception {
+    segment(id).delete(id);
+  }
+
+  /**
+   * @return Number of sessions in the store.
+   */
+  public int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      size += segment.size();
+    }
+    return size;
+  }
+
+  /**
+   * @return Free memory in bytes.
+   */
+  public long free() {
+    long free = 0;
+    for (Segment segment : segments) {
+      free += segment.free();
+    }
+    return free;
+  }
+
+  /**
+   * @return Number of sessions evicted because they expired or the store was full.
+   */
+  public long evictions() {
+    long evictions = 0;
+    for (Segment segment : segments) {
+      evictions += segment.evictions();
+    }
+    return evictions;
+  }
+
+  @Override
+  public String toString() {
+    return "offheap";
+  }
+
+  private Segment segment(final String id) {
+    int h = id.hashCode();
+    h ^= h >>> 16;
+    return segments[(h & Integer.MAX_VALUE) % segments.length];
+  }
+
+}
@@ -3,11 +3,18 @@ package org.jooby;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.Optional;
 
 import org.junit.Test;
 
+import com.google.common.io.ByteStreams;
+
 public class BodyTest {
 
   @Test
@@ -155,4 +162,50 @@ public class BodyTest {
     assertEquals("/location", body.headers().get("location"));
   }
 
+  @Test
+  public void defaultReaderStream() throws Exception {
+    byte[] content = "body".getBytes(StandardCharsets.UTF_8);
+    Body.Reader reader = new Body.Reader() {
+      @Override
+      public <T> T text(final Text text) throws Exception {
+        throw new UnsupportedOperationException();
+      }
+
+      @SuppressWarnings("unchecked")
+      @Override
+      public <T> T bytes(final Bytes bytes) throws Exception {
+        try (InputStream in = new ByteArrayInputStream(content)) {
+          return (T) bytes.read(in);
+        }
+      }
+    };
+    assertEquals(StandardCharsets.UTF_8, reader.charset());
+    String body = reader.stream(in -> new String(ByteStreams.toByteArray(in),
+        StandardCharsets.UTF_8));
+    assertEquals("body", body);
+  }
+
+  @Test
+  public void defaultWriterEncoded() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Body.Writer writer = new Body.Writer() {
+      @Override
+      public Charset charset() {
+        return StandardCharsets.UTF_8;
+      }
+
+      @Override
+      public void text(final Text text) throws Exception {
+        throw new UnsupportedOperationException();
+      }
+
+      @Override
+      public void bytes(final Bytes bytes) throws Exception {
+        bytes.write(out);
+      }
+    };
+    writer.encoded(stream -> stream.write("body".getBytes(StandardCharsets.UTF_8)));
+    assertEquals("body", new String(out.toByteArray(), StandardCharsets.UTF_8));
+  }
+
 }
@@ -0,0 +1,97 @@
+package org.jooby;
+
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.regex.Pattern;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Session ID validation cost per request: signature check done by a session on every access. It
+ * compares the old implementation (new {@link Mac} per call plus regex) with {@link Cookie.Signer}
+ * and {@link Cookie.Signature} (cached signer). It isn't a test, run it from your IDE or with:
+ *
+ * <pre>
+ *   mvn test-compile exec:java -Dexec.mainClass=org.jooby.CookieSignatureBenchmark
+ *     -Dexec.classpathScope=test
+ * </pre>
+ */
+public class CookieSignatureBenchmark {
+
+  interface Op {
+    Object run(String value) throws Exception;
+  }
+
+  private static final Pattern EQ = Pattern.compile("=+$");
+
+  private static final String SECRET = "d7c0a8b3-2b43-4b7e-9f0e-6cda1a0e6d3f";
+
+  private static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+  /** Keep results alive, so the JIT doesn't remove calls. */
+  private static volatile Object sink;
+
+  public static void main(final String[] args) throws Exception {
+    String sessionId = Cookie.Signature.sign("zl3yxdKYWE8y2XyDpgpEcYbG", SECRET);
+    Cookie.Signer signer = new Cookie.Signer(SECRET);
+
+    int[] concurrency = THREADS > 1 ? new int[]{1, THREADS } : new int[]{1 };
+    for (int threads : concurrency) {
+      System.out.printf("%d thread(s)%n", threads);
+      run("  mac per call   ", threads, sessionId, CookieSignatureBenchmark::valid);
+      run("  Signature.valid", threads, sessionId, value -> Cookie.Signature.valid(value, SECRET));
+      run("  Signer.valid   ", threads, sessionId, signer::valid);
+    }
+  }
+
+  /** Signature check before cached signers. */
+  private static boolean valid(final String value) throws Exception {
+    int dot = value.indexOf('|');
+    String raw = value.substring(0, dot);
+    Mac mac = Mac.getInstance(Cookie.Signature.HMAC_SHA256);
+    mac.init(new SecretKeySpec(SECRET.getBytes(), Cookie.Signature.HMAC_SHA256));
+    byte[] bytes = mac.doFinal(raw.getBytes());
+    String signed = raw + "|" + EQ.matcher(Base64.getEncoder().encodeToString(bytes)).replaceAll("");
+    return MessageDigest.isEqual(signed.getBytes(), value.getBytes());
+  }
+
+  private static void run(final String name, final int threads, final String value, final Op op)
+      throws Exception {
+    // warm up
+    loop(threads, value, op, 2_000_000_000L);
+    long start = System.nanoTime();
+    long ops = loop(threads, value, op, 3_000_000_000L);
+    long elapsed = System.nanoTime() - start;
+    System.out.printf("%s %,12.0f ops/s %,8.0f ns/op%n", name,
+        ops / (elapsed / 1_000_000_000d), elapsed * threads / (double) ops);
+  }
+
+  private static long loop(final int threads, final String value, final Op op,
+      final long nanos) throws Exception {
+    long[] ops = new long[threads];
+    Thread[] workers = new Thread[threads];
+    long end = System.nanoTime() + nanos;
+    for (int t = 0; t < threads; t++) {
+      int n = t;
+      workers[t] = new Thread(() -> {
+        try {
+          while (System.nanoTime() < end) {
+            sink = op.run(value);
+            ops[n]++;
+          }
+        } catch (Exception ex) {
+          throw new IllegalStateException(ex);
+        }
+      });
+      workers[t].start();
+    }
+    long total = 0;
+    for (int t = 0; t < threads; t++) {
+      workers[t].join();
+      total += ops[t];
+    }
+    return total;
+  }
+
+}
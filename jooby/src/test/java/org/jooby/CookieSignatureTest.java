@@ -1,8 +1,12 @@
 package org.jooby;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
+import java.util.Arrays;
+
 import org.jooby.Cookie.Signature;
+import org.jooby.Cookie.Signer;
 import org.junit.Test;
 
 public class CookieSignatureTest {
@@ -37,4 +41,56 @@ public class CookieSignatureTest {
         Signature.valid("joobi#qAlLNkSRVE4aZb+tz6avvkVIEmmR30BH8cpr3x9ZdFA", "124Qwerty"));
   }
 
+  @Test
+  public void invalidWithoutSeparator() throws Exception {
+    assertEquals(false, Signature.valid("jooby", "124Qwerty"));
+
+    assertEquals(false,
+        Signature.valid("|qAlLNkSRVE4aZb+tz6avvkVIEmmR30BH8cpr3x9ZdFA", "124Qwerty"));
+
+    assertEquals(false, Signature.valid("jooby|", "124Qwerty"));
+  }
+
+  @Test
+  public void signer() throws Exception {
+    Signer signer = new Signer("124Qwerty");
+    assertEquals("jooby|qAlLNkSRVE4aZb+tz6avvkVIEmmR30BH8cpr3x9ZdFA", signer.sign("jooby"));
+
+    assertEquals(true, signer.valid("jooby|qAlLNkSRVE4aZb+tz6avvkVIEmmR30BH8cpr3x9ZdFA"));
+
+    assertEquals(false, signer.valid("jooby|QAlLNkSRVE4aZb+tz6avvkVIEmmR30BH8cpr3x9ZdFA"));
+
+    assertEquals(false, signer.valid("jooby|qAlLNkSRVE4aZb+tz6avvkVIEmmR30BH8cpr3x9ZdFA="));
+
+    assertEquals(false, signer.valid("jooby|qAlLNkSRVE4aZb+tz6avvkVIEmmR30BH8cpr3x9ZdF"));
+  }
+
+  @Test
+  public void signerBytes() throws Exception {
+    Signer signer = new Signer("124Qwerty");
+    byte[] value = "jooby".getBytes();
+    byte[] mac = signer.mac(value);
+    assertEquals(32, mac.length);
+    assertArrayEquals(mac, signer.mac(value));
+
+    assertEquals(true, signer.verify(value, mac));
+
+    byte[] tampered = Arrays.copyOf(mac, mac.length);
+    tampered[0] ^= 1;
+    assertEquals(false, signer.verify(value, tampered));
+
+    assertEquals(false, signer.verify(value, Arrays.copyOf(mac, 31)));
+  }
+
+  @Test
+  public void signerPerThread() throws Exception {
+    Signer signer = new Signer("124Qwerty");
+    String[] signed = new String[1];
+    Thread thread = new Thread(() -> signed[0] = signer.sign("jooby"));
+    thread.start();
+    thread.join();
+
+    assertEquals(signer.sign("jooby"), signed[0]);
+  }
+
 }
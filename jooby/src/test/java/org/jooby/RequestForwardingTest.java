@@ -6,6 +6,7 @@ import static org.junit.Assert.assertEquals;
 import java.util.Collections;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
@@ -58,6 +59,32 @@ public class RequestForwardingTest {
         });
   }
 
+  @Test
+  public void queryString() throws Exception {
+    new MockUnit(Request.class)
+        .expect(unit -> {
+          Request req = unit.get(Request.class);
+          expect(req.queryString()).andReturn(Optional.of("a=b"));
+        })
+        .run(unit -> {
+          assertEquals(Optional.of("a=b"),
+              new Request.Forwarding(unit.get(Request.class)).queryString());
+        });
+  }
+
+  @Test
+  public void deadline() throws Exception {
+    Optional<Deadline> deadline = Optional.of(Deadline.deadline(1, TimeUnit.SECONDS));
+    new MockUnit(Request.class)
+        .expect(unit -> {
+          Request req = unit.get(Request.class);
+          expect(req.deadline()).andReturn(deadline);
+        })
+        .run(unit -> {
+          assertEquals(deadline, new Request.Forwarding(unit.get(Request.class)).deadline());
+        });
+  }
+
   @Test
   public void type() throws Exception {
     new MockUnit(Request.class)
@@ -19,6 +19,16 @@ import com.google.inject.TypeLiteral;
 public class RequestTest {
   public class RequestMock implements Request {
 
+    @Override
+    public Optional<String> queryString() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Optional<Deadline> deadline() {
+      throw new UnsupportedOperationException();
+    }
+
     @Override
     public MediaType type() {
       throw new UnsupportedOperationException();
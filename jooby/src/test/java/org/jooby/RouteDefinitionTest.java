@@ -2,6 +2,7 @@ package org.jooby;
 
 import static org.junit.Assert.assertEquals;
 
+import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -269,4 +270,46 @@ public class RouteDefinitionTest {
     assertEquals(MediaType.json, def.consumes().get(0));
     assertEquals(MediaType.json, def.produces().get(0));
   }
+
+  @Test
+  public void timeout() throws Exception {
+    Route.Definition def = new Route.Definition("GET", "/", (req, rsp, chain) -> {
+    });
+    assertEquals(0, def.timeout());
+    assertEquals(500, def.timeout(500).timeout());
+
+    RouteImpl route = (RouteImpl) def.matches(Verb.GET, "/", MediaType.all, MediaType.ALL).get();
+    assertEquals(500, route.timeout());
+  }
+
+  @Test
+  public void filter() throws Exception {
+    Route.Filter filter = (req, rsp, chain) -> {
+    };
+    assertEquals(filter, new Route.Definition("GET", "/", filter).filter());
+  }
+
+  @Test
+  public void bulkhead() throws Exception {
+    Route.Definition def = new Route.Definition("GET", "/", (req, rsp, chain) -> {
+    });
+    assertEquals(Optional.empty(), def.bulkhead());
+    assertEquals(Optional.of("reports"), def.bulkhead("reports").bulkhead());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeTimeout() throws Exception {
+    new Route.Definition("GET", "/", (req, rsp, chain) -> {
+    }).timeout(-1);
+  }
+
+  @Test
+  public void method() throws Exception {
+    Definition definition = new Route.Definition("GET", "/", () -> "x");
+    assertEquals(Optional.empty(), definition.method());
+
+    Method method = Object.class.getMethod("toString");
+    assertEquals(Optional.of(method), definition.method(method).method());
+  }
+
 }
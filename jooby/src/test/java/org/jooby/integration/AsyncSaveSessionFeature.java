@@ -0,0 +1,98 @@
+package org.jooby.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.util.EntityUtils;
+import org.jooby.Session;
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+public class AsyncSaveSessionFeature extends ServerFeature {
+
+  private static final Map<String, Map<String, Object>> sessions = new ConcurrentHashMap<>();
+
+  private static final Map<String, String> threads = new ConcurrentHashMap<>();
+
+  /** Count down once the last state of the session (count=3) was saved. */
+  private static final CountDownLatch saved = new CountDownLatch(1);
+
+  {
+    use(new Session.Store() {
+      @Override
+      public void save(final Session session, final SaveReason reason) throws Exception {
+        // slow store
+        Thread.sleep(300L);
+        threads.put(session.id(), Thread.currentThread().getName());
+        sessions.put(session.id(), session.attributes());
+        if (Integer.valueOf(3).equals(session.attributes().get("count"))) {
+          saved.countDown();
+        }
+      }
+
+      @Override
+      public Session get(final Session.Builder builder) {
+        Map<String, Object> attributes = sessions.get(builder.sessionId());
+        return attributes == null ? null : builder.set(attributes).build();
+      }
+
+      @Override
+      public void delete(final String id) {
+        sessions.remove(id);
+      }
+    }).passivate(true)
+        .saveQueue(16);
+
+    get("/session", req -> {
+      Session session = req.session();
+      int count = session.<Integer> get("count").orElse(0) + 1;
+      session.set("count", count);
+      return count;
+    });
+
+    get("/session/queue", req -> {
+      Session.SaveQueue queue = req.getInstance(Session.SaveQueue.class);
+      return queue.capacity() + ":" + queue.pending();
+    });
+  }
+
+  @Test
+  public void saveInBackground() throws Exception {
+    long start = System.currentTimeMillis();
+    HttpResponse rsp = Request.Get(uri("session").build()).execute().returnResponse();
+    String cookie = rsp.getFirstHeader("Set-Cookie").getValue();
+    assertEquals("1", EntityUtils.toString(rsp.getEntity()));
+
+    // passivated session is read from the queue, not from the (stale) store
+    assertEquals("2", Request.Get(uri("session").build()).addHeader("Cookie", cookie)
+        .execute().returnContent().asString());
+
+    assertEquals("3", Request.Get(uri("session").build()).addHeader("Cookie", cookie)
+        .execute().returnContent().asString());
+    // no request waited for the store
+    assertTrue(System.currentTimeMillis() - start < 900L);
+
+    // wait for in flight save
+    assertTrue(saved.await(5, TimeUnit.SECONDS));
+
+    String queue = "16:1";
+    for (int i = 0; i < 40 && !queue.equals("16:0"); i++) {
+      Thread.sleep(50L);
+      queue = Request.Get(uri("session/queue").build()).execute().returnContent().asString();
+    }
+    assertEquals("16:0", queue);
+
+    assertEquals(1, sessions.size());
+    Map<String, Object> attributes = sessions.values().iterator().next();
+    assertEquals(3, attributes.get("count"));
+    assertEquals("session-saver", threads.values().iterator().next());
+  }
+
+}
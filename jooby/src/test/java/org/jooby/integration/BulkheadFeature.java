@@ -0,0 +1,93 @@
+package org.jooby.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.fluent.Request;
+import org.jooby.Bulkhead;
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
+
+public class BulkheadFeature extends ServerFeature {
+
+  private static CountDownLatch release = new CountDownLatch(1);
+
+  {
+    use(ConfigFactory.empty()
+        .withValue("application.bulkheads.slow.threads", ConfigValueFactory.fromAnyRef(1))
+        .withValue("application.bulkheads.reports.threads", ConfigValueFactory.fromAnyRef(2))
+        .withValue("application.bulkheads.reports.queue", ConfigValueFactory.fromAnyRef(2))
+        .withValue("application.bulkheads.reports.paths",
+            ConfigValueFactory.fromIterable(Arrays.asList("/bulkhead/reports"))));
+
+    get("/bulkhead/slow", req -> {
+      release.await(5, TimeUnit.SECONDS);
+      return Thread.currentThread().getName();
+    }).bulkhead("slow");
+
+    get("/bulkhead/reports/:name", req -> Thread.currentThread().getName());
+
+    get("/bulkhead/server", req -> Thread.currentThread().getName());
+
+    get("/bulkhead/metrics/:name", req -> {
+      Bulkhead bulkhead = req.getInstance(Bulkhead.Registry.class)
+          .get(req.param("name").stringValue()).get();
+      return bulkhead.active() + ":" + bulkhead.queued() + ":" + bulkhead.rejected();
+    });
+  }
+
+  @Test
+  public void pathPrefix() throws Exception {
+    assertTrue(content("/bulkhead/reports/daily").startsWith("bulkhead-reports-"));
+    assertTrue(!content("/bulkhead/server").startsWith("bulkhead-"));
+  }
+
+  @Test
+  public void rejectWhenSaturated() throws Exception {
+    release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<String> slow = executor.submit(() -> content("/bulkhead/slow"));
+
+      long timeout = System.currentTimeMillis() + 5000L;
+      while (!content("/bulkhead/metrics/slow").startsWith("1:")) {
+        assertTrue("bulkhead didn't start", System.currentTimeMillis() < timeout);
+        Thread.sleep(10L);
+      }
+
+      // bulkhead is full
+      assertEquals(503, status("/bulkhead/slow"));
+      assertEquals("1:0:1", content("/bulkhead/metrics/slow"));
+
+      // others routes aren't affected
+      assertEquals(200, status("/bulkhead/server"));
+      assertEquals(200, status("/bulkhead/reports/daily"));
+
+      release.countDown();
+      assertTrue(slow.get(5, TimeUnit.SECONDS).startsWith("bulkhead-slow-"));
+    } finally {
+      release.countDown();
+      executor.shutdown();
+    }
+  }
+
+  private String content(final String path) throws Exception {
+    return Request.Get("http://localhost:" + port + path).execute().returnContent().asString();
+  }
+
+  private int status(final String path) throws Exception {
+    return Request.Get("http://localhost:" + port + path).execute().returnResponse()
+        .getStatusLine().getStatusCode();
+  }
+
+}
@@ -0,0 +1,120 @@
+package org.jooby.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.util.EntityUtils;
+import org.jooby.handlers.ETagHandler;
+import org.jooby.handlers.ResponseCache;
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+import com.google.common.base.Strings;
+
+public class ETagFeature extends ServerFeature {
+
+  private static int counter = 0;
+
+  {
+    use("GET", "/etag/**", new ETagHandler(1024));
+
+    use("GET", "/etag/cached", new ResponseCache(1, TimeUnit.MINUTES));
+
+    get("/etag/text", req -> "text");
+
+    get("/etag/param", req -> req.param("p").stringValue());
+
+    get("/etag/explicit", (req, rsp) -> {
+      rsp.header("ETag", "\"v1\"");
+      rsp.send("explicit");
+    });
+
+    get("/etag/big", req -> Strings.repeat("x", 2048));
+
+    get("/etag/cached", req -> "cached " + (++counter));
+  }
+
+  @Test
+  public void etag() throws Exception {
+    HttpResponse rsp = Request.Get(uri("etag", "text").build()).execute().returnResponse();
+    assertEquals(200, rsp.getStatusLine().getStatusCode());
+    String etag = rsp.getFirstHeader("ETag").getValue();
+    assertTrue(etag.startsWith("W/\""));
+    assertEquals("text", EntityUtils.toString(rsp.getEntity()));
+
+    // same body, same etag
+    assertEquals(etag, Request.Get(uri("etag", "text").build()).execute().returnResponse()
+        .getFirstHeader("ETag").getValue());
+  }
+
+  @Test
+  public void notModified() throws Exception {
+    String etag = Request.Get(uri("etag", "text").build()).execute().returnResponse()
+        .getFirstHeader("ETag").getValue();
+
+    HttpResponse rsp = Request.Get(uri("etag", "text").build())
+        .addHeader("If-None-Match", etag)
+        .execute().returnResponse();
+    assertEquals(304, rsp.getStatusLine().getStatusCode());
+    assertEquals(etag, rsp.getFirstHeader("ETag").getValue());
+    assertNull(rsp.getEntity());
+
+    // weak comparison and list of etags
+    assertEquals(304, Request.Get(uri("etag", "text").build())
+        .addHeader("If-None-Match", "\"x\", " + etag.substring(2))
+        .execute().returnResponse().getStatusLine().getStatusCode());
+  }
+
+  @Test
+  public void modified() throws Exception {
+    String etag = Request.Get(uri("etag", "param").addParameter("p", "a").build()).execute()
+        .returnResponse().getFirstHeader("ETag").getValue();
+
+    HttpResponse rsp = Request.Get(uri("etag", "param").addParameter("p", "b").build())
+        .addHeader("If-None-Match", etag)
+        .execute().returnResponse();
+    assertEquals(200, rsp.getStatusLine().getStatusCode());
+    assertNotEquals(etag, rsp.getFirstHeader("ETag").getValue());
+    assertEquals("b", EntityUtils.toString(rsp.getEntity()));
+  }
+
+  @Test
+  public void explicitETag() throws Exception {
+    HttpResponse rsp = Request.Get(uri("etag", "explicit").build())
+        .addHeader("If-None-Match", "\"v1\"")
+        .execute().returnResponse();
+    assertEquals(304, rsp.getStatusLine().getStatusCode());
+    assertEquals("\"v1\"", rsp.getFirstHeader("ETag").getValue());
+  }
+
+  @Test
+  public void bigBodyIsStreamedWithoutETag() throws Exception {
+    HttpResponse rsp = Request.Get(uri("etag", "big").build()).execute().returnResponse();
+    assertEquals(200, rsp.getStatusLine().getStatusCode());
+    assertNull(rsp.getFirstHeader("ETag"));
+    assertEquals(2048, EntityUtils.toString(rsp.getEntity()).length());
+  }
+
+  @Test
+  public void cachedResponse() throws Exception {
+    HttpResponse rsp = Request.Get(uri("etag", "cached").build()).execute().returnResponse();
+    String etag = rsp.getFirstHeader("ETag").getValue();
+    String body = EntityUtils.toString(rsp.getEntity());
+
+    rsp = Request.Get(uri("etag", "cached").build())
+        .addHeader("If-None-Match", etag)
+        .execute().returnResponse();
+    assertEquals(304, rsp.getStatusLine().getStatusCode());
+
+    rsp = Request.Get(uri("etag", "cached").build()).execute().returnResponse();
+    assertEquals(etag, rsp.getFirstHeader("ETag").getValue());
+    assertEquals(body, EntityUtils.toString(rsp.getEntity()));
+  }
+
+}
@@ -0,0 +1,59 @@
+package org.jooby.integration;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.http.client.fluent.Request;
+import org.jooby.Err;
+import org.jooby.Status;
+import org.jooby.mvc.GET;
+import org.jooby.mvc.Path;
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+public class MvcErrFeature extends ServerFeature {
+
+  @Path("/err")
+  public static class Resource {
+
+    @GET
+    @Path("/status")
+    public String status() {
+      throw new Err(Status.CONFLICT);
+    }
+
+    @GET
+    @Path("/iae")
+    public String iae() {
+      throw new IllegalArgumentException("bad");
+    }
+
+    @GET
+    @Path("/static")
+    public static String staticMethod() {
+      return "static";
+    }
+  }
+
+  {
+    use(Resource.class);
+  }
+
+  @Test
+  public void errIsServerError() throws Exception {
+    assertEquals(500, Request.Get(uri("err", "status").build()).execute().returnResponse()
+        .getStatusLine().getStatusCode());
+  }
+
+  @Test
+  public void iaeIsServerError() throws Exception {
+    assertEquals(500, Request.Get(uri("err", "iae").build()).execute().returnResponse()
+        .getStatusLine().getStatusCode());
+  }
+
+  @Test
+  public void staticMethod() throws Exception {
+    assertEquals("static", Request.Get(uri("err", "static").build()).execute().returnContent()
+        .asString());
+  }
+
+}
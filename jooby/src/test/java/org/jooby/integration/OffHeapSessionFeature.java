@@ -0,0 +1,48 @@
+package org.jooby.integration;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.util.EntityUtils;
+import org.jooby.Session;
+import org.jooby.session.OffHeapSessionStore;
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+public class OffHeapSessionFeature extends ServerFeature {
+
+  private static final OffHeapSessionStore store = new OffHeapSessionStore(64 * 1024);
+
+  private static Session last;
+
+  {
+    use(store).passivate(true);
+
+    get("/session", req -> {
+      Session session = req.session();
+      int count = session.<Integer> get("count").orElse(0) + 1;
+      session.set("count", count);
+      // passivated sessions are loaded from the store on every request
+      boolean loaded = session != last;
+      last = session;
+      return count + ":" + loaded;
+    });
+  }
+
+  @Test
+  public void passivate() throws Exception {
+    HttpResponse rsp = Request.Get(uri("session").build()).execute().returnResponse();
+    String cookie = rsp.getFirstHeader("Set-Cookie").getValue();
+    assertEquals("1:true", EntityUtils.toString(rsp.getEntity()));
+
+    assertEquals("2:true", Request.Get(uri("session").build()).addHeader("Cookie", cookie)
+        .execute().returnContent().asString());
+
+    assertEquals("3:true", Request.Get(uri("session").build()).addHeader("Cookie", cookie)
+        .execute().returnContent().asString());
+
+    assertEquals(1, store.size());
+  }
+
+}
@@ -0,0 +1,251 @@
+package org.jooby.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.util.EntityUtils;
+import org.jooby.MediaType;
+import org.jooby.handlers.ResponseCache;
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+public class ResponseCacheFeature extends ServerFeature {
+
+  private static final AtomicInteger counter = new AtomicInteger();
+
+  private static final ResponseCache cache = new ResponseCache(1, TimeUnit.MINUTES);
+
+  {
+    use("GET", "/cache/**", cache);
+
+    get("/cache/counter", (req, rsp) -> {
+      rsp.header("X-Counter", "yes").type(MediaType.plain);
+      rsp.send(counter.incrementAndGet());
+    });
+
+    get("/cache/slow", (req, rsp) -> {
+      Thread.sleep(300L);
+      rsp.send(counter.incrementAndGet());
+    });
+
+    get("/cache/private", (req, rsp) -> {
+      rsp.header("Cache-Control", "private");
+      rsp.send(counter.incrementAndGet());
+    });
+
+    get("/cache/expires", (req, rsp) -> {
+      rsp.header("Cache-Control", "max-age=1");
+      rsp.send(counter.incrementAndGet());
+    });
+
+    get("/cache/vary", (req, rsp) -> {
+      rsp.header("Vary", "Accept-Language");
+      rsp.send(counter.incrementAndGet());
+    });
+
+    get("/cache/type", (req, rsp) -> {
+      rsp.type(req.accepts(req.route().produces()).get());
+      rsp.send(counter.incrementAndGet());
+    }).produces("text/plain", "text/html");
+
+    get("/cache/auth", (req, rsp) -> {
+      rsp.send(counter.incrementAndGet());
+    });
+
+    get("/cache/auth/public", (req, rsp) -> {
+      rsp.header("Cache-Control", "public");
+      rsp.send(counter.incrementAndGet());
+    });
+
+    get("/login", (req, rsp) -> {
+      req.session().set("user", req.param("user").stringValue());
+      rsp.send(counter.incrementAndGet());
+    });
+
+    get("/cache/session", (req, rsp) -> {
+      rsp.send(req.session().get("user").get());
+    });
+
+    get("/cache/error", (req, rsp) -> {
+      counter.incrementAndGet();
+      throw new IllegalStateException("intentional err");
+    });
+  }
+
+  @Test
+  public void hit() throws Exception {
+    HttpResponse miss = Request.Get(uri("cache", "counter").build()).execute().returnResponse();
+    String type = miss.getFirstHeader("Content-Type").getValue();
+    String value = EntityUtils.toString(miss.getEntity());
+
+    HttpResponse hit = Request.Get(uri("cache", "counter").build()).execute().returnResponse();
+    assertEquals(200, hit.getStatusLine().getStatusCode());
+    assertEquals("yes", hit.getFirstHeader("X-Counter").getValue());
+    assertEquals(type, hit.getFirstHeader("Content-Type").getValue());
+    assertEquals(value, EntityUtils.toString(hit.getEntity()));
+  }
+
+  @Test
+  public void queryIsPartOfTheKey() throws Exception {
+    String v1 = get("/cache/counter?q=1", "");
+    String v2 = get("/cache/counter?q=2", "");
+    assertEquals(Integer.parseInt(v1) + 1, Integer.parseInt(v2));
+    assertEquals(v1, get("/cache/counter?q=1", ""));
+  }
+
+  @Test
+  public void requestNoCache() throws Exception {
+    String v1 = get("/cache/counter?nocache", "");
+    String v2 = Request.Get(uri("cache", "counter").setCustomQuery("nocache").build())
+        .addHeader("Cache-Control", "no-cache")
+        .execute().returnContent().asString();
+    assertEquals(Integer.parseInt(v1) + 1, Integer.parseInt(v2));
+    // fresh response was stored
+    assertEquals(v2, get("/cache/counter?nocache", ""));
+  }
+
+  @Test
+  public void privateResponseIsNotCached() throws Exception {
+    String v1 = get("/cache/private", "");
+    String v2 = get("/cache/private", "");
+    assertEquals(Integer.parseInt(v1) + 1, Integer.parseInt(v2));
+  }
+
+  @Test
+  public void maxAge() throws Exception {
+    String v1 = get("/cache/expires", "");
+    assertEquals(v1, get("/cache/expires", ""));
+    Thread.sleep(1100L);
+    String v2 = get("/cache/expires", "");
+    assertEquals(Integer.parseInt(v1) + 1, Integer.parseInt(v2));
+  }
+
+  @Test
+  public void vary() throws Exception {
+    String en = get("/cache/vary", "en");
+    assertEquals(en, get("/cache/vary", "en"));
+    String es = get("/cache/vary", "es");
+    assertEquals(Integer.parseInt(en) + 1, Integer.parseInt(es));
+  }
+
+  @Test
+  public void varyVariantsAreKept() throws Exception {
+    String en = get("/cache/vary?variants", "en");
+    String es = get("/cache/vary?variants", "es");
+    assertEquals(Integer.parseInt(en) + 1, Integer.parseInt(es));
+    assertEquals(en, get("/cache/vary?variants", "en"));
+    assertEquals(es, get("/cache/vary?variants", "es"));
+  }
+
+  @Test
+  public void negotiatedTypeIsPartOfTheKey() throws Exception {
+    HttpResponse plain = accept("text/plain");
+    String v1 = EntityUtils.toString(plain.getEntity());
+    HttpResponse html = accept("text/html");
+    String v2 = EntityUtils.toString(html.getEntity());
+    assertEquals(Integer.parseInt(v1) + 1, Integer.parseInt(v2));
+
+    plain = accept("text/plain");
+    assertEquals(v1, EntityUtils.toString(plain.getEntity()));
+    assertEquals(1, plain.getHeaders("Content-Type").length);
+    String type = plain.getFirstHeader("Content-Type").getValue();
+    assertTrue(type, type.startsWith("text/plain"));
+
+    html = accept("text/html");
+    assertEquals(v2, EntityUtils.toString(html.getEntity()));
+    type = html.getFirstHeader("Content-Type").getValue();
+    assertTrue(type, type.startsWith("text/html"));
+  }
+
+  @Test
+  public void authorizedResponseIsNotCached() throws Exception {
+    String v1 = authorized("/cache/auth");
+    String v2 = authorized("/cache/auth");
+    assertEquals(Integer.parseInt(v1) + 1, Integer.parseInt(v2));
+
+    String v3 = authorized("/cache/auth/public");
+    assertEquals(v3, authorized("/cache/auth/public"));
+  }
+
+  @Test
+  public void requestWithCookieIsNotCached() throws Exception {
+    String alice = login("alice");
+    String bob = login("bob");
+    assertEquals("alice", session(alice));
+    assertEquals("bob", session(bob));
+    assertEquals("alice", session(alice));
+  }
+
+  @Test
+  public void errorIsNotCached() throws Exception {
+    int before = counter.get();
+    assertEquals(500, Request.Get(uri("cache", "error").build()).execute().returnResponse()
+        .getStatusLine().getStatusCode());
+    assertEquals(500, Request.Get(uri("cache", "error").build()).execute().returnResponse()
+        .getStatusLine().getStatusCode());
+    assertEquals(before + 2, counter.get());
+  }
+
+  @Test
+  public void coalesceConcurrentMisses() throws Exception {
+    int before = counter.get();
+    long hits = cache.hitCount();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<String>> values = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        values.add(executor.submit(() -> get("/cache/slow", "")));
+      }
+      for (Future<String> value : values) {
+        assertEquals(before + 1, Integer.parseInt(value.get()));
+      }
+      assertEquals(before + 1, counter.get());
+      assertEquals(hits + 7, cache.hitCount());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private HttpResponse accept(final String type) throws Exception {
+    return Request.Get("http://localhost:" + port + "/cache/type")
+        .addHeader("Accept", type)
+        .execute().returnResponse();
+  }
+
+  private String authorized(final String path) throws Exception {
+    return Request.Get("http://localhost:" + port + path)
+        .addHeader("Authorization", "Basic Yjpi")
+        .execute().returnContent().asString();
+  }
+
+  private String login(final String user) throws Exception {
+    return Request.Get("http://localhost:" + port + "/login?user=" + user)
+        .execute().returnResponse()
+        .getFirstHeader("Set-Cookie").getValue();
+  }
+
+  private String session(final String cookie) throws Exception {
+    return Request.Get("http://localhost:" + port + "/cache/session")
+        .addHeader("Cookie", cookie)
+        .execute().returnContent().asString();
+  }
+
+  private String get(final String path, final String lang) throws Exception {
+    Request req = Request.Get("http://localhost:" + port + path);
+    if (lang.length() > 0) {
+      req.addHeader("Accept-Language", lang);
+    }
+    return req.execute().returnContent().asString();
+  }
+
+}
@@ -0,0 +1,85 @@
+package org.jooby.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.fluent.Request;
+import org.jooby.Deadline;
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+public class RouteTimeoutFeature extends ServerFeature {
+
+  {
+    get("/timeout/sleep", req -> {
+      Deadline deadline = req.deadline().get();
+      long start = System.currentTimeMillis();
+      while (!deadline.expired() && System.currentTimeMillis() - start < 5000L) {
+        Thread.sleep(10L);
+      }
+      // like a jdbc driver honoring the query timeout
+      throw new IllegalStateException("query timeout");
+    }).timeout(200);
+
+    get("/timeout/interrupted", req -> {
+      // an interrupt makes sleep fail
+      Thread.sleep(300L);
+      return Thread.currentThread().isInterrupted();
+    }).timeout(100);
+
+    get("/timeout/deadline", req -> {
+      long left = req.deadline().get().timeLeft(TimeUnit.MILLISECONDS);
+      return left > 0 && left <= 1000;
+    }).timeout(1000);
+
+    get("/timeout/current", req -> Deadline.current().isPresent()).timeout(1000);
+
+    get("/timeout/none", req -> req.deadline().isPresent() || Deadline.current().isPresent());
+
+    get("/timeout/filter", (req, rsp, chain) -> {
+      Thread.sleep(300L);
+      chain.next(req, rsp);
+    }).timeout(100);
+
+    get("/timeout/filter", req -> "unreachable");
+  }
+
+  @Test
+  public void expiredDeadlineRespondsWith503() throws Exception {
+    long start = System.currentTimeMillis();
+    assertEquals(503, status("/timeout/sleep"));
+    assertTrue(System.currentTimeMillis() - start < 5000L);
+  }
+
+  @Test
+  public void deadlineIsVisibleFromRequest() throws Exception {
+    assertEquals("true", content("/timeout/deadline"));
+    assertEquals("true", content("/timeout/current"));
+    assertEquals("false", content("/timeout/none"));
+  }
+
+  @Test
+  public void expiredDeadlineStopsTheChain() throws Exception {
+    assertEquals(503, status("/timeout/filter"));
+  }
+
+  @Test
+  public void threadIsNotInterrupted() throws Exception {
+    assertEquals("false", content("/timeout/interrupted"));
+    for (int i = 0; i < 20; i++) {
+      assertEquals("false", content("/timeout/none"));
+    }
+  }
+
+  private String content(final String path) throws Exception {
+    return Request.Get("http://localhost:" + port + path).execute().returnContent().asString();
+  }
+
+  private int status(final String path) throws Exception {
+    return Request.Get("http://localhost:" + port + path).execute().returnResponse()
+        .getStatusLine().getStatusCode();
+  }
+
+}
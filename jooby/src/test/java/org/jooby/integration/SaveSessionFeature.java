@@ -1,8 +1,11 @@
 package org.jooby.integration;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.http.HttpResponse;
 import org.apache.http.client.fluent.Request;
@@ -20,10 +23,13 @@ import com.typesafe.config.ConfigValueFactory;
 
 public class SaveSessionFeature extends ServerFeature {
 
-  private static int index = 0;
+  private static volatile int index = 0;
 
   private static final List<SaveReason> reasons = Lists.newArrayList(SaveReason.DIRTY,
       SaveReason.TIME, SaveReason.DIRTY, SaveReason.PRESERVE_ON_STOP);
+
+  /** Saves before stop. */
+  private static final CountDownLatch saved = new CountDownLatch(reasons.size() - 1);
   {
     use(ConfigFactory.empty().withValue("application.secret",
         ConfigValueFactory.fromAnyRef("fixed")));
@@ -32,6 +38,7 @@ public class SaveSessionFeature extends ServerFeature {
       @Override
       public void save(final Session session, final SaveReason reason) {
         assertEquals(reasons.get(index++), reason);
+        saved.countDown();
       }
 
       @Override
@@ -109,6 +116,8 @@ public class SaveSessionFeature extends ServerFeature {
               assertEquals(200, response.getStatusLine().getStatusCode());
             }));
 
+    // session is saved after the response has been sent
+    assertTrue(saved.await(5, TimeUnit.SECONDS));
     assertEquals(index, reasons.size() - 1);
   }
 
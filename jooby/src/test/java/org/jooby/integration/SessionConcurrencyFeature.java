@@ -0,0 +1,160 @@
+package org.jooby.integration;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.util.EntityUtils;
+import org.jooby.Session;
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+public class SessionConcurrencyFeature extends ServerFeature {
+
+  private static final int THREADS = 16;
+
+  private static final int REQUESTS = 25;
+
+  private static final Map<String, Map<String, Object>> sessions = new ConcurrentHashMap<>();
+
+  private static final AtomicInteger deletes = new AtomicInteger();
+
+  {
+    use(new Session.Store() {
+      @Override
+      public void save(final Session session, final SaveReason reason) throws Exception {
+        sessions.put(session.id(), session.attributes());
+      }
+
+      @Override
+      public Session get(final Session.Builder builder) {
+        Map<String, Object> attributes = sessions.get(builder.sessionId());
+        return attributes == null ? null : builder.set(attributes).build();
+      }
+
+      @Override
+      public void delete(final String id) {
+        sessions.remove(id);
+        deletes.incrementAndGet();
+      }
+    });
+
+    get("/set", req -> {
+      req.session().set(req.param("name").stringValue(), req.param("value").intValue());
+      return "ok";
+    });
+
+    get("/get", req -> new TreeMap<>(req.session().attributes()).toString());
+
+    get("/destroy", req -> {
+      req.session().destroy();
+      return "destroyed";
+    });
+  }
+
+  @Test
+  public void sameSession() throws Exception {
+    HttpResponse rsp = Request.Get(uri("set").addParameter("name", "init")
+        .addParameter("value", "0").build()).execute().returnResponse();
+    String cookie = rsp.getFirstHeader("Set-Cookie").getValue();
+    String id = cookie.substring(cookie.indexOf('=') + 1, cookie.indexOf(';'));
+
+    run(t -> {
+      for (int i = 0; i < REQUESTS; i++) {
+        assertEquals("ok", Request.Get(uri("set").addParameter("name", "t" + t)
+            .addParameter("value", String.valueOf(i)).build()).addHeader("Cookie", cookie)
+            .execute().returnContent().asString());
+      }
+      return null;
+    });
+
+    Map<String, Object> expected = new TreeMap<>();
+    expected.put("init", 0);
+    for (int t = 0; t < THREADS; t++) {
+      expected.put("t" + t, REQUESTS - 1);
+    }
+    assertEquals(expected.toString(), Request.Get(uri("get").build())
+        .addHeader("Cookie", cookie).execute().returnContent().asString());
+
+    // last save happens after the response
+    for (int i = 0; i < 20 && !expected.equals(sessions.get(id)); i++) {
+      Thread.sleep(50L);
+    }
+    assertEquals(expected, new TreeMap<>(sessions.get(id)));
+  }
+
+  @Test
+  public void differentSessions() throws Exception {
+    int deletes = SessionConcurrencyFeature.deletes.get();
+    List<String> ids = run(t -> {
+      String cookie = null;
+      for (int i = 0; i < REQUESTS; i++) {
+        Request req = Request.Get(uri("set").addParameter("name", "t" + t)
+            .addParameter("value", String.valueOf(i)).build());
+        if (cookie != null) {
+          req.addHeader("Cookie", cookie);
+        }
+        HttpResponse rsp = req.execute().returnResponse();
+        assertEquals("ok", EntityUtils.toString(rsp.getEntity()));
+        if (cookie == null) {
+          String setCookie = rsp.getFirstHeader("Set-Cookie").getValue();
+          cookie = setCookie.substring(0, setCookie.indexOf(';'));
+        }
+      }
+      assertEquals("{t" + t + "=" + (REQUESTS - 1) + "}", Request.Get(uri("get").build())
+          .addHeader("Cookie", cookie).execute().returnContent().asString());
+      assertEquals("destroyed", Request.Get(uri("destroy").build())
+          .addHeader("Cookie", cookie).execute().returnContent().asString());
+      return cookie.substring(cookie.indexOf('=') + 1);
+    });
+
+    assertEquals(THREADS, ids.stream().distinct().count());
+    // destroyed sessions aren't saved back
+    Thread.sleep(200L);
+    for (String id : ids) {
+      assertEquals(null, sessions.get(id));
+    }
+    assertEquals(THREADS, SessionConcurrencyFeature.deletes.get() - deletes);
+  }
+
+  interface Task<T> {
+    T run(int thread) throws Exception;
+  }
+
+  private static <T> List<T> run(final Task<T> task) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<T>> futures = new ArrayList<>();
+      for (int t = 0; t < THREADS; t++) {
+        int thread = t;
+        Callable<T> callable = () -> {
+          start.await();
+          return task.run(thread);
+        };
+        futures.add(executor.submit(callable));
+      }
+      start.countDown();
+      List<T> results = new ArrayList<>();
+      for (Future<T> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+}
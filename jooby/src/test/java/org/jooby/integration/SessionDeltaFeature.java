@@ -0,0 +1,78 @@
+package org.jooby.integration;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.jooby.Session;
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+public class SessionDeltaFeature extends ServerFeature {
+
+  private static final List<String> saves = new CopyOnWriteArrayList<>();
+
+  {
+    use(new Session.Store() {
+      @Override
+      public void save(final Session session, final SaveReason reason) {
+        saves.add(reason + session.attributes().keySet().toString());
+      }
+
+      @Override
+      public void saveDelta(final Session session, final Set<String> changed,
+          final Set<String> removed) {
+        saves.add("DELTA" + changed + removed);
+      }
+
+      @Override
+      public Session get(final Session.Builder builder) {
+        return null;
+      }
+
+      @Override
+      public void delete(final String id) {
+      }
+    });
+
+    get("/set", req -> {
+      req.session().set(req.param("name").stringValue(), "v");
+      return "set";
+    });
+
+    get("/unset", req -> {
+      req.session().unset(req.param("name").stringValue());
+      return "unset";
+    });
+  }
+
+  @Test
+  public void saveChangedAttributes() throws Exception {
+    HttpResponse rsp = Request.Get(uri("set").addParameter("name", "a").build()).execute()
+        .returnResponse();
+    String cookie = rsp.getFirstHeader("Set-Cookie").getValue();
+    await(1);
+
+    Request.Get(uri("set").addParameter("name", "b").build()).addHeader("Cookie", cookie)
+        .execute().returnContent();
+    await(2);
+
+    Request.Get(uri("unset").addParameter("name", "a").build()).addHeader("Cookie", cookie)
+        .execute().returnContent();
+    await(3);
+
+    assertEquals("[DIRTY[a], DELTA[b][], DELTA[][a]]", saves.toString());
+  }
+
+  /** Session is saved after the response has been sent. */
+  private static void await(final int size) throws InterruptedException {
+    for (int i = 0; i < 20 && saves.size() < size; i++) {
+      Thread.sleep(50L);
+    }
+  }
+
+}
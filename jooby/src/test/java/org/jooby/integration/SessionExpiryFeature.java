@@ -0,0 +1,69 @@
+package org.jooby.integration;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.http.client.fluent.Request;
+import org.jooby.Session;
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+public class SessionExpiryFeature extends ServerFeature {
+
+  private static final Set<String> ids = ConcurrentHashMap.newKeySet();
+
+  private static final List<Integer> batches = new CopyOnWriteArrayList<>();
+
+  {
+    use(new Session.Store() {
+      @Override
+      public void save(final Session session, final SaveReason reason) {
+        ids.add(session.id());
+      }
+
+      @Override
+      public Session get(final Session.Builder builder) {
+        return null;
+      }
+
+      @Override
+      public void delete(final String id) {
+        ids.remove(id);
+      }
+
+      @Override
+      public void delete(final Collection<String> ids) {
+        batches.add(ids.size());
+        SessionExpiryFeature.ids.removeAll(ids);
+      }
+    }).timeout(1);
+
+    get("/session", req -> req.session().id());
+  }
+
+  @Test
+  public void expireWithoutAccess() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      Request.Get(uri("session").build()).execute().returnContent().asString();
+    }
+    for (int i = 0; i < 20 && ids.size() < 10; i++) {
+      Thread.sleep(50L);
+    }
+    assertEquals(10, ids.size());
+
+    // nobody access them again, expiry thread must delete them
+    for (int i = 0; i < 60 && ids.size() > 0; i++) {
+      Thread.sleep(50L);
+    }
+    assertEquals(0, ids.size());
+    assertEquals(10, batches.stream().mapToInt(Integer::intValue).sum());
+    // few batches, not one delete per session
+    assertEquals(true, batches.size() <= 3);
+  }
+
+}
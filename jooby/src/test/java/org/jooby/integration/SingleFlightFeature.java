@@ -0,0 +1,221 @@
+package org.jooby.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.client.fluent.Request;
+import org.jooby.handlers.SingleFlight;
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+public class SingleFlightFeature extends ServerFeature {
+
+  private static final AtomicInteger counter = new AtomicInteger();
+
+  private static final SingleFlight flights = new SingleFlight(2, TimeUnit.SECONDS);
+
+  /** Count down by requests before they get to the single flight filter. */
+  private static volatile CountDownLatch arrived = new CountDownLatch(0);
+
+  /** Count down by the route handlers (leaders). */
+  private static volatile CountDownLatch started = new CountDownLatch(0);
+
+  /** Route handlers (leaders) wait for the test to release them. */
+  private static volatile CountDownLatch release = new CountDownLatch(0);
+
+  {
+    use("GET", "*", (req, rsp, chain) -> {
+      arrived.countDown();
+      chain.next(req, rsp);
+    });
+
+    use("GET", "/flight", new SingleFlight(2, TimeUnit.SECONDS));
+
+    get("/flight", (req, rsp) -> {
+      hold();
+      rsp.send(counter.incrementAndGet());
+    });
+
+    use("GET", "/flight/timeout", new SingleFlight(100, TimeUnit.MILLISECONDS));
+
+    get("/flight/timeout", (req, rsp) -> {
+      hold();
+      rsp.send(counter.incrementAndGet());
+    });
+
+    use("GET", "/flight/key/:id", new SingleFlight(req -> req.path(), 2, TimeUnit.SECONDS));
+
+    get("/flight/key/:id", (req, rsp) -> {
+      hold();
+      rsp.send(req.param("id").stringValue() + counter.incrementAndGet());
+    });
+
+    use("GET", "/flight/type", new SingleFlight(2, TimeUnit.SECONDS));
+
+    get("/flight/type", (req, rsp) -> {
+      hold();
+      rsp.send(counter.incrementAndGet());
+    }).produces("text/plain", "text/html");
+
+    use("GET", "/flight/vary", new SingleFlight(2, TimeUnit.SECONDS));
+
+    get("/flight/vary", (req, rsp) -> {
+      hold();
+      rsp.header("Vary", "Accept-Language");
+      rsp.send(counter.incrementAndGet());
+    });
+
+    get("/shared", req -> flights.call("shared", () -> {
+      hold();
+      return counter.incrementAndGet();
+    }));
+  }
+
+  @Test
+  public void leaderAndFollowers() throws Exception {
+    int before = counter.get();
+    List<String> values = concurrent(8, "/flight");
+    for (String value : values) {
+      assertEquals(before + 1, Integer.parseInt(value));
+    }
+    assertEquals(before + 1, counter.get());
+  }
+
+  @Test
+  public void negotiatedTypeIsPartOfTheKey() throws Exception {
+    int before = counter.get();
+    List<String> values = withHeaders("/flight/type", new String[]{"Accept", "text/plain" },
+        new String[]{"Accept", "text/html" });
+    assertEquals(before + 2, counter.get());
+    assertNotEquals(values.get(0), values.get(1));
+  }
+
+  @Test
+  public void credentialsAreNotCollapsed() throws Exception {
+    int before = counter.get();
+    List<String> values = withHeaders("/flight", new String[]{"Cookie", "user=a" },
+        new String[]{"Authorization", "Basic Yjpi" });
+    assertEquals(before + 2, counter.get());
+    assertNotEquals(values.get(0), values.get(1));
+  }
+
+  @Test
+  public void varyHeaders() throws Exception {
+    int before = counter.get();
+    List<String> values = withHeaders("/flight/vary",
+        new String[]{"Accept-Language", "en" }, new String[]{"Accept-Language", "es" });
+    assertEquals(before + 2, counter.get());
+    assertNotEquals(values.get(0), values.get(1));
+  }
+
+  @Test
+  public void customKey() throws Exception {
+    int before = counter.get();
+    List<String> values = concurrent(4, "/flight/key/a?x=1", "/flight/key/a?x=2");
+    for (String value : values) {
+      assertEquals("a" + (before + 1), value);
+    }
+    assertEquals(before + 1, counter.get());
+  }
+
+  @Test
+  public void sharedObject() throws Exception {
+    int before = counter.get();
+    List<String> values = concurrent(8, "/shared");
+    for (String value : values) {
+      assertEquals(before + 1, Integer.parseInt(value));
+    }
+    assertEquals(before + 1, counter.get());
+  }
+
+  @Test
+  public void followerTimeout() throws Exception {
+    reset(2);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<Integer> leader = executor.submit(() -> status("/flight/timeout"));
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+      // leader is on hold
+      Future<Integer> follower = executor.submit(() -> status("/flight/timeout"));
+      assertEquals(503, follower.get().intValue());
+      release.countDown();
+      assertEquals(200, leader.get().intValue());
+    } finally {
+      release.countDown();
+      executor.shutdown();
+    }
+  }
+
+  private static void hold() throws InterruptedException {
+    started.countDown();
+    release.await(5, TimeUnit.SECONDS);
+  }
+
+  private static void reset(final int requests) {
+    arrived = new CountDownLatch(requests);
+    started = new CountDownLatch(1);
+    release = new CountDownLatch(1);
+  }
+
+  private List<String> concurrent(final int n, final String... paths) throws Exception {
+    List<Callable<String>> requests = new ArrayList<>();
+    for (int i = 0; i < n; i++) {
+      String path = paths[i % paths.length];
+      requests.add(() -> Request.Get("http://localhost:" + port + path)
+          .execute().returnContent().asString());
+    }
+    return execute(requests);
+  }
+
+  private List<String> withHeaders(final String path, final String[]... headers)
+      throws Exception {
+    List<Callable<String>> requests = new ArrayList<>();
+    for (String[] header : headers) {
+      requests.add(() -> Request.Get("http://localhost:" + port + path)
+          .addHeader(header[0], header[1])
+          .execute().returnContent().asString());
+    }
+    return execute(requests);
+  }
+
+  /**
+   * Send all the requests and release the leader(s) once all of them are in flight.
+   */
+  private List<String> execute(final List<Callable<String>> requests) throws Exception {
+    reset(requests.size());
+    ExecutorService executor = Executors.newFixedThreadPool(requests.size());
+    try {
+      List<Future<String>> futures = new ArrayList<>();
+      for (Callable<String> request : requests) {
+        futures.add(executor.submit(request));
+      }
+      assertTrue(arrived.await(5, TimeUnit.SECONDS));
+      release.countDown();
+      List<String> values = new ArrayList<>();
+      for (Future<String> future : futures) {
+        values.add(future.get());
+      }
+      return values;
+    } finally {
+      release.countDown();
+      executor.shutdown();
+    }
+  }
+
+  private int status(final String path) throws Exception {
+    return Request.Get("http://localhost:" + port + path).execute().returnResponse()
+        .getStatusLine().getStatusCode();
+  }
+
+}
@@ -0,0 +1,114 @@
+package org.jooby.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.util.EntityUtils;
+import org.jooby.Session;
+import org.jooby.test.ServerFeature;
+import org.junit.Test;
+
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
+
+public class StatelessSessionFeature extends ServerFeature {
+
+  {
+    use(ConfigFactory.empty()
+        .withValue("application.secret", ConfigValueFactory.fromAnyRef("fixed"))
+        .withValue("application.session.stateless.enabled", ConfigValueFactory.fromAnyRef(true)));
+
+    use(new Session.Store() {
+      @Override
+      public void save(final Session session, final SaveReason reason) {
+        throw new UnsupportedOperationException("save");
+      }
+
+      @Override
+      public Session get(final Session.Builder builder) {
+        throw new UnsupportedOperationException("get");
+      }
+
+      @Override
+      public void delete(final String id) {
+        throw new UnsupportedOperationException("delete");
+      }
+    });
+
+    get("/inc", req -> {
+      Session session = req.session();
+      int count = session.<Integer> get("count").orElse(0) + 1;
+      session.set("count", count);
+      return count;
+    });
+
+    get("/get", req -> req.ifSession()
+        .map(session -> session.<Integer> get("count").orElse(0))
+        .orElse(-1));
+
+    get("/destroy", req -> {
+      req.session().destroy();
+      return "destroyed";
+    });
+  }
+
+  @Test
+  public void sessionLivesInCookie() throws Exception {
+    HttpResponse rsp = Request.Get(uri("inc").build()).execute().returnResponse();
+    assertEquals("1", EntityUtils.toString(rsp.getEntity()));
+    String cookie = cookie(rsp);
+
+    rsp = Request.Get(uri("inc").build()).addHeader("Cookie", cookie).execute()
+        .returnResponse();
+    assertEquals("2", EntityUtils.toString(rsp.getEntity()));
+    cookie = cookie(rsp);
+
+    // read only: cookie isn't re-issued
+    rsp = Request.Get(uri("get").build()).addHeader("Cookie", cookie).execute()
+        .returnResponse();
+    assertEquals("2", EntityUtils.toString(rsp.getEntity()));
+    assertNull(rsp.getFirstHeader("Set-Cookie"));
+
+    // no cookie, no session
+    rsp = Request.Get(uri("get").build()).execute().returnResponse();
+    assertEquals("-1", EntityUtils.toString(rsp.getEntity()));
+    assertNull(rsp.getFirstHeader("Set-Cookie"));
+  }
+
+  @Test
+  public void tamperedCookie() throws Exception {
+    HttpResponse rsp = Request.Get(uri("inc").build()).execute().returnResponse();
+    String cookie = cookie(rsp);
+    int sep = cookie.indexOf('|');
+    String tampered = cookie.substring(0, sep - 1)
+        + (cookie.charAt(sep - 1) == 'A' ? 'B' : 'A') + cookie.substring(sep);
+
+    rsp = Request.Get(uri("inc").build()).addHeader("Cookie", tampered).execute()
+        .returnResponse();
+    assertEquals("1", EntityUtils.toString(rsp.getEntity()));
+  }
+
+  @Test
+  public void destroy() throws Exception {
+    String cookie = cookie(Request.Get(uri("inc").build()).execute().returnResponse());
+
+    HttpResponse rsp = Request.Get(uri("destroy").build()).addHeader("Cookie", cookie).execute()
+        .returnResponse();
+    assertEquals("destroyed", EntityUtils.toString(rsp.getEntity()));
+    String setCookie = rsp.getFirstHeader("Set-Cookie").getValue();
+    assertTrue(setCookie, setCookie.startsWith("jooby.sid=\"\";"));
+    assertTrue(setCookie, setCookie.contains("Max-Age=0"));
+  }
+
+  private static String cookie(final HttpResponse rsp) {
+    Header header = rsp.getFirstHeader("Set-Cookie");
+    assertNotNull(header);
+    return header.getValue().substring(0, header.getValue().indexOf(';'));
+  }
+
+}
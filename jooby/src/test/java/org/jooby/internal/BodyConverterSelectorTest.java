@@ -0,0 +1,106 @@
+package org.jooby.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.jooby.Body;
+import org.jooby.MediaType;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+
+public class BodyConverterSelectorTest {
+
+  private static class Formatter implements Body.BinaryFormatter {
+
+    private final List<MediaType> types;
+
+    private final boolean binary;
+
+    public Formatter(final String type, final boolean binary) {
+      this.types = ImmutableList.of(MediaType.valueOf(type));
+      this.binary = binary;
+    }
+
+    @Override
+    public List<MediaType> types() {
+      return types;
+    }
+
+    @Override
+    public boolean canFormat(final Class<?> type) {
+      return true;
+    }
+
+    @Override
+    public void format(final Object body, final Body.Writer writer) throws Exception {
+    }
+
+    @Override
+    public boolean binary() {
+      return binary;
+    }
+
+    @Override
+    public String toString() {
+      return types.get(0).name();
+    }
+  }
+
+  private static class PdfFormatter implements Body.Formatter {
+
+    @Override
+    public List<MediaType> types() {
+      return ImmutableList.of(MediaType.valueOf("application/pdf"));
+    }
+
+    @Override
+    public boolean canFormat(final Class<?> type) {
+      return true;
+    }
+
+    @Override
+    public void format(final Object body, final Body.Writer writer) throws Exception {
+    }
+  }
+
+  @Test
+  public void binaryFormatterMustBeAskedForExplicitly() {
+    Body.Formatter smile = new Formatter("application/x-jackson-smile", true);
+    Body.Formatter json = new Formatter("application/json", false);
+    BodyConverterSelector selector = new BodyConverterSelector(Collections.emptySet(),
+        Sets.newLinkedHashSet(ImmutableList.of(smile, json)));
+
+    assertEquals(json, selector.formatter("x", ImmutableList.of(MediaType.all)).get());
+    assertEquals(smile, selector.formatter("x", ImmutableList.of(smile.types().get(0))).get());
+  }
+
+  @Test
+  public void binaryFormatterIsUsedWhenNothingElseMatches() {
+    Body.Formatter smile = new Formatter("application/x-jackson-smile", true);
+    BodyConverterSelector selector = new BodyConverterSelector(Collections.emptySet(),
+        Sets.newLinkedHashSet(ImmutableList.of(smile)));
+
+    assertEquals(smile, selector.formatter("x", ImmutableList.of(MediaType.all)).get());
+  }
+
+  @Test
+  public void registrationOrderWinsForOtherFormatters() {
+    Body.Formatter pdf = new PdfFormatter();
+    Body.Formatter octetStream = new Formatter("application/octet-stream", false);
+    Body.Formatter json = new Formatter("application/json", false);
+    BodyConverterSelector selector = new BodyConverterSelector(Collections.emptySet(),
+        Sets.newLinkedHashSet(ImmutableList.of(pdf, octetStream, json)));
+
+    assertEquals(pdf, selector.formatter("x", ImmutableList.of(MediaType.all)).get());
+
+    selector = new BodyConverterSelector(Collections.emptySet(),
+        Sets.newLinkedHashSet(ImmutableList.of(octetStream, json)));
+
+    assertEquals(octetStream, selector.formatter("x", ImmutableList.of(MediaType.all)).get());
+  }
+
+}
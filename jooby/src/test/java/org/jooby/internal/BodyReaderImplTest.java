@@ -28,6 +28,12 @@ public class BodyReaderImplTest {
         }));
   }
 
+  @Test
+  public void charset() throws Exception {
+    ExSupplier<InputStream> supplier = () -> new ByteArrayInputStream(new byte[0]);
+    assertEquals(Charsets.ISO_8859_1, new BodyReaderImpl(Charsets.ISO_8859_1, supplier).charset());
+  }
+
   @Test
   public void textEnconding() throws Exception {
     byte[] bytes = "bytes".getBytes();
@@ -59,6 +65,21 @@ public class BodyReaderImplTest {
             ));
   }
 
+  @Test
+  public void stream() throws Exception {
+    InputStream stream = new ByteArrayInputStream("bytes".getBytes()) {
+      @Override
+      public void close() throws IOException {
+        throw new IllegalStateException("stream must be open");
+      }
+    };
+    ExSupplier<InputStream> supplier = () -> stream;
+    assertEquals("bytes",
+        new BodyReaderImpl(Charsets.UTF_8, supplier).stream(s ->
+            new String(ByteStreams.toByteArray(s))
+            ));
+  }
+
   @Test(expected = IOException.class)
   public void bytesErr() throws Exception {
     ExSupplier<InputStream> supplier = () -> {
@@ -0,0 +1,68 @@
+package org.jooby.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.jooby.MediaType;
+import org.jooby.internal.MutantConverters.Converter;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Guice;
+import com.google.inject.TypeLiteral;
+
+public class MutantConvertersTest {
+
+  public enum Letter {
+    A, B;
+  }
+
+  @Test
+  public void cacheConverters() throws Exception {
+    MutantConverters converters = converters();
+    TypeLiteral<List<Integer>> type = new TypeLiteral<List<Integer>>() {
+    };
+    assertSame(converters.converter(type), converters.converter(type));
+    assertSame(converters.converter(Letter.class), converters.converter(Letter.class));
+  }
+
+  @Test
+  public void primitives() throws Exception {
+    MutantConverters converters = converters();
+    assertSame(converters.converter(int.class), converters.converter(Integer.class));
+    assertEquals(7, convert(converters.converter(int.class), "7"));
+  }
+
+  @Test
+  public void collections() throws Exception {
+    MutantConverters converters = converters();
+    assertEquals(ImmutableList.of(1, 2),
+        convert(converters.converter(new TypeLiteral<List<Integer>>() {
+        }), "1", "2"));
+    assertEquals(Optional.of(Letter.B),
+        convert(converters.converter(new TypeLiteral<Optional<Letter>>() {
+        }), "B"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void unknownType() throws Exception {
+    MutantConverters converters = converters();
+    convert(converters.converter(Object.class), "x");
+  }
+
+  private Object convert(final Converter converter, final String... values) {
+    return converter.convert("param", ImmutableList.copyOf(values), MediaType.all,
+        Charsets.UTF_8);
+  }
+
+  private MutantConverters converters() {
+    return new MutantConverters(Guice.createInjector(),
+        new BodyConverterSelector(Collections.emptySet(), Collections.emptySet()));
+  }
+
+}
@@ -250,6 +250,28 @@ public class MutantImplTest {
     assertEquals(2323113, newMutant("23113x").longValue());
   }
 
+  @Test
+  public void asSignedLong() throws Exception {
+    assertEquals(-7l, newMutant("-7").longValue());
+
+    assertEquals(7l, newMutant("+7").longValue());
+  }
+
+  @Test
+  public void asDateLong() throws Exception {
+    assertEquals(1430395200000l, newMutant("Thu, 30 Apr 2015 12:00:00 GMT").longValue());
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void notASignedLong() throws Exception {
+    newMutant("-").longValue();
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void longOverflow() throws Exception {
+    newMutant("92233720368547758070").longValue();
+  }
+
   @Test
   public void asLongList() throws Exception {
     assertEquals(ImmutableList.of(1l, 2l, 3l),
@@ -467,16 +489,18 @@ public class MutantImplTest {
   }
 
   private Mutant newMutant(final String... values) {
-    return new MutantImpl(injector(), "param", ImmutableList.copyOf(values), MediaType.all,
+    return new MutantImpl(converters(), "param", ImmutableList.copyOf(values), MediaType.all,
         Charsets.UTF_8);
   }
 
-  private Injector injector() {
-    return Guice.createInjector(TypeConverters::configure);
+  private MutantConverters converters() {
+    Injector injector = Guice.createInjector(TypeConverters::configure);
+    return new MutantConverters(injector,
+        new BodyConverterSelector(Collections.emptySet(), Collections.emptySet()));
   }
 
   private Mutant newMutant(final String value) {
-    return new MutantImpl(injector(), "param", value == null ? null : ImmutableList.of(value),
+    return new MutantImpl(converters(), "param", value == null ? null : ImmutableList.of(value),
         MediaType.all, Charsets.UTF_8);
   }
 }
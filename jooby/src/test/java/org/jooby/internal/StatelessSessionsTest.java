@@ -0,0 +1,202 @@
+package org.jooby.internal;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.easymock.Capture;
+import org.easymock.EasyMock;
+import org.jooby.Cookie;
+import org.jooby.Response;
+import org.jooby.Session;
+import org.junit.Test;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.BaseEncoding;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValueFactory;
+
+public class StatelessSessionsTest {
+
+  private static Config config(final String secret, final String... secrets) {
+    return ConfigFactory.parseResources("org/jooby/jooby.conf")
+        .withValue("application.name", ConfigValueFactory.fromAnyRef("test"))
+        .withValue("application.secret", ConfigValueFactory.fromAnyRef(secret))
+        .withValue("application.session.stateless.secrets",
+            ConfigValueFactory.fromIterable(Arrays.asList(secrets)))
+        .withValue("application.session.stateless.enabled", ConfigValueFactory.fromAnyRef(true))
+        .withFallback(ConfigFactory.systemProperties())
+        .resolve();
+  }
+
+  private static StatelessSessions sessions(final Config config) {
+    return new StatelessSessions(new Session.Definition(Session.Store.NOOP), config);
+  }
+
+  @Test
+  public void defaults() {
+    StatelessSessions sessions = sessions(config("secret"));
+    assertTrue(sessions.enabled());
+    assertEquals("jooby.sid", sessions.name());
+
+    assertFalse(new StatelessSessions(new Session.Definition(Session.Store.NOOP),
+        config("secret").withValue("application.session.stateless.enabled",
+            ConfigValueFactory.fromAnyRef(false))).enabled());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void secretIsRequired() {
+    sessions(config("secret").withoutPath("application.secret"));
+  }
+
+  @Test
+  public void roundTrip() {
+    StatelessSessions sessions = sessions(config("secret"));
+    StatelessSession session = sessions.create();
+    session.set("s", "v");
+    session.set("i", 1);
+    session.set("l", 2L);
+    session.set("b", true);
+    session.set("d", 1.5);
+    session.set("list", new ArrayList<>(Arrays.asList("a", "b")));
+
+    StatelessSession copy = sessions.get(sessions.encode(session)).get();
+    assertEquals(session.id(), copy.id());
+    assertEquals(session.createdAt(), copy.createdAt());
+    assertEquals(session.attributes(), copy.attributes());
+    assertFalse(copy.isDirty());
+  }
+
+  @Test
+  public void encrypted() {
+    StatelessSessions sessions = sessions(config("secret"));
+    StatelessSession session = sessions.create();
+    session.set("user", "pablo");
+
+    String value = sessions.encode(session);
+    assertFalse(new String(BaseEncoding.base64Url()
+        .decode(value.substring(0, value.indexOf('|')))).contains("pablo"));
+    // random iv
+    assertNotEquals(value, sessions.encode(session));
+  }
+
+  @Test
+  public void compressed() {
+    StatelessSessions sessions = sessions(config("secret"));
+    StatelessSession session = sessions.create();
+    session.set("big", Strings.repeat("x", 2048));
+
+    String value = sessions.encode(session);
+    assertTrue(value.length() < 200);
+    assertEquals(session.attributes(), sessions.get(value).get().attributes());
+  }
+
+  @Test
+  public void tampered() {
+    StatelessSessions sessions = sessions(config("secret"));
+    StatelessSession session = sessions.create();
+    session.set("role", "user");
+
+    String value = sessions.encode(session);
+    char c = value.charAt(5) == 'A' ? 'B' : 'A';
+    String tampered = value.substring(0, 5) + c + value.substring(6);
+
+    assertFalse(sessions.get(tampered).isPresent());
+    assertFalse(sessions.get(value.substring(0, value.indexOf('|'))).isPresent());
+    assertFalse(sessions.get("garbage").isPresent());
+    assertFalse(sessions(config("other")).get(value).isPresent());
+  }
+
+  @Test
+  public void keyRotation() {
+    StatelessSession session = sessions(config("old")).create();
+    session.set("k", "v");
+    String value = sessions(config("old")).encode(session);
+
+    StatelessSessions sessions = sessions(config("new", "old"));
+    StatelessSession copy = sessions.get(value).get();
+    assertEquals(ImmutableMap.of("k", "v"), copy.attributes());
+    // re-issued with current secret
+    assertTrue(copy.isDirty());
+    assertTrue(sessions(config("new")).get(sessions.encode(copy)).isPresent());
+  }
+
+  @Test
+  public void expired() {
+    Config config = config("secret").withValue("application.session.timeout",
+        ConfigValueFactory.fromAnyRef(1));
+    StatelessSessions sessions = sessions(config);
+    StatelessSession session = new StatelessSession("sid", 0, System.currentTimeMillis() - 2000,
+        1, ImmutableMap.of());
+
+    assertFalse(sessions.get(sessions.encode(session)).isPresent());
+  }
+
+  @Test
+  public void commit() {
+    StatelessSessions sessions = sessions(config("secret"));
+    StatelessSession session = sessions.create();
+    session.set("k", "v");
+
+    Capture<Cookie> cookie = new Capture<>();
+    Response rsp = createMock(Response.class);
+    expect(rsp.cookie(EasyMock.capture(cookie))).andReturn(rsp);
+    replay(rsp);
+
+    sessions.commit(session, rsp);
+
+    verify(rsp);
+    assertEquals("jooby.sid", cookie.getValue().name());
+    Map<String, Object> attributes = sessions.get(cookie.getValue().value().get()).get()
+        .attributes();
+    assertEquals(ImmutableMap.of("k", "v"), attributes);
+  }
+
+  @Test
+  public void commitNotDirty() {
+    StatelessSessions sessions = sessions(config("secret"));
+    StatelessSession session = sessions.create();
+    StatelessSession copy = sessions.get(sessions.encode(session)).get();
+
+    Response rsp = createMock(Response.class);
+    replay(rsp);
+
+    sessions.commit(copy, rsp);
+
+    verify(rsp);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void tooLarge() {
+    StatelessSessions sessions = sessions(config("secret").withValue(
+        "application.session.stateless.compress", ConfigValueFactory.fromAnyRef(false)));
+    StatelessSession session = sessions.create();
+    session.set("big", Strings.repeat("x", 4096));
+
+    Response rsp = createMock(Response.class);
+    replay(rsp);
+
+    sessions.commit(session, rsp);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void notSerializable() {
+    StatelessSessions sessions = sessions(config("secret"));
+    StatelessSession session = sessions.create();
+    session.set("o", new Object());
+
+    sessions.encode(session);
+  }
+
+}
@@ -4,7 +4,6 @@ import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.isA;
 import static org.junit.Assert.assertEquals;
 
-import java.util.Collections;
 import java.util.NoSuchElementException;
 
 import org.eclipse.jetty.websocket.api.Session;
@@ -14,6 +13,7 @@ import org.jooby.MockUnit;
 import org.jooby.Status;
 import org.jooby.WebSocket;
 import org.jooby.WebSocket.CloseStatus;
+import org.jooby.internal.MutantConverters;
 import org.jooby.internal.MutantImpl;
 import org.jooby.internal.WebSocketImpl;
 import org.jooby.internal.WsBinaryMessage;
@@ -48,15 +48,15 @@ public class JettyWebSocketHandlerTest {
   @Test
   public void onWebSocketText() throws Exception {
     String value = "message";
-    new MockUnit(Injector.class, Config.class, WebSocketImpl.class)
+    new MockUnit(Injector.class, Config.class, WebSocketImpl.class, MutantConverters.class)
         .expect(unit -> {
           Config config = unit.get(Config.class);
           expect(config.getBoolean("jetty.ws.closeOnError")).andReturn(true);
         })
         .expect(unit -> {
           Injector injector = unit.get(Injector.class);
-          expect(injector.getTypeConverterBindings()).andReturn(Collections.emptySet());
-          expect(injector.getParent()).andReturn(null);
+          expect(injector.getInstance(MutantConverters.class)).andReturn(
+              unit.get(MutantConverters.class));
         })
         .expect(unit -> {
           WebSocketImpl socket = unit.get(WebSocketImpl.class);
@@ -0,0 +1,129 @@
+package org.jooby.internal.jetty;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.jooby.Cookie;
+import org.jooby.Session;
+import org.jooby.Session.Builder;
+import org.jooby.Session.Store.SaveReason;
+import org.junit.Test;
+
+public class JoobySessionIdManagerTest {
+
+  private static class Store implements Session.Store {
+
+    private String id;
+
+    public Store(final String id) {
+      this.id = id;
+    }
+
+    @Override
+    public Session get(final Builder builder) throws Exception {
+      return null;
+    }
+
+    @Override
+    public void save(final Session session, final SaveReason reason) throws Exception {
+    }
+
+    @Override
+    public void delete(final String id) throws Exception {
+    }
+
+    @Override
+    public String generateID(final long seed) {
+      return id;
+    }
+  }
+
+  @Test
+  public void defaultIds() {
+    JoobySessionIdManager manager = new JoobySessionIdManager(new Store(null), null);
+    String id = manager.newSessionId(0);
+    assertEquals(22, id.length());
+    assertNotEquals(id, manager.newSessionId(0));
+  }
+
+  @Test
+  public void storeIds() {
+    JoobySessionIdManager manager = new JoobySessionIdManager(new Store("123"), null);
+    assertEquals("123", manager.newSessionId(0));
+  }
+
+  @Test
+  public void signedIds() throws Exception {
+    Cookie.Signer signer = new Cookie.Signer("secret");
+    JoobySessionIdManager manager = new JoobySessionIdManager(new Store(null), signer);
+    String id = manager.newSessionId(0);
+    assertTrue(id, signer.valid(id));
+    assertEquals(22, id.indexOf('|'));
+
+    manager = new JoobySessionIdManager(new Store("123"), signer);
+    assertEquals(Cookie.Signature.sign("123", "secret"), manager.newSessionId(0));
+  }
+
+  @Test
+  public void newIdPerRequest() {
+    JoobySessionIdManager manager = new JoobySessionIdManager(new Store("123"), null);
+
+    HttpServletRequest req = createMock(HttpServletRequest.class);
+    expect(req.getRequestedSessionId()).andReturn(null);
+    expect(req.getAttribute("org.eclipse.jetty.server.newSessionId")).andReturn(null);
+    req.setAttribute("org.eclipse.jetty.server.newSessionId", "123");
+
+    replay(req);
+
+    assertEquals("123", manager.newSessionId(req, 0));
+
+    verify(req);
+  }
+
+  @Test
+  public void requestedIdInUse() {
+    JoobySessionIdManager manager = new JoobySessionIdManager(new Store("456"), null) {
+      @Override
+      public boolean idInUse(final String id) {
+        return "123".equals(id);
+      }
+    };
+
+    HttpServletRequest req = createMock(HttpServletRequest.class);
+    expect(req.getRequestedSessionId()).andReturn("123");
+
+    replay(req);
+
+    assertEquals("123", manager.newSessionId(req, 0));
+
+    verify(req);
+  }
+
+  @Test
+  public void reuseNewIdInUse() {
+    JoobySessionIdManager manager = new JoobySessionIdManager(new Store("456"), null) {
+      @Override
+      public boolean idInUse(final String id) {
+        return "789".equals(id);
+      }
+    };
+
+    HttpServletRequest req = createMock(HttpServletRequest.class);
+    expect(req.getRequestedSessionId()).andReturn("123");
+    expect(req.getAttribute("org.eclipse.jetty.server.newSessionId")).andReturn("789");
+
+    replay(req);
+
+    assertEquals("789", manager.newSessionId(req, 0));
+
+    verify(req);
+  }
+
+}
@@ -0,0 +1,89 @@
+package org.jooby.internal.jetty;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.jooby.Session;
+import org.jooby.Session.Store.SaveReason;
+import org.junit.Test;
+
+public class JoobySessionTest {
+
+  @Test
+  public void pinnedSessionIsNotPassivated() {
+    JoobySession session = session("s1");
+    session.complete();
+    assertTrue(session.pin());
+    synchronized (session) {
+      assertFalse(session.passivate());
+    }
+    session.access(2L);
+    session.complete();
+    synchronized (session) {
+      assertTrue(session.passivate());
+    }
+  }
+
+  @Test
+  public void passivatedSessionCantBePinned() {
+    JoobySession session = session("s1");
+    session.complete();
+    synchronized (session) {
+      assertTrue(session.passivate());
+    }
+    assertFalse(session.pin());
+
+    session.activate();
+    synchronized (session) {
+      assertFalse(session.passivate());
+    }
+    assertTrue(session.pin());
+  }
+
+  @Test
+  public void accessedSessionIsNotPassivated() {
+    JoobySession session = session("s1");
+    session.complete();
+    session.access(2L);
+    synchronized (session) {
+      assertFalse(session.passivate());
+    }
+  }
+
+  @Test
+  public void unsetMakesSessionDirty() {
+    List<SaveReason> saves = new ArrayList<>();
+    JoobySession session = session("s1", saves);
+    session.set("a", "1");
+    session.complete();
+    assertEquals(Arrays.asList(SaveReason.DIRTY), saves);
+
+    session.access(2L);
+    session.unset();
+    session.complete();
+    assertEquals(Arrays.asList(SaveReason.DIRTY, SaveReason.DIRTY), saves);
+    assertEquals(Collections.emptyMap(), session.attributes());
+  }
+
+  /** Sessions created from the store start with one request. */
+  private static JoobySession session(final String id) {
+    return session(id, new ArrayList<>());
+  }
+
+  private static JoobySession session(final String id, final List<SaveReason> saves) {
+    JoobySessionManager manager = new JoobySessionManager(Session.Store.NOOP, null) {
+      @Override
+      void save(final JoobySession session, final SaveReason reason) {
+        saves.add(reason);
+      }
+    };
+    return new JoobySession(manager, 1L, 1L, id);
+  }
+
+}
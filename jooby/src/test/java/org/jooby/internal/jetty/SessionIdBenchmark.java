@@ -0,0 +1,104 @@
+package org.jooby.internal.jetty;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.eclipse.jetty.server.session.HashSessionIdManager;
+import org.jooby.Cookie;
+import org.jooby.Session;
+import org.jooby.Session.Builder;
+import org.jooby.Session.Store.SaveReason;
+
+/**
+ * Session ID generation under contention (think of a login peak). It compares Jetty's default
+ * generator (shared {@link java.security.SecureRandom} behind a global lock) with
+ * {@link JoobySessionIdManager} (thread generators), with and without signed IDs. It isn't a test,
+ * run it from your IDE or with:
+ *
+ * <pre>
+ *   mvn test-compile exec:java -Dexec.mainClass=org.jooby.internal.jetty.SessionIdBenchmark
+ *     -Dexec.classpathScope=test
+ * </pre>
+ */
+public class SessionIdBenchmark {
+
+  interface Op {
+    Object run() throws Exception;
+  }
+
+  private static final String SECRET = "d7c0a8b3-2b43-4b7e-9f0e-6cda1a0e6d3f";
+
+  private static final Session.Store STORE = new Session.Store() {
+    @Override
+    public Session get(final Builder builder) throws Exception {
+      return null;
+    }
+
+    @Override
+    public void save(final Session session, final SaveReason reason) throws Exception {
+    }
+
+    @Override
+    public void delete(final String id) throws Exception {
+    }
+  };
+
+  /** Keep results alive, so the JIT doesn't remove calls. */
+  private static volatile Object sink;
+
+  public static void main(final String[] args) throws Exception {
+    HashSessionIdManager jetty = new HashSessionIdManager();
+    jetty.start();
+    JoobySessionIdManager jooby = new JoobySessionIdManager(STORE, null);
+    jooby.start();
+    JoobySessionIdManager signed = new JoobySessionIdManager(STORE, new Cookie.Signer(SECRET));
+    signed.start();
+
+    for (int threads : new int[]{1, 64 }) {
+      System.out.printf("%d thread(s)%n", threads);
+      run("  jetty        ", threads, () -> jetty.newSessionId((HttpServletRequest) null, 0));
+      run("  jooby        ", threads, () -> jooby.newSessionId((HttpServletRequest) null, 0));
+      run("  jooby signed ", threads, () -> signed.newSessionId((HttpServletRequest) null, 0));
+    }
+
+    jetty.stop();
+    jooby.stop();
+    signed.stop();
+  }
+
+  private static void run(final String name, final int threads, final Op op) throws Exception {
+    // warm up
+    loop(threads, op, 2_000_000_000L);
+    long start = System.nanoTime();
+    long ops = loop(threads, op, 3_000_000_000L);
+    long elapsed = System.nanoTime() - start;
+    System.out.printf("%s %,12.0f ops/s %,8.0f ns/op%n", name,
+        ops / (elapsed / 1_000_000_000d), elapsed * threads / (double) ops);
+  }
+
+  private static long loop(final int threads, final Op op, final long nanos) throws Exception {
+    long[] ops = new long[threads];
+    Thread[] workers = new Thread[threads];
+    long end = System.nanoTime() + nanos;
+    for (int t = 0; t < threads; t++) {
+      int n = t;
+      workers[t] = new Thread(() -> {
+        try {
+          while (System.nanoTime() < end) {
+            sink = op.run();
+            ops[n]++;
+          }
+        } catch (Exception ex) {
+          throw new IllegalStateException(ex);
+        }
+      });
+      workers[t].start();
+    }
+    long total = 0;
+    for (int t = 0; t < threads; t++) {
+      workers[t].join();
+      total += ops[t];
+    }
+    return total;
+  }
+
+}
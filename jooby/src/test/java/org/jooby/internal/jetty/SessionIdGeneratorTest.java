@@ -0,0 +1,70 @@
+package org.jooby.internal.jetty;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class SessionIdGeneratorTest {
+
+  @Test
+  public void urlSafe128Bits() {
+    SessionIdGenerator ids = new SessionIdGenerator();
+    for (int i = 0; i < 1000; i++) {
+      String id = ids.next();
+      // 16 bytes in base64 without padding
+      assertEquals(22, id.length());
+      assertTrue(id, id.matches("[A-Za-z0-9_-]+"));
+    }
+  }
+
+  @Test
+  public void size() {
+    assertEquals(43, new SessionIdGenerator(32, SessionIdGenerator.RESEED).next().length());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooSmall() {
+    new SessionIdGenerator(8, SessionIdGenerator.RESEED);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void badReseed() {
+    new SessionIdGenerator(SessionIdGenerator.SIZE, 0);
+  }
+
+  @Test
+  public void uniqueWhileReseeding() {
+    SessionIdGenerator ids = new SessionIdGenerator(SessionIdGenerator.SIZE, 3);
+    Set<String> seen = ConcurrentHashMap.newKeySet();
+    for (int i = 0; i < 10000; i++) {
+      assertTrue(seen.add(ids.next()));
+    }
+  }
+
+  @Test
+  public void uniqueAcrossThreads() throws Exception {
+    SessionIdGenerator ids = new SessionIdGenerator();
+    Set<String> seen = ConcurrentHashMap.newKeySet();
+    int threads = 16;
+    int count = 5000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    for (int t = 0; t < threads; t++) {
+      executor.execute(() -> {
+        for (int i = 0; i < count; i++) {
+          seen.add(ids.next());
+        }
+      });
+    }
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+    assertEquals(threads * count, seen.size());
+  }
+
+}
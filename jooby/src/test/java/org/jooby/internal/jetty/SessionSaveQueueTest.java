@@ -0,0 +1,165 @@
+package org.jooby.internal.jetty;
+
+import static org.easymock.EasyMock.expectLastCall;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.jooby.MockUnit;
+import org.jooby.Session;
+import org.jooby.Session.Store.SaveReason;
+import org.junit.Test;
+
+public class SessionSaveQueueTest {
+
+  /** Record saves, block on first one until released. */
+  private static class Recorder implements Session.Store {
+
+    private final List<String> saves = new ArrayList<>();
+
+    private final CountDownLatch saving = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Override
+    public Session get(final Session.Builder builder) {
+      return null;
+    }
+
+    @Override
+    public synchronized void save(final Session session, final SaveReason reason)
+        throws Exception {
+      saving.countDown();
+      release.await();
+      saves.add(session.id() + ":" + reason);
+    }
+
+    @Override
+    public void delete(final String id) {
+    }
+  }
+
+  @Test
+  public void syncSave() throws Exception {
+    JoobySession session = session("sid");
+    new MockUnit(Session.Store.class)
+        .expect(unit -> {
+          unit.get(Session.Store.class).save(session, SaveReason.DIRTY);
+        })
+        .run(unit -> {
+          SessionSaveQueue queue = new SessionSaveQueue(0);
+          queue.start(unit.get(Session.Store.class));
+          queue.save(session, SaveReason.DIRTY);
+          assertEquals(0, queue.capacity());
+          assertEquals(0, queue.pending());
+          assertEquals(1, queue.saved());
+          assertEquals(0, queue.failed());
+          assertTrue(queue.maxSaveTime() >= queue.meanSaveTime());
+        });
+  }
+
+  @Test
+  public void failedSave() throws Exception {
+    JoobySession session = session("sid");
+    new MockUnit(Session.Store.class)
+        .expect(unit -> {
+          unit.get(Session.Store.class).save(session, SaveReason.DIRTY);
+          expectLastCall().andThrow(new IllegalStateException("intentional err"));
+        })
+        .run(unit -> {
+          SessionSaveQueue queue = new SessionSaveQueue(0);
+          queue.start(unit.get(Session.Store.class));
+          try {
+            queue.save(session, SaveReason.DIRTY);
+          } catch (IllegalStateException ex) {
+            assertEquals("intentional err", ex.getMessage());
+          }
+          assertEquals(0, queue.saved());
+          assertEquals(1, queue.failed());
+        });
+  }
+
+  @Test
+  public void coalesce() throws Exception {
+    Recorder store = new Recorder();
+    JoobySession s1 = session("s1");
+    JoobySession s2 = session("s2");
+
+    SessionSaveQueue queue = new SessionSaveQueue(10);
+    queue.start(store);
+    queue.save(s1, SaveReason.DIRTY);
+    // wait for writer to block on s1
+    store.saving.await();
+    assertEquals(s1, queue.get("s1"));
+
+    queue.save(s2, SaveReason.TIME);
+    queue.save(s2, SaveReason.DIRTY);
+    queue.save(s2, SaveReason.TIME);
+    assertEquals(1, queue.pending());
+    assertEquals(s2, queue.get("s2"));
+
+    store.release.countDown();
+    queue.stop();
+
+    assertEquals(0, queue.pending());
+    assertEquals(2, queue.saved());
+    assertEquals("[s1:DIRTY, s2:DIRTY]", store.saves.toString());
+  }
+
+  @Test
+  public void fullQueueSavesFromCaller() throws Exception {
+    Recorder store = new Recorder();
+    JoobySession s1 = session("s1");
+    JoobySession s2 = session("s2");
+    JoobySession s3 = session("s3");
+
+    SessionSaveQueue queue = new SessionSaveQueue(1);
+    queue.start(store);
+    queue.save(s1, SaveReason.DIRTY);
+    store.saving.await();
+    queue.save(s2, SaveReason.DIRTY);
+    assertEquals(1, queue.pending());
+
+    Thread caller = new Thread(() -> {
+      try {
+        queue.save(s3, SaveReason.DIRTY);
+      } catch (Exception ex) {
+        throw new IllegalStateException(ex);
+      }
+    });
+    caller.start();
+    store.release.countDown();
+    caller.join();
+    queue.stop();
+
+    assertEquals(3, queue.saved());
+    assertTrue(store.saves.contains("s3:DIRTY"));
+  }
+
+  @Test
+  public void removePending() throws Exception {
+    Recorder store = new Recorder();
+    JoobySession s1 = session("s1");
+    JoobySession s2 = session("s2");
+
+    SessionSaveQueue queue = new SessionSaveQueue(10);
+    queue.start(store);
+    queue.save(s1, SaveReason.DIRTY);
+    store.saving.await();
+    queue.save(s2, SaveReason.DIRTY);
+    queue.remove("s2");
+    assertEquals(0, queue.pending());
+
+    store.release.countDown();
+    queue.stop();
+    assertEquals("[s1:DIRTY]", store.saves.toString());
+  }
+
+  private static JoobySession session(final String id) {
+    return new JoobySession(new JoobySessionManager(Session.Store.NOOP, null), 1L, 1L, id);
+  }
+
+}
@@ -0,0 +1,114 @@
+package org.jooby.internal.jetty;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TimerWheelTest {
+
+  @Test
+  public void expireAtDeadline() {
+    TimerWheel<String> wheel = new TimerWheel<>(1000, 0);
+    wheel.add("a", 1000);
+    wheel.add("b", 1500);
+    wheel.add("c", 5000);
+
+    assertEquals(Collections.emptyList(), wheel.advance(999));
+    assertEquals(3, wheel.size());
+    assertEquals(Arrays.asList("a"), wheel.advance(1000));
+    // rounded up to next tick
+    assertEquals(Collections.emptyList(), wheel.advance(1999));
+    assertEquals(Arrays.asList("b"), wheel.advance(2000));
+    assertEquals(Arrays.asList("c"), wheel.advance(10000));
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  public void pastDeadline() {
+    TimerWheel<String> wheel = new TimerWheel<>(1000, 5000);
+    wheel.add("a", 1000);
+
+    assertEquals(Arrays.asList("a"), wheel.advance(5000));
+  }
+
+  @Test
+  public void cascade() {
+    TimerWheel<String> wheel = new TimerWheel<>(1, 0);
+    // one item per level, plus one beyond the wheel
+    long[] deadlines = {50, 3000, 200_000, 10_000_000, 20_000_000 };
+    for (long deadline : deadlines) {
+      wheel.add(String.valueOf(deadline), deadline);
+    }
+    wheel.advance(0);
+    assertEquals(deadlines.length, wheel.size());
+
+    for (long deadline : deadlines) {
+      assertEquals(Collections.emptyList(), wheel.advance(deadline - 1));
+      assertEquals(Arrays.asList(String.valueOf(deadline)), wheel.advance(deadline));
+    }
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  public void randomDeadlines() {
+    Random random = new Random(7);
+    long start = 1_000_000;
+    TimerWheel<Integer> wheel = new TimerWheel<>(10, start);
+    Map<Integer, Long> deadlines = new HashMap<>();
+    for (int i = 0; i < 10_000; i++) {
+      long deadline = start + random.nextInt(5_000_000);
+      deadlines.put(i, deadline);
+      wheel.add(i, deadline);
+    }
+
+    List<Integer> expired = new ArrayList<>();
+    for (long now = start; now <= start + 5_000_000; now += 1 + random.nextInt(5_000)) {
+      for (Integer it : wheel.advance(now)) {
+        long deadline = deadlines.get(it);
+        assertTrue(it + " expired too early", deadline <= now);
+        expired.add(it);
+      }
+    }
+    expired.addAll(wheel.advance(start + 5_000_010));
+    assertEquals(deadlines.size(), expired.size());
+    assertEquals(deadlines.size(), expired.stream().distinct().count());
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  public void concurrentAdd() throws Exception {
+    TimerWheel<Integer> wheel = new TimerWheel<>(1, 0);
+    Thread[] threads = new Thread[8];
+    for (int t = 0; t < threads.length; t++) {
+      int offset = t * 1000;
+      threads[t] = new Thread(() -> {
+        for (int i = 0; i < 1000; i++) {
+          wheel.add(offset + i, i + 1);
+        }
+      });
+      threads[t].start();
+    }
+    List<Integer> expired = new ArrayList<>();
+    for (Thread thread : threads) {
+      thread.join();
+      expired.addAll(wheel.advance(0));
+    }
+    expired.addAll(wheel.advance(1000));
+    assertEquals(8000, expired.stream().distinct().count());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void badTick() {
+    new TimerWheel<>(0, 0);
+  }
+
+}
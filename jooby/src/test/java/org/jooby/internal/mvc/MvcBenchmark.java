@@ -0,0 +1,91 @@
+package org.jooby.internal.mvc;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import org.jooby.MediaType;
+import org.jooby.Request;
+import org.jooby.Response;
+import org.jooby.internal.reqparam.RequestParam;
+import org.jooby.internal.reqparam.RequestParamNameProvider;
+import org.jooby.internal.reqparam.RequestParamProvider;
+import org.jooby.internal.reqparam.RequestParamProviderImpl;
+
+/**
+ * Dispatch cost of a MVC route (find the MVC instance, resolve parameter values and invoke the
+ * method). It compares the reflective dispatch (instance by class, parameter list resolved per
+ * request and {@link Method#invoke(Object, Object...)}) with {@link MvcHandler} (instance by
+ * precomputed key, parameters resolved at startup and a method handle). It isn't a test, run it
+ * from your IDE or with:
+ *
+ * <pre>
+ *   mvn test-compile exec:java -Dexec.mainClass=org.jooby.internal.mvc.MvcBenchmark
+ *     -Dexec.classpathScope=test
+ * </pre>
+ */
+public class MvcBenchmark {
+
+  interface Op {
+    Object run() throws Throwable;
+  }
+
+  public static class Resource {
+
+    public String hello(final Request req, final Response rsp) {
+      return req == null || rsp == null ? null : "hello";
+    }
+
+  }
+
+  /** Keep results alive, so the JIT doesn't remove calls. */
+  private static volatile Object sink;
+
+  public static void main(final String[] args) throws Throwable {
+    Resource resource = new Resource();
+    Request req = (Request) Proxy.newProxyInstance(Request.class.getClassLoader(),
+        new Class<?>[]{Request.class }, (proxy, method, arguments) -> resource);
+    Response rsp = (Response) Proxy.newProxyInstance(Response.class.getClassLoader(),
+        new Class<?>[]{Response.class }, (proxy, method, arguments) -> null);
+
+    Method method = Resource.class.getMethod("hello", Request.class, Response.class);
+    RequestParamProvider provider = new RequestParamProviderImpl(
+        new RequestParamNameProvider(null) {
+          @Override
+          public String name(final Parameter parameter) {
+            return parameter.getName();
+          }
+        });
+    MvcHandler handler = new MvcHandler(method, provider.parameters(method), MediaType.ALL);
+
+    run("reflection ", () -> {
+      Object target = req.getInstance(method.getDeclaringClass());
+      List<RequestParam> parameters = provider.parameters(method);
+      Object[] values = new Object[parameters.size()];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = parameters.get(i).value(req, rsp);
+      }
+      return method.invoke(target, values);
+    });
+    run("mvc handler", () -> handler.invoke(req, rsp));
+  }
+
+  private static void run(final String name, final Op op) throws Throwable {
+    // warm up
+    long end = System.nanoTime() + 2_000_000_000L;
+    while (System.nanoTime() < end) {
+      sink = op.run();
+    }
+    long ops = 0;
+    long start = System.nanoTime();
+    end = start + 3_000_000_000L;
+    while (System.nanoTime() < end) {
+      sink = op.run();
+      ops++;
+    }
+    double seconds = (System.nanoTime() - start) / 1_000_000_000d;
+    System.out.printf("%s %,14.0f ops/s%n", name, ops / seconds);
+  }
+
+}
@@ -0,0 +1,78 @@
+package org.jooby.internal.reqparam;
+
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.isA;
+import static org.junit.Assert.assertEquals;
+
+import org.jooby.Env;
+import org.jooby.MockUnit;
+import org.jooby.Mutant;
+import org.jooby.Request;
+import org.jooby.Response;
+import org.jooby.internal.RouteMetadata;
+import org.junit.Test;
+
+import com.google.inject.TypeLiteral;
+
+public class BeanParamInjectorTest {
+
+  public static class Bean {
+
+    public int age;
+
+  }
+
+  @Test
+  public void field() throws Exception {
+    new MockUnit(RouteMetadata.class, Env.class, Request.class, Response.class, Mutant.class)
+        .expect(env("prod"))
+        .expect(age(17))
+        .run(unit -> {
+          Bean bean = (Bean) new BeanParamInjector(unit.get(RouteMetadata.class),
+              unit.get(Env.class)).createAndInject(unit.get(Request.class), Bean.class);
+          assertEquals(17, bean.age);
+        });
+  }
+
+  @Test
+  public void fieldOnDev() throws Exception {
+    new MockUnit(RouteMetadata.class, Env.class, Request.class, Response.class, Mutant.class)
+        .expect(env("dev"))
+        .expect(age(17))
+        .run(unit -> {
+          Bean bean = (Bean) new BeanParamInjector(unit.get(RouteMetadata.class),
+              unit.get(Env.class)).createAndInject(unit.get(Request.class), Bean.class);
+          assertEquals(17, bean.age);
+        });
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nullPrimitiveField() throws Exception {
+    new MockUnit(RouteMetadata.class, Env.class, Request.class, Response.class, Mutant.class)
+        .expect(env("prod"))
+        .expect(age(null))
+        .run(unit -> {
+          new BeanParamInjector(unit.get(RouteMetadata.class), unit.get(Env.class))
+              .createAndInject(unit.get(Request.class), Bean.class);
+        });
+  }
+
+  private static MockUnit.Block env(final String name) {
+    return unit -> {
+      expect(unit.get(Env.class).name()).andReturn(name);
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  private static MockUnit.Block age(final Integer age) {
+    return unit -> {
+      Request req = unit.get(Request.class);
+      expect(req.getInstance(Response.class)).andReturn(unit.get(Response.class));
+
+      Mutant mutant = unit.get(Mutant.class);
+      expect(mutant.to(isA(TypeLiteral.class))).andReturn(age);
+      expect(req.param("age")).andReturn(mutant);
+    };
+  }
+
+}
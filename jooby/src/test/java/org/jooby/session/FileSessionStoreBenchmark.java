@@ -0,0 +1,127 @@
+package org.jooby.session;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jooby.Session;
+import org.jooby.Session.Store.SaveReason;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Save/get latency of {@link FileSessionStore} and recovery time with 1M sessions. It isn't a
+ * test, run it from your IDE or with:
+ *
+ * <pre>
+ *   mvn test-compile exec:java -Dexec.mainClass=org.jooby.session.FileSessionStoreBenchmark
+ *     -Dexec.classpathScope=test
+ * </pre>
+ */
+public class FileSessionStoreBenchmark {
+
+  interface Op {
+    Object run(int i) throws Exception;
+  }
+
+  private static final int SESSIONS = 1_000_000;
+
+  /** Keep results alive, so the JIT doesn't remove calls. */
+  private static volatile Object sink;
+
+  public static void main(final String[] args) throws Exception {
+    Path dir = Files.createTempDirectory("sessions");
+    Map<String, Object> attributes = ImmutableMap.of("user", "jooby", "role", "admin");
+    Session[] sessions = new Session[SESSIONS];
+    Session.Builder[] builders = new Session.Builder[SESSIONS];
+    for (int i = 0; i < SESSIONS; i++) {
+      sessions[i] = session("session-" + i, attributes);
+      builders[i] = builder("session-" + i);
+    }
+
+    try (FileSessionStore store = new FileSessionStore(dir, FileSessionStore.SEGMENT_SIZE, 0,
+        TimeUnit.SECONDS)) {
+      run("save ", i -> {
+        store.save(sessions[i], SaveReason.DIRTY);
+        return store;
+      });
+      run("get  ", i -> store.get(builders[i]));
+    }
+
+    long start = System.nanoTime();
+    try (FileSessionStore store = new FileSessionStore(dir, FileSessionStore.SEGMENT_SIZE, 0,
+        TimeUnit.SECONDS)) {
+      long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      System.out.printf("recovery of %,d sessions: %,d ms%n", store.size(), millis);
+      start = System.nanoTime();
+      store.compact();
+      millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      System.out.printf("compaction of %,d sessions: %,d ms%n", store.size(), millis);
+    }
+
+    try (FileSessionStore store = new FileSessionStore(dir, FileSessionStore.SEGMENT_SIZE, 0,
+        TimeUnit.SECONDS)) {
+      store.compact();
+      for (int i = 0; i < SESSIONS; i++) {
+        store.delete("session-" + i);
+      }
+      store.compact();
+    }
+    Files.delete(dir);
+  }
+
+  private static void run(final String name, final Op op) throws Exception {
+    // warm up
+    long end = System.nanoTime() + 2_000_000_000L;
+    int i = 0;
+    while (System.nanoTime() < end) {
+      sink = op.run(i++ % SESSIONS);
+    }
+    long ops = 0;
+    long start = System.nanoTime();
+    end = start + 3_000_000_000L;
+    while (System.nanoTime() < end) {
+      sink = op.run(i++ % SESSIONS);
+      ops++;
+    }
+    long elapsed = System.nanoTime() - start;
+    System.out.printf("%s %,12.0f ops/s %,8.0f ns/op%n", name, ops / (elapsed / 1_000_000_000d),
+        elapsed / (double) ops);
+  }
+
+  private static Session session(final String id, final Map<String, Object> attributes) {
+    return (Session) Proxy.newProxyInstance(Session.class.getClassLoader(),
+        new Class<?>[] {Session.class }, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "id":
+              return id;
+            case "attributes":
+              return attributes;
+            case "expiryAt":
+              return -1L;
+            case "createdAt":
+            case "accessedAt":
+              return 1L;
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+  }
+
+  private static Session.Builder builder(final String id) {
+    return (Session.Builder) Proxy.newProxyInstance(Session.class.getClassLoader(),
+        new Class<?>[] {Session.Builder.class }, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "sessionId":
+              return id;
+            case "build":
+              return null;
+            default:
+              return proxy;
+          }
+        });
+  }
+
+}
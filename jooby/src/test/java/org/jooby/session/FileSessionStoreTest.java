@@ -0,0 +1,269 @@
+package org.jooby.session;
+
+import static org.easymock.EasyMock.expect;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.jooby.MockUnit;
+import org.jooby.Session;
+import org.jooby.Session.Store.SaveReason;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+public class FileSessionStoreTest {
+
+  @Rule
+  public TemporaryFolder tmp = new TemporaryFolder();
+
+  @Test
+  public void saveAndGet() throws Exception {
+    Map<String, Object> attributes = ImmutableMap.of("a", "1", "b", Strings.repeat("x", 300));
+    try (FileSessionStore store = newStore()) {
+      save(store, "sid", attributes, 10L, 20L, -1L);
+      assertEquals(1, store.size());
+      get(store, "sid", attributes, 10L, 20L);
+    }
+  }
+
+  @Test
+  public void saveOverrides() throws Exception {
+    try (FileSessionStore store = newStore()) {
+      save(store, "sid", ImmutableMap.of("a", "1"), 10L, 20L, -1L);
+      save(store, "sid", ImmutableMap.of("a", "2"), 10L, 30L, -1L);
+      assertEquals(1, store.size());
+      get(store, "sid", ImmutableMap.of("a", "2"), 10L, 30L);
+    }
+  }
+
+  @Test
+  public void delete() throws Exception {
+    try (FileSessionStore store = newStore()) {
+      save(store, "sid", ImmutableMap.of("a", "1"), 10L, 20L, -1L);
+      store.delete("sid");
+      assertEquals(0, store.size());
+      assertNull(get(store, "sid"));
+    }
+  }
+
+  @Test
+  public void expired() throws Exception {
+    try (FileSessionStore store = newStore()) {
+      save(store, "sid", ImmutableMap.of("a", "1"), 10L, 20L, 30L);
+      assertNull(get(store, "sid"));
+      assertEquals(0, store.size());
+    }
+  }
+
+  @Test
+  public void recover() throws Exception {
+    try (FileSessionStore store = newStore()) {
+      save(store, "s1", ImmutableMap.of("a", "1"), 10L, 20L, -1L);
+      save(store, "s2", ImmutableMap.of("a", "2"), 10L, 20L, -1L);
+      save(store, "s3", ImmutableMap.of("a", "3"), 10L, 20L, 30L);
+      save(store, "s1", ImmutableMap.of("a", "4"), 10L, 40L, -1L);
+      store.delete("s2");
+    }
+    try (FileSessionStore store = newStore()) {
+      assertEquals(1, store.size());
+      get(store, "s1", ImmutableMap.of("a", "4"), 10L, 40L);
+    }
+  }
+
+  @Test
+  public void recoverAndAppend() throws Exception {
+    try (FileSessionStore store = newStore()) {
+      save(store, "s1", ImmutableMap.of("a", "1"), 10L, 20L, -1L);
+    }
+    try (FileSessionStore store = newStore()) {
+      save(store, "s2", ImmutableMap.of("a", "2"), 10L, 20L, -1L);
+    }
+    try (FileSessionStore store = newStore()) {
+      assertEquals(2, store.size());
+      get(store, "s1", ImmutableMap.of("a", "1"), 10L, 20L);
+      get(store, "s2", ImmutableMap.of("a", "2"), 10L, 20L);
+    }
+  }
+
+  @Test
+  public void rollSegments() throws Exception {
+    Map<String, Object> attributes = ImmutableMap.of("a", Strings.repeat("x", 300));
+    try (FileSessionStore store = newStore()) {
+      for (int i = 0; i < 20; i++) {
+        save(store, "s" + i, attributes, 10L, 20L, -1L);
+      }
+    }
+    assertEquals(5, tmp.getRoot().listFiles().length);
+    try (FileSessionStore store = newStore()) {
+      assertEquals(20, store.size());
+      get(store, "s0", attributes, 10L, 20L);
+      get(store, "s19", attributes, 10L, 20L);
+    }
+  }
+
+  @Test
+  public void compact() throws Exception {
+    Map<String, Object> attributes = ImmutableMap.of("a", Strings.repeat("x", 300));
+    try (FileSessionStore store = newStore()) {
+      for (int i = 0; i < 20; i++) {
+        save(store, "s" + i, attributes, 10L, 20L, -1L);
+      }
+      for (int i = 1; i < 20; i++) {
+        store.delete("s" + i);
+      }
+      store.compact();
+      File[] files = tmp.getRoot().listFiles();
+      assertEquals(1, files.length);
+      assertEquals("segment-0000000000000000007.log", files[0].getName());
+      get(store, "s0", attributes, 10L, 20L);
+    }
+    try (FileSessionStore store = newStore()) {
+      assertEquals(1, store.size());
+      get(store, "s0", attributes, 10L, 20L);
+    }
+  }
+
+  @Test
+  public void saveDelta() throws Exception {
+    try (FileSessionStore store = newStore()) {
+      save(store, "sid", ImmutableMap.of("a", "1", "b", "2"), 10L, 20L, -1L);
+      delta(store, "sid", ImmutableMap.of("a", "1", "c", "3"), ImmutableSet.of("c"),
+          ImmutableSet.of("b"), 10L, 30L);
+      delta(store, "sid", ImmutableMap.of("a", "4", "c", "3"), ImmutableSet.of("a"),
+          ImmutableSet.of(), 10L, 40L);
+      assertEquals(1, store.size());
+      get(store, "sid", ImmutableMap.of("a", "4", "c", "3"), 10L, 40L);
+    }
+    // recover
+    try (FileSessionStore store = newStore()) {
+      get(store, "sid", ImmutableMap.of("a", "4", "c", "3"), 10L, 40L);
+      // merge deltas
+      store.compact();
+      get(store, "sid", ImmutableMap.of("a", "4", "c", "3"), 10L, 40L);
+    }
+    try (FileSessionStore store = newStore()) {
+      get(store, "sid", ImmutableMap.of("a", "4", "c", "3"), 10L, 40L);
+    }
+  }
+
+  @Test
+  public void saveDeltaWithoutFullRecord() throws Exception {
+    try (FileSessionStore store = newStore()) {
+      new MockUnit(Session.class)
+          .expect(unit -> {
+            Session session = unit.get(Session.class);
+            expect(session.id()).andReturn("sid").times(2);
+            expect(session.attributes()).andReturn(ImmutableMap.of("a", "1")).times(2);
+            expect(session.createdAt()).andReturn(10L);
+            expect(session.accessedAt()).andReturn(20L);
+            expect(session.expiryAt()).andReturn(-1L);
+          })
+          .run(unit -> store.saveDelta(unit.get(Session.class), ImmutableSet.of("a"),
+              ImmutableSet.of()));
+      get(store, "sid", ImmutableMap.of("a", "1"), 10L, 20L);
+    }
+  }
+
+  @Test
+  public void deleteDelta() throws Exception {
+    try (FileSessionStore store = newStore()) {
+      save(store, "sid", ImmutableMap.of("a", "1"), 10L, 20L, -1L);
+      delta(store, "sid", ImmutableMap.of("a", "2"), ImmutableSet.of("a"), ImmutableSet.of(),
+          10L, 30L);
+      store.delete("sid");
+      assertNull(get(store, "sid"));
+    }
+    try (FileSessionStore store = newStore()) {
+      assertEquals(0, store.size());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooLarge() throws Exception {
+    try (FileSessionStore store = newStore()) {
+      save(store, "sid", ImmutableMap.of("a", Strings.repeat("x", 3000)), 10L, 20L, -1L);
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void closed() throws Exception {
+    FileSessionStore store = newStore();
+    save(store, "sid", ImmutableMap.of("a", "1"), 10L, 20L, -1L);
+    store.close();
+    // close twice is fine
+    store.close();
+    store.delete("sid");
+  }
+
+  private FileSessionStore newStore() {
+    Path dir = tmp.getRoot().toPath();
+    return new FileSessionStore(dir, 2048, 0, TimeUnit.SECONDS);
+  }
+
+  private void save(final FileSessionStore store, final String id,
+      final Map<String, Object> attributes, final long createdAt, final long accessedAt,
+      final long expiryAt) throws Exception {
+    new MockUnit(Session.class)
+        .expect(unit -> {
+          Session session = unit.get(Session.class);
+          expect(session.id()).andReturn(id);
+          expect(session.attributes()).andReturn(attributes);
+          expect(session.createdAt()).andReturn(createdAt);
+          expect(session.accessedAt()).andReturn(accessedAt);
+          expect(session.expiryAt()).andReturn(expiryAt);
+        })
+        .run(unit -> store.save(unit.get(Session.class), SaveReason.NEW));
+  }
+
+  private void delta(final FileSessionStore store, final String id,
+      final Map<String, Object> attributes, final Set<String> changed, final Set<String> removed,
+      final long createdAt, final long accessedAt) throws Exception {
+    new MockUnit(Session.class)
+        .expect(unit -> {
+          Session session = unit.get(Session.class);
+          expect(session.id()).andReturn(id);
+          expect(session.attributes()).andReturn(attributes);
+          expect(session.createdAt()).andReturn(createdAt);
+          expect(session.accessedAt()).andReturn(accessedAt);
+          expect(session.expiryAt()).andReturn(-1L);
+        })
+        .run(unit -> store.saveDelta(unit.get(Session.class), changed, removed));
+  }
+
+  private void get(final FileSessionStore store, final String id,
+      final Map<String, Object> attributes, final long createdAt, final long accessedAt)
+      throws Exception {
+    new MockUnit(Session.class, Session.Builder.class)
+        .expect(unit -> {
+          Session.Builder builder = unit.get(Session.Builder.class);
+          expect(builder.sessionId()).andReturn(id);
+          expect(builder.set(attributes)).andReturn(builder);
+          expect(builder.createdAt(createdAt)).andReturn(builder);
+          expect(builder.accessedAt(accessedAt)).andReturn(builder);
+          expect(builder.build()).andReturn(unit.get(Session.class));
+        })
+        .run(unit -> assertEquals(unit.get(Session.class),
+            store.get(unit.get(Session.Builder.class))));
+  }
+
+  private Session get(final FileSessionStore store, final String id) throws Exception {
+    Session[] result = new Session[1];
+    new MockUnit(Session.Builder.class)
+        .expect(unit -> {
+          expect(unit.get(Session.Builder.class).sessionId()).andReturn(id);
+        })
+        .run(unit -> result[0] = store.get(unit.get(Session.Builder.class)));
+    return result[0];
+  }
+
+}
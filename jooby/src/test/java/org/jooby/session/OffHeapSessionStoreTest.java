@@ -0,0 +1,160 @@
+package org.jooby.session;
+
+import static org.easymock.EasyMock.expect;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.jooby.MockUnit;
+import org.jooby.Session;
+import org.jooby.Session.Store.SaveReason;
+import org.junit.Test;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+
+public class OffHeapSessionStoreTest {
+
+  @Test
+  public void saveAndGet() throws Exception {
+    OffHeapSessionStore store = new OffHeapSessionStore(4096, 64);
+    Map<String, Object> attributes = ImmutableMap.of("a", "1", "b", Strings.repeat("x", 300));
+    new MockUnit(Session.class, Session.Builder.class)
+        .expect(session(attributes, 10L, 20L, -1L))
+        .expect(unit -> {
+          Session.Builder builder = unit.get(Session.Builder.class);
+          expect(builder.sessionId()).andReturn("sid");
+          expect(builder.set(attributes)).andReturn(builder);
+          expect(builder.createdAt(10L)).andReturn(builder);
+          expect(builder.accessedAt(20L)).andReturn(builder);
+          expect(builder.build()).andReturn(unit.get(Session.class));
+        })
+        .run(unit -> {
+          store.save(unit.get(Session.class), SaveReason.NEW);
+          assertEquals(1, store.size());
+          assertEquals(unit.get(Session.class), store.get(unit.get(Session.Builder.class)));
+        });
+  }
+
+  @Test
+  public void delete() throws Exception {
+    OffHeapSessionStore store = new OffHeapSessionStore(4096, 64);
+    new MockUnit(Session.class)
+        .expect(session(ImmutableMap.of("a", "1"), 10L, 20L, -1L))
+        .run(unit -> {
+          store.save(unit.get(Session.class), SaveReason.NEW);
+          assertEquals(1, store.size());
+          store.delete("sid");
+          assertEquals(0, store.size());
+          assertEquals(4096, store.free());
+        });
+  }
+
+  @Test
+  public void expired() throws Exception {
+    OffHeapSessionStore store = new OffHeapSessionStore(4096, 64);
+    new MockUnit(Session.class, Session.Builder.class)
+        .expect(session(ImmutableMap.of("a", "1"), 10L, 20L, 30L))
+        .expect(unit -> {
+          Session.Builder builder = unit.get(Session.Builder.class);
+          expect(builder.sessionId()).andReturn("sid");
+        })
+        .run(unit -> {
+          store.save(unit.get(Session.class), SaveReason.NEW);
+          assertNull(store.get(unit.get(Session.Builder.class)));
+          assertEquals(0, store.size());
+        });
+  }
+
+  @Test
+  public void evictLeastRecentlyUsed() throws Exception {
+    // room for two sessions
+    OffHeapSessionStore store = new OffHeapSessionStore(1024, 512);
+    Map<String, Object> attributes = ImmutableMap.of("a", "1");
+    for (int i = 0; i < 3; i++) {
+      String id = "s" + i;
+      new MockUnit(Session.class)
+          .expect(unit -> {
+            Session session = unit.get(Session.class);
+            expect(session.id()).andReturn(id);
+            expect(session.attributes()).andReturn(attributes);
+            expect(session.createdAt()).andReturn(1L);
+            expect(session.accessedAt()).andReturn(1L);
+            expect(session.expiryAt()).andReturn(-1L);
+          })
+          .run(unit -> store.save(unit.get(Session.class), SaveReason.NEW));
+    }
+    assertEquals(2, store.size());
+    assertEquals(1, store.evictions());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooLarge() throws Exception {
+    OffHeapSessionStore store = new OffHeapSessionStore(512, 512);
+    new MockUnit(Session.class)
+        .expect(unit -> {
+          Session session = unit.get(Session.class);
+          expect(session.id()).andReturn("sid");
+          expect(session.attributes()).andReturn(ImmutableMap.of("a", Strings.repeat("x", 600)));
+        })
+        .run(unit -> store.save(unit.get(Session.class), SaveReason.NEW));
+  }
+
+  @Test
+  public void segments() throws Exception {
+    // 4 segments of 1024 blocks
+    OffHeapSessionStore store = new OffHeapSessionStore(4 * 1024 * 64, 64, 4);
+    Map<String, Object> attributes = ImmutableMap.of("a", "1");
+    for (int i = 0; i < 100; i++) {
+      String id = "s" + i;
+      new MockUnit(Session.class)
+          .expect(unit -> {
+            Session session = unit.get(Session.class);
+            expect(session.id()).andReturn(id);
+            expect(session.attributes()).andReturn(attributes);
+            expect(session.createdAt()).andReturn(1L);
+            expect(session.accessedAt()).andReturn(1L);
+            expect(session.expiryAt()).andReturn(-1L);
+          })
+          .run(unit -> store.save(unit.get(Session.class), SaveReason.NEW));
+    }
+    assertEquals(100, store.size());
+    assertEquals(0, store.evictions());
+    assertTrue(store.free() < 4 * 1024 * 64);
+    for (int i = 0; i < 100; i++) {
+      String id = "s" + i;
+      store.delete(id);
+    }
+    assertEquals(0, store.size());
+    assertEquals(4 * 1024 * 64, store.free());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooLargeForSegment() throws Exception {
+    // 2 segments of 64k
+    OffHeapSessionStore store = new OffHeapSessionStore(2 * 1024 * 64, 64, 2);
+    new MockUnit(Session.class)
+        .expect(unit -> {
+          Session session = unit.get(Session.class);
+          expect(session.id()).andReturn("sid");
+          expect(session.attributes())
+              .andReturn(ImmutableMap.of("a", Strings.repeat("x", 70000)));
+        })
+        .run(unit -> store.save(unit.get(Session.class), SaveReason.NEW));
+  }
+
+  private MockUnit.Block session(final Map<String, Object> attributes, final long createdAt,
+      final long accessedAt, final long expiryAt) {
+    return unit -> {
+      Session session = unit.get(Session.class);
+      expect(session.id()).andReturn("sid");
+      expect(session.attributes()).andReturn(attributes);
+      expect(session.createdAt()).andReturn(createdAt);
+      expect(session.accessedAt()).andReturn(accessedAt);
+      expect(session.expiryAt()).andReturn(expiryAt);
+    };
+  }
+
+}